@@ -0,0 +1,108 @@
+package com.empresa.gestionempleados.admision;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Control de admisión delante de la capa JPA: las lecturas (GET, HEAD, OPTIONS) y las escrituras
+ * tienen cada una su {@link LimiteAdaptativo}, así una ráfaga de consultas no deja sin lugar a las
+ * altas ni al revés. Una petición que no consigue lugar dentro de la espera máxima se rechaza con
+ * SERVICE_UNAVAILABLE y {@code Retry-After}, en lugar de seguir encolándose en Tomcat y en Hikari.
+ * <p>
+ * Publica por tipo ({@code tipo=lectura|escritura}) el límite vigente ({@value #LIMITE}), las
+ * peticiones en curso ({@value #EN_VUELO}) y los rechazos ({@value #RECHAZOS}).
+ */
+public class ControlAdmisionFilter extends OncePerRequestFilter {
+    static final String LIMITE = "gestion.admision.limite";
+    static final String EN_VUELO = "gestion.admision.en-vuelo";
+    static final String RECHAZOS = "gestion.admision.rechazos";
+    private static final Set<String> METODOS_LECTURA = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Presupuesto lectura;
+    private final Presupuesto escritura;
+    private final long esperaMaximaNanos;
+    private final String reintentarDespues;
+
+    private record Presupuesto(LimiteAdaptativo limite, Counter rechazos) {
+
+        static Presupuesto registrar(String tipo, LimiteAdaptativo limite, MeterRegistry registry){
+            Gauge.builder(LIMITE, limite, LimiteAdaptativo::getLimite).tag("tipo", tipo).register(registry);
+            Gauge.builder(EN_VUELO, limite, LimiteAdaptativo::getEnVuelo).tag("tipo", tipo).register(registry);
+            return new Presupuesto(limite, Counter.builder(RECHAZOS).tag("tipo", tipo).register(registry));
+        }
+    }
+
+    public ControlAdmisionFilter(LimiteAdaptativo lectura, LimiteAdaptativo escritura, Duration esperaMaxima,
+                                 Duration reintentarDespues, MeterRegistry registry){
+        this.lectura = Presupuesto.registrar("lectura", lectura, registry);
+        this.escritura = Presupuesto.registrar("escritura", escritura, registry);
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.reintentarDespues = String.valueOf(Math.max(1, reintentarDespues.toSeconds()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Presupuesto presupuesto = METODOS_LECTURA.contains(request.getMethod()) ? lectura : escritura;
+        LimiteAdaptativo.Permiso permiso;
+        try {
+            permiso = presupuesto.limite().adquirir(esperaMaximaNanos);
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            permiso = null;
+        }
+        if(permiso == null){
+            presupuesto.rechazos().increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, reintentarDespues);
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if(request.isAsyncStarted()){
+                // Respuestas asíncronas (exportación NDJSON): ocupan el lugar hasta terminar de escribir,
+                // pero su duración no dice nada de la carga y no ajusta el límite.
+                request.getAsyncContext().addListener(liberarAlTerminar(permiso));
+            } else {
+                permiso.close();
+            }
+        }
+    }
+
+    private static AsyncListener liberarAlTerminar(LimiteAdaptativo.Permiso permiso){
+        return new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event){
+                permiso.descartar();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event){
+                permiso.descartar();
+            }
+
+            @Override
+            public void onError(AsyncEvent event){
+                permiso.descartar();
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event){
+            }
+        };
+    }
+}
@@ -0,0 +1,150 @@
+package com.empresa.gestionempleados.admision;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Límite de concurrencia que se ajusta con AIMD según la latencia observada.
+ * <p>
+ * Cada petición que termina por debajo de la latencia objetivo, con al menos la mitad del límite en
+ * uso, suma {@code 1/límite}: aproximadamente uno por cada ronda completa de peticiones. Una
+ * petición que la supera multiplica el límite por {@value #FACTOR_REDUCCION}, y solo si entró con el
+ * límite vigente, así que una tanda de respuestas lentas lo reduce una vez y no tantas como
+ * peticiones haya en vuelo. El límite queda entre el mínimo y el máximo configurados.
+ * <p>
+ * Las peticiones que encuentran el límite ocupado esperan su turno hasta la espera máxima; si no lo
+ * consiguen, se rechazan.
+ */
+public class LimiteAdaptativo {
+    static final double FACTOR_REDUCCION = 0.9;
+
+    private final int minimo;
+    private final int maximo;
+    private final long latenciaObjetivoNanos;
+    private final LongSupplier reloj;
+    private final ReentrantLock candado = new ReentrantLock();
+    private final Condition liberado = candado.newCondition();
+    private double limite;
+    private int enVuelo;
+    private long reducciones;
+
+    public LimiteAdaptativo(int inicial, int minimo, int maximo, long latenciaObjetivoNanos){
+        this(inicial, minimo, maximo, latenciaObjetivoNanos, System::nanoTime);
+    }
+
+    LimiteAdaptativo(int inicial, int minimo, int maximo, long latenciaObjetivoNanos, LongSupplier reloj){
+        if(minimo < 1 || minimo > maximo){
+            throw new IllegalArgumentException("Límites inválidos: mínimo " + minimo + ", máximo " + maximo);
+        }
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.latenciaObjetivoNanos = latenciaObjetivoNanos;
+        this.reloj = reloj;
+        this.limite = Math.clamp(inicial, minimo, maximo);
+    }
+
+    /**
+     * Lugar ocupado por una petición; se devuelve con {@link #close()} al terminar.
+     */
+    public final class Permiso implements AutoCloseable {
+        private final long inicio;
+        private final int enVueloAlEntrar;
+        private final long reduccionesAlEntrar;
+        private final AtomicBoolean cerrado = new AtomicBoolean();
+
+        private Permiso(long inicio, int enVueloAlEntrar, long reduccionesAlEntrar){
+            this.inicio = inicio;
+            this.enVueloAlEntrar = enVueloAlEntrar;
+            this.reduccionesAlEntrar = reduccionesAlEntrar;
+        }
+
+        @Override
+        public void close(){
+            if(cerrado.compareAndSet(false, true)){
+                liberar(this, reloj.getAsLong() - inicio, true);
+            }
+        }
+
+        /**
+         * Devuelve el lugar sin que su duración ajuste el límite, para trabajos largos por naturaleza.
+         */
+        public void descartar(){
+            if(cerrado.compareAndSet(false, true)){
+                liberar(this, 0, false);
+            }
+        }
+    }
+
+    /**
+     * @param esperaNanos tiempo máximo de espera si el límite está ocupado
+     * @return el permiso, o null si no hubo lugar dentro de la espera
+     */
+    public Permiso adquirir(long esperaNanos) throws InterruptedException {
+        candado.lockInterruptibly();
+        try {
+            long restante = esperaNanos;
+            while (enVuelo >= (int) limite){
+                if(restante <= 0){
+                    return null;
+                }
+                restante = liberado.awaitNanos(restante);
+            }
+            enVuelo++;
+            return new Permiso(reloj.getAsLong(), enVuelo, reducciones);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    private void liberar(Permiso permiso, long latenciaNanos, boolean muestra){
+        candado.lock();
+        try {
+            enVuelo--;
+            int anterior = (int) limite;
+            if(muestra){
+                ajustar(permiso, latenciaNanos);
+            }
+            if((int) limite > anterior){
+                liberado.signalAll();
+            } else {
+                liberado.signal();
+            }
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Debe llamarse con el candado tomado.
+     */
+    private void ajustar(Permiso permiso, long latenciaNanos){
+        if(latenciaNanos > latenciaObjetivoNanos){
+            if(permiso.reduccionesAlEntrar == reducciones){
+                limite = Math.max(minimo, limite * FACTOR_REDUCCION);
+                reducciones++;
+            }
+        } else if(permiso.enVueloAlEntrar * 2 >= limite){
+            limite = Math.min(maximo, limite + 1 / limite);
+        }
+    }
+
+    public int getLimite(){
+        candado.lock();
+        try {
+            return (int) limite;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    public int getEnVuelo(){
+        candado.lock();
+        try {
+            return enVuelo;
+        } finally {
+            candado.unlock();
+        }
+    }
+}
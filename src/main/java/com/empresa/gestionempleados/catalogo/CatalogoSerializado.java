@@ -0,0 +1,178 @@
+package com.empresa.gestionempleados.catalogo;
+
+import com.empresa.gestionempleados.formato.FormatoRespuesta;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respuesta JSON ya serializada de un catálogo chico que se pide mucho (departamentos, proyectos),
+ * junto con su versión gzip. Se guarda como arreglos de bytes que no cambian y se arma de nuevo
+ * solo cuando cambia la generación de la entidad, que los servicios incrementan al confirmar cada
+ * escritura: mientras tanto cada petición copia los bytes a la respuesta sin consultar la base ni
+ * pasar por Jackson.
+ * <p>
+ * La generación se lee antes de cargar los datos, así que lo guardado nunca es más viejo que su
+ * generación. Si varias peticiones encuentran la generación cambiada, una arma la respuesta y las
+ * demás esperan y la reutilizan.
+ * <p>
+ * Solo cubre JSON: un cliente que pide otro formato por Accept pasa por la negociación normal,
+ * con el ETag de ese formato (ver {@link FormatoRespuesta}). Como el cuerpo depende de Accept, las
+ * respuestas lo indican en Vary.
+ * <p>
+ * La versión gzip lleva su propio ETag fuerte, con el sufijo {@code -gz}: sus bytes son otros, y un
+ * ETag fuerte compartido permitiría a un caché mezclar rangos o validaciones de las dos versiones.
+ */
+public class CatalogoSerializado<T> {
+
+    /**
+     * @param generacion Generación de la entidad con que se cargaron los datos
+     * @param etag ETag de la respuesta
+     * @param json Cuerpo JSON
+     * @param gzip Cuerpo JSON comprimido, o null si comprimido no es más chico
+     */
+    public record Instantanea(String generacion, String etag, byte[] json, byte[] gzip) {
+    }
+
+    private final String nombre;
+    private final Supplier<String> generacion;
+    private final Supplier<T> cargar;
+    private final ObjectMapper objectMapper;
+    private final ReentrantLock armado = new ReentrantLock();
+    private volatile Instantanea actual;
+
+    /**
+     * @param nombre Prefijo del ETag
+     * @param generacion Generación actual de la entidad
+     * @param cargar Lectura del catálogo desde el servicio
+     */
+    public CatalogoSerializado(String nombre, Supplier<String> generacion, Supplier<T> cargar, ObjectMapper objectMapper){
+        this.nombre = nombre;
+        this.generacion = generacion;
+        this.cargar = cargar;
+        this.objectMapper = objectMapper;
+    }
+
+    public String etag(String generacion){
+        return etag(generacion, FormatoRespuesta.JSON);
+    }
+
+    public String etag(String generacion, FormatoRespuesta formato){
+        return formato.etag(nombre + "-" + generacion);
+    }
+
+    public String etagGzip(String generacion){
+        return "\"" + nombre + "-" + generacion + "-gz\"";
+    }
+
+    /**
+     * Compara If-None-Match con el ETag del formato pedido y, en JSON, de la versión que el cliente
+     * validó, comprimida o no, y deja ese mismo ETag en la respuesta 304.
+     * @return Si la respuesta ya quedó resuelta como NOT_MODIFIED
+     */
+    public boolean noModificado(String generacion, FormatoRespuesta formato, WebRequest request){
+        if(formato != FormatoRespuesta.JSON){
+            return request.checkNotModified(etag(generacion, formato));
+        }
+        String etagGzip = etagGzip(generacion);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if(ifNoneMatch != null && ifNoneMatch.contains(etagGzip)){
+            return request.checkNotModified(etagGzip);
+        }
+        return request.checkNotModified(etag(generacion));
+    }
+
+    /**
+     * @return La respuesta de la generación actual, armándola si cambió desde la anterior
+     */
+    public Instantanea actual(){
+        String vigente = generacion.get();
+        Instantanea instantanea = actual;
+        if(instantanea != null && Objects.equals(instantanea.generacion(), vigente)){
+            return instantanea;
+        }
+        armado.lock();
+        try {
+            instantanea = actual;
+            vigente = generacion.get();
+            if(instantanea == null || !Objects.equals(instantanea.generacion(), vigente)){
+                instantanea = armar(vigente);
+                actual = instantanea;
+            }
+            return instantanea;
+        } finally {
+            armado.unlock();
+        }
+    }
+
+    /**
+     * Escribe los bytes guardados directamente en la respuesta, en gzip si el cliente lo acepta y la
+     * versión comprimida existe. El controlador devuelve null después, como con NOT_MODIFIED, para
+     * poder declarar el tipo de la lista en los demás formatos (ver {@link FormatoRespuesta}).
+     */
+    public void responder(Instantanea instantanea, WebRequest request, HttpServletResponse response){
+        byte[] cuerpo = instantanea.json();
+        String etag = instantanea.etag();
+        if(instantanea.gzip() != null && aceptaGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))){
+            cuerpo = instantanea.gzip();
+            etag = etagGzip(instantanea.generacion());
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setContentLength(cuerpo.length);
+        try {
+            response.getOutputStream().write(cuerpo);
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Instantanea armar(String vigente){
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(cargar.get());
+            byte[] gzip = comprimir(json);
+            return new Instantanea(vigente, etag(vigente), json, gzip.length < json.length ? gzip : null);
+        } catch (JsonProcessingException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] comprimir(byte[] datos){
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream(datos.length / 2 + 32);
+        try (GZIPOutputStream salida = new GZIPOutputStream(comprimido)){
+            salida.write(datos);
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+        return comprimido.toByteArray();
+    }
+
+    static boolean aceptaGzip(String acceptEncoding){
+        if(acceptEncoding == null){
+            return false;
+        }
+        for (String codificacion : acceptEncoding.split(",")){
+            String[] partes = codificacion.trim().split(";");
+            String nombre = partes[0].trim();
+            if(nombre.equalsIgnoreCase("gzip") || nombre.equals("*")){
+                return partes.length == 1 || !partes[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,98 @@
+package com.empresa.gestionempleados.coalescencia;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Agrupa las llamadas concurrentes e idénticas a métodos {@link Coalescente} (single-flight): la
+ * primera ejecuta el método y las que llegan mientras tanto con los mismos argumentos esperan y
+ * reciben su resultado o su excepción. Una llamada que llega después de que termine vuelve a
+ * ejecutarlo, así que no es una caché: una llamada recibe a lo sumo el resultado de una ejecución
+ * que empezó antes que ella.
+ * <p>
+ * Para las lecturas que se guardan o se responden con el ETag de una generación eso no alcanza: la
+ * ejecución pudo empezar antes de una escritura ya confirmada, y sus datos quedarían asociados a la
+ * generación nueva. Por eso la clave incluye las generaciones de {@link Coalescente#generaciones()},
+ * leídas al llegar: quien ya ve una generación nueva no se suma a una ejecución de la anterior.
+ * <p>
+ * Se aplica por fuera de {@code @Transactional} (cuyo orden es el último), para que las llamadas que esperan no tomen una
+ * conexión, y no se aplica si ya hay una transacción en curso: esa llamada podría tener que ver sus
+ * propios cambios sin confirmar.
+ * <p>
+ * Cuenta las llamadas en {@value #LLAMADAS} por {@code metodo} y {@code resultado}
+ * ({@code ejecutada} o {@code compartida}); la proporción agrupada es compartidas sobre el total.
+ */
+@Aspect
+@Order(0)
+public class CoalescenciaAspect {
+    static final String LLAMADAS = "gestion.coalescencia.llamadas";
+
+    private record Clave(String metodo, List<Object> argumentos, List<String> generaciones) {
+    }
+
+    private final MeterRegistry registry;
+    private final Predicate<String> habilitado;
+    private final Function<Class<?>, String> generacion;
+    private final Map<Clave, CompletableFuture<Object>> enCurso = new ConcurrentHashMap<>();
+
+    /**
+     * @param habilitado decide por nombre de método si se agrupan sus llamadas
+     * @param generacion generación actual de una entidad
+     */
+    public CoalescenciaAspect(MeterRegistry registry, Predicate<String> habilitado, Function<Class<?>, String> generacion){
+        this.registry = registry;
+        this.habilitado = habilitado;
+        this.generacion = generacion;
+    }
+
+    @Around("@annotation(com.empresa.gestionempleados.coalescencia.Coalescente)")
+    public Object agrupar(ProceedingJoinPoint joinPoint) throws Throwable {
+        Coalescente coalescente = ((MethodSignature) joinPoint.getSignature()).getMethod().getAnnotation(Coalescente.class);
+        String metodo = coalescente.value();
+        if(!habilitado.test(metodo) || TransactionSynchronizationManager.isActualTransactionActive()){
+            return joinPoint.proceed();
+        }
+        Clave clave = new Clave(metodo, Arrays.asList(joinPoint.getArgs()),
+                Arrays.stream(coalescente.generaciones()).map(generacion).toList());
+        CompletableFuture<Object> propia = new CompletableFuture<>();
+        CompletableFuture<Object> enVuelo = enCurso.putIfAbsent(clave, propia);
+        if(enVuelo != null){
+            contar(metodo, "compartida");
+            try {
+                return enVuelo.join();
+            } catch (CompletionException e){
+                throw e.getCause();
+            }
+        }
+        contar(metodo, "ejecutada");
+        try {
+            Object resultado = joinPoint.proceed();
+            enCurso.remove(clave, propia);
+            propia.complete(resultado);
+            return resultado;
+        } catch (Throwable e){
+            enCurso.remove(clave, propia);
+            propia.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void contar(String metodo, String resultado){
+        Counter.builder(LLAMADAS).tag("metodo", metodo).tag("resultado", resultado).register(registry).increment();
+    }
+}
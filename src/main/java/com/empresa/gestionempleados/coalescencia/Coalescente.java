@@ -0,0 +1,31 @@
+package com.empresa.gestionempleados.coalescencia;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca una lectura cuyas llamadas concurrentes con los mismos argumentos pueden compartir una sola
+ * ejecución (ver {@link CoalescenciaAspect}). Solo debe usarse en métodos sin efectos que devuelvan
+ * valores inmutables o que nadie modifique, porque todos los llamadores reciben la misma instancia.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalescente {
+
+    /**
+     * Nombre del método en {@code gestion.coalescencia.metodos} y en la etiqueta {@code metodo} de las métricas.
+     */
+    String value();
+
+    /**
+     * Entidades cuya generación (ver {@code ContadorGeneraciones}) forma parte de la clave. Una llamada
+     * solo comparte una ejecución que empezó con las mismas generaciones que ella lee al llegar, así
+     * que no recibe datos anteriores a una escritura de esas entidades confirmada antes. Sin
+     * entidades, puede recibir el resultado de una ejecución que empezó poco antes que ella.
+     */
+    Class<?>[] generaciones() default {};
+}
@@ -0,0 +1,55 @@
+package com.empresa.gestionempleados.config;
+
+import com.empresa.gestionempleados.admision.ControlAdmisionFilter;
+import com.empresa.gestionempleados.admision.LimiteAdaptativo;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Control de admisión de la API ({@code gestion.admision}): descarta con SERVICE_UNAVAILABLE el
+ * trabajo que excede la concurrencia que la base puede atender con la latencia objetivo.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "gestion.admision", name = "habilitada", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(AdmisionConfig.AdmisionProperties.class)
+public class AdmisionConfig {
+
+    /**
+     * @param esperaMaxima tiempo que una petición puede esperar lugar antes de rechazarse
+     * @param reintentarDespues valor de {@code Retry-After} de los rechazos
+     * @param lectura presupuesto de GET, HEAD y OPTIONS
+     * @param escritura presupuesto del resto de los métodos
+     */
+    @ConfigurationProperties(prefix = "gestion.admision")
+    public record AdmisionProperties(Duration esperaMaxima, Duration reintentarDespues, Presupuesto lectura, Presupuesto escritura) {
+
+        /**
+         * @param latenciaObjetivo duración de petición a partir de la cual se reduce el límite
+         */
+        public record Presupuesto(int limiteInicial, int limiteMinimo, int limiteMaximo, Duration latenciaObjetivo) {
+
+            LimiteAdaptativo limite(){
+                return new LimiteAdaptativo(limiteInicial, limiteMinimo, limiteMaximo, latenciaObjetivo.toNanos());
+            }
+        }
+    }
+
+    @Bean
+    public FilterRegistrationBean<ControlAdmisionFilter> controlAdmisionFilter(AdmisionProperties properties, MeterRegistry registry){
+        ControlAdmisionFilter filtro = new ControlAdmisionFilter(properties.lectura().limite(), properties.escritura().limite(),
+                properties.esperaMaxima(), properties.reintentarDespues(), registry);
+        FilterRegistrationBean<ControlAdmisionFilter> registro = new FilterRegistrationBean<>(filtro);
+        registro.addUrlPatterns("/api/*");
+        // Después del filtro de observación de Spring, para que los rechazos cuenten en http.server.requests
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registro;
+    }
+}
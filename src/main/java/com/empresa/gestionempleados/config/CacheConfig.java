@@ -0,0 +1,67 @@
+package com.empresa.gestionempleados.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Caché de segundo nivel de Hibernate sobre JCache con Caffeine. Cada región se crea con el tamaño
+ * máximo y el tiempo de vida definidos en {@code gestion.cache.regiones} del perfil activo.
+ */
+@Configuration
+@EnableConfigurationProperties(CacheConfig.CacheProperties.class)
+public class CacheConfig {
+
+    /**
+     * @param regiones configuración por nombre de región de Hibernate
+     */
+    @ConfigurationProperties(prefix = "gestion.cache")
+    public record CacheProperties(Map<String, Region> regiones) {
+
+        /**
+         * @param maximo cantidad máxima de entradas
+         * @param ttl tiempo de vida desde la escritura; sin valor no expiran
+         */
+        public record Region(long maximo, Duration ttl) {
+        }
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(CacheProperties properties){
+        // Un CacheManager propio por contexto: el de la URI por defecto es compartido por toda la JVM
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(URI.create("gestion-empleados:hibernate:" + UUID.randomUUID()),
+                getClass().getClassLoader());
+        if(properties.regiones() != null){
+            properties.regiones().forEach((nombre, region) -> {
+                CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+                configuracion.setMaximumSize(OptionalLong.of(region.maximo()));
+                if(region.ttl() != null){
+                    configuracion.setExpireAfterWrite(OptionalLong.of(region.ttl().toNanos()));
+                }
+                configuracion.setStatisticsEnabled(true);
+                cacheManager.createCache(nombre, configuracion);
+            });
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager){
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
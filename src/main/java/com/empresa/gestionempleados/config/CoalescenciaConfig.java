@@ -0,0 +1,38 @@
+package com.empresa.gestionempleados.config;
+
+import com.empresa.gestionempleados.coalescencia.CoalescenciaAspect;
+import com.empresa.gestionempleados.service.ContadorGeneraciones;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Agrupación de lecturas concurrentes idénticas ({@code gestion.coalescencia}).
+ */
+@Configuration
+@EnableConfigurationProperties(CoalescenciaConfig.CoalescenciaProperties.class)
+public class CoalescenciaConfig {
+
+    /**
+     * @param habilitada interruptor general
+     * @param metodos activación por nombre de método {@code @Coalescente}; los que no figuran quedan activos
+     */
+    @ConfigurationProperties(prefix = "gestion.coalescencia")
+    public record CoalescenciaProperties(@DefaultValue("true") boolean habilitada, Map<String, Boolean> metodos) {
+
+        public boolean habilitado(String metodo){
+            return habilitada && (metodos == null || metodos.getOrDefault(metodo, true));
+        }
+    }
+
+    @Bean
+    public CoalescenciaAspect coalescenciaAspect(MeterRegistry registry, CoalescenciaProperties properties,
+                                                 ContadorGeneraciones contadorGeneraciones){
+        return new CoalescenciaAspect(registry, properties::habilitado, contadorGeneraciones::actual);
+    }
+}
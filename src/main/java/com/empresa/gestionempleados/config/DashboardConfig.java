@@ -0,0 +1,34 @@
+package com.empresa.gestionempleados.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Consultas en paralelo del dashboard de departamento ({@code gestion.dashboard}).
+ */
+@Configuration
+@EnableConfigurationProperties(DashboardConfig.DashboardProperties.class)
+public class DashboardConfig {
+
+    /**
+     * @param hilos hilos del executor compartido por todos los dashboards; cada parte ocupa además una conexión
+     * @param cola partes que pueden esperar hilo; las que no entran se marcan como rechazadas
+     * @param tiempoMaximo tiempo máximo de cada parte, contado desde el inicio de la petición
+     * @param tiempos tiempo máximo por nombre de parte, si difiere del general
+     */
+    @ConfigurationProperties(prefix = "gestion.dashboard")
+    public record DashboardProperties(@DefaultValue("8") int hilos,
+                                      @DefaultValue("64") int cola,
+                                      @DefaultValue("2s") Duration tiempoMaximo,
+                                      Map<String, Duration> tiempos) {
+
+        public Duration tiempoMaximo(String parte){
+            return tiempos == null ? tiempoMaximo : tiempos.getOrDefault(parte, tiempoMaximo);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.empresa.gestionempleados.config;
+
+import com.empresa.gestionempleados.formato.ProtobufDtoHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Formatos binarios elegidos por el encabezado Accept, además de JSON: Smile
+ * ({@code application/x-jackson-smile}), CBOR ({@code application/cbor}) y Protobuf
+ * ({@code application/x-protobuf}, ver {@link ProtobufDtoHttpMessageConverter}).
+ * <p>
+ * Los convertidores van al final de la lista, así que un cliente sin Accept o con un comodín sigue
+ * recibiendo JSON. Smile y CBOR usan una copia del {@link ObjectMapper} de la aplicación para
+ * serializar fechas y decimales igual que en JSON; Spring MVC los agregaría por su cuenta con un
+ * mapper propio que escribe las fechas como arreglos.
+ */
+@Configuration
+public class FormatosConfig implements WebMvcConfigurer {
+    private final ObjectMapper objectMapper;
+
+    public FormatosConfig(ObjectMapper objectMapper){
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters){
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.addAll(convertidoresBinarios(objectMapper));
+    }
+
+    /**
+     * Convertidores binarios a partir del mapper JSON, en orden de preferencia.
+     */
+    public static List<HttpMessageConverter<?>> convertidoresBinarios(ObjectMapper objectMapper){
+        return List.of(new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory())),
+                new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory())),
+                new ProtobufDtoHttpMessageConverter());
+    }
+}
@@ -0,0 +1,89 @@
+package com.empresa.gestionempleados.config;
+
+import com.empresa.gestionempleados.reactivo.LecturaReactiva;
+import com.empresa.gestionempleados.reactivo.RutasReactivas;
+import com.empresa.gestionempleados.reactivo.ServidorReactivo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Camino de lectura reactivo ({@code gestion.reactivo.habilitado=true}): un pool R2DBC contra la
+ * misma base que JPA y un servidor WebFlux propio con las {@link RutasReactivas}. Las escrituras y
+ * el resto de la API siguen en Tomcat con JPA.
+ * <p>
+ * El pool R2DBC no se publica como bean, y la autoconfiguración R2DBC de Spring Boot está excluida
+ * en la aplicación: ante una {@code ConnectionFactory} en el contexto Boot deja de crear el
+ * {@code DataSource} de JPA y agrega un gestor de transacciones reactivo que desplaza al de JPA.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "gestion.reactivo", name = "habilitado", havingValue = "true")
+@EnableConfigurationProperties(ReactivoConfig.ReactivoProperties.class)
+public class ReactivoConfig {
+
+    /**
+     * @param url URL R2DBC de la base, la misma que usa {@code spring.datasource}
+     * @param puerto puerto del servidor reactivo; 0 elige uno libre
+     * @param tamanioLote filas que se piden a la base por vez
+     * @param compresionMinima tamaño de respuesta a partir del cual se comprime con gzip
+     * @param esperaCierre tiempo que se espera a las respuestas en curso al detener la aplicación
+     * @param pool tamaño del pool de conexiones R2DBC
+     */
+    @ConfigurationProperties(prefix = "gestion.reactivo")
+    public record ReactivoProperties(String url,
+                                     String username,
+                                     String password,
+                                     @DefaultValue("8081") int puerto,
+                                     @DefaultValue("256") int tamanioLote,
+                                     @DefaultValue("2KB") DataSize compresionMinima,
+                                     @DefaultValue("10s") Duration esperaCierre,
+                                     @DefaultValue Pool pool) {
+
+        public record Pool(@DefaultValue("2") int inicial,
+                           @DefaultValue("20") int maximo,
+                           @DefaultValue("30m") Duration inactividadMaxima) {
+        }
+    }
+
+    @Bean(destroyMethod = "cerrar")
+    public LecturaReactiva lecturaReactiva(ReactivoProperties properties){
+        ConnectionFactoryOptions.Builder opciones = ConnectionFactoryOptions.parse(properties.url()).mutate();
+        if(properties.username() != null){
+            opciones.option(ConnectionFactoryOptions.USER, properties.username());
+        }
+        if(properties.password() != null){
+            opciones.option(ConnectionFactoryOptions.PASSWORD, properties.password());
+        }
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(opciones.build()))
+                .name("reactivo")
+                .initialSize(properties.pool().inicial())
+                .maxSize(properties.pool().maximo())
+                .maxIdleTime(properties.pool().inactividadMaxima())
+                .build());
+        return new LecturaReactiva(pool, properties.tamanioLote());
+    }
+
+    @Bean
+    public ServidorReactivo servidorReactivo(LecturaReactiva lecturaReactiva, ObjectMapper objectMapper, ReactivoProperties properties){
+        // Mismo ObjectMapper que la API bloqueante, para que las fechas y decimales salgan igual.
+        HandlerStrategies estrategias = HandlerStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+                .build();
+        return new ServidorReactivo(new RutasReactivas(lecturaReactiva).rutas(), estrategias,
+                properties.puerto(), Math.toIntExact(properties.compresionMinima().toBytes()), properties.esperaCierre());
+    }
+}
@@ -0,0 +1,80 @@
+package com.empresa.gestionempleados.config;
+
+import com.empresa.gestionempleados.datasource.LecturaEscrituraDataSource;
+import com.empresa.gestionempleados.datasource.MonitorReplica;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Réplica de lectura ({@code gestion.replica.habilitada=true}). El primario se sigue configurando con
+ * {@code spring.datasource} y la réplica con {@code gestion.replica}; cada uno tiene su pool de Hikari
+ * ({@code spring.datasource.hikari} y {@code gestion.replica.hikari}). JPA recibe un único
+ * {@link DataSource} que reparte según la transacción sea de solo lectura o no.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "gestion.replica", name = "habilitada", havingValue = "true")
+@EnableConfigurationProperties(ReplicaConfig.ReplicaProperties.class)
+public class ReplicaConfig {
+
+    /**
+     * @param url URL JDBC de la réplica
+     * @param consultaRetraso consulta que devuelve los segundos de atraso de la réplica; vacía solo valida la conexión
+     * @param retrasoMaximo atraso a partir del cual las lecturas vuelven al primario
+     */
+    @ConfigurationProperties(prefix = "gestion.replica")
+    public record ReplicaProperties(String url,
+                                    String username,
+                                    String password,
+                                    String driverClassName,
+                                    String consultaRetraso,
+                                    @DefaultValue("5s") Duration retrasoMaximo) {
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primario(DataSourceProperties properties){
+        HikariDataSource primario = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primario.setPoolName("primario");
+        return primario;
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "gestion.replica.hikari")
+    public HikariDataSource replica(ReplicaProperties properties){
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.url())
+                .username(properties.username())
+                .password(properties.password())
+                .driverClassName(properties.driverClassName())
+                .build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    public MonitorReplica monitorReplica(@Qualifier("replica") DataSource replica, ReplicaProperties properties){
+        return new MonitorReplica(replica, properties.consultaRetraso(), properties.retrasoMaximo());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primario") DataSource primario, @Qualifier("replica") DataSource replica,
+                                 MonitorReplica monitorReplica){
+        return new LazyConnectionDataSourceProxy(new LecturaEscrituraDataSource(primario, replica, monitorReplica));
+    }
+}
@@ -0,0 +1,21 @@
+package com.empresa.gestionempleados.config;
+
+import com.empresa.gestionempleados.metricas.ContadorSentencias;
+import com.empresa.gestionempleados.metricas.ContadorSentenciasFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cuenta las sentencias SQL de cada petición a la API para avisar de cargas repetidas (N+1).
+ */
+@Configuration
+public class SentenciasConfig {
+
+    @Bean
+    public FilterRegistrationBean<ContadorSentenciasFilter> contadorSentenciasFilter(ContadorSentencias contadorSentencias){
+        FilterRegistrationBean<ContadorSentenciasFilter> registro = new FilterRegistrationBean<>(new ContadorSentenciasFilter(contadorSentencias));
+        registro.addUrlPatterns("/api/*");
+        return registro;
+    }
+}
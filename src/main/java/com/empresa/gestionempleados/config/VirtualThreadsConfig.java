@@ -0,0 +1,35 @@
+package com.empresa.gestionempleados.config;
+
+import com.empresa.gestionempleados.datasource.LimitadorConexionesDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Ajustes para el modo de hilos virtuales ({@code spring.threads.virtual.enabled=true}). Spring Boot
+ * ya ejecuta las peticiones de Tomcat y las tareas {@code @Async} en hilos virtuales; aquí se acota
+ * el acceso al pool de conexiones para que esos hilos no lo desborden.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Bean
+    public static BeanPostProcessor limitadorConexiones(@Value("${gestion.virtual.espera-conexion:30s}") Duration espera){
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName){
+                if(bean instanceof HikariDataSource hikari){
+                    return new LimitadorConexionesDataSource(hikari, hikari.getMaximumPoolSize(), espera);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,11 +1,24 @@
 package com.empresa.gestionempleados.controller;
 
+import com.empresa.gestionempleados.catalogo.CatalogoSerializado;
+import com.empresa.gestionempleados.dto.Cursor;
+import com.empresa.gestionempleados.dto.DashboardDepartamentoDto;
+import com.empresa.gestionempleados.dto.CursorPage;
+import com.empresa.gestionempleados.dto.DepartamentoDto;
+import com.empresa.gestionempleados.dto.DepartamentoPatchDto;
 import com.empresa.gestionempleados.entity.Departamento;
+import com.empresa.gestionempleados.exceptions.CursorInvalidoException;
 import com.empresa.gestionempleados.exceptions.DepartamentoNoEncontradoException;
+import com.empresa.gestionempleados.formato.FormatoRespuesta;
+import com.empresa.gestionempleados.service.DashboardDepartamentoService;
 import com.empresa.gestionempleados.service.DepartamentoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -13,18 +26,53 @@ import java.util.List;
 @RequestMapping("api/departamentos")
 public class DepartamentoController {
     private final DepartamentoService departamentoService;
+    private final DashboardDepartamentoService dashboardService;
+    private final CatalogoSerializado<List<DepartamentoDto>> catalogo;
 
-    public DepartamentoController(DepartamentoService departamentoService){
+    public DepartamentoController(DepartamentoService departamentoService, DashboardDepartamentoService dashboardService,
+                                  ObjectMapper objectMapper){
         this.departamentoService = departamentoService;
+        this.dashboardService = dashboardService;
+        this.catalogo = new CatalogoSerializado<>("departamentos", departamentoService::generacion, departamentoService::findAll, objectMapper);
     }
 
     /**
-     * Obtiene todos los departamentos.
-     * @return Lista de departamentos
+     * Obtiene todos los departamentos. En JSON responde con los bytes ya serializados de la generación
+     * actual, comprimidos si el cliente acepta gzip; en los demás formatos, con el ETag de cada uno.
+     * @return Lista de departamentos con su ETag, NOT_ACCEPTABLE si el cliente no acepta ningún formato, o
+     *         null si la respuesta ya quedó escrita (los bytes JSON o NOT_MODIFIED)
      */
     @GetMapping
-    public ResponseEntity<List<Departamento>> findAll(){
-        return ResponseEntity.ok(departamentoService.findAll());
+    public ResponseEntity<List<DepartamentoDto>> findAll(WebRequest request, HttpServletResponse response){
+        FormatoRespuesta formato = FormatoRespuesta.elegir(request);
+        if(formato == null){
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
+        String generacion = departamentoService.generacion();
+        if(catalogo.noModificado(generacion, formato, request)){
+            return null;
+        }
+        if(formato != FormatoRespuesta.JSON){
+            return ResponseEntity.ok().contentType(formato.tipo()).varyBy(HttpHeaders.ACCEPT)
+                    .eTag(catalogo.etag(generacion, formato)).body(departamentoService.findAll());
+        }
+        catalogo.responder(catalogo.actual(), request, response);
+        return null;
+    }
+
+    /**
+     * Obtiene una página de departamentos ordenada por id.
+     * @param after Cursor devuelto por la página anterior (opcional)
+     * @param limit Cantidad máxima de departamentos de la página
+     * @return Página de departamentos o BAD_REQUEST si el cursor no es válido
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<DepartamentoDto>> findAll(@RequestParam(required = false) String after, @RequestParam int limit){
+        try {
+            return ResponseEntity.ok(departamentoService.findAll(Cursor.decode(after), limit));
+        } catch (CursorInvalidoException e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
     }
 
     /**
@@ -33,7 +81,7 @@ public class DepartamentoController {
      * @return Departamento encontrado o NOT_FOUND si no existe
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Departamento> findById(@PathVariable Long id){
+    public ResponseEntity<DepartamentoDto> findById(@PathVariable Long id){
         try {
             return ResponseEntity.ok(departamentoService.findById(id));
         } catch (DepartamentoNoEncontradoException e){
@@ -41,14 +89,30 @@ public class DepartamentoController {
         }
     }
 
+    /**
+     * Obtiene el departamento junto con sus empleados, su salario promedio y sus proyectos,
+     * consultados en paralelo.
+     * @param id ID del departamento
+     * @return Dashboard del departamento, con las partes que no llegaron a tiempo listadas en
+     * {@code incompletas}, o NOT_FOUND si no existe
+     */
+    @GetMapping("/{id}/dashboard")
+    public ResponseEntity<DashboardDepartamentoDto> dashboard(@PathVariable Long id){
+        try {
+            return ResponseEntity.ok(dashboardService.findByDepartamentoId(id));
+        } catch (DepartamentoNoEncontradoException e){
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        }
+    }
+
     /**
      * Crea un nuevo departamento.
      * @param departamento Departamento a crear
      * @return Departamento creado con código CREATED
      */
     @PostMapping
-    public ResponseEntity<Departamento> save(@RequestBody Departamento departamento){
-        return ResponseEntity.status(HttpStatus.CREATED).body(departamentoService.save(departamento));
+    public ResponseEntity<DepartamentoDto> save(@RequestBody Departamento departamento){
+        return ResponseEntity.status(HttpStatus.CREATED).body(DepartamentoDto.from(departamentoService.save(departamento)));
     }
 
     /**
@@ -58,14 +122,40 @@ public class DepartamentoController {
      * @return Departamento actualizado o NOT_FOUND si no existe
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Departamento> update(@PathVariable Long id, @RequestBody Departamento departamento){
+    public ResponseEntity<DepartamentoDto> update(@PathVariable Long id, @RequestBody Departamento departamento){
         try {
-            return ResponseEntity.ok(departamentoService.update(id, departamento));
+            return ResponseEntity.ok(DepartamentoDto.from(departamentoService.update(id, departamento)));
         } catch (DepartamentoNoEncontradoException e){
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
     }
 
+    /**
+     * Modifica solo los campos enviados de un departamento, con una sola sentencia UPDATE.
+     * @param id ID del departamento a modificar
+     * @param cambios Campos a modificar; los omitidos o nulos se conservan
+     * @return NO_CONTENT si se modifica o NOT_FOUND si no existe
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patch(@PathVariable Long id, @RequestBody DepartamentoPatchDto cambios){
+        try {
+            departamentoService.patch(id, cambios);
+            return ResponseEntity.noContent().build();
+        } catch (DepartamentoNoEncontradoException e){
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    /**
+     * Elimina varios departamentos junto con sus empleados con sentencias por conjunto.
+     * @param ids IDs de los departamentos a eliminar; los que no existen se ignoran
+     * @return Cantidad de departamentos eliminados
+     */
+    @DeleteMapping("/batch")
+    public ResponseEntity<Integer> deleteAll(@RequestBody List<Long> ids){
+        return ResponseEntity.ok(departamentoService.deleteAll(ids));
+    }
+
     /**
      * Elimina un departamento por su ID.
      * @param id ID del departamento a eliminar
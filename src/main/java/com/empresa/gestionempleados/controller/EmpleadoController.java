@@ -1,13 +1,35 @@
 package com.empresa.gestionempleados.controller;
 
+import com.empresa.gestionempleados.dto.Cursor;
+import com.empresa.gestionempleados.dto.CursorPage;
+import com.empresa.gestionempleados.dto.EmpleadoDto;
+import com.empresa.gestionempleados.dto.EmpleadoPatchDto;
+import com.empresa.gestionempleados.dto.FiltroEmpleados;
+import com.empresa.gestionempleados.dto.OrdenEmpleados;
+import com.empresa.gestionempleados.dto.ResumenSalarialDto;
+import com.empresa.gestionempleados.dto.SugerenciaDto;
 import com.empresa.gestionempleados.entity.Empleado;
+import com.empresa.gestionempleados.exceptions.CursorInvalidoException;
+import com.empresa.gestionempleados.exceptions.DatosInvalidosException;
+import com.empresa.gestionempleados.exceptions.DepartamentoNoEncontradoException;
+import com.empresa.gestionempleados.exceptions.EmailDuplicadoException;
 import com.empresa.gestionempleados.exceptions.EmpleadoNoEncontradoException;
+import com.empresa.gestionempleados.formato.FormatoRespuesta;
+import com.empresa.gestionempleados.index.IndiceSugerencias;
 import com.empresa.gestionempleados.service.EmpleadoService;
+import com.empresa.gestionempleados.service.PlanCarga;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
@@ -17,9 +39,11 @@ import java.util.List;
 @Validated
 public class EmpleadoController {
     private final EmpleadoService empleadoService;
+    private final ObjectMapper objectMapper;
 
-    public EmpleadoController(EmpleadoService empleadoService){
+    public EmpleadoController(EmpleadoService empleadoService, ObjectMapper objectMapper){
         this.empleadoService = empleadoService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -27,19 +51,105 @@ public class EmpleadoController {
      * @return Lista de empleados
      */
     @GetMapping
-    public ResponseEntity<List<Empleado>> findAll(){
+    public ResponseEntity<List<EmpleadoDto>> findAll(){
         return ResponseEntity.ok(empleadoService.findAll());
     }
 
+    /**
+     * Obtiene una página de empleados ordenada por id.
+     * @param after Cursor devuelto por la página anterior (opcional)
+     * @param limit Cantidad máxima de empleados de la página
+     * @return Página de empleados o BAD_REQUEST si el cursor no es válido
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<EmpleadoDto>> findAll(@RequestParam(required = false) String after, @RequestParam int limit){
+        try {
+            return ResponseEntity.ok(empleadoService.findAll(Cursor.decode(after), limit));
+        } catch (CursorInvalidoException e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
+    /**
+     * Sugiere empleados cuyo nombre, apellido o email empiezan con las palabras escritas.
+     * @param q Texto escrito por el usuario; cada palabra debe ser prefijo de un término del empleado
+     * @param limit Cantidad máxima de sugerencias
+     * @return Sugerencias con id, nombre, apellido y email
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SugerenciaDto>> suggest(@RequestParam String q, @RequestParam(defaultValue = "10") int limit){
+        return ResponseEntity.ok(empleadoService.suggest(q, limit));
+    }
+
+    /**
+     * Obtiene el tamaño del índice de sugerencias y la memoria aproximada que ocupa.
+     * @return Empleados, términos, referencias y bytes estimados del índice
+     */
+    @GetMapping("/suggest/stats")
+    public ResponseEntity<IndiceSugerencias.Estadisticas> suggestStats(){
+        return ResponseEntity.ok(empleadoService.suggestStats());
+    }
+
+    /**
+     * Busca empleados combinando criterios en una sola consulta. Los criterios omitidos no filtran.
+     * @param filtro Rango de salario (salarioMin, salarioMax), rango de contratación (inicio, fin),
+     *               departamentoId, departamento (nombre), proyectoId y prefijo del nombre
+     * @param orden Atributo de orden ascendente: id, salario o fechaContratacion
+     * @param after Cursor devuelto por la página anterior (opcional)
+     * @param limit Cantidad máxima de empleados de la página
+     * @param count Si es true, la página incluye el total de empleados que cumplen el filtro
+     * @return Página de empleados o BAD_REQUEST si el orden o el cursor no son válidos
+     */
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<EmpleadoDto>> search(@ModelAttribute FiltroEmpleados filtro,
+                                                          @RequestParam(defaultValue = "id") String orden,
+                                                          @RequestParam(required = false) String after,
+                                                          @RequestParam(defaultValue = "" + CursorPage.LIMITE_MAXIMO) int limit,
+                                                          @RequestParam(defaultValue = "false") boolean count){
+        try {
+            return ResponseEntity.ok(empleadoService.search(filtro, OrdenEmpleados.of(orden), Cursor.decodeClave(after), limit, count));
+        } catch (IllegalArgumentException | CursorInvalidoException e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
+    /**
+     * Exporta todos los empleados como JSON delimitado por saltos de línea (NDJSON).
+     * Los empleados se escriben a medida que se leen de la base, sin armar la lista completa.
+     * @return Flujo NDJSON con un empleado por línea
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(){
+        StreamingResponseBody cuerpo = salida -> empleadoService.exportAll(PlanCarga.CON_DEPARTAMENTO, empleado -> {
+            try {
+                salida.write(objectMapper.writeValueAsBytes(EmpleadoDto.from(empleado)));
+                salida.write('\n');
+            } catch (IOException e){
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(cuerpo);
+    }
+
     /**
      * Busca un empleado por su ID.
      * @param id ID del empleado
-     * @return Empleado encontrado o NOT_FOUND si no existe
+     * @return Empleado encontrado con el ETag del formato pedido, NOT_MODIFIED si coincide con
+     *         If-None-Match, NOT_FOUND si no existe o NOT_ACCEPTABLE si el cliente no acepta ningún formato
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Empleado> findById(@PathVariable Long id){
+    public ResponseEntity<EmpleadoDto> findById(@PathVariable Long id, WebRequest request){
+        FormatoRespuesta formato = FormatoRespuesta.elegir(request);
+        if(formato == null){
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
         try {
-            return ResponseEntity.ok(empleadoService.findById(id));
+            String etag = formato.etag("empleado-" + empleadoService.findVersionById(id));
+            if(request.checkNotModified(etag)){
+                return null;
+            }
+            return ResponseEntity.ok().contentType(formato.tipo()).varyBy(HttpHeaders.ACCEPT).eTag(etag)
+                    .body(empleadoService.findById(id));
         } catch (EmpleadoNoEncontradoException e){
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
@@ -48,28 +158,103 @@ public class EmpleadoController {
     /**
      * Crea un nuevo empleado.
      * @param empleado Empleado a crear
-     * @return Empleado creado con código CREATED
+     * @return Empleado creado con código CREATED o BAD_REQUEST si el departamento o algún proyecto no
+     *         indica su id
      */
     @PostMapping
-    public ResponseEntity<Empleado> save(@RequestBody Empleado empleado){
-        return ResponseEntity.status(HttpStatus.CREATED).body(empleadoService.save(empleado));
+    public ResponseEntity<EmpleadoDto> save(@RequestBody Empleado empleado){
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(EmpleadoDto.from(empleadoService.save(empleado)));
+        } catch (DatosInvalidosException e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
     }
 
     /**
      * Actualiza un empleado existente.
      * @param id ID del empleado a actualizar
      * @param empleado Datos actualizados del empleado
-     * @return Empleado actualizado o NOT_FOUND si no existe
+     * @return Empleado actualizado, NOT_FOUND si no existe o BAD_REQUEST si el departamento o algún
+     *         proyecto no indica su id
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Empleado> update(@PathVariable Long id, @RequestBody Empleado empleado){
+    public ResponseEntity<EmpleadoDto> update(@PathVariable Long id, @RequestBody Empleado empleado){
         try {
-            return ResponseEntity.ok(empleadoService.update(id, empleado));
+            return ResponseEntity.ok(EmpleadoDto.from(empleadoService.update(id, empleado)));
         } catch (EmpleadoNoEncontradoException e){
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        } catch (DatosInvalidosException e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
+    /**
+     * Modifica solo los campos enviados de un empleado, con una sola sentencia UPDATE.
+     * Los campos omitidos o nulos (y los proyectos) se conservan.
+     * @param id ID del empleado a modificar
+     * @param cambios Campos a modificar
+     * @return NO_CONTENT si se modifica, NOT_FOUND si no existe, BAD_REQUEST si el departamento no
+     *         existe o CONFLICT si el email ya está en uso
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patch(@PathVariable Long id, @RequestBody EmpleadoPatchDto cambios){
+        try {
+            empleadoService.patch(id, cambios);
+            return ResponseEntity.noContent().build();
+        } catch (EmpleadoNoEncontradoException e){
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (DepartamentoNoEncontradoException e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (EmailDuplicadoException e){
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
+    /**
+     * Crea varios empleados en una sola petición, enviados a la base en lotes.
+     * @param empleados Empleados a crear
+     * @return IDs generados, en el mismo orden, con código CREATED, BAD_REQUEST si alguna referencia no
+     *         indica su id o CONFLICT si algún email ya existe
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<Long>> saveAll(@RequestBody List<Empleado> empleados){
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(empleadoService.saveAll(empleados));
+        } catch (DatosInvalidosException e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (EmailDuplicadoException e){
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * Actualiza varios empleados existentes en una sola petición.
+     * @param empleados Empleados con su ID y los datos actualizados
+     * @return IDs actualizados, BAD_REQUEST si falta algún id, NOT_FOUND si alguno no existe o CONFLICT
+     *         si algún email ya está en uso
+     */
+    @PutMapping("/batch")
+    public ResponseEntity<List<Long>> updateAll(@RequestBody List<Empleado> empleados){
+        try {
+            return ResponseEntity.ok(empleadoService.updateAll(empleados));
+        } catch (DatosInvalidosException e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (EmpleadoNoEncontradoException e){
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (EmailDuplicadoException e){
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * Elimina varios empleados y sus asignaciones a proyectos con sentencias por conjunto.
+     * @param ids IDs de los empleados a eliminar; los que no existen se ignoran
+     * @return Cantidad de empleados eliminados
+     */
+    @DeleteMapping("/batch")
+    public ResponseEntity<Integer> deleteAll(@RequestBody List<Long> ids){
+        return ResponseEntity.ok(empleadoService.deleteAll(ids));
+    }
 
     /**
      * Elimina un empleado por su ID.
@@ -92,7 +277,7 @@ public class EmpleadoController {
      * @return Lista de empleados o NOT_FOUND si no existen
      */
     @GetMapping("/departamento/{nombreDepartamento}")
-    public ResponseEntity<List<Empleado>> findByNombreDepartamento(@PathVariable String nombreDepartamento){
+    public ResponseEntity<List<EmpleadoDto>> findByNombreDepartamento(@PathVariable String nombreDepartamento){
         try {
             return ResponseEntity.ok(empleadoService.findByNombreDepartamento(nombreDepartamento));
         } catch (EmpleadoNoEncontradoException e){
@@ -100,6 +285,24 @@ public class EmpleadoController {
         }
     }
 
+    /**
+     * Obtiene una página de empleados de un departamento, ordenada por id.
+     * @param nombreDepartamento Nombre del departamento
+     * @param after Cursor devuelto por la página anterior (opcional)
+     * @param limit Cantidad máxima de empleados de la página
+     * @return Página de empleados o BAD_REQUEST si el cursor no es válido
+     */
+    @GetMapping(value = "/departamento/{nombreDepartamento}", params = "limit")
+    public ResponseEntity<CursorPage<EmpleadoDto>> findByNombreDepartamento(@PathVariable String nombreDepartamento,
+                                                                         @RequestParam(required = false) String after,
+                                                                         @RequestParam int limit){
+        try {
+            return ResponseEntity.ok(empleadoService.findByNombreDepartamento(nombreDepartamento, Cursor.decode(after), limit));
+        } catch (CursorInvalidoException e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
     /**
      * Obtiene el salario promedio de un departamento.
      * @param departamentoId ID del departamento
@@ -114,6 +317,16 @@ public class EmpleadoController {
         }
     }
 
+    /**
+     * Obtiene cantidad de empleados, total, mínimo, máximo y promedio de salario de un departamento.
+     * @param departamentoId ID del departamento
+     * @return Resumen salarial del departamento
+     */
+    @GetMapping("/resumen-salario/{departamentoId}")
+    public ResponseEntity<ResumenSalarialDto> findSalarySummaryByDepartamento(@PathVariable Long departamentoId){
+        return ResponseEntity.ok(empleadoService.findSalarySummaryByDepartamento(departamentoId));
+    }
+
     /**
      * Lista empleados dentro de un rango de salarios.
      * @param min Salario mínimo
@@ -121,7 +334,7 @@ public class EmpleadoController {
      * @return Lista de empleados o NOT_FOUND si no existen
      */
     @GetMapping("/rango-salario")
-    public ResponseEntity<List<Empleado>> findBySalaryRange(@RequestParam BigDecimal min, @RequestParam BigDecimal max){
+    public ResponseEntity<List<EmpleadoDto>> findBySalaryRange(@RequestParam BigDecimal min, @RequestParam BigDecimal max){
         try {
             return ResponseEntity.ok(empleadoService.findBySalaryRange(min, max));
         } catch (EmpleadoNoEncontradoException e){
@@ -129,6 +342,25 @@ public class EmpleadoController {
         }
     }
 
+    /**
+     * Obtiene una página de empleados dentro de un rango de salarios, ordenada por id.
+     * @param min Salario mínimo
+     * @param max Salario máximo
+     * @param after Cursor devuelto por la página anterior (opcional)
+     * @param limit Cantidad máxima de empleados de la página
+     * @return Página de empleados o BAD_REQUEST si el cursor no es válido
+     */
+    @GetMapping(value = "/rango-salario", params = "limit")
+    public ResponseEntity<CursorPage<EmpleadoDto>> findBySalaryRange(@RequestParam BigDecimal min, @RequestParam BigDecimal max,
+                                                                  @RequestParam(required = false) String after,
+                                                                  @RequestParam int limit){
+        try {
+            return ResponseEntity.ok(empleadoService.findBySalaryRange(min, max, Cursor.decode(after), limit));
+        } catch (CursorInvalidoException e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
     /**
      * Lista empleados contratados dentro de un rango de fechas.
      * @param inicio Fecha de inicio
@@ -136,7 +368,7 @@ public class EmpleadoController {
      * @return Lista de empleados o NOT_FOUND si no existen
      */
     @GetMapping("/fecha-contratacion")
-    public ResponseEntity<List<Empleado>> findByHiringDate(@RequestParam LocalDate inicio, @RequestParam LocalDate fin){
+    public ResponseEntity<List<EmpleadoDto>> findByHiringDate(@RequestParam LocalDate inicio, @RequestParam LocalDate fin){
         try {
             return ResponseEntity.ok(empleadoService.findByHiringDate(inicio, fin));
         } catch (EmpleadoNoEncontradoException e){
@@ -144,4 +376,23 @@ public class EmpleadoController {
         }
     }
 
+    /**
+     * Obtiene una página de empleados contratados dentro de un rango de fechas, ordenada por id.
+     * @param inicio Fecha de inicio
+     * @param fin Fecha de fin
+     * @param after Cursor devuelto por la página anterior (opcional)
+     * @param limit Cantidad máxima de empleados de la página
+     * @return Página de empleados o BAD_REQUEST si el cursor no es válido
+     */
+    @GetMapping(value = "/fecha-contratacion", params = "limit")
+    public ResponseEntity<CursorPage<EmpleadoDto>> findByHiringDate(@RequestParam LocalDate inicio, @RequestParam LocalDate fin,
+                                                                 @RequestParam(required = false) String after,
+                                                                 @RequestParam int limit){
+        try {
+            return ResponseEntity.ok(empleadoService.findByHiringDate(inicio, fin, Cursor.decode(after), limit));
+        } catch (CursorInvalidoException e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
 }
@@ -1,11 +1,22 @@
 package com.empresa.gestionempleados.controller;
 
+import com.empresa.gestionempleados.catalogo.CatalogoSerializado;
+import com.empresa.gestionempleados.dto.Cursor;
+import com.empresa.gestionempleados.dto.CursorPage;
+import com.empresa.gestionempleados.dto.ProyectoDto;
+import com.empresa.gestionempleados.dto.ProyectoPatchDto;
 import com.empresa.gestionempleados.entity.Proyecto;
+import com.empresa.gestionempleados.exceptions.CursorInvalidoException;
 import com.empresa.gestionempleados.exceptions.ProyectoNoEncontradoException;
+import com.empresa.gestionempleados.formato.FormatoRespuesta;
 import com.empresa.gestionempleados.service.ProyectoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -13,19 +24,51 @@ import java.util.List;
 @RequestMapping("api/proyectos")
 public class ProyectoController {
     private final ProyectoService proyectoService;
+    private final CatalogoSerializado<List<ProyectoDto>> catalogo;
 
-    public ProyectoController( ProyectoService proyectoService){
+    public ProyectoController(ProyectoService proyectoService, ObjectMapper objectMapper){
         this.proyectoService = proyectoService;
+        this.catalogo = new CatalogoSerializado<>("proyectos", proyectoService::generacion, proyectoService::findAll, objectMapper);
     }
 
 
     /**
-     * Obtiene todos los proyectos.
-     * @return Lista de proyectos
+     * Obtiene todos los proyectos. En JSON responde con los bytes ya serializados de la generación
+     * actual, comprimidos si el cliente acepta gzip; en los demás formatos, con el ETag de cada uno.
+     * @return Lista de proyectos con su ETag, NOT_ACCEPTABLE si el cliente no acepta ningún formato, o
+     *         null si la respuesta ya quedó escrita (los bytes JSON o NOT_MODIFIED)
      */
     @GetMapping
-    public ResponseEntity<List<Proyecto>> findAll(){
-        return ResponseEntity.ok(proyectoService.findAll());
+    public ResponseEntity<List<ProyectoDto>> findAll(WebRequest request, HttpServletResponse response){
+        FormatoRespuesta formato = FormatoRespuesta.elegir(request);
+        if(formato == null){
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
+        String generacion = proyectoService.generacion();
+        if(catalogo.noModificado(generacion, formato, request)){
+            return null;
+        }
+        if(formato != FormatoRespuesta.JSON){
+            return ResponseEntity.ok().contentType(formato.tipo()).varyBy(HttpHeaders.ACCEPT)
+                    .eTag(catalogo.etag(generacion, formato)).body(proyectoService.findAll());
+        }
+        catalogo.responder(catalogo.actual(), request, response);
+        return null;
+    }
+
+    /**
+     * Obtiene una página de proyectos ordenada por id.
+     * @param after Cursor devuelto por la página anterior (opcional)
+     * @param limit Cantidad máxima de proyectos de la página
+     * @return Página de proyectos o BAD_REQUEST si el cursor no es válido
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<ProyectoDto>> findAll(@RequestParam(required = false) String after, @RequestParam int limit){
+        try {
+            return ResponseEntity.ok(proyectoService.findAll(Cursor.decode(after), limit));
+        } catch (CursorInvalidoException e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
     }
 
     /**
@@ -34,7 +77,7 @@ public class ProyectoController {
      * @return Proyecto encontrado o NOT_FOUND si no existe
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Proyecto> findById(@PathVariable Long id){
+    public ResponseEntity<ProyectoDto> findById(@PathVariable Long id){
         try {
           return ResponseEntity.ok(proyectoService.findById(id));
         } catch (ProyectoNoEncontradoException e){
@@ -48,10 +91,28 @@ public class ProyectoController {
      * @return Lista de proyectos
      */
     @GetMapping("estado/{status}")
-    public ResponseEntity<List<Proyecto>> findByStatus(@PathVariable String status){
+    public ResponseEntity<List<ProyectoDto>> findByStatus(@PathVariable String status){
             return ResponseEntity.ok(proyectoService.findByStatus(status));
     }
 
+    /**
+     * Obtiene una página de proyectos por estado, ordenada por id.
+     * @param status Estado del proyecto
+     * @param after Cursor devuelto por la página anterior (opcional)
+     * @param limit Cantidad máxima de proyectos de la página
+     * @return Página de proyectos o BAD_REQUEST si el cursor no es válido
+     */
+    @GetMapping(value = "estado/{status}", params = "limit")
+    public ResponseEntity<CursorPage<ProyectoDto>> findByStatus(@PathVariable String status,
+                                                             @RequestParam(required = false) String after,
+                                                             @RequestParam int limit){
+        try {
+            return ResponseEntity.ok(proyectoService.findByStatus(status, Cursor.decode(after), limit));
+        } catch (CursorInvalidoException e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
 
     /**
      * Crea un nuevo proyecto.
@@ -59,8 +120,8 @@ public class ProyectoController {
      * @return Proyecto creado con código CREATED
      */
     @PostMapping
-    public ResponseEntity<Proyecto> save(@RequestBody Proyecto proyecto){
-        return ResponseEntity.status(HttpStatus.CREATED).body(proyectoService.save(proyecto));
+    public ResponseEntity<ProyectoDto> save(@RequestBody Proyecto proyecto){
+        return ResponseEntity.status(HttpStatus.CREATED).body(ProyectoDto.from(proyectoService.save(proyecto)));
     }
 
     /**
@@ -70,14 +131,50 @@ public class ProyectoController {
      * @return Proyecto actualizado o NOT_FOUND si no existe
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Proyecto> update(@PathVariable Long id, @RequestBody Proyecto proyecto){
+    public ResponseEntity<ProyectoDto> update(@PathVariable Long id, @RequestBody Proyecto proyecto){
         try {
-            return ResponseEntity.ok(proyectoService.update(id, proyecto));
+            return ResponseEntity.ok(ProyectoDto.from(proyectoService.update(id, proyecto)));
         } catch (ProyectoNoEncontradoException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
     }
 
+    /**
+     * Modifica solo los campos enviados de un proyecto, con una sola sentencia UPDATE.
+     * @param id ID del proyecto a modificar
+     * @param cambios Campos a modificar; los omitidos o nulos se conservan
+     * @return NO_CONTENT si se modifica o NOT_FOUND si no existe
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patch(@PathVariable Long id, @RequestBody ProyectoPatchDto cambios){
+        try {
+            proyectoService.patch(id, cambios);
+            return ResponseEntity.noContent().build();
+        } catch (ProyectoNoEncontradoException e){
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    /**
+     * Elimina varios proyectos y sus asignaciones con sentencias por conjunto.
+     * @param ids IDs de los proyectos a eliminar; los que no existen se ignoran
+     * @return Cantidad de proyectos eliminados
+     */
+    @DeleteMapping("/batch")
+    public ResponseEntity<Integer> deleteAll(@RequestBody List<Long> ids){
+        return ResponseEntity.ok(proyectoService.deleteAll(ids));
+    }
+
+    /**
+     * Elimina todos los proyectos con un estado y sus asignaciones.
+     * @param status Estado de los proyectos a eliminar
+     * @return Cantidad de proyectos eliminados
+     */
+    @DeleteMapping("estado/{status}")
+    public ResponseEntity<Integer> deleteByStatus(@PathVariable String status){
+        return ResponseEntity.ok(proyectoService.deleteByStatus(status));
+    }
+
     /**
      * Elimina un proyecto por su ID.
      * @param id ID del proyecto a eliminar
@@ -0,0 +1,46 @@
+package com.empresa.gestionempleados.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Envía las transacciones de solo lectura a la réplica y el resto al primario.
+ * <p>
+ * Decide al pedir la conexión, así que debe usarse detrás de un
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: el gestor de
+ * transacciones de JPA abre la conexión antes de publicar que la transacción es de solo lectura, y
+ * el proxy la retrasa hasta la primera sentencia. Si la réplica no está disponible o va demasiado
+ * atrasada según el {@link MonitorReplica}, las lecturas también van al primario.
+ * <p>
+ * Las lecturas cuyo resultado se guarda (caché de segundo nivel y de consultas, catálogos
+ * serializados, agregados en memoria) usan transacciones de escritura y van al primario: leídas de
+ * una réplica atrasada, dejarían guardados datos viejos como si fueran actuales.
+ * <p>
+ * La decisión es por conexión y Hibernate retiene la conexión hasta cerrar la sesión, así que
+ * {@code spring.jpa.open-in-view} está desactivado: con una sesión abierta toda la petición, la
+ * primera transacción fijaría la base de todas las siguientes.
+ */
+public class LecturaEscrituraDataSource extends AbstractRoutingDataSource {
+
+    public enum Destino {
+        PRIMARIO, REPLICA
+    }
+
+    private final MonitorReplica monitor;
+
+    public LecturaEscrituraDataSource(DataSource primario, DataSource replica, MonitorReplica monitor){
+        this.monitor = monitor;
+        setTargetDataSources(Map.of(Destino.PRIMARIO, primario, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Destino determineCurrentLookupKey(){
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && monitor.isDisponible()
+                ? Destino.REPLICA : Destino.PRIMARIO;
+    }
+}
@@ -0,0 +1,107 @@
+package com.empresa.gestionempleados.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita cuántas conexiones pueden pedirse a la vez al pool subyacente.
+ * <p>
+ * Con hilos virtuales no hay un pool de hilos que acote la concurrencia: miles de peticiones pueden
+ * llegar juntas a Hikari y vencer su {@code connectionTimeout} en cascada. Aquí esperan en un
+ * semáforo justo (que con hilos virtuales solo estaciona el hilo) con tantos permisos como
+ * conexiones tiene el pool, y el permiso se devuelve al cerrar la conexión.
+ */
+public class LimitadorConexionesDataSource extends DelegatingDataSource {
+    private final Semaphore permisos;
+    private final Duration espera;
+
+    public LimitadorConexionesDataSource(DataSource destino, int maximo, Duration espera){
+        super(destino);
+        this.permisos = new Semaphore(maximo, true);
+        this.espera = espera;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        return liberarAlCerrar(obtener(() -> super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        return liberarAlCerrar(obtener(() -> super.getConnection(username, password)));
+    }
+
+    public int getPermisosDisponibles(){
+        return permisos.availablePermits();
+    }
+
+    public int getEnEspera(){
+        return permisos.getQueueLength();
+    }
+
+    private interface Apertura {
+        Connection abrir() throws SQLException;
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if(!permisos.tryAcquire(espera.toMillis(), TimeUnit.MILLISECONDS)){
+                throw new SQLTransientConnectionException("No se obtuvo una conexión en " + espera.toMillis() + " ms");
+            }
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando una conexión", e);
+        }
+    }
+
+    private Connection obtener(Apertura apertura) throws SQLException {
+        try {
+            return apertura.abrir();
+        } catch (SQLException | RuntimeException e){
+            permisos.release();
+            throw e;
+        }
+    }
+
+    private Connection liberarAlCerrar(Connection conexion){
+        AtomicBoolean cerrada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, argumentos) -> {
+                    if(metodo.getName().equals("close") && cerrada.compareAndSet(false, true)){
+                        try {
+                            return metodo.invoke(conexion, argumentos);
+                        } catch (InvocationTargetException e){
+                            throw e.getCause();
+                        } finally {
+                            permisos.release();
+                        }
+                    }
+                    if(metodo.getName().equals("equals")){
+                        return proxy == argumentos[0];
+                    }
+                    if(metodo.getName().equals("hashCode")){
+                        return System.identityHashCode(proxy);
+                    }
+                    if(metodo.getName().equals("unwrap") && argumentos[0] instanceof Class<?> tipo && tipo.isInstance(conexion)){
+                        return conexion;
+                    }
+                    try {
+                        return metodo.invoke(conexion, argumentos);
+                    } catch (InvocationTargetException e){
+                        throw e.getCause();
+                    }
+                });
+    }
+}
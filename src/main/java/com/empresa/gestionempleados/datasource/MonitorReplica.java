@@ -0,0 +1,76 @@
+package com.empresa.gestionempleados.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Comprueba periódicamente si la réplica responde y cuánto atraso lleva respecto del primario.
+ * <p>
+ * La consulta de atraso depende del motor y debe devolver los segundos de atraso en la primera
+ * columna; un resultado nulo (replicación detenida) cuenta como no disponible. Sin consulta solo se
+ * valida la conexión. Hasta la primera comprobación correcta las lecturas van al primario.
+ */
+public class MonitorReplica {
+    private static final Logger log = LoggerFactory.getLogger(MonitorReplica.class);
+    private static final int SEGUNDOS_VALIDACION = 2;
+
+    private final DataSource replica;
+    private final String consultaRetraso;
+    private final Duration retrasoMaximo;
+    private volatile boolean disponible;
+
+    public MonitorReplica(DataSource replica, String consultaRetraso, Duration retrasoMaximo){
+        this.replica = replica;
+        this.consultaRetraso = consultaRetraso;
+        this.retrasoMaximo = retrasoMaximo;
+    }
+
+    @Scheduled(fixedDelayString = "${gestion.replica.intervalo-comprobacion:PT5S}")
+    public void comprobar(){
+        boolean anterior = disponible;
+        String motivo;
+        try (Connection conexion = replica.getConnection()){
+            if(consultaRetraso == null || consultaRetraso.isBlank()){
+                disponible = conexion.isValid(SEGUNDOS_VALIDACION);
+                motivo = "conexión no válida";
+            } else {
+                Double segundos = retraso(conexion);
+                disponible = segundos != null && segundos * 1000 <= retrasoMaximo.toMillis();
+                motivo = segundos == null ? "replicación detenida" : "atraso de " + segundos + " s";
+            }
+        } catch (SQLException | RuntimeException e){
+            disponible = false;
+            motivo = e.getMessage();
+        }
+        if(disponible != anterior){
+            if(disponible){
+                log.info("Réplica disponible: las transacciones de solo lectura vuelven a usarla");
+            } else {
+                log.warn("Réplica no disponible ({}): las lecturas van al primario", motivo);
+            }
+        }
+    }
+
+    public boolean isDisponible(){
+        return disponible;
+    }
+
+    private Double retraso(Connection conexion) throws SQLException {
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet resultado = sentencia.executeQuery(consultaRetraso)){
+            if(!resultado.next()){
+                return null;
+            }
+            double segundos = resultado.getDouble(1);
+            return resultado.wasNull() ? null : segundos;
+        }
+    }
+}
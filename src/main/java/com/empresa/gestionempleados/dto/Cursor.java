@@ -0,0 +1,96 @@
+package com.empresa.gestionempleados.dto;
+
+import com.empresa.gestionempleados.exceptions.CursorInvalidoException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Codifica el último id leído como un cursor opaco para la paginación keyset.
+ */
+public final class Cursor {
+    private static final String PREFIJO = "id:";
+    private static final String PREFIJO_CLAVE = "k:";
+
+    private Cursor(){
+    }
+
+    /**
+     * Posición de la última fila leída en un listado ordenado por otra columna: el valor de esa
+     * columna y el id, que desempata las filas con el mismo valor.
+     */
+    public record Clave(String valor, Long id) {
+    }
+
+    public static String encode(Long id){
+        return codificar(PREFIJO + id);
+    }
+
+    public static String encode(Object valor, Long id){
+        return codificar(PREFIJO_CLAVE + id + ":" + valor);
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente.
+     * @param cursor Cursor opaco, o null para empezar desde el principio
+     * @return Último id leído (0 si el cursor es null)
+     * @throws CursorInvalidoException si el cursor está mal formado o el id no es positivo
+     */
+    public static Long decode(String cursor){
+        if (cursor == null || cursor.isBlank()){
+            return 0L;
+        }
+        String valor = decodificar(cursor, PREFIJO);
+        try {
+            return idPositivo(Long.parseLong(valor), cursor);
+        } catch (NumberFormatException e){
+            throw new CursorInvalidoException(cursor);
+        }
+    }
+
+    /**
+     * Decodifica un cursor generado con {@link #encode(Object, Long)}.
+     * @param cursor Cursor opaco, o null para empezar desde el principio
+     * @return Clave de la última fila leída, o null si el cursor es null
+     */
+    public static Clave decodeClave(String cursor){
+        if (cursor == null || cursor.isBlank()){
+            return null;
+        }
+        String valor = decodificar(cursor, PREFIJO_CLAVE);
+        int separador = valor.indexOf(':');
+        try {
+            long id = idPositivo(Long.parseLong(valor.substring(0, separador)), cursor);
+            return new Clave(valor.substring(separador + 1), id);
+        } catch (IndexOutOfBoundsException | NumberFormatException e){
+            throw new CursorInvalidoException(cursor);
+        }
+    }
+
+    /**
+     * Los ids generados son siempre positivos: un cursor con id 0 o negativo no lo ha emitido
+     * el servidor.
+     */
+    private static long idPositivo(long id, String cursor){
+        if (id <= 0){
+            throw new CursorInvalidoException(cursor);
+        }
+        return id;
+    }
+
+    private static String codificar(String valor){
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodificar(String cursor, String prefijo){
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!valor.startsWith(prefijo)){
+                throw new CursorInvalidoException(cursor);
+            }
+            return valor.substring(prefijo.length());
+        } catch (IllegalArgumentException e){
+            throw new CursorInvalidoException(cursor);
+        }
+    }
+}
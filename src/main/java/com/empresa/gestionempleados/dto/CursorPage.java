@@ -0,0 +1,55 @@
+package com.empresa.gestionempleados.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados paginada por cursor (keyset).
+ * @param content Elementos de la página, en el orden del listado
+ * @param nextCursor Cursor opaco para pedir la página siguiente, o null si no hay más
+ * @param total Cantidad total de filas del listado, solo si el cliente la pidió
+ */
+public record CursorPage<T>(List<T> content, String nextCursor, @JsonInclude(JsonInclude.Include.NON_NULL) Long total) {
+    public static final int LIMITE_MAXIMO = 500;
+
+    public CursorPage(List<T> content, String nextCursor){
+        this(content, nextCursor, null);
+    }
+
+    /**
+     * Ajusta el límite pedido por el cliente al rango permitido.
+     * @param limit Límite pedido
+     * @return Límite entre 1 y {@link #LIMITE_MAXIMO}
+     */
+    public static int limitar(int limit){
+        return Math.max(1, Math.min(limit, LIMITE_MAXIMO));
+    }
+
+    /**
+     * Arma la página a partir de las filas leídas con límite + 1: si sobra una fila, hay página siguiente.
+     * @param filas Filas leídas (hasta limite + 1), ordenadas por id
+     * @param limite Tamaño de la página
+     * @param id Función que obtiene el id de cada fila
+     * @return Página con el cursor de la siguiente
+     */
+    public static <T> CursorPage<T> of(List<T> filas, int limite, Function<T, Long> id){
+        return conCursor(filas, limite, fila -> Cursor.encode(id.apply(fila)));
+    }
+
+    /**
+     * Igual que {@link #of}, pero con el cursor calculado por el llamador a partir de la última fila.
+     */
+    public static <T> CursorPage<T> conCursor(List<T> filas, int limite, Function<T, String> cursor){
+        if (filas.size() <= limite){
+            return new CursorPage<>(filas, null);
+        }
+        List<T> contenido = filas.subList(0, limite);
+        return new CursorPage<>(contenido, cursor.apply(contenido.get(limite - 1)));
+    }
+
+    public CursorPage<T> conTotal(long total){
+        return new CursorPage<>(content, nextCursor, total);
+    }
+}
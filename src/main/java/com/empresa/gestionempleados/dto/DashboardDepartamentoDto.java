@@ -0,0 +1,22 @@
+package com.empresa.gestionempleados.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vista compuesta de la página de un departamento, armada con consultas en paralelo. Una parte que
+ * no terminó a tiempo o falló queda en null y figura en {@code incompletas} con el motivo
+ * ({@code tiempo-agotado}, {@code rechazada} o {@code error}).
+ * @param departamento Datos del departamento
+ * @param empleados Empleados del departamento
+ * @param salarioPromedio Salario promedio del departamento
+ * @param proyectos Proyectos con algún empleado del departamento
+ * @param incompletas Partes sin resultado, por nombre, con el motivo
+ */
+public record DashboardDepartamentoDto(DepartamentoDto departamento,
+                                       List<EmpleadoDto> empleados,
+                                       BigDecimal salarioPromedio,
+                                       List<ProyectoDto> proyectos,
+                                       Map<String, String> incompletas) {
+}
@@ -0,0 +1,13 @@
+package com.empresa.gestionempleados.dto;
+
+import com.empresa.gestionempleados.entity.Departamento;
+
+/**
+ * Vista plana de un departamento, sin la colección de empleados.
+ */
+public record DepartamentoDto(Long id, String nombre, String descripcion) {
+
+    public static DepartamentoDto from(Departamento departamento){
+        return new DepartamentoDto(departamento.getId(), departamento.getNombre(), departamento.getDescripcion());
+    }
+}
@@ -0,0 +1,7 @@
+package com.empresa.gestionempleados.dto;
+
+/**
+ * Cambios parciales de un departamento: los campos nulos no se modifican.
+ */
+public record DepartamentoPatchDto(String nombre, String descripcion) {
+}
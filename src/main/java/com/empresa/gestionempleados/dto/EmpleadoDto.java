@@ -0,0 +1,28 @@
+package com.empresa.gestionempleados.dto;
+
+import com.empresa.gestionempleados.entity.Departamento;
+import com.empresa.gestionempleados.entity.Empleado;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Vista plana de un empleado, sin las relaciones perezosas de la entidad.
+ */
+public record EmpleadoDto(Long id,
+                          String nombre,
+                          String apellido,
+                          String email,
+                          LocalDate fechaContratacion,
+                          BigDecimal salario,
+                          Long departamentoId,
+                          String departamentoNombre) {
+
+    public static EmpleadoDto from(Empleado empleado){
+        Departamento departamento = empleado.getDepartamento();
+        return new EmpleadoDto(empleado.getId(), empleado.getNombre(), empleado.getApellido(), empleado.getEmail(),
+                empleado.getFechaContratacion(), empleado.getSalario(),
+                departamento != null ? departamento.getId() : null,
+                departamento != null ? departamento.getNombre() : null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.empresa.gestionempleados.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Cambios parciales de un empleado: los campos nulos no se modifican. Los proyectos no forman
+ * parte del cambio, así que se conservan.
+ */
+public record EmpleadoPatchDto(String nombre,
+                               String apellido,
+                               String email,
+                               LocalDate fechaContratacion,
+                               BigDecimal salario,
+                               Long departamentoId) {
+}
@@ -0,0 +1,25 @@
+package com.empresa.gestionempleados.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Criterios de la búsqueda combinada de empleados. Los criterios nulos no filtran.
+ * @param salarioMin Salario mínimo (inclusive)
+ * @param salarioMax Salario máximo (inclusive)
+ * @param inicio Primera fecha de contratación (inclusive)
+ * @param fin Última fecha de contratación (inclusive)
+ * @param departamentoId ID del departamento
+ * @param departamento Nombre del departamento
+ * @param proyectoId ID de un proyecto asignado al empleado
+ * @param nombre Prefijo del nombre del empleado, distingue mayúsculas
+ */
+public record FiltroEmpleados(BigDecimal salarioMin,
+                              BigDecimal salarioMax,
+                              LocalDate inicio,
+                              LocalDate fin,
+                              Long departamentoId,
+                              String departamento,
+                              Long proyectoId,
+                              String nombre) {
+}
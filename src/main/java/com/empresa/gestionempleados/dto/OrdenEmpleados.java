@@ -0,0 +1,67 @@
+package com.empresa.gestionempleados.dto;
+
+import com.empresa.gestionempleados.exceptions.CursorInvalidoException;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.function.Function;
+
+/**
+ * Orden ascendente de la búsqueda de empleados. El id desempata, así que el par (valor, id) es
+ * único y sirve de clave para la paginación keyset.
+ */
+public enum OrdenEmpleados {
+    ID("id", EmpleadoDto::id, Long::valueOf),
+    SALARIO("salario", EmpleadoDto::salario, BigDecimal::new),
+    FECHA_CONTRATACION("fechaContratacion", EmpleadoDto::fechaContratacion, LocalDate::parse);
+
+    private final String atributo;
+    private final Function<EmpleadoDto, ? extends Comparable<?>> valor;
+    private final Function<String, ? extends Comparable<?>> parser;
+
+    OrdenEmpleados(String atributo, Function<EmpleadoDto, ? extends Comparable<?>> valor,
+                   Function<String, ? extends Comparable<?>> parser){
+        this.atributo = atributo;
+        this.valor = valor;
+        this.parser = parser;
+    }
+
+    /**
+     * @param atributo Nombre del atributo, como lo envía el cliente
+     * @throws IllegalArgumentException si no se puede ordenar por ese atributo
+     */
+    public static OrdenEmpleados of(String atributo){
+        for (OrdenEmpleados orden : values()){
+            if (orden.atributo.equals(atributo)){
+                return orden;
+            }
+        }
+        throw new IllegalArgumentException("No se puede ordenar por: " + atributo);
+    }
+
+    public String atributo(){
+        return atributo;
+    }
+
+    public Sort sort(){
+        return this == ID ? Sort.by(atributo) : Sort.by(atributo, "id");
+    }
+
+    public String cursor(EmpleadoDto empleado){
+        return Cursor.encode(valor.apply(empleado), empleado.id());
+    }
+
+    /**
+     * Convierte el valor guardado en un cursor al tipo del atributo.
+     * @throws CursorInvalidoException si el valor no corresponde al atributo
+     */
+    public Comparable<?> valor(String valor){
+        try {
+            return parser.apply(valor);
+        } catch (NumberFormatException | DateTimeParseException e){
+            throw new CursorInvalidoException(valor);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.empresa.gestionempleados.dto;
+
+import com.empresa.gestionempleados.entity.Proyecto;
+
+import java.time.LocalDate;
+
+/**
+ * Vista plana de un proyecto, sin la colección de empleados.
+ */
+public record ProyectoDto(Long id,
+                          String nombre,
+                          String descripcion,
+                          String estado,
+                          LocalDate fechaInicio,
+                          LocalDate fechaFin) {
+
+    public static ProyectoDto from(Proyecto proyecto){
+        return new ProyectoDto(proyecto.getId(), proyecto.getNombre(), proyecto.getDescripcion(), proyecto.getEstado(),
+                proyecto.getFechaInicio(), proyecto.getFechaFin());
+    }
+}
@@ -0,0 +1,13 @@
+package com.empresa.gestionempleados.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Cambios parciales de un proyecto: los campos nulos no se modifican.
+ */
+public record ProyectoPatchDto(String nombre,
+                               String descripcion,
+                               String estado,
+                               LocalDate fechaInicio,
+                               LocalDate fechaFin) {
+}
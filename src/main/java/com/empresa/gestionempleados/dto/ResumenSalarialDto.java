@@ -0,0 +1,26 @@
+package com.empresa.gestionempleados.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Cantidad de empleados, total, mínimo, máximo y promedio de salario de un departamento.
+ */
+public record ResumenSalarialDto(Long departamentoId,
+                                 long empleados,
+                                 BigDecimal total,
+                                 BigDecimal minimo,
+                                 BigDecimal maximo,
+                                 BigDecimal promedio) {
+
+    public ResumenSalarialDto(Long departamentoId, Long empleados, BigDecimal total, BigDecimal minimo, BigDecimal maximo){
+        this(departamentoId, empleados, total, minimo, maximo, promedio(empleados, total));
+    }
+
+    public static BigDecimal promedio(long empleados, BigDecimal total){
+        if(empleados == 0){
+            return BigDecimal.ZERO;
+        }
+        return total.divide(BigDecimal.valueOf(empleados), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,13 @@
+package com.empresa.gestionempleados.dto;
+
+import com.empresa.gestionempleados.entity.Empleado;
+
+/**
+ * Empleado sugerido por la búsqueda incremental (typeahead).
+ */
+public record SugerenciaDto(Long id, String nombre, String apellido, String email) {
+
+    public static SugerenciaDto from(Empleado empleado){
+        return new SugerenciaDto(empleado.getId(), empleado.getNombre(), empleado.getApellido(), empleado.getEmail());
+    }
+}
@@ -2,7 +2,10 @@ package com.empresa.gestionempleados.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -10,22 +13,38 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "empleados")
+@NamedEntityGraph(name = Empleado.GRAFO_DEPARTAMENTO, attributeNodes = @NamedAttributeNode("departamento"))
+@Table(name = "empleados",
+        uniqueConstraints = @UniqueConstraint(name = Empleado.UK_EMAIL, columnNames = "email"),
+        // Páginas keyset por departamento: la búsqueda empieza en (departamento_id, after)
+        indexes = @Index(name = "ix_empleados_departamento_id", columnList = "departamento_id, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Empleado {
+    public static final String UK_EMAIL = "uk_empleados_email";
+    public static final String GRAFO_DEPARTAMENTO = "Empleado.departamento";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "empleados_seq")
+    @SequenceGenerator(name = "empleados_seq", sequenceName = "empleados_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Primitivo y con valor por defecto: {@code ddl-auto: update} agrega la columna con 0 en las filas
+     * existentes, y Hibernate no trata como nueva a una fila cuya versión nunca se informó.
+     */
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
     @Column(nullable = false, length = 100)
     private String nombre;
 
     @Column(nullable = false, length = 100)
     private String apellido;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     @Column(name = "fecha_contratacion", nullable = false)
@@ -38,6 +57,8 @@ public class Empleado {
     @JoinColumn(name = "departamento_id")
     private Departamento departamento;
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToMany
     @JoinTable(name = "empleado_proyecto",
         joinColumns = @JoinColumn(name = "empleado_id"),
@@ -3,23 +3,38 @@ package com.empresa.gestionempleados.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "proyectos")
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "proyectos")
+@Table(name = "proyectos",
+        // Páginas keyset por estado: la búsqueda empieza en (estado, after)
+        indexes = @Index(name = "ix_proyectos_estado_id", columnList = "estado, id"))
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class Proyecto {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "proyectos_seq")
+    @SequenceGenerator(name = "proyectos_seq", sequenceName = "proyectos_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
     @Column(nullable = false, length = 100)
     private String nombre;
 
@@ -35,6 +50,8 @@ public class Proyecto {
     @Column(name = "fecha_fin", nullable = false)
     private LocalDate fechaFin;
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToMany(mappedBy = "proyectos")
     private Set<Empleado> empleados = new HashSet<>();
 
@@ -0,0 +1,140 @@
+package com.empresa.gestionempleados.esquema;
+
+import jakarta.annotation.PostConstruct;
+import com.empresa.gestionempleados.entity.Empleado;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Ajustes sobre bases existentes que {@code ddl-auto: update} no hace por sí solo. Corre al arrancar,
+ * después de que Hibernate actualiza las tablas y antes de atender peticiones. Cada paso es
+ * idempotente y no cambia nada en una base recién creada.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class MigracionEsquema {
+    private static final Logger log = LoggerFactory.getLogger(MigracionEsquema.class);
+
+    /**
+     * Secuencia de cada tabla, con el mismo {@code allocationSize} que las entidades.
+     */
+    static final Map<String, String> SECUENCIAS = Map.of(
+            "empleados", "empleados_seq",
+            "departamentos", "departamentos_seq",
+            "proyectos", "proyectos_seq");
+
+    private final DataSource dataSource;
+
+    public MigracionEsquema(DataSource dataSource){
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void migrar() throws SQLException {
+        try (Connection conexion = dataSource.getConnection()){
+            String motor = conexion.getMetaData().getDatabaseProductName();
+            if("PostgreSQL".equals(motor)){
+                alinearSecuencias(conexion);
+            }
+            completarVersiones(conexion);
+            nombrarRestriccionEmail(conexion, "MySQL".equals(motor));
+        }
+    }
+
+    /**
+     * Una secuencia creada sobre una tabla que ya tenía filas (las claves eran {@code IDENTITY})
+     * empieza en 1 y chocaría con los ids existentes. Hibernate usa los {@code allocationSize} ids que
+     * terminan en el valor devuelto por {@code nextval}, así que basta con dejar el último valor de la
+     * secuencia en el id máximo. Una secuencia que ya va por delante no se toca.
+     */
+    private static void alinearSecuencias(Connection conexion) throws SQLException {
+        try (Statement sentencia = conexion.createStatement()){
+            for (Map.Entry<String, String> tabla : SECUENCIAS.entrySet()){
+                String secuencia = tabla.getValue();
+                try (ResultSet ajuste = sentencia.executeQuery("SELECT setval('" + secuencia + "', maximo) FROM (SELECT MAX(id) AS maximo FROM "
+                        + tabla.getKey() + ") t WHERE maximo >= (SELECT last_value FROM " + secuencia + ")")){
+                    if(ajuste.next()){
+                        log.info("Secuencia {} alineada con el id máximo de {}: {}", secuencia, tabla.getKey(), ajuste.getLong(1));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Las filas creadas antes de agregar {@code @Version} quedaron con la versión nula si la columna
+     * se agregó sin valor por defecto.
+     */
+    private static void completarVersiones(Connection conexion) throws SQLException {
+        try (Statement sentencia = conexion.createStatement()){
+            for (String tabla : SECUENCIAS.keySet()){
+                int filas = sentencia.executeUpdate("UPDATE " + tabla + " SET version = 0 WHERE version IS NULL");
+                if(filas > 0){
+                    log.info("Versión inicial asignada a {} filas de {}", filas, tabla);
+                }
+            }
+        }
+    }
+
+    /**
+     * La restricción única de {@code empleados.email} se llamaba como la generaba Hibernate, y
+     * {@code ddl-auto: update} no la renombra: crea {@value Empleado#UK_EMAIL} además de la anterior.
+     * El servicio reconoce el email duplicado por ese nombre, así que la anterior se renombra o, si
+     * ya existen las dos, se elimina.
+     */
+    private static void nombrarRestriccionEmail(Connection conexion, boolean mysql) throws SQLException {
+        List<String> restricciones = restriccionesUnicasEmail(conexion);
+        boolean nombrada = restricciones.removeIf(Empleado.UK_EMAIL::equalsIgnoreCase);
+        if(restricciones.isEmpty()){
+            return;
+        }
+        String comilla = conexion.getMetaData().getIdentifierQuoteString().trim();
+        String tipo = mysql ? "INDEX" : "CONSTRAINT";
+        try (Statement sentencia = conexion.createStatement()){
+            for (String restriccion : restricciones){
+                String anterior = comilla + restriccion + comilla;
+                if(nombrada){
+                    sentencia.execute("ALTER TABLE empleados DROP " + tipo + " " + anterior);
+                    log.info("Restricción única duplicada sobre empleados.email eliminada: {}", restriccion);
+                } else {
+                    sentencia.execute("ALTER TABLE empleados RENAME " + tipo + " " + anterior + " TO " + Empleado.UK_EMAIL);
+                    log.info("Restricción única sobre empleados.email renombrada: {} -> {}", restriccion, Empleado.UK_EMAIL);
+                    nombrada = true;
+                }
+            }
+        }
+    }
+
+    private static List<String> restriccionesUnicasEmail(Connection conexion) throws SQLException {
+        // MySQL no tiene esquemas: la base actual es el catálogo
+        String esquema = conexion.getSchema() != null ? conexion.getSchema() : conexion.getCatalog();
+        String consulta = "SELECT tc.constraint_name FROM information_schema.table_constraints tc"
+                + " JOIN information_schema.key_column_usage k ON k.constraint_schema = tc.constraint_schema"
+                + " AND k.constraint_name = tc.constraint_name AND k.table_name = tc.table_name"
+                + " WHERE tc.constraint_type = 'UNIQUE' AND LOWER(tc.table_schema) = ? AND LOWER(tc.table_name) = 'empleados'"
+                + " AND LOWER(k.column_name) = 'email'";
+        List<String> restricciones = new ArrayList<>();
+        try (PreparedStatement sentencia = conexion.prepareStatement(consulta)){
+            sentencia.setString(1, esquema.toLowerCase(Locale.ROOT));
+            try (ResultSet filas = sentencia.executeQuery()){
+                while (filas.next()){
+                    restricciones.add(filas.getString(1));
+                }
+            }
+        }
+        return restricciones;
+    }
+}
@@ -0,0 +1,7 @@
+package com.empresa.gestionempleados.exceptions;
+
+public class CursorInvalidoException extends RuntimeException{
+    public CursorInvalidoException(String cursor){
+        super("El cursor: "+cursor+" no es valido");
+    }
+}
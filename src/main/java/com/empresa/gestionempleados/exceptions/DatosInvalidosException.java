@@ -0,0 +1,7 @@
+package com.empresa.gestionempleados.exceptions;
+
+public class DatosInvalidosException extends RuntimeException{
+    public DatosInvalidosException(String mensaje){
+        super(mensaje);
+    }
+}
@@ -0,0 +1,139 @@
+package com.empresa.gestionempleados.formato;
+
+import com.empresa.gestionempleados.dto.DepartamentoDto;
+import com.empresa.gestionempleados.dto.EmpleadoDto;
+import com.empresa.gestionempleados.dto.ProyectoDto;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Escribe los DTO con la codificación de los mensajes de {@code proto/gestion.proto}, directamente
+ * sobre un {@link CodedOutputStream} y sin clases generadas por protoc. Los números de campo de
+ * cada método deben coincidir con el esquema.
+ * <p>
+ * Un mensaje anidado va precedido de su tamaño, así que cada tipo tiene un método que lo calcula
+ * con las mismas reglas con que se escribe. Los campos nulos se omiten.
+ */
+public final class CodificadorProtobuf {
+
+    private CodificadorProtobuf(){
+    }
+
+    public static void escribir(EmpleadoDto empleado, CodedOutputStream salida) throws IOException {
+        int64(salida, 1, empleado.id());
+        string(salida, 2, empleado.nombre());
+        string(salida, 3, empleado.apellido());
+        string(salida, 4, empleado.email());
+        fecha(salida, 5, empleado.fechaContratacion());
+        decimal(salida, 6, empleado.salario());
+        int64(salida, 7, empleado.departamentoId());
+        string(salida, 8, empleado.departamentoNombre());
+    }
+
+    public static int tamanio(EmpleadoDto empleado){
+        return tamanioInt64(1, empleado.id())
+                + tamanioString(2, empleado.nombre())
+                + tamanioString(3, empleado.apellido())
+                + tamanioString(4, empleado.email())
+                + tamanioFecha(5, empleado.fechaContratacion())
+                + tamanioDecimal(6, empleado.salario())
+                + tamanioInt64(7, empleado.departamentoId())
+                + tamanioString(8, empleado.departamentoNombre());
+    }
+
+    public static void escribir(DepartamentoDto departamento, CodedOutputStream salida) throws IOException {
+        int64(salida, 1, departamento.id());
+        string(salida, 2, departamento.nombre());
+        string(salida, 3, departamento.descripcion());
+    }
+
+    public static int tamanio(DepartamentoDto departamento){
+        return tamanioInt64(1, departamento.id())
+                + tamanioString(2, departamento.nombre())
+                + tamanioString(3, departamento.descripcion());
+    }
+
+    public static void escribir(ProyectoDto proyecto, CodedOutputStream salida) throws IOException {
+        int64(salida, 1, proyecto.id());
+        string(salida, 2, proyecto.nombre());
+        string(salida, 3, proyecto.descripcion());
+        string(salida, 4, proyecto.estado());
+        fecha(salida, 5, proyecto.fechaInicio());
+        fecha(salida, 6, proyecto.fechaFin());
+    }
+
+    public static int tamanio(ProyectoDto proyecto){
+        return tamanioInt64(1, proyecto.id())
+                + tamanioString(2, proyecto.nombre())
+                + tamanioString(3, proyecto.descripcion())
+                + tamanioString(4, proyecto.estado())
+                + tamanioFecha(5, proyecto.fechaInicio())
+                + tamanioFecha(6, proyecto.fechaFin());
+    }
+
+    /**
+     * Escribe la cabecera de un mensaje anidado: etiqueta del campo y tamaño del contenido que sigue.
+     */
+    public static void cabecera(CodedOutputStream salida, int campo, int tamanio) throws IOException {
+        salida.writeTag(campo, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        salida.writeUInt32NoTag(tamanio);
+    }
+
+    private static void int64(CodedOutputStream salida, int campo, Long valor) throws IOException {
+        if(valor != null){
+            salida.writeInt64(campo, valor);
+        }
+    }
+
+    private static int tamanioInt64(int campo, Long valor){
+        return valor == null ? 0 : CodedOutputStream.computeInt64Size(campo, valor);
+    }
+
+    private static void string(CodedOutputStream salida, int campo, String valor) throws IOException {
+        if(valor != null){
+            salida.writeString(campo, valor);
+        }
+    }
+
+    private static int tamanioString(int campo, String valor){
+        return valor == null ? 0 : CodedOutputStream.computeStringSize(campo, valor);
+    }
+
+    private static void fecha(CodedOutputStream salida, int campo, LocalDate valor) throws IOException {
+        if(valor != null){
+            salida.writeSInt32(campo, Math.toIntExact(valor.toEpochDay()));
+        }
+    }
+
+    private static int tamanioFecha(int campo, LocalDate valor){
+        return valor == null ? 0 : CodedOutputStream.computeSInt32Size(campo, Math.toIntExact(valor.toEpochDay()));
+    }
+
+    /**
+     * Mensaje {@code Decimal}; falla con {@link ArithmeticException} si las unidades no entran en 64 bits.
+     */
+    private static void decimal(CodedOutputStream salida, int campo, BigDecimal valor) throws IOException {
+        if(valor != null){
+            cabecera(salida, campo, tamanioContenidoDecimal(valor));
+            salida.writeSInt64(1, valor.unscaledValue().longValueExact());
+            salida.writeInt32(2, valor.scale());
+        }
+    }
+
+    private static int tamanioDecimal(int campo, BigDecimal valor){
+        if(valor == null){
+            return 0;
+        }
+        int contenido = tamanioContenidoDecimal(valor);
+        return CodedOutputStream.computeTagSize(campo) + CodedOutputStream.computeUInt32SizeNoTag(contenido) + contenido;
+    }
+
+    private static int tamanioContenidoDecimal(BigDecimal valor){
+        return CodedOutputStream.computeSInt64Size(1, valor.unscaledValue().longValueExact())
+                + CodedOutputStream.computeInt32Size(2, valor.scale());
+    }
+}
@@ -0,0 +1,96 @@
+package com.empresa.gestionempleados.formato;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+/**
+ * Formatos en que se responden los DTO, con el sufijo que cada uno agrega al ETag. Sus bytes son
+ * distintos, así que cada formato necesita su propio ETag fuerte: uno compartido permitiría a un
+ * caché validar o mezclar la respuesta JSON con la CBOR del mismo recurso. JSON no lleva sufijo,
+ * para que los ETag que ya tienen los clientes sigan valiendo.
+ * <p>
+ * {@link #elegir(WebRequest)} elige el formato antes de cargar los datos, para comparar
+ * If-None-Match con el ETag correcto; quien lo use debe fijar el Content-Type de la respuesta con
+ * {@link #tipo()} para que la negociación de Spring no elija otro.
+ */
+public enum FormatoRespuesta {
+    JSON(MediaType.APPLICATION_JSON, ""),
+    SMILE(new MediaType("application", "x-jackson-smile"), "-smile"),
+    CBOR(new MediaType("application", "cbor"), "-cbor"),
+    PROTOBUF(ProtobufDtoHttpMessageConverter.PROTOBUF, "-protobuf");
+
+    private final MediaType tipo;
+    private final String sufijo;
+
+    FormatoRespuesta(MediaType tipo, String sufijo){
+        this.tipo = tipo;
+        this.sufijo = sufijo;
+    }
+
+    public MediaType tipo(){
+        return tipo;
+    }
+
+    /**
+     * @param valor Identificador de la versión del recurso, sin comillas
+     * @return ETag fuerte del recurso en este formato
+     */
+    public String etag(String valor){
+        return "\"" + valor + sufijo + "\"";
+    }
+
+    /**
+     * Elige el formato que prefiere el encabezado Accept: el de mayor calidad según la entrada más
+     * específica que lo incluye y, a igual calidad, el que el cliente nombra antes. Sin Accept, o
+     * con comodines, responde JSON.
+     * @return El formato elegido, o null si el cliente no acepta ninguno o Accept no es válido
+     */
+    public static FormatoRespuesta elegir(WebRequest request){
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if(accept == null || accept.isBlank()){
+            return JSON;
+        }
+        List<MediaType> aceptados;
+        try {
+            aceptados = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e){
+            return null;
+        }
+        FormatoRespuesta elegido = null;
+        double mejorCalidad = 0;
+        int mejorPosicion = Integer.MAX_VALUE;
+        for (FormatoRespuesta formato : values()){
+            int posicion = entradaMasEspecifica(aceptados, formato.tipo);
+            double calidad = posicion < 0 ? 0 : aceptados.get(posicion).getQualityValue();
+            if(calidad == 0){
+                continue;
+            }
+            boolean comodin = aceptados.get(posicion).isWildcardType() || aceptados.get(posicion).isWildcardSubtype();
+            if(calidad > mejorCalidad || (calidad == mejorCalidad && !comodin && posicion < mejorPosicion)){
+                elegido = formato;
+                mejorCalidad = calidad;
+                mejorPosicion = comodin ? Integer.MAX_VALUE : posicion;
+            }
+        }
+        return elegido;
+    }
+
+    private static int entradaMasEspecifica(List<MediaType> aceptados, MediaType tipo){
+        int posicion = -1;
+        for (int i = 0; i < aceptados.size(); i++){
+            MediaType aceptado = aceptados.get(i);
+            if(aceptado.includes(tipo) && (posicion < 0 || especificidad(aceptado) > especificidad(aceptados.get(posicion)))){
+                posicion = i;
+            }
+        }
+        return posicion;
+    }
+
+    private static int especificidad(MediaType tipo){
+        return tipo.isWildcardType() ? 0 : tipo.isWildcardSubtype() ? 1 : 2;
+    }
+}
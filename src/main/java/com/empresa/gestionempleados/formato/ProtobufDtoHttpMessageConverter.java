@@ -0,0 +1,120 @@
+package com.empresa.gestionempleados.formato;
+
+import com.empresa.gestionempleados.dto.DepartamentoDto;
+import com.empresa.gestionempleados.dto.EmpleadoDto;
+import com.empresa.gestionempleados.dto.ProyectoDto;
+import com.google.protobuf.CodedOutputStream;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Respuestas en {@code application/x-protobuf} para {@link EmpleadoDto}, {@link DepartamentoDto} y
+ * {@link ProyectoDto}, sueltos o en listas, con los mensajes de {@code proto/gestion.proto}. Una
+ * lista se escribe como el mensaje contenedor ({@code Empleados}, {@code Departamentos} o
+ * {@code Proyectos}), con los elementos en el campo 1.
+ * <p>
+ * Solo escribe: los cuerpos de las peticiones siguen en JSON. Las páginas por cursor y el resto de
+ * las respuestas no tienen mensaje y responden NOT_ACCEPTABLE a quien pida solo Protobuf.
+ */
+public class ProtobufDtoHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+    private static final Set<Class<?>> DTOS = Set.of(EmpleadoDto.class, DepartamentoDto.class, ProyectoDto.class);
+    private static final int CAMPO_ELEMENTOS = 1;
+
+    public ProtobufDtoHttpMessageConverter(){
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz){
+        return DTOS.contains(clazz);
+    }
+
+    /**
+     * Spring consulta los tipos producibles con la clase cruda del valor; para una lista no se
+     * conocen los elementos, así que {@link #canWrite(Type, Class, MediaType)} decide.
+     */
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz){
+        return supports(clazz) || Collection.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType){
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType){
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType){
+        if(!canWrite(mediaType)){
+            return false;
+        }
+        ResolvableType tipo = type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz);
+        if(Collection.class.isAssignableFrom(tipo.toClass())){
+            return supports(tipo.asCollection().resolveGeneric(0));
+        }
+        return supports(tipo.toClass());
+    }
+
+    @Override
+    protected void writeInternal(Object valor, Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream salida = CodedOutputStream.newInstance(outputMessage.getBody());
+        try {
+            if(valor instanceof Collection<?> elementos){
+                for (Object elemento : elementos){
+                    CodificadorProtobuf.cabecera(salida, CAMPO_ELEMENTOS, tamanio(elemento));
+                    escribir(elemento, salida);
+                }
+            } else {
+                escribir(valor, salida);
+            }
+        } catch (ArithmeticException e){
+            throw new HttpMessageNotWritableException("Valor fuera del rango del esquema Protobuf", e);
+        }
+        salida.flush();
+    }
+
+    private static void escribir(Object dto, CodedOutputStream salida) throws IOException {
+        switch (dto){
+            case EmpleadoDto empleado -> CodificadorProtobuf.escribir(empleado, salida);
+            case DepartamentoDto departamento -> CodificadorProtobuf.escribir(departamento, salida);
+            case ProyectoDto proyecto -> CodificadorProtobuf.escribir(proyecto, salida);
+            default -> throw new HttpMessageNotWritableException("Sin mensaje Protobuf para " + dto.getClass().getSimpleName());
+        }
+    }
+
+    private static int tamanio(Object dto){
+        return switch (dto){
+            case EmpleadoDto empleado -> CodificadorProtobuf.tamanio(empleado);
+            case DepartamentoDto departamento -> CodificadorProtobuf.tamanio(departamento);
+            case ProyectoDto proyecto -> CodificadorProtobuf.tamanio(proyecto);
+            default -> throw new HttpMessageNotWritableException("Sin mensaje Protobuf para " + dto.getClass().getSimpleName());
+        };
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage){
+        throw new HttpMessageNotReadableException("Protobuf solo se usa en las respuestas", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage){
+        throw new HttpMessageNotReadableException("Protobuf solo se usa en las respuestas", inputMessage);
+    }
+}
@@ -0,0 +1,187 @@
+package com.empresa.gestionempleados.index;
+
+import com.empresa.gestionempleados.repository.EmpleadoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Índice en memoria de los emails registrados, usado para evitar la consulta previa a cada alta.
+ * <p>
+ * Combina un filtro de Bloom con contadores (para poder quitar emails al borrar o modificar empleados)
+ * y un mapa de reservas con bloqueo por franjas para las escrituras en curso. El filtro solo da
+ * negativos seguros: si responde que un email puede existir, el servicio lo confirma en la base.
+ * La restricción única de {@code empleados.email} sigue siendo el árbitro final, porque otras
+ * instancias de la aplicación no actualizan este índice.
+ */
+@Component
+public class EmailIndex {
+    private static final int BITS_POR_CONTADOR = 4;
+    private static final int CONTADORES_POR_PALABRA = Long.SIZE / BITS_POR_CONTADOR;
+    private static final long CONTADOR_SATURADO = (1L << BITS_POR_CONTADOR) - 1;
+    private static final int FRANJAS = 64;
+
+    private final EmpleadoRepository empleadoRepository;
+    private final AtomicLongArray contadores;
+    private final int mascara;
+    private final int funcionesHash;
+    private final Object[] candados = new Object[FRANJAS];
+    private final Set<String>[] reservas;
+    private volatile boolean listo;
+
+    @SuppressWarnings("unchecked")
+    public EmailIndex(EmpleadoRepository empleadoRepository,
+                      @Value("${gestion.indice-email.contadores:1048576}") int contadores,
+                      @Value("${gestion.indice-email.funciones-hash:4}") int funcionesHash){
+        if(Integer.bitCount(contadores) != 1 || contadores < CONTADORES_POR_PALABRA){
+            throw new IllegalArgumentException("gestion.indice-email.contadores debe ser una potencia de dos mayor o igual a " + CONTADORES_POR_PALABRA);
+        }
+        this.empleadoRepository = empleadoRepository;
+        this.contadores = new AtomicLongArray(contadores / CONTADORES_POR_PALABRA);
+        this.mascara = contadores - 1;
+        this.funcionesHash = funcionesHash;
+        this.reservas = new Set[FRANJAS];
+        for (int i = 0; i < FRANJAS; i++){
+            candados[i] = new Object();
+            reservas[i] = new HashSet<>();
+        }
+    }
+
+    /**
+     * Carga los emails existentes al arrancar. Hasta que termina, {@link #puedeExistir} responde
+     * siempre que sí y las bajas no se descuentan, para no producir falsos negativos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void precargar(){
+        try (Stream<String> emails = empleadoRepository.streamEmails()){
+            emails.forEach(this::agregar);
+        }
+        listo = true;
+    }
+
+    /**
+     * @return false solo si el email seguro que no está registrado
+     */
+    public boolean puedeExistir(String email){
+        if(!listo || email == null){
+            return true;
+        }
+        long hash = hash(email);
+        for (int i = 0; i < funcionesHash; i++){
+            if(leer(posicion(hash, i)) == 0){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void agregar(String email){
+        if(email == null){
+            return;
+        }
+        long hash = hash(email);
+        for (int i = 0; i < funcionesHash; i++){
+            sumar(posicion(hash, i), 1);
+        }
+    }
+
+    public void quitar(String email){
+        if(!listo || email == null){
+            return;
+        }
+        long hash = hash(email);
+        for (int i = 0; i < funcionesHash; i++){
+            sumar(posicion(hash, i), -1);
+        }
+    }
+
+    /**
+     * Reserva el email para una escritura en curso de esta instancia.
+     * @return false si otra escritura ya lo tiene reservado
+     */
+    public boolean reservar(String email){
+        if(email == null){
+            return true;
+        }
+        int franja = franja(email);
+        synchronized (candados[franja]){
+            return reservas[franja].add(email);
+        }
+    }
+
+    public void liberar(String email){
+        if(email == null){
+            return;
+        }
+        int franja = franja(email);
+        synchronized (candados[franja]){
+            reservas[franja].remove(email);
+        }
+    }
+
+    public boolean isListo(){
+        return listo;
+    }
+
+    private static int franja(String email){
+        return (email.hashCode() & Integer.MAX_VALUE) % FRANJAS;
+    }
+
+    private int posicion(long hash, int i){
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return (h1 + i * h2) & mascara;
+    }
+
+    private long leer(int posicion){
+        long palabra = contadores.get(posicion / CONTADORES_POR_PALABRA);
+        return (palabra >>> desplazamiento(posicion)) & CONTADOR_SATURADO;
+    }
+
+    /**
+     * Suma o resta uno al contador con CAS. Un contador saturado ya no se modifica (pierde la
+     * cuenta exacta) y uno en cero no se decrementa, así nunca se generan falsos negativos.
+     */
+    private void sumar(int posicion, int delta){
+        int indice = posicion / CONTADORES_POR_PALABRA;
+        int desplazamiento = desplazamiento(posicion);
+        while (true){
+            long palabra = contadores.get(indice);
+            long valor = (palabra >>> desplazamiento) & CONTADOR_SATURADO;
+            if(valor == CONTADOR_SATURADO || (delta < 0 && valor == 0)){
+                return;
+            }
+            long nueva = (palabra & ~(CONTADOR_SATURADO << desplazamiento)) | ((valor + delta) << desplazamiento);
+            if(contadores.compareAndSet(indice, palabra, nueva)){
+                return;
+            }
+        }
+    }
+
+    private static int desplazamiento(int posicion){
+        return (posicion % CONTADORES_POR_PALABRA) * BITS_POR_CONTADOR;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre los caracteres, con una mezcla final para repartir bien las dos mitades.
+     */
+    private static long hash(String email){
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < email.length(); i++){
+            h ^= email.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
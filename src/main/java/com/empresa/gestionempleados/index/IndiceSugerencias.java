@@ -0,0 +1,331 @@
+package com.empresa.gestionempleados.index;
+
+import com.empresa.gestionempleados.dto.SugerenciaDto;
+import com.empresa.gestionempleados.repository.EmpleadoRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Índice en memoria para sugerir empleados por prefijo de nombre, apellido o email.
+ * <p>
+ * Cada campo se parte en términos (el email también en sus partes: {@code juan.perez@empresa.com}
+ * da {@code juan}, {@code perez}, {@code empresa} y {@code com}), normalizados a minúsculas y sin
+ * tildes. Los términos se guardan ordenados en un {@link ConcurrentSkipListMap}, así que los que
+ * empiezan con un prefijo forman un rango contiguo que se recorre sin tocar el resto. Una consulta
+ * de varias palabras exige que cada palabra sea prefijo de algún término del empleado.
+ * <p>
+ * Las escrituras se serializan con un {@link ReentrantLock} y las lecturas no bloquean. Igual que
+ * {@link EmailIndex}, solo ve los cambios confirmados por esta instancia de la aplicación.
+ */
+@Component
+public class IndiceSugerencias {
+    public static final int LIMITE_MAXIMO = 50;
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Tamaños aproximados en bytes (JVM de 64 bits con punteros comprimidos) para estimar la memoria
+     * del índice sin recorrer el heap: nodo del skip list con su nivel de índice promedio, conjunto
+     * concurrente vacío, nodo de conjunto o mapa con su {@code Long}, cabecera de {@code String} y
+     * de arreglo, y registro con sus campos.
+     */
+    private static final long BYTES_NODO_TERMINO = 40;
+    private static final long BYTES_CONJUNTO = 120;
+    private static final long BYTES_REFERENCIA = 56;
+    private static final long BYTES_STRING = 40;
+    private static final long BYTES_ARREGLO = 16;
+    private static final long BYTES_ENTRADA = 80;
+
+    /**
+     * Estado del índice para el endpoint de estadísticas.
+     * @param empleados Empleados indexados
+     * @param terminos Términos distintos
+     * @param referencias Pares término-empleado
+     * @param bytesEstimados Memoria aproximada ocupada por el índice
+     */
+    public record Estadisticas(long empleados, long terminos, long referencias, long bytesEstimados) {
+    }
+
+    private record Entrada(SugerenciaDto empleado, String[] terminos) {
+    }
+
+    private final EmpleadoRepository empleadoRepository;
+    private final TransactionTemplate primario;
+    private final ConcurrentSkipListMap<String, Set<Long>> terminos = new ConcurrentSkipListMap<>();
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+    private final ReentrantLock escritura = new ReentrantLock();
+    private final Set<Long> modificadosDuranteCarga = ConcurrentHashMap.newKeySet();
+    /**
+     * Empleados con un cambio parcial que llegó durante la carga antes de que estuvieran en el
+     * índice; se releen de la base al terminar. Solo cambia con {@link #escritura} tomado.
+     */
+    private final Set<Long> pendientesDeReleer = new HashSet<>();
+    private volatile boolean listo;
+
+    public IndiceSugerencias(EmpleadoRepository empleadoRepository, PlatformTransactionManager transactionManager){
+        this.empleadoRepository = empleadoRepository;
+        this.primario = new TransactionTemplate(transactionManager);
+        this.primario.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Carga los empleados existentes al arrancar. Los empleados que cambian mientras tanto ya
+     * quedaron al día por {@link #agregar} o {@link #quitar} y no se pisan con la lectura anterior;
+     * los que recibieron un cambio parcial sin estar todavía en el índice se releen al final.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void precargar(){
+        try (Stream<SugerenciaDto> empleados = empleadoRepository.streamSugerencias()){
+            empleados.forEach(this::indexarSiNoCambio);
+        }
+        releerPendientes();
+        modificadosDuranteCarga.clear();
+    }
+
+    /**
+     * Relee los empleados pendientes hasta que no queden y recién entonces marca el índice como
+     * listo, con el candado tomado para que ningún cambio parcial quede pendiente después. Cada
+     * ronda usa una transacción nueva sobre el primario: la de la carga, o una réplica atrasada,
+     * devolvería los datos de antes del cambio. Un empleado que vuelve a cambiar mientras se relee
+     * queda para la ronda siguiente.
+     */
+    private void releerPendientes(){
+        while (true){
+            List<Long> ids;
+            escritura.lock();
+            try {
+                if(pendientesDeReleer.isEmpty()){
+                    listo = true;
+                    return;
+                }
+                ids = new ArrayList<>(pendientesDeReleer);
+                pendientesDeReleer.clear();
+            } finally {
+                escritura.unlock();
+            }
+            List<SugerenciaDto> releidos = primario.execute(estado -> empleadoRepository.findSugerenciasByIdIn(ids));
+            escritura.lock();
+            try {
+                for (SugerenciaDto empleado : releidos){
+                    if(!pendientesDeReleer.contains(empleado.id())){
+                        indexar(empleado);
+                    }
+                }
+            } finally {
+                escritura.unlock();
+            }
+        }
+    }
+
+    /**
+     * La comprobación y el indexado van con el candado tomado: un cambio que se marca mientras
+     * tanto espera y se aplica después, sobre la fila leída.
+     */
+    private void indexarSiNoCambio(SugerenciaDto empleado){
+        escritura.lock();
+        try {
+            if(!modificadosDuranteCarga.contains(empleado.id())){
+                indexar(empleado);
+            }
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Indexa el empleado o reemplaza sus datos si ya estaba.
+     */
+    public void agregar(SugerenciaDto empleado){
+        if(!listo){
+            modificadosDuranteCarga.add(empleado.id());
+        }
+        indexar(empleado);
+    }
+
+    /**
+     * Aplica un cambio parcial sobre un empleado ya indexado; los campos nulos conservan su valor.
+     * Si el empleado todavía no está en el índice y la precarga no terminó, la precarga lo saltea
+     * (la fila que leyó puede ser anterior al cambio) y lo relee al final.
+     */
+    public void actualizar(SugerenciaDto cambios){
+        escritura.lock();
+        try {
+            Entrada actual = entradas.get(cambios.id());
+            if(actual == null){
+                if(!listo){
+                    modificadosDuranteCarga.add(cambios.id());
+                    pendientesDeReleer.add(cambios.id());
+                }
+                return;
+            }
+            SugerenciaDto anterior = actual.empleado();
+            indexar(new SugerenciaDto(cambios.id(),
+                    cambios.nombre() != null ? cambios.nombre() : anterior.nombre(),
+                    cambios.apellido() != null ? cambios.apellido() : anterior.apellido(),
+                    cambios.email() != null ? cambios.email() : anterior.email()));
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    public void quitar(Long id){
+        if(!listo){
+            modificadosDuranteCarga.add(id);
+        }
+        escritura.lock();
+        try {
+            desindexar(id);
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * @param consulta Palabras a buscar; cada una debe ser prefijo de un término del empleado
+     * @param limite Cantidad máxima de sugerencias, hasta {@link #LIMITE_MAXIMO}
+     * @return Empleados en orden alfabético del término que coincide con la palabra más larga
+     */
+    public List<SugerenciaDto> sugerir(String consulta, int limite){
+        String[] palabras = terminos(consulta);
+        if(palabras.length == 0){
+            return List.of();
+        }
+        int maximo = Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+        // La palabra más larga suele ser la más selectiva: sus coincidencias son los candidatos.
+        String guia = palabras[0];
+        for (String palabra : palabras){
+            if(palabra.length() > guia.length()){
+                guia = palabra;
+            }
+        }
+        NavigableMap<String, Set<Long>> rango = terminos.subMap(guia, true, guia + Character.MAX_VALUE, false);
+        List<SugerenciaDto> sugerencias = new ArrayList<>(maximo);
+        Set<Long> vistos = new HashSet<>();
+        for (Set<Long> ids : rango.values()){
+            for (Long id : ids){
+                Entrada entrada = entradas.get(id);
+                if(entrada != null && vistos.add(id) && coincideConTodas(entrada, palabras)){
+                    sugerencias.add(entrada.empleado());
+                    if(sugerencias.size() == maximo){
+                        return sugerencias;
+                    }
+                }
+            }
+        }
+        return sugerencias;
+    }
+
+    public Estadisticas estadisticas(){
+        long cantidadTerminos = 0;
+        long referencias = 0;
+        long bytes = 0;
+        for (Map.Entry<String, Set<Long>> termino : terminos.entrySet()){
+            int ids = termino.getValue().size();
+            cantidadTerminos++;
+            referencias += ids;
+            bytes += BYTES_NODO_TERMINO + BYTES_STRING + termino.getKey().length() + BYTES_CONJUNTO + ids * BYTES_REFERENCIA;
+        }
+        for (Entrada entrada : entradas.values()){
+            SugerenciaDto empleado = entrada.empleado();
+            bytes += BYTES_REFERENCIA + BYTES_ENTRADA + BYTES_ARREGLO + 4L * entrada.terminos().length
+                    + largo(empleado.nombre()) + largo(empleado.apellido()) + largo(empleado.email());
+        }
+        return new Estadisticas(entradas.size(), cantidadTerminos, referencias, bytes);
+    }
+
+    public boolean isListo(){
+        return listo;
+    }
+
+    private void indexar(SugerenciaDto empleado){
+        String[] propios = terminos(Stream.of(empleado.nombre(), empleado.apellido(), empleado.email())
+                .filter(Objects::nonNull).collect(Collectors.joining(" ")));
+        escritura.lock();
+        try {
+            desindexar(empleado.id());
+            for (String termino : propios){
+                terminos.computeIfAbsent(termino, t -> ConcurrentHashMap.newKeySet()).add(empleado.id());
+            }
+            entradas.put(empleado.id(), new Entrada(empleado, propios));
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Debe llamarse con el candado de escritura tomado.
+     */
+    private void desindexar(Long id){
+        Entrada anterior = entradas.remove(id);
+        if(anterior == null){
+            return;
+        }
+        for (String termino : anterior.terminos()){
+            Set<Long> ids = terminos.get(termino);
+            if(ids != null){
+                ids.remove(id);
+                if(ids.isEmpty()){
+                    terminos.remove(termino);
+                }
+            }
+        }
+    }
+
+    private static boolean coincideConTodas(Entrada entrada, String[] palabras){
+        for (String palabra : palabras){
+            boolean coincide = false;
+            for (String termino : entrada.terminos()){
+                if(termino.startsWith(palabra)){
+                    coincide = true;
+                    break;
+                }
+            }
+            if(!coincide){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parte el texto en términos distintos, en minúsculas y sin tildes.
+     */
+    static String[] terminos(String texto){
+        if(texto == null){
+            return new String[0];
+        }
+        String normalizado = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARADORES.split(normalizado))
+                .filter(termino -> !termino.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private static long largo(String valor){
+        return valor == null ? 0 : BYTES_STRING + valor.length();
+    }
+}
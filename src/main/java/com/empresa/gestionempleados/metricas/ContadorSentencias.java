@@ -0,0 +1,139 @@
+package com.empresa.gestionempleados.metricas;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Cuenta las sentencias SQL que prepara Hibernate dentro de un {@link Registro} abierto en el hilo
+ * actual: el filtro {@link ContadorSentenciasFilter} abre uno por petición y los tests pueden abrir
+ * el suyo para acotar cuántas sentencias emite un endpoint.
+ * <p>
+ * Las sentencias se agrupan por forma (espacios normalizados y listas {@code IN (?, ?, ...)}
+ * colapsadas). Cuando una misma forma se repite más de {@code gestion.sentencias.umbral-repeticiones}
+ * veces en un registro se deja un aviso con el camino de llamadas de la aplicación que la disparó,
+ * que es el síntoma típico de una carga perezosa por elemento (N+1).
+ * <p>
+ * Se instala como {@code hibernate.session_factory.statement_inspector} salvo que la configuración
+ * ya defina otro inspector.
+ */
+@Component
+public class ContadorSentencias implements StatementInspector, HibernatePropertiesCustomizer {
+    private static final Logger log = LoggerFactory.getLogger(ContadorSentencias.class);
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+    private static final Pattern LISTA_PARAMETROS = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final String PAQUETE_APLICACION = "com.empresa.gestionempleados.";
+
+    private final ThreadLocal<Registro> actual = new ThreadLocal<>();
+    private final int umbralRepeticiones;
+
+    public ContadorSentencias(@Value("${gestion.sentencias.umbral-repeticiones:10}") int umbralRepeticiones){
+        this.umbralRepeticiones = umbralRepeticiones;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties){
+        hibernateProperties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    /**
+     * Abre un registro en el hilo actual; debe cerrarse en el mismo hilo. Los registros se pueden
+     * anidar: cada sentencia cuenta en todos los abiertos, pero solo avisa el más interno.
+     * @param descripcion qué se está midiendo, para el aviso (por ejemplo "GET /api/empleados")
+     */
+    public Registro iniciar(String descripcion){
+        Registro registro = new Registro(descripcion, actual.get());
+        actual.set(registro);
+        return registro;
+    }
+
+    @Override
+    public String inspect(String sql){
+        Registro registro = actual.get();
+        if(registro != null){
+            String forma = forma(sql);
+            registro.contar(forma, true);
+            for (Registro externo = registro.externo; externo != null; externo = externo.externo){
+                externo.contar(forma, false);
+            }
+        }
+        return sql;
+    }
+
+    static String forma(String sql){
+        return LISTA_PARAMETROS.matcher(ESPACIOS.matcher(sql.trim()).replaceAll(" ")).replaceAll("(?)");
+    }
+
+    /**
+     * Marcos de la aplicación (sin los de este paquete) desde donde se preparó la sentencia.
+     */
+    private static String caminoDeLlamadas(){
+        return StackWalker.getInstance().walk(marcos -> marcos
+                .filter(marco -> marco.getClassName().startsWith(PAQUETE_APLICACION)
+                        && !marco.getClassName().startsWith(ContadorSentencias.class.getPackageName()))
+                .map(marco -> marco.getClassName().substring(PAQUETE_APLICACION.length()) + "." + marco.getMethodName() + ":" + marco.getLineNumber())
+                .collect(Collectors.joining(" <- ")));
+    }
+
+    public final class Registro implements AutoCloseable {
+        private final String descripcion;
+        private final Registro externo;
+        private final Map<String, Integer> porForma = new HashMap<>();
+        private int total;
+
+        private Registro(String descripcion, Registro externo){
+            this.descripcion = descripcion;
+            this.externo = externo;
+        }
+
+        private void contar(String forma, boolean avisar){
+            total++;
+            int veces = porForma.merge(forma, 1, Integer::sum);
+            if(avisar && veces == umbralRepeticiones + 1){
+                log.warn("Posible N+1 en {}: la misma sentencia se repitió más de {} veces [{}] desde {}",
+                        descripcion, umbralRepeticiones, forma, caminoDeLlamadas());
+            }
+        }
+
+        public int total(){
+            return total;
+        }
+
+        /**
+         * @return cantidad de ejecuciones por forma de sentencia
+         */
+        public Map<String, Integer> porForma(){
+            return Map.copyOf(porForma);
+        }
+
+        /**
+         * @return la mayor cantidad de repeticiones de una misma forma de sentencia
+         */
+        public int maximoRepeticiones(){
+            return porForma.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        }
+
+        @Override
+        public void close(){
+            if(externo == null){
+                actual.remove();
+            } else {
+                actual.set(externo);
+            }
+        }
+
+        @Override
+        public String toString(){
+            return descripcion + ": " + total + " sentencias " + porForma;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.empresa.gestionempleados.metricas;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Abre un registro de {@link ContadorSentencias} por petición, para detectar sentencias repetidas
+ * dentro de una misma petición. Con el logger en DEBUG deja además el total de cada petición.
+ */
+public class ContadorSentenciasFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(ContadorSentenciasFilter.class);
+
+    private final ContadorSentencias contadorSentencias;
+
+    public ContadorSentenciasFilter(ContadorSentencias contadorSentencias){
+        this.contadorSentencias = contadorSentencias;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (ContadorSentencias.Registro registro = contadorSentencias.iniciar(request.getMethod() + " " + request.getRequestURI())) {
+            filterChain.doFilter(request, response);
+            log.debug("{}", registro);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.empresa.gestionempleados.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Métricas de Micrometer que completan a {@code http.server.requests} (que incluye la serialización
+ * de la respuesta) para poder separar en producción el tiempo de la consulta del resto:
+ * <ul>
+ *     <li>{@value #CONTROLADOR}: tiempo del método del controlador, sin serializar el cuerpo, por
+ *     controlador, método y estado HTTP devuelto.</li>
+ *     <li>{@value #REPOSITORIO}: tiempo de cada método de los repositorios (derivados, {@code @Query}
+ *     y heredados), por repositorio, método y resultado: {@code found}, {@code not-found} (null,
+ *     Optional vacío o colección vacía) o {@code exception}. Un {@code Stream} devuelto se mide
+ *     hasta que se cierra, no solo hasta que se abre el cursor, y es {@code not-found} si no entregó
+ *     ninguna fila; quien lo recorre debe cerrarlo, como ya exige Spring Data.</li>
+ *     <li>{@value #EXCEPCIONES}: excepciones de negocio ({@code EmailDuplicadoException},
+ *     {@code *NoEncontradoException}, ...) lanzadas por los servicios, aunque el controlador las
+ *     convierta después en un estado HTTP.</li>
+ * </ul>
+ * Los histogramas de percentiles se activan por configuración en
+ * {@code management.metrics.distribution.percentiles-histogram}.
+ */
+@Aspect
+@Component
+public class MetricasAspect {
+    static final String CONTROLADOR = "gestion.controlador";
+    static final String REPOSITORIO = "gestion.repositorio";
+    static final String EXCEPCIONES = "gestion.excepciones";
+    private static final String PAQUETE_EXCEPCIONES = "com.empresa.gestionempleados.exceptions";
+    private static final String PAQUETE_REPOSITORIOS = "com.empresa.gestionempleados.repository";
+
+    private final MeterRegistry registry;
+    private final Map<Class<?>, String> repositorios = new ConcurrentHashMap<>();
+
+    public MetricasAspect(MeterRegistry registry){
+        this.registry = registry;
+    }
+
+    @Around("within(com.empresa.gestionempleados.controller..*) && @within(org.springframework.web.bind.annotation.RestController)")
+    public Object medirControlador(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample muestra = Timer.start(registry);
+        String estado = "exception";
+        try {
+            Object resultado = joinPoint.proceed();
+            estado = resultado instanceof ResponseEntity<?> respuesta ? String.valueOf(respuesta.getStatusCode().value()) : "none";
+            return resultado;
+        } finally {
+            muestra.stop(Timer.builder(CONTROLADOR)
+                    .description("Tiempo de los métodos de los controladores, sin serializar la respuesta")
+                    .tag("controlador", ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName())
+                    .tag("metodo", joinPoint.getSignature().getName())
+                    .tag("estado", estado)
+                    .register(registry));
+        }
+    }
+
+    @Around("execution(* com.empresa.gestionempleados.repository.*Repository.*(..))")
+    public Object medirRepositorio(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample muestra = Timer.start(registry);
+        String resultado = "exception";
+        boolean alCerrar = false;
+        try {
+            Object valor = joinPoint.proceed();
+            if(valor instanceof Stream<?> filas){
+                alCerrar = true;
+                AtomicBoolean alguna = new AtomicBoolean();
+                return filas.peek(fila -> alguna.lazySet(true))
+                        .onClose(() -> detenerRepositorio(muestra, joinPoint, alguna.get() ? "found" : "not-found"));
+            }
+            resultado = encontrado(valor) ? "found" : "not-found";
+            return valor;
+        } finally {
+            if(!alCerrar){
+                detenerRepositorio(muestra, joinPoint, resultado);
+            }
+        }
+    }
+
+    private void detenerRepositorio(Timer.Sample muestra, ProceedingJoinPoint joinPoint, String resultado){
+        muestra.stop(Timer.builder(REPOSITORIO)
+                .description("Tiempo de los métodos de los repositorios")
+                .tag("repositorio", repositorio(joinPoint))
+                .tag("metodo", joinPoint.getSignature().getName())
+                .tag("resultado", resultado)
+                .register(registry));
+    }
+
+    @AfterThrowing(pointcut = "execution(* com.empresa.gestionempleados.service.*ServiceImpl.*(..))", throwing = "excepcion")
+    public void contarExcepcion(JoinPoint joinPoint, RuntimeException excepcion){
+        if(!excepcion.getClass().getPackageName().equals(PAQUETE_EXCEPCIONES)){
+            return;
+        }
+        Counter.builder(EXCEPCIONES)
+                .description("Excepciones de negocio lanzadas por los servicios")
+                .tag("excepcion", excepcion.getClass().getSimpleName())
+                .tag("servicio", ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName())
+                .tag("metodo", joinPoint.getSignature().getName())
+                .register(registry)
+                .increment();
+    }
+
+    private static boolean encontrado(Object valor){
+        if(valor instanceof Optional<?> optional){
+            return optional.isPresent();
+        }
+        if(valor instanceof Collection<?> coleccion){
+            return !coleccion.isEmpty();
+        }
+        if(valor instanceof Iterable<?> iterable){
+            return iterable.iterator().hasNext();
+        }
+        return valor != null;
+    }
+
+    /**
+     * Los métodos heredados ({@code findById}, {@code save}, ...) se declaran en las interfaces de
+     * Spring Data, así que el nombre se toma de la interfaz propia que implementa el proxy.
+     */
+    private String repositorio(ProceedingJoinPoint joinPoint){
+        return repositorios.computeIfAbsent(joinPoint.getThis().getClass(), clase -> {
+            for (Class<?> interfaz : AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis())){
+                if(interfaz.getPackageName().equals(PAQUETE_REPOSITORIOS)){
+                    return interfaz.getSimpleName();
+                }
+            }
+            return joinPoint.getSignature().getDeclaringType().getSimpleName();
+        });
+    }
+}
@@ -0,0 +1,90 @@
+package com.empresa.gestionempleados.reactivo;
+
+import com.empresa.gestionempleados.dto.EmpleadoDto;
+import com.empresa.gestionempleados.dto.ProyectoDto;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import reactor.core.Disposable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Consultas de solo lectura sobre R2DBC para las rutas reactivas. Devuelven los mismos DTO y en el
+ * mismo orden que las consultas de {@code EmpleadoRepository} y {@code ProyectoRepository}, que
+ * siguen siendo el camino de escritura.
+ * <p>
+ * Las filas se piden a la base en lotes de {@code tamanioLote} a medida que el suscriptor las
+ * demanda, así que un cliente lento frena la lectura en lugar de acumular el resultado en memoria.
+ */
+public class LecturaReactiva {
+    private static final String SELECT_EMPLEADO = "SELECT e.id, e.nombre, e.apellido, e.email, e.fecha_contratacion, e.salario, "
+            + "d.id AS departamento_id, d.nombre AS departamento_nombre "
+            + "FROM empleados e LEFT JOIN departamentos d ON d.id = e.departamento_id";
+    private static final String SELECT_PROYECTO = "SELECT p.id, p.nombre, p.descripcion, p.estado, p.fecha_inicio, p.fecha_fin "
+            + "FROM proyectos p";
+
+    private final ConnectionFactory conexiones;
+    private final DatabaseClient databaseClient;
+    private final int tamanioLote;
+
+    public LecturaReactiva(ConnectionFactory conexiones, int tamanioLote){
+        this.conexiones = conexiones;
+        this.databaseClient = DatabaseClient.create(conexiones);
+        this.tamanioLote = tamanioLote;
+    }
+
+    /**
+     * Cierra las conexiones si vienen de un pool.
+     */
+    public void cerrar(){
+        if(conexiones instanceof Disposable pool){
+            pool.dispose();
+        }
+    }
+
+    public Flux<EmpleadoDto> findAll(){
+        return empleados(databaseClient.sql(SELECT_EMPLEADO + " ORDER BY e.id"));
+    }
+
+    public Flux<EmpleadoDto> findBySalaryRange(BigDecimal min, BigDecimal max){
+        return empleados(databaseClient.sql(SELECT_EMPLEADO + " WHERE e.salario BETWEEN :min AND :max ORDER BY e.id")
+                .bind("min", min)
+                .bind("max", max));
+    }
+
+    public Flux<EmpleadoDto> findByHiringDate(LocalDate inicio, LocalDate fin){
+        return empleados(databaseClient.sql(SELECT_EMPLEADO + " WHERE e.fecha_contratacion BETWEEN :inicio AND :fin ORDER BY e.id")
+                .bind("inicio", inicio)
+                .bind("fin", fin));
+    }
+
+    public Flux<ProyectoDto> findByEstado(String estado){
+        return databaseClient.sql(SELECT_PROYECTO + " WHERE p.estado = :estado ORDER BY p.id")
+                .bind("estado", estado)
+                .filter(sentencia -> sentencia.fetchSize(tamanioLote))
+                .map(LecturaReactiva::proyecto)
+                .all();
+    }
+
+    private Flux<EmpleadoDto> empleados(DatabaseClient.GenericExecuteSpec consulta){
+        return consulta.filter(sentencia -> sentencia.fetchSize(tamanioLote))
+                .map(LecturaReactiva::empleado)
+                .all();
+    }
+
+    private static EmpleadoDto empleado(Readable fila){
+        return new EmpleadoDto(fila.get("id", Long.class), fila.get("nombre", String.class),
+                fila.get("apellido", String.class), fila.get("email", String.class),
+                fila.get("fecha_contratacion", LocalDate.class), fila.get("salario", BigDecimal.class),
+                fila.get("departamento_id", Long.class), fila.get("departamento_nombre", String.class));
+    }
+
+    private static ProyectoDto proyecto(Readable fila){
+        return new ProyectoDto(fila.get("id", Long.class), fila.get("nombre", String.class),
+                fila.get("descripcion", String.class), fila.get("estado", String.class),
+                fila.get("fecha_inicio", LocalDate.class), fila.get("fecha_fin", LocalDate.class));
+    }
+}
@@ -0,0 +1,97 @@
+package com.empresa.gestionempleados.reactivo;
+
+import com.empresa.gestionempleados.dto.EmpleadoDto;
+import com.empresa.gestionempleados.dto.ProyectoDto;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.function.Function;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Rutas WebFlux de solo lectura, con los mismos caminos y parámetros que los listados de
+ * {@code EmpleadoController} y {@code ProyectoController}. Responden NDJSON, un objeto por línea, y
+ * escriben cada fila apenas llega de la base; la demanda del socket regula la lectura.
+ * <p>
+ * A diferencia de los listados bloqueantes, un resultado vacío es un 200 sin líneas: el estado se
+ * envía antes de saber si hay filas.
+ */
+public class RutasReactivas {
+    private final LecturaReactiva lecturaReactiva;
+
+    public RutasReactivas(LecturaReactiva lecturaReactiva){
+        this.lecturaReactiva = lecturaReactiva;
+    }
+
+    public RouterFunction<ServerResponse> rutas(){
+        return route(GET("/api/empleados"), this::findAll)
+                .andRoute(GET("/api/empleados/rango-salario"), this::findBySalaryRange)
+                .andRoute(GET("/api/empleados/fecha-contratacion"), this::findByHiringDate)
+                .andRoute(GET("/api/proyectos/estado/{status}"), this::findByStatus);
+    }
+
+    /**
+     * Lista todos los empleados.
+     * @return Flujo NDJSON de empleados
+     */
+    Mono<ServerResponse> findAll(ServerRequest request){
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(lecturaReactiva.findAll(), EmpleadoDto.class);
+    }
+
+    /**
+     * Lista empleados dentro de un rango de salarios ({@code min} y {@code max}).
+     * @return Flujo NDJSON de empleados o BAD_REQUEST si falta un parámetro o no es un número
+     */
+    Mono<ServerResponse> findBySalaryRange(ServerRequest request){
+        BigDecimal min = parametro(request, "min", BigDecimal::new);
+        BigDecimal max = parametro(request, "max", BigDecimal::new);
+        if(min == null || max == null){
+            return ServerResponse.badRequest().build();
+        }
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(lecturaReactiva.findBySalaryRange(min, max), EmpleadoDto.class);
+    }
+
+    /**
+     * Lista empleados contratados dentro de un rango de fechas ({@code inicio} y {@code fin}).
+     * @return Flujo NDJSON de empleados o BAD_REQUEST si falta una fecha o no es ISO-8601
+     */
+    Mono<ServerResponse> findByHiringDate(ServerRequest request){
+        LocalDate inicio = parametro(request, "inicio", LocalDate::parse);
+        LocalDate fin = parametro(request, "fin", LocalDate::parse);
+        if(inicio == null || fin == null){
+            return ServerResponse.badRequest().build();
+        }
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(lecturaReactiva.findByHiringDate(inicio, fin), EmpleadoDto.class);
+    }
+
+    /**
+     * Lista proyectos por estado.
+     * @return Flujo NDJSON de proyectos
+     */
+    Mono<ServerResponse> findByStatus(ServerRequest request){
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(lecturaReactiva.findByEstado(request.pathVariable("status")), ProyectoDto.class);
+    }
+
+    /**
+     * @return El parámetro convertido, o null si falta o no tiene el formato esperado
+     */
+    private static <T> T parametro(ServerRequest request, String nombre, Function<String, T> conversion){
+        try {
+            return request.queryParam(nombre).map(conversion).orElse(null);
+        } catch (NumberFormatException | DateTimeParseException e){
+            return null;
+        }
+    }
+}
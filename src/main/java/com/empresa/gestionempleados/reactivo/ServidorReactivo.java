@@ -0,0 +1,70 @@
+package com.empresa.gestionempleados.reactivo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+
+/**
+ * Servidor Reactor Netty propio para las {@link RutasReactivas}, en un puerto aparte del Tomcat de
+ * la API. Atiende todas las conexiones con un puñado de hilos de event loop, sin ocupar un hilo por
+ * cliente mientras espera a la base o al socket.
+ */
+public class ServidorReactivo implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(ServidorReactivo.class);
+
+    private final RouterFunction<ServerResponse> rutas;
+    private final HandlerStrategies estrategias;
+    private final int puerto;
+    private final int compresionMinima;
+    private final Duration esperaCierre;
+    private volatile DisposableServer servidor;
+
+    /**
+     * @param compresionMinima tamaño a partir del cual la respuesta se envía con gzip si el cliente lo acepta
+     */
+    public ServidorReactivo(RouterFunction<ServerResponse> rutas, HandlerStrategies estrategias, int puerto,
+                            int compresionMinima, Duration esperaCierre){
+        this.rutas = rutas;
+        this.estrategias = estrategias;
+        this.puerto = puerto;
+        this.compresionMinima = compresionMinima;
+        this.esperaCierre = esperaCierre;
+    }
+
+    @Override
+    public void start(){
+        ReactorHttpHandlerAdapter adaptador = new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(rutas, estrategias));
+        servidor = HttpServer.create().port(puerto).compress(compresionMinima).handle(adaptador).bindNow();
+        log.info("Rutas reactivas escuchando en el puerto {}", servidor.port());
+    }
+
+    @Override
+    public void stop(){
+        DisposableServer actual = servidor;
+        if(actual != null){
+            actual.disposeNow(esperaCierre);
+            servidor = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning(){
+        return servidor != null;
+    }
+
+    /**
+     * @return Puerto en que escucha el servidor, útil cuando se configuró el puerto 0
+     */
+    public int getPuerto(){
+        return servidor.port();
+    }
+}
@@ -1,9 +1,39 @@
 package com.empresa.gestionempleados.repository;
 
+import com.empresa.gestionempleados.dto.DepartamentoDto;
 import com.empresa.gestionempleados.entity.Departamento;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface DepartamentoRepository extends JpaRepository<Departamento, Long> {
+    /**
+     * Proyección plana de departamento, sin la colección de empleados.
+     */
+    String SELECT_DTO = "SELECT new com.empresa.gestionempleados.dto.DepartamentoDto(d.id, d.nombre, d.descripcion) FROM Departamento d";
+
+    @Query(SELECT_DTO + " WHERE d.id = :id")
+    Optional<DepartamentoDto> findDtoById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_DTO + " ORDER BY d.id")
+    List<DepartamentoDto> findAllDto();
+
+    @Modifying
+    @Query("DELETE FROM Departamento d WHERE d.id IN :ids")
+    int bulkDeleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_DTO + " WHERE d.id > :after ORDER BY d.id")
+    List<DepartamentoDto> findPage(@Param("after") Long after, Limit limit);
 }
@@ -0,0 +1,83 @@
+package com.empresa.gestionempleados.repository;
+
+import com.empresa.gestionempleados.dto.FiltroEmpleados;
+import com.empresa.gestionempleados.dto.OrdenEmpleados;
+import com.empresa.gestionempleados.entity.Empleado;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criterios de búsqueda de empleados para {@link EmpleadoRepository#findBy}.
+ */
+public final class EmpleadoEspecificaciones {
+    private static final char ESCAPE = '\\';
+
+    private EmpleadoEspecificaciones(){
+    }
+
+    /**
+     * Une con AND todos los criterios no nulos del filtro en una sola consulta.
+     */
+    public static Specification<Empleado> filtro(FiltroEmpleados filtro){
+        return (empleado, consulta, cb) -> {
+            List<Predicate> predicados = new ArrayList<>();
+            if (filtro.salarioMin() != null){
+                predicados.add(cb.greaterThanOrEqualTo(empleado.get("salario"), filtro.salarioMin()));
+            }
+            if (filtro.salarioMax() != null){
+                predicados.add(cb.lessThanOrEqualTo(empleado.get("salario"), filtro.salarioMax()));
+            }
+            if (filtro.inicio() != null){
+                predicados.add(cb.greaterThanOrEqualTo(empleado.get("fechaContratacion"), filtro.inicio()));
+            }
+            if (filtro.fin() != null){
+                predicados.add(cb.lessThanOrEqualTo(empleado.get("fechaContratacion"), filtro.fin()));
+            }
+            if (filtro.departamentoId() != null){
+                predicados.add(cb.equal(empleado.get("departamento").get("id"), filtro.departamentoId()));
+            }
+            if (filtro.departamento() != null){
+                predicados.add(cb.equal(empleado.join("departamento").get("nombre"), filtro.departamento()));
+            }
+            if (filtro.proyectoId() != null){
+                // Un solo proyecto por fila unida: el join no duplica empleados.
+                predicados.add(cb.equal(empleado.join("proyectos").get("id"), filtro.proyectoId()));
+            }
+            if (filtro.nombre() != null && !filtro.nombre().isEmpty()){
+                predicados.add(cb.like(empleado.get("nombre"), escaparLike(filtro.nombre()) + "%", ESCAPE));
+            }
+            return cb.and(predicados.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Filas posteriores a la clave (valor, id) en el orden indicado, para la paginación keyset.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static Specification<Empleado> despuesDe(OrdenEmpleados orden, Comparable valor, Long id){
+        return (empleado, consulta, cb) -> {
+            Expression<Long> empleadoId = empleado.get("id");
+            if (orden == OrdenEmpleados.ID){
+                return cb.greaterThan(empleadoId, id);
+            }
+            Expression<Comparable> atributo = empleado.get(orden.atributo());
+            return cb.or(cb.greaterThan(atributo, valor),
+                    cb.and(cb.equal(atributo, valor), cb.greaterThan(empleadoId, id)));
+        };
+    }
+
+    private static String escaparLike(String valor){
+        StringBuilder escapado = new StringBuilder(valor.length());
+        for (char c : valor.toCharArray()){
+            if (c == ESCAPE || c == '%' || c == '_'){
+                escapado.append(ESCAPE);
+            }
+            escapado.append(c);
+        }
+        return escapado.toString();
+    }
+}
@@ -1,20 +1,39 @@
 package com.empresa.gestionempleados.repository;
 
+import com.empresa.gestionempleados.dto.EmpleadoDto;
+import com.empresa.gestionempleados.dto.ResumenSalarialDto;
+import com.empresa.gestionempleados.dto.SugerenciaDto;
 import com.empresa.gestionempleados.entity.Departamento;
 import com.empresa.gestionempleados.entity.Empleado;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface EmpleadoRepository extends JpaRepository<Empleado, Long> {
+public interface EmpleadoRepository extends JpaRepository<Empleado, Long>, JpaSpecificationExecutor<Empleado> {
+    /**
+     * Proyección plana de empleado con el departamento unido en la misma sentencia.
+     */
+    String SELECT_DTO = "SELECT new com.empresa.gestionempleados.dto.EmpleadoDto(e.id, e.nombre, e.apellido, e.email, "
+            + "e.fechaContratacion, e.salario, d.id, d.nombre) FROM Empleado e LEFT JOIN e.departamento d";
+
     Optional<Empleado> findByEmail(String email);
+    List<Empleado> findByEmailIn(Collection<String> emails);
     List<Empleado> findByFechaContratacionAfter(LocalDate fechaContratacion);
     List<Empleado> findByDepartamento(Departamento departamento);
     List<Empleado> findBySalarioBetween(BigDecimal min, BigDecimal max);
@@ -25,4 +44,146 @@ public interface EmpleadoRepository extends JpaRepository<Empleado, Long> {
 
     @Query("SELECT AVG(e.salario) FROM Empleado e WHERE e.departamento.id = :departamentoID")
     Optional<BigDecimal> findAverageSalaryByDepartamento(@Param("departamentoID") Long departamentoId);
+
+    String SELECT_RESUMEN = "SELECT new com.empresa.gestionempleados.dto.ResumenSalarialDto(d.id, COUNT(e), SUM(e.salario), MIN(e.salario), MAX(e.salario))"
+            + " FROM Empleado e JOIN e.departamento d";
+
+    @Query(SELECT_RESUMEN + " GROUP BY d.id")
+    List<ResumenSalarialDto> findResumenSalarial();
+
+    @Query(SELECT_RESUMEN + " WHERE d.id = :departamentoId GROUP BY d.id")
+    Optional<ResumenSalarialDto> findResumenSalarialByDepartamento(@Param("departamentoId") Long departamentoId);
+
+    /**
+     * Departamento, salario y email actuales, para ajustar los agregados de salario y el índice de
+     * emails en un cambio parcial.
+     */
+    interface ValoresActuales {
+        Long getDepartamentoId();
+        BigDecimal getSalario();
+        String getEmail();
+    }
+
+    @Query("SELECT e.departamento.id AS departamentoId, e.salario AS salario, e.email AS email FROM Empleado e WHERE e.id = :id")
+    Optional<ValoresActuales> findValoresActualesById(@Param("id") Long id);
+
+    /**
+     * Datos de un empleado a eliminar que mantienen los índices y agregados en memoria.
+     */
+    interface EmpleadoEliminado extends ValoresActuales {
+        Long getId();
+    }
+
+    String SELECT_ELIMINADO = "SELECT e.id AS id, e.email AS email, e.departamento.id AS departamentoId, e.salario AS salario FROM Empleado e";
+
+    @Query(SELECT_ELIMINADO + " WHERE e.id IN :ids")
+    List<EmpleadoEliminado> findEliminadosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_ELIMINADO + " WHERE e.departamento.id IN :departamentoIds")
+    List<EmpleadoEliminado> findEliminadosByDepartamentoIdIn(@Param("departamentoIds") Collection<Long> departamentoIds);
+
+    /**
+     * Hibernate borra antes las filas de {@code empleado_proyecto} de los empleados afectados,
+     * porque {@code Empleado} es el dueño de la relación.
+     */
+    @Modifying
+    @Query("DELETE FROM Empleado e WHERE e.id IN :ids")
+    int bulkDeleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Empleado e WHERE e.departamento.id IN :departamentoIds")
+    int bulkDeleteByDepartamentoIdIn(@Param("departamentoIds") Collection<Long> departamentoIds);
+
+    /**
+     * Las filas anteriores a la columna pueden tener la versión nula hasta que corre {@code MigracionEsquema}.
+     */
+    @Query("SELECT COALESCE(e.version, 0) FROM Empleado e WHERE e.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT e.email FROM Empleado e WHERE e.email IN :emails")
+    List<String> findEmailsIn(@Param("emails") Collection<String> emails);
+
+    /**
+     * Empleado que usa cada email, para validar un lote completo sin cargar las entidades.
+     */
+    interface DuenioEmail {
+        Long getId();
+        String getEmail();
+    }
+
+    @Query("SELECT e.id AS id, e.email AS email FROM Empleado e WHERE e.email IN :emails")
+    List<DuenioEmail> findDueniosEmailIn(@Param("emails") Collection<String> emails);
+
+    @Query(SELECT_DTO + " WHERE e.id = :id")
+    Optional<EmpleadoDto> findDtoById(@Param("id") Long id);
+
+    @Query(SELECT_DTO + " WHERE d.id = :departamentoId ORDER BY e.id")
+    List<EmpleadoDto> findDtoByDepartamentoId(@Param("departamentoId") Long departamentoId);
+
+    @Query(SELECT_DTO + " WHERE e.id > :after ORDER BY e.id")
+    List<EmpleadoDto> findPage(@Param("after") Long after, Limit limit);
+
+    @Query(SELECT_DTO + " WHERE d.nombre = :nombreDepartamento AND e.id > :after ORDER BY e.id")
+    List<EmpleadoDto> findPageByNombreDepartamento(@Param("nombreDepartamento") String nombreDepartamento, @Param("after") Long after, Limit limit);
+
+    /*
+     * Con un filtro por rango no hay índice que entregue las filas en orden de id: la base recorre
+     * la clave primaria desde el cursor y descarta las que quedan fuera del rango. El costo no crece
+     * con la profundidad de la página, pero sí con las filas descartadas cuando el rango es estrecho.
+     */
+    @Query(SELECT_DTO + " WHERE e.salario BETWEEN :min AND :max AND e.id > :after ORDER BY e.id")
+    List<EmpleadoDto> findPageBySalarioBetween(@Param("min") BigDecimal min, @Param("max") BigDecimal max, @Param("after") Long after, Limit limit);
+
+    @Query(SELECT_DTO + " WHERE e.fechaContratacion BETWEEN :inicio AND :fin AND e.id > :after ORDER BY e.id")
+    List<EmpleadoDto> findPageByFechaContratacionBetween(@Param("inicio") LocalDate inicio, @Param("fin") LocalDate fin, @Param("after") Long after, Limit limit);
+
+    @EntityGraph(Empleado.GRAFO_DEPARTAMENTO)
+    @Query("SELECT e FROM Empleado e ORDER BY e.id")
+    List<Empleado> findAllWithDepartamento();
+
+    @EntityGraph(Empleado.GRAFO_DEPARTAMENTO)
+    @Query("SELECT e FROM Empleado e WHERE e.departamento.nombre = :nombreDepartamento ORDER BY e.id")
+    List<Empleado> findWithDepartamentoByNombreDepartamento(@Param("nombreDepartamento") String nombreDepartamento);
+
+    @EntityGraph(Empleado.GRAFO_DEPARTAMENTO)
+    List<Empleado> findWithDepartamentoBySalarioBetweenOrderById(BigDecimal min, BigDecimal max);
+
+    @EntityGraph(Empleado.GRAFO_DEPARTAMENTO)
+    List<Empleado> findWithDepartamentoByFechaContratacionBetweenOrderById(LocalDate inicio, LocalDate fin);
+
+    /**
+     * Inicializa los proyectos de los empleados indicados, que ya deben estar en el contexto de
+     * persistencia, con una sola consulta por tramo en lugar de una por empleado.
+     */
+    @Query("SELECT DISTINCT e FROM Empleado e LEFT JOIN FETCH e.proyectos WHERE e.id IN :ids")
+    List<Empleado> fetchProyectos(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Empleado e ORDER BY e.id")
+    Stream<Empleado> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @EntityGraph(Empleado.GRAFO_DEPARTAMENTO)
+    @Query("SELECT e FROM Empleado e ORDER BY e.id")
+    Stream<Empleado> streamAllWithDepartamento();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e.email FROM Empleado e")
+    Stream<String> streamEmails();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.empresa.gestionempleados.dto.SugerenciaDto(e.id, e.nombre, e.apellido, e.email) FROM Empleado e")
+    Stream<SugerenciaDto> streamSugerencias();
+
+    @Query("SELECT new com.empresa.gestionempleados.dto.SugerenciaDto(e.id, e.nombre, e.apellido, e.email) FROM Empleado e WHERE e.id IN :ids")
+    List<SugerenciaDto> findSugerenciasByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -1,16 +1,69 @@
 package com.empresa.gestionempleados.repository;
 
+import com.empresa.gestionempleados.dto.ProyectoDto;
 import com.empresa.gestionempleados.entity.Proyecto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ProyectoRepository extends JpaRepository<Proyecto, Long> {
+    /**
+     * Proyección plana de proyecto, sin la colección de empleados.
+     */
+    String SELECT_DTO = "SELECT new com.empresa.gestionempleados.dto.ProyectoDto(p.id, p.nombre, p.descripcion, p.estado, "
+            + "p.fechaInicio, p.fechaFin) FROM Proyecto p";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Proyecto> findByEstado(String estado);
 
     @Query("SELECT p.estado FROM Proyecto p WHERE p.id = :idProyecto")
     String findEstadoById(@Param("idProyecto") Long idProyecto);
+
+    @Query(SELECT_DTO + " WHERE p.id = :id")
+    Optional<ProyectoDto> findDtoById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_DTO + " ORDER BY p.id")
+    List<ProyectoDto> findAllDto();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_DTO + " WHERE p.estado = :estado ORDER BY p.id")
+    List<ProyectoDto> findDtoByEstado(@Param("estado") String estado);
+
+    /**
+     * Proyectos con al menos un empleado del departamento; el EXISTS evita repetir un proyecto por
+     * cada empleado asignado.
+     */
+    @Query(SELECT_DTO + " WHERE EXISTS (SELECT 1 FROM Empleado e JOIN e.proyectos asignado "
+            + "WHERE asignado = p AND e.departamento.id = :departamentoId) ORDER BY p.id")
+    List<ProyectoDto> findDtoByDepartamentoId(@Param("departamentoId") Long departamentoId);
+
+    /**
+     * En estos borrados Hibernate elimina antes las filas de {@code empleado_proyecto} que apuntan a
+     * los proyectos afectados.
+     */
+    @Modifying
+    @Query("DELETE FROM Proyecto p WHERE p.id IN :ids")
+    int bulkDeleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Proyecto p WHERE p.estado = :estado")
+    int bulkDeleteByEstado(@Param("estado") String estado);
+
+    @Query(SELECT_DTO + " WHERE p.id > :after ORDER BY p.id")
+    List<ProyectoDto> findPage(@Param("after") Long after, Limit limit);
+
+    @Query(SELECT_DTO + " WHERE p.estado = :estado AND p.id > :after ORDER BY p.id")
+    List<ProyectoDto> findPageByEstado(@Param("estado") String estado, @Param("after") Long after, Limit limit);
 }
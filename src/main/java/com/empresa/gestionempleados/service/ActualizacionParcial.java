@@ -0,0 +1,59 @@
+package com.empresa.gestionempleados.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * {@code UPDATE ... WHERE id = ?} con solo las columnas recibidas, en una sola sentencia y sin
+ * cargar la entidad. Incrementa {@code @Version} para que los ETag y el bloqueo optimista de las
+ * escrituras completas noten el cambio. Al ser una operación masiva, Hibernate invalida la región
+ * de caché de segundo nivel de la entidad.
+ */
+final class ActualizacionParcial<T> {
+    private final EntityManager entityManager;
+    private final Class<T> tipo;
+    private final CriteriaBuilder cb;
+    private final CriteriaUpdate<T> update;
+    private final Root<T> raiz;
+    private int campos;
+
+    ActualizacionParcial(EntityManager entityManager, Class<T> tipo){
+        this.entityManager = entityManager;
+        this.tipo = tipo;
+        this.cb = entityManager.getCriteriaBuilder();
+        this.update = cb.createCriteriaUpdate(tipo);
+        this.raiz = update.from(tipo);
+    }
+
+    /**
+     * Agrega la columna al UPDATE; un valor nulo significa que el campo no cambia.
+     */
+    <V> ActualizacionParcial<T> set(String atributo, V valor){
+        if(valor != null){
+            update.set(raiz.<V>get(atributo), valor);
+            campos++;
+        }
+        return this;
+    }
+
+    /**
+     * Ejecuta el cambio. Sin campos no hay nada que escribir y solo se verifica que el id exista.
+     * @return true si la fila existe
+     */
+    boolean ejecutar(Long id){
+        if(campos == 0){
+            CriteriaQuery<Long> consulta = cb.createQuery(Long.class);
+            Root<T> fila = consulta.from(tipo);
+            consulta.select(cb.count(fila)).where(cb.equal(fila.get("id"), id));
+            return entityManager.createQuery(consulta).getSingleResult() > 0;
+        }
+        Path<Long> version = raiz.get("version");
+        update.set(version, cb.sum(cb.coalesce(version, 0L), 1L));
+        update.where(cb.equal(raiz.get("id"), id));
+        return entityManager.createQuery(update).executeUpdate() > 0;
+    }
+}
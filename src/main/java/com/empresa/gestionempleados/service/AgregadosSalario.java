@@ -0,0 +1,252 @@
+package com.empresa.gestionempleados.service;
+
+import com.empresa.gestionempleados.dto.ResumenSalarialDto;
+import com.empresa.gestionempleados.repository.EmpleadoRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cantidad, total, mínimo y máximo de salario por departamento, mantenidos en memoria a partir de
+ * las escrituras confirmadas para que el promedio no recorra la tabla de empleados.
+ * <p>
+ * Supone una sola instancia de la aplicación: solo ve las escrituras que pasan por este proceso.
+ * Con varias instancias, los cambios hechos en otra aparecen recién en la siguiente reconciliación.
+ * <p>
+ * La cantidad y el total se ajustan de forma exacta. Cuando se quita el salario que era el mínimo
+ * o el máximo, ese extremo queda pendiente y se recalcula desde la base la próxima vez que se pide.
+ * {@link #reconciliar()} reconstruye todo desde la tabla al arrancar y de forma periódica, por si
+ * algún cambio no pasó por el servicio. Las escrituras se serializan con un {@link ReentrantLock}
+ * (no con {@code synchronized}, que fijaría el hilo portador de un hilo virtual durante la consulta);
+ * las lecturas no bloquean.
+ */
+@Component
+public class AgregadosSalario {
+
+    private record Agregado(long empleados, BigDecimal total, BigDecimal minimo, BigDecimal maximo) {
+
+        static Agregado de(ResumenSalarialDto resumen){
+            return new Agregado(resumen.empleados(), resumen.total(), resumen.minimo(), resumen.maximo());
+        }
+
+        Agregado agregar(BigDecimal salario){
+            return new Agregado(empleados + 1, total.add(salario),
+                    empleados == 0 || (minimo != null && salario.compareTo(minimo) < 0) ? salario : minimo,
+                    empleados == 0 || (maximo != null && salario.compareTo(maximo) > 0) ? salario : maximo);
+        }
+
+        Agregado quitar(BigDecimal salario){
+            if(empleados <= 1){
+                return new Agregado(0, BigDecimal.ZERO, null, null);
+            }
+            return new Agregado(empleados - 1, total.subtract(salario),
+                    minimo != null && salario.compareTo(minimo) == 0 ? null : minimo,
+                    maximo != null && salario.compareTo(maximo) == 0 ? null : maximo);
+        }
+
+        boolean extremosPendientes(){
+            return empleados > 0 && (minimo == null || maximo == null);
+        }
+    }
+
+    /**
+     * Intentos de reconciliación seguidos antes de esperar a la próxima ejecución programada.
+     */
+    static final int INTENTOS_RECONCILIACION = 3;
+
+    private final EmpleadoRepository empleadoRepository;
+    private final TransactionTemplate primario;
+    private final Map<Long, Agregado> agregados = new ConcurrentHashMap<>();
+    private final ReentrantLock escritura = new ReentrantLock();
+    private volatile boolean listo;
+    /**
+     * Ajustes recibidos, aplicados o no; solo cambia con {@link #escritura} tomado.
+     */
+    private long ajustes;
+    /**
+     * Transacciones registradas con {@link #despuesDelCommit(Runnable)} que empezaron a confirmarse y
+     * todavía no aplicaron su ajuste.
+     */
+    private final AtomicInteger confirmando = new AtomicInteger();
+
+    public AgregadosSalario(EmpleadoRepository empleadoRepository, PlatformTransactionManager transactionManager){
+        this.empleadoRepository = empleadoRepository;
+        this.primario = new TransactionTemplate(transactionManager);
+        this.primario.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Aplica un ajuste cuando la transacción actual se confirma. Desde justo antes del commit hasta
+     * que el ajuste se aplica la transacción cuenta como en curso, y ninguna reconciliación acepta
+     * una foto tomada en ese intervalo: no se sabe si la foto ya incluye la escritura.
+     */
+    public void despuesDelCommit(Runnable ajuste){
+        TransaccionHooks.alrededorDelCommit(confirmando::incrementAndGet, confirmada -> {
+            try {
+                if(confirmada){
+                    ajuste.run();
+                }
+            } finally {
+                confirmando.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Reconstruye los agregados desde la tabla. Una foto solo se acepta si ningún ajuste se aplicó
+     * mientras corría la consulta ni quedó una transacción a medio confirmar: un ajuste aplicado
+     * sobre el mapa anterior se perdería al reemplazarlo, y uno pendiente cuya escritura ya está en
+     * la foto se contaría dos veces. Si no, se repite la consulta, hasta
+     * {@value #INTENTOS_RECONCILIACION} veces; los agregados actuales se conservan mientras tanto.
+     * <p>
+     * Cada intento corre en su propia transacción de escritura, que lo fija al primario (leída de una
+     * réplica atrasada, la reconciliación desharía los ajustes de escrituras ya confirmadas) y le da
+     * una foto nueva también con {@code REPEATABLE READ}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${gestion.agregados-salario.reconciliacion:PT10M}",
+            initialDelayString = "${gestion.agregados-salario.reconciliacion:PT10M}")
+    public void reconciliar(){
+        for (int intento = 0; intento < INTENTOS_RECONCILIACION; intento++){
+            if(reconstruir()){
+                return;
+            }
+        }
+    }
+
+    private boolean reconstruir(){
+        long ajustesAntes = ajustesRecibidos();
+        Map<Long, Agregado> reconstruidos = new HashMap<>();
+        primario.executeWithoutResult(estado -> {
+            for (ResumenSalarialDto resumen : empleadoRepository.findResumenSalarial()){
+                reconstruidos.put(resumen.departamentoId(), Agregado.de(resumen));
+            }
+        });
+        escritura.lock();
+        try {
+            if(ajustes != ajustesAntes || confirmando.get() > 0){
+                return false;
+            }
+            agregados.keySet().retainAll(reconstruidos.keySet());
+            agregados.putAll(reconstruidos);
+            listo = true;
+            return true;
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    private long ajustesRecibidos(){
+        escritura.lock();
+        try {
+            return ajustes;
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Los ajustes toman el candado aunque los agregados todavía no estén listos, para que la
+     * reconciliación que los deja listos vea también los que se descartan.
+     */
+    public void agregar(Long departamentoId, BigDecimal salario){
+        escritura.lock();
+        try {
+            ajustes++;
+            if(!listo || departamentoId == null || salario == null){
+                return;
+            }
+            agregados.put(departamentoId, agregados.getOrDefault(departamentoId, new Agregado(0, BigDecimal.ZERO, null, null)).agregar(salario));
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    public void quitar(Long departamentoId, BigDecimal salario){
+        escritura.lock();
+        try {
+            ajustes++;
+            if(!listo || departamentoId == null || salario == null){
+                return;
+            }
+            Agregado agregado = agregados.get(departamentoId);
+            if(agregado != null){
+                agregados.put(departamentoId, agregado.quitar(salario));
+            }
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Aplica un cambio de departamento y/o de salario de un mismo empleado.
+     */
+    public void mover(Long departamentoAnterior, BigDecimal salarioAnterior, Long departamentoNuevo, BigDecimal salarioNuevo){
+        if(Objects.equals(departamentoAnterior, departamentoNuevo) && Objects.equals(salarioAnterior, salarioNuevo)){
+            return;
+        }
+        escritura.lock();
+        try {
+            quitar(departamentoAnterior, salarioAnterior);
+            agregar(departamentoNuevo, salarioNuevo);
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    public BigDecimal promedio(Long departamentoId){
+        if(!listo){
+            return empleadoRepository.findAverageSalaryByDepartamento(departamentoId).orElse(BigDecimal.ZERO);
+        }
+        Agregado agregado = agregados.get(departamentoId);
+        return agregado == null ? BigDecimal.ZERO : ResumenSalarialDto.promedio(agregado.empleados(), agregado.total());
+    }
+
+    public ResumenSalarialDto resumen(Long departamentoId){
+        Agregado agregado = listo ? agregados.get(departamentoId) : null;
+        if(agregado == null || !listo || agregado.extremosPendientes()){
+            agregado = recalcular(departamentoId, agregado);
+        }
+        return new ResumenSalarialDto(departamentoId, agregado.empleados(), agregado.total(), agregado.minimo(), agregado.maximo());
+    }
+
+    /**
+     * Consulta el departamento sin tomar el candado, para no frenar los ajustes de las escrituras
+     * confirmadas mientras tanto. El resultado solo reemplaza al agregado si este no cambió durante
+     * la consulta (cada ajuste crea una instancia nueva); si cambió, se conserva el ajustado y su
+     * extremo pendiente se vuelve a calcular en el próximo pedido. Tampoco lo reemplaza con una
+     * transacción a medio confirmar, por la misma razón que en {@link #reconciliar()}. Como el
+     * resultado se guarda, la consulta va al primario en su propia transacción aunque quien pide el
+     * resumen esté en una de solo lectura.
+     * @param anterior Agregado leído antes de la consulta, o null si no había
+     */
+    private Agregado recalcular(Long departamentoId, Agregado anterior){
+        Agregado agregado = primario.execute(estado -> empleadoRepository.findResumenSalarialByDepartamento(departamentoId))
+                .map(Agregado::de)
+                .orElse(new Agregado(0, BigDecimal.ZERO, null, null));
+        if(!listo){
+            return agregado;
+        }
+        escritura.lock();
+        try {
+            if(agregados.get(departamentoId) == anterior && confirmando.get() == 0){
+                agregados.put(departamentoId, agregado);
+            }
+        } finally {
+            escritura.unlock();
+        }
+        return agregado;
+    }
+}
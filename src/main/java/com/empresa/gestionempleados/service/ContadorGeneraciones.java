@@ -0,0 +1,36 @@
+package com.empresa.gestionempleados.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generación por tipo de entidad, incrementada después de cada escritura confirmada. Sirve para
+ * armar el ETag de las colecciones sin consultar la base.
+ * <p>
+ * Los contadores son de esta instancia: la época de arranque forma parte del valor para que no se
+ * repitan tras un reinicio, pero los cambios hechos por otra instancia no se reflejan aquí.
+ */
+@Component
+public class ContadorGeneraciones {
+    private final String epoca = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Map<Class<?>, AtomicLong> generaciones = new ConcurrentHashMap<>();
+
+    public String actual(Class<?> tipo){
+        return epoca + "-" + contador(tipo).get();
+    }
+
+    /**
+     * Incrementa la generación cuando se confirme la transacción actual. Incrementarla antes
+     * permitiría que un lector asocie datos viejos a la generación nueva.
+     */
+    public void incrementarAlConfirmar(Class<?> tipo){
+        TransaccionHooks.despuesDelCommit(() -> contador(tipo).incrementAndGet());
+    }
+
+    private AtomicLong contador(Class<?> tipo){
+        return generaciones.computeIfAbsent(tipo, t -> new AtomicLong());
+    }
+}
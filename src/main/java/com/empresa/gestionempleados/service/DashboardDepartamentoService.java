@@ -0,0 +1,7 @@
+package com.empresa.gestionempleados.service;
+
+import com.empresa.gestionempleados.dto.DashboardDepartamentoDto;
+
+public interface DashboardDepartamentoService {
+    DashboardDepartamentoDto findByDepartamentoId(Long departamentoId);
+}
@@ -0,0 +1,126 @@
+package com.empresa.gestionempleados.service;
+
+import com.empresa.gestionempleados.config.DashboardConfig.DashboardProperties;
+import com.empresa.gestionempleados.dto.DashboardDepartamentoDto;
+import com.empresa.gestionempleados.dto.DepartamentoDto;
+import com.empresa.gestionempleados.dto.EmpleadoDto;
+import com.empresa.gestionempleados.dto.ProyectoDto;
+import com.empresa.gestionempleados.exceptions.DepartamentoNoEncontradoException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Arma el dashboard de un departamento lanzando sus cuatro consultas a la vez en un executor acotado,
+ * así la latencia es la de la parte más lenta y no la suma. Cada parte llama a un método de solo
+ * lectura de otro servicio, que abre su propia transacción en el hilo del executor; por eso esta
+ * clase no es transaccional.
+ * <p>
+ * Todas las partes tienen su tiempo máximo contado desde el inicio. La que no llega se cancela y se
+ * informa como incompleta junto con las que fallaron; solo un departamento inexistente hace fallar
+ * la petición entera.
+ */
+@Service
+public class DashboardDepartamentoServiceImpl implements DashboardDepartamentoService {
+    static final String DEPARTAMENTO = "departamento";
+    static final String EMPLEADOS = "empleados";
+    static final String SALARIO_PROMEDIO = "salarioPromedio";
+    static final String PROYECTOS = "proyectos";
+    private static final Logger log = LoggerFactory.getLogger(DashboardDepartamentoServiceImpl.class);
+
+    private final DepartamentoService departamentoService;
+    private final EmpleadoService empleadoService;
+    private final ProyectoService proyectoService;
+    private final DashboardProperties properties;
+    private final ExecutorService executor;
+
+    public DashboardDepartamentoServiceImpl(DepartamentoService departamentoService, EmpleadoService empleadoService,
+                                            ProyectoService proyectoService, DashboardProperties properties){
+        this.departamentoService = departamentoService;
+        this.empleadoService = empleadoService;
+        this.proyectoService = proyectoService;
+        this.properties = properties;
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(properties.hilos(), properties.hilos(), 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.cola()), Thread.ofPlatform().name("dashboard-", 0).daemon(true).factory());
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+    }
+
+    @PreDestroy
+    void cerrar(){
+        executor.shutdownNow();
+    }
+
+    @Override
+    public DashboardDepartamentoDto findByDepartamentoId(Long departamentoId){
+        long inicio = System.nanoTime();
+        Future<DepartamentoDto> departamento = enviar(() -> departamentoService.findById(departamentoId));
+        Future<List<EmpleadoDto>> empleados = enviar(() -> empleadoService.findByDepartamentoId(departamentoId));
+        Future<BigDecimal> salarioPromedio = enviar(() -> empleadoService.findAverageSalaryByDepartamento(departamentoId));
+        Future<List<ProyectoDto>> proyectos = enviar(() -> proyectoService.findByDepartamento(departamentoId));
+
+        Map<String, String> incompletas = new LinkedHashMap<>();
+        try {
+            return new DashboardDepartamentoDto(
+                    esperar(DEPARTAMENTO, departamento, inicio, incompletas),
+                    esperar(EMPLEADOS, empleados, inicio, incompletas),
+                    esperar(SALARIO_PROMEDIO, salarioPromedio, inicio, incompletas),
+                    esperar(PROYECTOS, proyectos, inicio, incompletas),
+                    incompletas);
+        } catch (DepartamentoNoEncontradoException e){
+            empleados.cancel(true);
+            salarioPromedio.cancel(true);
+            proyectos.cancel(true);
+            throw e;
+        }
+    }
+
+    private <T> Future<T> enviar(Callable<T> parte){
+        try {
+            return executor.submit(parte);
+        } catch (RejectedExecutionException e){
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> T esperar(String parte, Future<T> futuro, long inicio, Map<String, String> incompletas){
+        long restante = inicio + properties.tiempoMaximo(parte).toNanos() - System.nanoTime();
+        try {
+            return futuro.get(Math.max(0, restante), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e){
+            futuro.cancel(true);
+            incompletas.put(parte, "tiempo-agotado");
+        } catch (ExecutionException e){
+            if(e.getCause() instanceof DepartamentoNoEncontradoException noEncontrado){
+                throw noEncontrado;
+            }
+            if(e.getCause() instanceof RejectedExecutionException){
+                incompletas.put(parte, "rechazada");
+            } else {
+                log.warn("Falló la parte {} del dashboard", parte, e.getCause());
+                incompletas.put(parte, "error");
+            }
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            futuro.cancel(true);
+            incompletas.put(parte, "tiempo-agotado");
+        }
+        return null;
+    }
+}
@@ -1,12 +1,19 @@
 package com.empresa.gestionempleados.service;
 
+import com.empresa.gestionempleados.dto.CursorPage;
+import com.empresa.gestionempleados.dto.DepartamentoDto;
+import com.empresa.gestionempleados.dto.DepartamentoPatchDto;
 import com.empresa.gestionempleados.entity.Departamento;
 import java.util.List;
 
 public interface DepartamentoService {
     Departamento save(Departamento departamento);
     Departamento update(Long id, Departamento departamento);
+    void patch(Long id, DepartamentoPatchDto cambios);
+    int deleteAll(List<Long> ids);
     void delete(Long id);
-    Departamento findById(Long id);
-    List<Departamento> findAll();
+    DepartamentoDto findById(Long id);
+    List<DepartamentoDto> findAll();
+    CursorPage<DepartamentoDto> findAll(Long after, int limit);
+    String generacion();
 }
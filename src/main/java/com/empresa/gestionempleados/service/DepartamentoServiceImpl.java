@@ -1,10 +1,16 @@
 package com.empresa.gestionempleados.service;
 
+import com.empresa.gestionempleados.coalescencia.Coalescente;
+import com.empresa.gestionempleados.dto.CursorPage;
+import com.empresa.gestionempleados.dto.DepartamentoDto;
+import com.empresa.gestionempleados.dto.DepartamentoPatchDto;
 import com.empresa.gestionempleados.entity.Departamento;
 import com.empresa.gestionempleados.exceptions.DepartamentoNoEncontradoException;
 import com.empresa.gestionempleados.repository.DepartamentoRepository;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -12,41 +18,119 @@ import java.util.List;
 @Transactional
 public class DepartamentoServiceImpl implements DepartamentoService {
     private final DepartamentoRepository departamentoRepository;
+    private final ContadorGeneraciones contadorGeneraciones;
+    private final EntityManager entityManager;
+    private final EmpleadoService empleadoService;
 
-    public DepartamentoServiceImpl(DepartamentoRepository departamentoRepository){
+    public DepartamentoServiceImpl(DepartamentoRepository departamentoRepository, ContadorGeneraciones contadorGeneraciones,
+                                   EntityManager entityManager, EmpleadoService empleadoService){
         this.departamentoRepository = departamentoRepository;
+        this.contadorGeneraciones = contadorGeneraciones;
+        this.entityManager = entityManager;
+        this.empleadoService = empleadoService;
     }
 
+    /**
+     * El id lo asigna la secuencia: uno enviado por el cliente se descarta para que siempre sea un alta.
+     */
     @Override
     public Departamento save(Departamento departamento){
+        departamento.setId(null);
+        contadorGeneraciones.incrementarAlConfirmar(Departamento.class);
         return departamentoRepository.save(departamento);
     }
 
+    /**
+     * Copia los datos sobre la entidad cargada para que {@code @Version} se incremente.
+     */
     @Override
     public Departamento update(Long id, Departamento departamento){
-        if(!departamentoRepository.existsById(id)){
+        Departamento actual = departamentoRepository.findById(id).orElseThrow(() -> new DepartamentoNoEncontradoException(id));
+        actual.setNombre(departamento.getNombre());
+        actual.setDescripcion(departamento.getDescripcion());
+        contadorGeneraciones.incrementarAlConfirmar(Departamento.class);
+        return departamentoRepository.save(actual);
+    }
+
+    /**
+     * Escribe solo los campos recibidos con un único UPDATE, sin cargar el departamento.
+     */
+    @Override
+    public void patch(Long id, DepartamentoPatchDto cambios){
+        boolean existe = new ActualizacionParcial<>(entityManager, Departamento.class)
+                .set("nombre", cambios.nombre())
+                .set("descripcion", cambios.descripcion())
+                .ejecutar(id);
+        if(!existe){
             throw new DepartamentoNoEncontradoException(id);
         }
-        departamento.setId(id);
-        return departamentoRepository.save(departamento);
+        contadorGeneraciones.incrementarAlConfirmar(Departamento.class);
     }
 
+    /**
+     * Elimina los departamentos y sus empleados con sentencias DELETE por conjunto, en lugar de
+     * cargar cada empleado para la cascada.
+     * @return Cantidad de departamentos eliminados; los ids inexistentes se ignoran
+     */
+    @Override
+    public int deleteAll(List<Long> ids){
+        empleadoService.deleteByDepartamentos(ids);
+        int eliminados = 0;
+        for (List<Long> tramo : EmpleadoServiceImpl.tramosIds(ids)){
+            eliminados += departamentoRepository.bulkDeleteByIdIn(tramo);
+        }
+        if(eliminados > 0){
+            contadorGeneraciones.incrementarAlConfirmar(Departamento.class);
+        }
+        return eliminados;
+    }
+
+    /**
+     * Los empleados se eliminan antes por el servicio, igual que en {@link #deleteAll}, para que los
+     * índices y agregados en memoria los descuenten; la cascada de la entidad no pasa por él.
+     */
     @Override
     public  void delete(Long id){
         if (!departamentoRepository.existsById(id)){
             throw new DepartamentoNoEncontradoException(id);
         }
+        empleadoService.deleteByDepartamentos(List.of(id));
+        contadorGeneraciones.incrementarAlConfirmar(Departamento.class);
         departamentoRepository.deleteById(id);
     }
 
     @Override
-    public Departamento findById(Long id){
-        return departamentoRepository.findById(id).orElseThrow(()->new DepartamentoNoEncontradoException(id));
+    public String generacion(){
+        return contadorGeneraciones.actual(Departamento.class);
+    }
+
+    /**
+     * Se resuelve con la caché de segundo nivel de la entidad antes de ir a la base. Lo que se lee
+     * queda en esa caché, así que va al primario (transacción de escritura): una réplica atrasada la
+     * llenaría con datos viejos. Con la caché caliente casi no llega a la base.
+     */
+    @Override
+    @Transactional
+    public DepartamentoDto findById(Long id){
+        return departamentoRepository.findById(id).map(DepartamentoDto::from).orElseThrow(()->new DepartamentoNoEncontradoException(id));
+    }
+
+    /**
+     * Consulta cacheable y fuente del catálogo serializado, ambos asociados a la generación actual:
+     * va al primario para no guardar datos de una réplica atrasada bajo la generación nueva.
+     */
+    @Override
+    @Transactional
+    @Coalescente(value = "departamentos", generaciones = Departamento.class)
+    public List<DepartamentoDto> findAll(){
+        return  departamentoRepository.findAllDto();
     }
 
     @Override
-    public List<Departamento> findAll(){
-        return  departamentoRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<DepartamentoDto> findAll(Long after, int limit){
+        int limite = CursorPage.limitar(limit);
+        return CursorPage.of(departamentoRepository.findPage(after, Limit.of(limite + 1)), limite, DepartamentoDto::id);
     }
 
 }
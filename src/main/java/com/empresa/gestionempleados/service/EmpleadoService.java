@@ -1,19 +1,49 @@
 package com.empresa.gestionempleados.service;
 
+import com.empresa.gestionempleados.dto.Cursor;
+import com.empresa.gestionempleados.dto.CursorPage;
+import com.empresa.gestionempleados.dto.EmpleadoDto;
+import com.empresa.gestionempleados.dto.EmpleadoPatchDto;
+import com.empresa.gestionempleados.dto.FiltroEmpleados;
+import com.empresa.gestionempleados.dto.OrdenEmpleados;
+import com.empresa.gestionempleados.dto.ResumenSalarialDto;
+import com.empresa.gestionempleados.dto.SugerenciaDto;
 import com.empresa.gestionempleados.entity.Empleado;
+import com.empresa.gestionempleados.index.IndiceSugerencias;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface EmpleadoService {
     Empleado save(Empleado empleado);
     Empleado update(Long id, Empleado empleado);
+    void patch(Long id, EmpleadoPatchDto cambios);
+    List<Long> saveAll(List<Empleado> empleados);
+    List<Long> updateAll(List<Empleado> empleados);
     void delete(Long id);
-    Empleado findById(Long id);
-    List<Empleado> findAll();
-    List<Empleado> findByNombreDepartamento(String nombreDepartamento);
+    int deleteAll(List<Long> ids);
+    int deleteByDepartamentos(List<Long> departamentoIds);
+    String findVersionById(Long id);
+    EmpleadoDto findById(Long id);
+    List<EmpleadoDto> findAll();
+    List<EmpleadoDto> findByNombreDepartamento(String nombreDepartamento);
+    List<EmpleadoDto> findByDepartamentoId(Long departamentoId);
     BigDecimal findAverageSalaryByDepartamento(Long departamentoId);
-    List<Empleado> findBySalaryRange(BigDecimal min, BigDecimal max);
-    List<Empleado> findByHiringDate(LocalDate inicio, LocalDate fin);
+    ResumenSalarialDto findSalarySummaryByDepartamento(Long departamentoId);
+    List<EmpleadoDto> findBySalaryRange(BigDecimal min, BigDecimal max);
+    List<EmpleadoDto> findByHiringDate(LocalDate inicio, LocalDate fin);
+    CursorPage<EmpleadoDto> findAll(Long after, int limit);
+    CursorPage<EmpleadoDto> findByNombreDepartamento(String nombreDepartamento, Long after, int limit);
+    CursorPage<EmpleadoDto> findBySalaryRange(BigDecimal min, BigDecimal max, Long after, int limit);
+    CursorPage<EmpleadoDto> findByHiringDate(LocalDate inicio, LocalDate fin, Long after, int limit);
+    List<SugerenciaDto> suggest(String consulta, int limit);
+    IndiceSugerencias.Estadisticas suggestStats();
+    CursorPage<EmpleadoDto> search(FiltroEmpleados filtro, OrdenEmpleados orden, Cursor.Clave after, int limit, boolean contar);
+    List<Empleado> findAll(PlanCarga plan);
+    List<Empleado> findByNombreDepartamento(String nombreDepartamento, PlanCarga plan);
+    List<Empleado> findBySalaryRange(BigDecimal min, BigDecimal max, PlanCarga plan);
+    List<Empleado> findByHiringDate(LocalDate inicio, LocalDate fin, PlanCarga plan);
+    void exportAll(PlanCarga plan, Consumer<Empleado> consumer);
 }
@@ -1,83 +1,713 @@
 package com.empresa.gestionempleados.service;
 
+import com.empresa.gestionempleados.coalescencia.Coalescente;
+import com.empresa.gestionempleados.dto.Cursor;
+import com.empresa.gestionempleados.dto.CursorPage;
+import com.empresa.gestionempleados.dto.EmpleadoDto;
+import com.empresa.gestionempleados.dto.EmpleadoPatchDto;
+import com.empresa.gestionempleados.dto.FiltroEmpleados;
+import com.empresa.gestionempleados.dto.OrdenEmpleados;
+import com.empresa.gestionempleados.dto.ResumenSalarialDto;
+import com.empresa.gestionempleados.dto.SugerenciaDto;
+import com.empresa.gestionempleados.entity.Departamento;
 import com.empresa.gestionempleados.entity.Empleado;
+import com.empresa.gestionempleados.entity.Proyecto;
+import com.empresa.gestionempleados.exceptions.DatosInvalidosException;
+import com.empresa.gestionempleados.exceptions.DepartamentoNoEncontradoException;
 import com.empresa.gestionempleados.exceptions.EmailDuplicadoException;
 import com.empresa.gestionempleados.exceptions.EmpleadoNoEncontradoException;
+import com.empresa.gestionempleados.index.EmailIndex;
+import com.empresa.gestionempleados.index.IndiceSugerencias;
+import com.empresa.gestionempleados.repository.EmpleadoEspecificaciones;
 import com.empresa.gestionempleados.repository.EmpleadoRepository;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.Hibernate;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class EmpleadoServiceImpl implements EmpleadoService{
+    /**
+     * Filas por tramo en las cargas masivas: cada tramo hace una sola consulta de emails,
+     * se envía en lotes JDBC y luego se limpia el contexto de persistencia.
+     */
+    static final int TAMANIO_LOTE = 500;
+    /**
+     * Ids por consulta al cargar los proyectos de un listado.
+     */
+    static final int TAMANIO_IN = 1000;
+    /**
+     * {@link EmpleadoDto} lleva el id y el nombre del departamento: los listados lo unen en la
+     * misma consulta en lugar de cargarlo por empleado.
+     */
+    static final PlanCarga PLAN_DTO = PlanCarga.CON_DEPARTAMENTO;
+    private static final String SQLSTATE_CLAVE_UNICA = "23505";
+    private static final int MYSQL_CLAVE_UNICA = 1062;
+    private static final Set<String> SQLSTATES_CLAVE_FORANEA = Set.of("23503", "23506");
+    private static final int MYSQL_CLAVE_FORANEA = 1452;
+
     private final EmpleadoRepository empleadoRepository;
+    private final EntityManager entityManager;
+    private final EmailIndex emailIndex;
+    private final AgregadosSalario agregadosSalario;
+    private final ContadorGeneraciones contadorGeneraciones;
+    private final IndiceSugerencias indiceSugerencias;
 
-    public EmpleadoServiceImpl(EmpleadoRepository empleadoRepository){
+    public EmpleadoServiceImpl(EmpleadoRepository empleadoRepository, EntityManager entityManager, EmailIndex emailIndex,
+                               AgregadosSalario agregadosSalario, ContadorGeneraciones contadorGeneraciones,
+                               IndiceSugerencias indiceSugerencias){
         this.empleadoRepository = empleadoRepository;
+        this.entityManager = entityManager;
+        this.emailIndex = emailIndex;
+        this.agregadosSalario = agregadosSalario;
+        this.contadorGeneraciones = contadorGeneraciones;
+        this.indiceSugerencias = indiceSugerencias;
     }
 
+    /**
+     * Solo consulta la base por el email cuando el índice en memoria no puede descartarlo;
+     * la restricción única resuelve cualquier carrera restante. El id lo asigna la secuencia: uno
+     * enviado por el cliente se descarta para que siempre sea un alta.
+     */
     @Override
     public Empleado  save(Empleado empleado){
-        if(empleadoRepository.findByEmail(empleado.getEmail()).isPresent()){
-            throw new EmailDuplicadoException(empleado.getEmail());
+        empleado.setId(null);
+        String email = empleado.getEmail();
+        reservarEmail(email, null);
+        if(emailIndex.puedeExistir(email) && empleadoRepository.findByEmail(email).isPresent()){
+            throw new EmailDuplicadoException(email);
         }
-        return empleadoRepository.save(empleado);
+        asociarReferencias(empleado);
+        Empleado guardado = guardar(empleado);
+        Long departamentoId = departamentoId(guardado);
+        BigDecimal salario = guardado.getSalario();
+        SugerenciaDto sugerencia = SugerenciaDto.from(guardado);
+        agregadosSalario.despuesDelCommit(() -> agregadosSalario.agregar(departamentoId, salario));
+        TransaccionHooks.despuesDelCommit(() -> indiceSugerencias.agregar(sugerencia));
+        return guardado;
     }
 
     @Override
     public  Empleado update(Long id, Empleado empleado){
-        if(!empleadoRepository.existsById(id)){
+        Empleado actual = empleadoRepository.findById(id).orElseThrow(() -> new EmpleadoNoEncontradoException(id));
+        Long departamentoAnterior = departamentoId(actual);
+        BigDecimal salarioAnterior = actual.getSalario();
+        String email = empleado.getEmail();
+        if(!Objects.equals(actual.getEmail(), email)){
+            reservarEmail(email, actual.getEmail());
+            if(emailIndex.puedeExistir(email)){
+                Optional<Empleado> existingWithEmail = empleadoRepository.findByEmail(email);
+                if(existingWithEmail.isPresent() && !existingWithEmail.get().getId().equals(id)){
+                    throw new EmailDuplicadoException(email);
+                }
+            }
+        }
+        asociarReferencias(empleado);
+        copiarDatos(empleado, actual);
+        Empleado guardado = guardar(actual);
+        Long departamentoNuevo = departamentoId(guardado);
+        BigDecimal salarioNuevo = guardado.getSalario();
+        SugerenciaDto sugerencia = SugerenciaDto.from(guardado);
+        agregadosSalario.despuesDelCommit(() -> agregadosSalario.mover(departamentoAnterior, salarioAnterior, departamentoNuevo, salarioNuevo));
+        TransaccionHooks.despuesDelCommit(() -> indiceSugerencias.agregar(sugerencia));
+        return  guardado;
+    }
+
+    /**
+     * Escribe solo los campos recibidos con un único UPDATE, sin cargar el empleado ni consultar el
+     * email: la restricción única resuelve los duplicados. Si cambian el salario, el departamento o el
+     * email, antes se leen los valores actuales para ajustar los agregados de salario y retirar el
+     * email anterior del índice. Un departamento inexistente llega como violación de la clave foránea.
+     */
+    @Override
+    public void patch(Long id, EmpleadoPatchDto cambios){
+        Optional<EmpleadoRepository.ValoresActuales> anterior = Optional.empty();
+        if(cambios.salario() != null || cambios.departamentoId() != null || cambios.email() != null){
+            anterior = Optional.of(empleadoRepository.findValoresActualesById(id).orElseThrow(() -> new EmpleadoNoEncontradoException(id)));
+        }
+        String emailAnterior = anterior.map(EmpleadoRepository.ValoresActuales::getEmail).orElse(null);
+        if(cambios.email() != null && !cambios.email().equals(emailAnterior)){
+            reservarEmail(cambios.email(), emailAnterior);
+        }
+        ActualizacionParcial<Empleado> actualizacion = new ActualizacionParcial<>(entityManager, Empleado.class)
+                .set("nombre", cambios.nombre())
+                .set("apellido", cambios.apellido())
+                .set("email", cambios.email())
+                .set("fechaContratacion", cambios.fechaContratacion())
+                .set("salario", cambios.salario())
+                .set("departamento", cambios.departamentoId() != null ? entityManager.getReference(Departamento.class, cambios.departamentoId()) : null);
+        boolean existe;
+        try {
+            existe = actualizacion.ejecutar(id);
+        } catch (PersistenceException e){
+            if(cambios.departamentoId() != null && violaClaveForanea(e)){
+                throw new DepartamentoNoEncontradoException(cambios.departamentoId());
+            }
+            throw traducirViolacion(e, cambios.email());
+        }
+        if(!existe){
             throw new EmpleadoNoEncontradoException(id);
         }
-        Optional<Empleado> existingWithEmail = empleadoRepository.findByEmail(empleado.getEmail());
-        if(existingWithEmail.isPresent() && !existingWithEmail.get().getId().equals(id)){
-            throw new EmailDuplicadoException(empleado.getEmail());
+        anterior.filter(actual -> cambios.salario() != null || cambios.departamentoId() != null).ifPresent(actual -> {
+            Long departamentoNuevo = cambios.departamentoId() != null ? cambios.departamentoId() : actual.getDepartamentoId();
+            BigDecimal salarioNuevo = cambios.salario() != null ? cambios.salario() : actual.getSalario();
+            agregadosSalario.despuesDelCommit(() -> agregadosSalario.mover(actual.getDepartamentoId(), actual.getSalario(), departamentoNuevo, salarioNuevo));
+        });
+        SugerenciaDto sugerencia = new SugerenciaDto(id, cambios.nombre(), cambios.apellido(), cambios.email());
+        TransaccionHooks.despuesDelCommit(() -> indiceSugerencias.actualizar(sugerencia));
+    }
+
+    /**
+     * Toda la petición se valida antes del primer flush: referencias sin id, emails repetidos en
+     * la petición y emails que ya existen en la base.
+     */
+    @Override
+    public List<Long> saveAll(List<Empleado> empleados){
+        empleados.forEach(EmpleadoServiceImpl::verificarReferencias);
+        verificarEmailsNoRepetidos(empleados);
+        List<String> dudosos = emails(empleados).stream().filter(emailIndex::puedeExistir).toList();
+        for (List<String> tramo : tramosIn(dudosos)){
+            List<String> existentes = empleadoRepository.findEmailsIn(tramo);
+            if(!existentes.isEmpty()){
+                throw new EmailDuplicadoException(existentes.get(0));
+            }
+        }
+        List<Long> ids = new ArrayList<>(empleados.size());
+        for (List<Empleado> lote : tramos(empleados)){
+            for (Empleado empleado : lote){
+                empleado.setId(null);
+                asociarReferencias(empleado);
+                entityManager.persist(empleado);
+            }
+            flush();
+            lote.forEach(empleado -> ids.add(empleado.getId()));
+            entityManager.clear();
+        }
+        Set<String> nuevos = emails(empleados);
+        List<SugerenciaDto> sugerencias = empleados.stream().map(SugerenciaDto::from).toList();
+        agregadosSalario.despuesDelCommit(() -> empleados.forEach(empleado -> agregadosSalario.agregar(departamentoId(empleado), empleado.getSalario())));
+        TransaccionHooks.despuesDelCommit(() -> {
+            nuevos.forEach(emailIndex::agregar);
+            sugerencias.forEach(indiceSugerencias::agregar);
+        });
+        return ids;
+    }
+
+    /**
+     * Los ids, las referencias y los emails de toda la petición se validan antes del primer flush.
+     * Un email se rechaza si hoy lo usa otro empleado, aunque ese empleado lo cambie en la misma
+     * petición: el orden de las sentencias no garantiza que se libere antes. Un id inexistente se
+     * detecta al cargar su tramo y revierte la transacción completa.
+     */
+    @Override
+    public List<Long> updateAll(List<Empleado> empleados){
+        for (Empleado empleado : empleados){
+            if(empleado.getId() == null){
+                throw new DatosInvalidosException("Todos los empleados a actualizar deben tener id");
+            }
+            verificarReferencias(empleado);
+        }
+        verificarEmailsNoRepetidos(empleados);
+        Map<String, Long> solicitantes = new HashMap<>();
+        empleados.forEach(empleado -> solicitantes.put(empleado.getEmail(), empleado.getId()));
+        for (List<String> tramo : tramosIn(new ArrayList<>(solicitantes.keySet()))){
+            for (EmpleadoRepository.DuenioEmail duenio : empleadoRepository.findDueniosEmailIn(tramo)){
+                if(!duenio.getId().equals(solicitantes.get(duenio.getEmail()))){
+                    throw new EmailDuplicadoException(duenio.getEmail());
+                }
+            }
+        }
+        List<Long> ids = new ArrayList<>(empleados.size());
+        for (List<Empleado> lote : tramos(empleados)){
+            Map<Long, Empleado> actuales = empleadoRepository.findAllById(lote.stream().map(Empleado::getId).toList())
+                    .stream().collect(Collectors.toMap(Empleado::getId, Function.identity()));
+            for (Empleado empleado : lote){
+                if(!actuales.containsKey(empleado.getId())){
+                    throw new EmpleadoNoEncontradoException(empleado.getId());
+                }
+            }
+            for (Empleado empleado : lote){
+                Empleado actual = actuales.get(empleado.getId());
+                Long departamentoAnterior = departamentoId(actual);
+                BigDecimal salarioAnterior = actual.getSalario();
+                Long departamentoNuevo = departamentoId(empleado);
+                BigDecimal salarioNuevo = empleado.getSalario();
+                agregadosSalario.despuesDelCommit(() -> agregadosSalario.mover(departamentoAnterior, salarioAnterior, departamentoNuevo, salarioNuevo));
+                if(!Objects.equals(actual.getEmail(), empleado.getEmail())){
+                    String anterior = actual.getEmail();
+                    String nuevo = empleado.getEmail();
+                    TransaccionHooks.despuesDelCommit(() -> {
+                        emailIndex.agregar(nuevo);
+                        emailIndex.quitar(anterior);
+                    });
+                }
+                asociarReferencias(empleado);
+                copiarDatos(empleado, actual);
+                SugerenciaDto sugerencia = SugerenciaDto.from(actual);
+                TransaccionHooks.despuesDelCommit(() -> indiceSugerencias.agregar(sugerencia));
+                ids.add(empleado.getId());
+            }
+            flush();
+            entityManager.clear();
         }
-        empleado.setId(id);
-        return  empleadoRepository.save(empleado);
+        return ids;
     }
 
     @Override
     public void delete(Long id){
-        if(!empleadoRepository.existsById(id)){
-            throw new EmpleadoNoEncontradoException(id);
+        Empleado empleado = empleadoRepository.findById(id).orElseThrow(() -> new EmpleadoNoEncontradoException(id));
+        String email = empleado.getEmail();
+        Long departamentoId = departamentoId(empleado);
+        BigDecimal salario = empleado.getSalario();
+        empleadoRepository.delete(empleado);
+        agregadosSalario.despuesDelCommit(() -> agregadosSalario.quitar(departamentoId, salario));
+        TransaccionHooks.despuesDelCommit(() -> {
+            emailIndex.quitar(email);
+            indiceSugerencias.quitar(id);
+        });
+    }
+
+    /**
+     * Elimina con sentencias DELETE por conjunto, en tramos de {@value #TAMANIO_IN} ids y sin cargar
+     * las entidades. Las asignaciones a proyectos se borran en la misma operación.
+     * @return Cantidad de empleados eliminados; los ids inexistentes se ignoran
+     */
+    @Override
+    public int deleteAll(List<Long> ids){
+        int eliminados = 0;
+        for (List<Long> tramo : tramosIds(ids)){
+            List<EmpleadoRepository.EmpleadoEliminado> datos = empleadoRepository.findEliminadosByIdIn(tramo);
+            if(datos.isEmpty()){
+                continue;
+            }
+            eliminados += empleadoRepository.bulkDeleteByIdIn(tramo);
+            alEliminar(datos);
+        }
+        return eliminados;
+    }
+
+    /**
+     * Elimina los empleados de los departamentos indicados, como haría la cascada de
+     * {@code Departamento.empleados}, pero sin cargarlos en el contexto de persistencia.
+     * @return Cantidad de empleados eliminados
+     */
+    @Override
+    public int deleteByDepartamentos(List<Long> departamentoIds){
+        int eliminados = 0;
+        for (List<Long> tramo : tramosIds(departamentoIds)){
+            List<EmpleadoRepository.EmpleadoEliminado> datos = empleadoRepository.findEliminadosByDepartamentoIdIn(tramo);
+            if(datos.isEmpty()){
+                continue;
+            }
+            eliminados += empleadoRepository.bulkDeleteByDepartamentoIdIn(tramo);
+            alEliminar(datos);
         }
-        empleadoRepository.deleteById(id);
+        return eliminados;
+    }
+
+    private void alEliminar(List<EmpleadoRepository.EmpleadoEliminado> eliminados){
+        agregadosSalario.despuesDelCommit(() -> eliminados.forEach(eliminado -> agregadosSalario.quitar(eliminado.getDepartamentoId(), eliminado.getSalario())));
+        TransaccionHooks.despuesDelCommit(() -> eliminados.forEach(eliminado -> {
+            emailIndex.quitar(eliminado.getEmail());
+            indiceSugerencias.quitar(eliminado.getId());
+        }));
     }
 
+    /**
+     * La vista del empleado incluye el nombre del departamento, así que la versión combina el
+     * {@code @Version} del empleado con la generación de departamentos.
+     */
     @Override
-    public Empleado findById(Long id){
-        return empleadoRepository.findById(id).orElseThrow(()-> new EmpleadoNoEncontradoException(id));
+    @Transactional(readOnly = true)
+    public String findVersionById(Long id){
+        Long version = empleadoRepository.findVersionById(id).orElseThrow(() -> new EmpleadoNoEncontradoException(id));
+        return version + "." + contadorGeneraciones.actual(Departamento.class);
     }
 
     @Override
-    public List<Empleado> findAll(){
-        return empleadoRepository.findAll();
+    @Transactional(readOnly = true)
+    public EmpleadoDto findById(Long id){
+        return empleadoRepository.findDtoById(id).orElseThrow(()-> new EmpleadoNoEncontradoException(id));
     }
 
     @Override
-    public List<Empleado> findByNombreDepartamento(String nombreDepartamento){
-        return  empleadoRepository.findByNombreDepartamento(nombreDepartamento);
+    @Transactional(readOnly = true)
+    public List<EmpleadoDto> findAll(){
+        return dtos(findAll(PLAN_DTO));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<EmpleadoDto> findByNombreDepartamento(String nombreDepartamento){
+        return dtos(findByNombreDepartamento(nombreDepartamento, PLAN_DTO));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmpleadoDto> findByDepartamentoId(Long departamentoId){
+        return empleadoRepository.findDtoByDepartamentoId(departamentoId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Coalescente("empleados-promedio-salario")
     public BigDecimal findAverageSalaryByDepartamento(Long departamentoId){
-        return empleadoRepository.findAverageSalaryByDepartamento(departamentoId).orElse(BigDecimal.ZERO);
+        return agregadosSalario.promedio(departamentoId);
+    }
+
+    /**
+     * Sin transacción: el resumen sale de memoria y, si hay que recalcularlo, {@link AgregadosSalario}
+     * consulta el primario en una transacción propia. Una de solo lectura aquí podría retener una
+     * conexión que no se usa.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Coalescente("empleados-resumen-salario")
+    public ResumenSalarialDto findSalarySummaryByDepartamento(Long departamentoId){
+        return agregadosSalario.resumen(departamentoId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmpleadoDto> findBySalaryRange(BigDecimal min, BigDecimal max){
+        return dtos(findBySalaryRange(min, max, PLAN_DTO));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public  List<EmpleadoDto> findByHiringDate(LocalDate inicio, LocalDate fin){
+        return dtos(findByHiringDate(inicio, fin, PLAN_DTO));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<EmpleadoDto> findAll(Long after, int limit){
+        int limite = CursorPage.limitar(limit);
+        return CursorPage.of(empleadoRepository.findPage(after, Limit.of(limite + 1)), limite, EmpleadoDto::id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<EmpleadoDto> findByNombreDepartamento(String nombreDepartamento, Long after, int limit){
+        int limite = CursorPage.limitar(limit);
+        return CursorPage.of(empleadoRepository.findPageByNombreDepartamento(nombreDepartamento, after, Limit.of(limite + 1)), limite, EmpleadoDto::id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<EmpleadoDto> findBySalaryRange(BigDecimal min, BigDecimal max, Long after, int limit){
+        int limite = CursorPage.limitar(limit);
+        return CursorPage.of(empleadoRepository.findPageBySalarioBetween(min, max, after, Limit.of(limite + 1)), limite, EmpleadoDto::id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<EmpleadoDto> findByHiringDate(LocalDate inicio, LocalDate fin, Long after, int limit){
+        int limite = CursorPage.limitar(limit);
+        return CursorPage.of(empleadoRepository.findPageByFechaContratacionBetween(inicio, fin, after, Limit.of(limite + 1)), limite, EmpleadoDto::id);
+    }
+
+    /**
+     * Responde desde el índice en memoria, sin abrir una transacción ni pedir una conexión.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<SugerenciaDto> suggest(String consulta, int limit){
+        return indiceSugerencias.sugerir(consulta, limit);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public IndiceSugerencias.Estadisticas suggestStats(){
+        return indiceSugerencias.estadisticas();
+    }
+
+    /**
+     * Búsqueda combinada en una sola consulta, con las relaciones de {@link #PLAN_DTO} unidas para
+     * armar los DTO. La cantidad total solo se cuenta si se pide, porque obliga a recorrer todas las
+     * filas del filtro.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<EmpleadoDto> search(FiltroEmpleados filtro, OrdenEmpleados orden, Cursor.Clave after, int limit, boolean contar){
+        int limite = CursorPage.limitar(limit);
+        Specification<Empleado> especificacion = EmpleadoEspecificaciones.filtro(filtro);
+        Specification<Empleado> pagina = after == null ? especificacion
+                : especificacion.and(EmpleadoEspecificaciones.despuesDe(orden, orden.valor(after.valor()), after.id()));
+        List<EmpleadoDto> filas = dtos(cargar(PLAN_DTO, empleadoRepository.findBy(pagina, consulta -> consulta
+                .sortBy(orden.sort())
+                .limit(limite + 1)
+                .project(PLAN_DTO.unidas())
+                .all())));
+        CursorPage<EmpleadoDto> resultado = CursorPage.conCursor(filas, limite, orden::cursor);
+        return contar ? resultado.conTotal(empleadoRepository.count(especificacion)) : resultado;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Empleado> findAll(PlanCarga plan){
+        return cargar(plan, plan.incluyeDepartamento() ? empleadoRepository.findAllWithDepartamento() : empleadoRepository.findAll(Sort.by("id")));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Empleado> findByNombreDepartamento(String nombreDepartamento, PlanCarga plan){
+        return cargar(plan, plan.incluyeDepartamento()
+                ? empleadoRepository.findWithDepartamentoByNombreDepartamento(nombreDepartamento)
+                : empleadoRepository.findByNombreDepartamento(nombreDepartamento));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Empleado> findBySalaryRange(BigDecimal min, BigDecimal max, PlanCarga plan){
+        return cargar(plan, plan.incluyeDepartamento()
+                ? empleadoRepository.findWithDepartamentoBySalarioBetweenOrderById(min, max)
+                : empleadoRepository.findBySalarioBetween(min, max));
     }
 
     @Override
-    public List<Empleado> findBySalaryRange(BigDecimal min, BigDecimal max){
-        return empleadoRepository.findBySalarioBetween(min,max);
+    @Transactional(readOnly = true)
+    public List<Empleado> findByHiringDate(LocalDate inicio, LocalDate fin, PlanCarga plan){
+        return cargar(plan, plan.incluyeDepartamento()
+                ? empleadoRepository.findWithDepartamentoByFechaContratacionBetweenOrderById(inicio, fin)
+                : empleadoRepository.findByFechaContratacionBetween(inicio, fin));
+    }
+
+    /**
+     * Completa los proyectos si el plan los pide: una consulta por cada {@value #TAMANIO_IN}
+     * empleados, que inicializa las colecciones de las entidades ya cargadas.
+     */
+    private List<Empleado> cargar(PlanCarga plan, List<Empleado> empleados){
+        if(plan.incluyeProyectos()){
+            List<Long> ids = empleados.stream().map(Empleado::getId).toList();
+            for (int inicio = 0; inicio < ids.size(); inicio += TAMANIO_IN){
+                empleadoRepository.fetchProyectos(ids.subList(inicio, Math.min(inicio + TAMANIO_IN, ids.size())));
+            }
+        }
+        return empleados;
+    }
+
+    private static List<EmpleadoDto> dtos(List<Empleado> empleados){
+        return empleados.stream().map(EmpleadoDto::from).toList();
     }
 
+    /**
+     * Recorre todos los empleados con un cursor de base de datos, sin cargar la tabla completa en memoria.
+     * Cada empleado se desacopla del contexto de persistencia después de entregarlo al consumidor. Si
+     * el plan incluye los proyectos, los empleados se entregan por tramos de {@value #TAMANIO_IN}, con
+     * una consulta de proyectos por tramo.
+     */
     @Override
-    public  List<Empleado> findByHiringDate(LocalDate inicio, LocalDate fin){
-        return empleadoRepository.findByFechaContratacionBetween(inicio, fin);
+    @Transactional(readOnly = true)
+    public void exportAll(PlanCarga plan, Consumer<Empleado> consumer){
+        List<Empleado> tramo = new ArrayList<>();
+        try (Stream<Empleado> empleados = plan.incluyeDepartamento() ? empleadoRepository.streamAllWithDepartamento() : empleadoRepository.streamAll()){
+            empleados.forEach(empleado -> {
+                tramo.add(empleado);
+                if(!plan.incluyeProyectos() || tramo.size() == TAMANIO_IN){
+                    entregar(plan, tramo, consumer);
+                }
+            });
+        }
+        entregar(plan, tramo, consumer);
+    }
+
+    private void entregar(PlanCarga plan, List<Empleado> tramo, Consumer<Empleado> consumer){
+        cargar(plan, tramo);
+        for (Empleado empleado : tramo){
+            consumer.accept(empleado);
+            entityManager.detach(empleado);
+        }
+        tramo.clear();
+    }
+
+    /**
+     * Reserva el email nuevo hasta que termine la transacción. Si se confirma, el email pasa al
+     * índice y el anterior (en una modificación) se retira.
+     */
+    private void reservarEmail(String email, String anterior){
+        if(!emailIndex.reservar(email)){
+            throw new EmailDuplicadoException(email);
+        }
+        TransaccionHooks.alFinalizar(confirmada -> {
+            if(confirmada){
+                emailIndex.agregar(email);
+                emailIndex.quitar(anterior);
+            }
+            emailIndex.liberar(email);
+        });
+    }
+
+    /**
+     * El departamento es una referencia sin cargar, y el controlador arma la respuesta con su nombre
+     * después de la transacción (sin open-in-view), así que se inicializa aquí.
+     */
+    private Empleado guardar(Empleado empleado){
+        Empleado guardado;
+        try {
+            guardado = empleadoRepository.saveAndFlush(empleado);
+        } catch (DataIntegrityViolationException e){
+            throw traducirViolacion(e, empleado.getEmail());
+        }
+        Hibernate.initialize(guardado.getDepartamento());
+        return guardado;
+    }
+
+    private void flush(){
+        try {
+            entityManager.flush();
+        } catch (PersistenceException e){
+            throw traducirViolacion(e, null);
+        }
+    }
+
+    /**
+     * Convierte la violación de la restricción única de email en {@link EmailDuplicadoException};
+     * cualquier otra violación de integridad se propaga tal cual.
+     */
+    private static RuntimeException traducirViolacion(RuntimeException e, String email){
+        for (Throwable causa = e; causa != null; causa = causa.getCause()){
+            if(causa instanceof ConstraintViolationException violacion && esEmailDuplicado(violacion)){
+                return new EmailDuplicadoException(email != null ? email : String.valueOf(violacion.getConstraintName()));
+            }
+        }
+        return e;
+    }
+
+    /**
+     * Se reconoce por el nombre de la restricción. Si la base todavía la tiene con otro nombre
+     * (ver {@code MigracionEsquema}), por el SQLState de clave única duplicada de PostgreSQL y H2, o
+     * el código 1062 de MySQL, con la columna email en el mensaje del motor.
+     */
+    private static boolean esEmailDuplicado(ConstraintViolationException violacion){
+        String restriccion = violacion.getConstraintName();
+        if(restriccion != null && restriccion.toLowerCase(Locale.ROOT).contains(Empleado.UK_EMAIL)){
+            return true;
+        }
+        SQLException sql = violacion.getSQLException();
+        boolean claveUnica = sql != null && (SQLSTATE_CLAVE_UNICA.equals(sql.getSQLState()) || sql.getErrorCode() == MYSQL_CLAVE_UNICA);
+        return claveUnica && sql.getMessage() != null && sql.getMessage().toLowerCase(Locale.ROOT).contains("email");
+    }
+
+    /**
+     * Hibernate no distingue las claves foráneas entre los tipos de violación, así que se reconoce por
+     * el SQLState (23503 en PostgreSQL, 23506 en H2) o por el código 1452 de MySQL.
+     */
+    private static boolean violaClaveForanea(RuntimeException e){
+        for (Throwable causa = e; causa != null; causa = causa.getCause()){
+            if(causa instanceof ConstraintViolationException violacion){
+                SQLException sql = violacion.getSQLException();
+                return sql != null && (SQLSTATES_CLAVE_FORANEA.contains(sql.getSQLState()) || sql.getErrorCode() == MYSQL_CLAVE_FORANEA);
+            }
+        }
+        return false;
+    }
+
+    private static Long departamentoId(Empleado empleado){
+        return empleado.getDepartamento() != null ? empleado.getDepartamento().getId() : null;
+    }
+
+    private static List<List<Empleado>> tramos(List<Empleado> empleados){
+        List<List<Empleado>> tramos = new ArrayList<>();
+        for (int inicio = 0; inicio < empleados.size(); inicio += TAMANIO_LOTE){
+            tramos.add(empleados.subList(inicio, Math.min(inicio + TAMANIO_LOTE, empleados.size())));
+        }
+        return tramos;
+    }
+
+    static List<List<Long>> tramosIds(List<Long> ids){
+        return tramosIn(ids);
+    }
+
+    private static <T> List<List<T>> tramosIn(List<T> valores){
+        List<T> distintos = valores.stream().filter(Objects::nonNull).distinct().toList();
+        List<List<T>> tramos = new ArrayList<>();
+        for (int inicio = 0; inicio < distintos.size(); inicio += TAMANIO_IN){
+            tramos.add(distintos.subList(inicio, Math.min(inicio + TAMANIO_IN, distintos.size())));
+        }
+        return tramos;
+    }
+
+    private static Set<String> emails(List<Empleado> empleados){
+        return empleados.stream().map(Empleado::getEmail).collect(Collectors.toSet());
+    }
+
+    private static void verificarEmailsNoRepetidos(List<Empleado> empleados){
+        Set<String> vistos = new HashSet<>();
+        for (Empleado empleado : empleados){
+            if(!vistos.add(empleado.getEmail())){
+                throw new EmailDuplicadoException(empleado.getEmail());
+            }
+        }
+    }
+
+    /**
+     * El departamento y los proyectos se reciben solo con su id; sin él no hay a qué asociarlos.
+     */
+    private static void verificarReferencias(Empleado empleado){
+        if(empleado.getDepartamento() != null && empleado.getDepartamento().getId() == null){
+            throw new DatosInvalidosException("El departamento del empleado debe indicar su id");
+        }
+        if(empleado.getProyectos() != null && empleado.getProyectos().stream().anyMatch(p -> p == null || p.getId() == null)){
+            throw new DatosInvalidosException("Los proyectos del empleado deben indicar su id");
+        }
+    }
+
+    /**
+     * Reemplaza el departamento y los proyectos recibidos (que solo traen el id) por referencias
+     * del contexto de persistencia, sin consultar la base. Como las entidades tienen {@code @Version},
+     * Hibernate trataría como nuevas a las instancias deserializadas sin versión.
+     */
+    private void asociarReferencias(Empleado empleado){
+        verificarReferencias(empleado);
+        Departamento departamento = empleado.getDepartamento();
+        if(departamento != null && departamento.getId() != null){
+            empleado.setDepartamento(entityManager.getReference(Departamento.class, departamento.getId()));
+        }
+        Set<Proyecto> proyectos = new HashSet<>();
+        if(empleado.getProyectos() == null){
+            empleado.setProyectos(proyectos);
+            return;
+        }
+        for (Proyecto proyecto : empleado.getProyectos()){
+            proyectos.add(entityManager.getReference(Proyecto.class, proyecto.getId()));
+        }
+        empleado.setProyectos(proyectos);
+    }
+
+    private static void copiarDatos(Empleado origen, Empleado destino){
+        destino.setNombre(origen.getNombre());
+        destino.setApellido(origen.getApellido());
+        destino.setEmail(origen.getEmail());
+        destino.setFechaContratacion(origen.getFechaContratacion());
+        destino.setSalario(origen.getSalario());
+        destino.setDepartamento(origen.getDepartamento());
+        destino.setProyectos(origen.getProyectos());
     }
 
 }
@@ -0,0 +1,40 @@
+package com.empresa.gestionempleados.service;
+
+import java.util.List;
+
+/**
+ * Relaciones de {@code Empleado} que se cargan junto con los listados de entidades. El
+ * departamento se une en la misma consulta (grafo {@code Empleado.departamento}); los proyectos,
+ * al ser una colección, se cargan en una segunda consulta con {@code IN} por tramos para no
+ * multiplicar las filas.
+ */
+public enum PlanCarga {
+    /** Solo las columnas del empleado; departamento y proyectos quedan perezosos. */
+    BASICO(false, false),
+    CON_DEPARTAMENTO(true, false),
+    CON_PROYECTOS(false, true),
+    COMPLETO(true, true);
+
+    private final boolean departamento;
+    private final boolean proyectos;
+
+    PlanCarga(boolean departamento, boolean proyectos){
+        this.departamento = departamento;
+        this.proyectos = proyectos;
+    }
+
+    public boolean incluyeDepartamento(){
+        return departamento;
+    }
+
+    public boolean incluyeProyectos(){
+        return proyectos;
+    }
+
+    /**
+     * Relaciones que se unen en la consulta principal, como atributos de un grafo de carga.
+     */
+    public List<String> unidas(){
+        return departamento ? List.of("departamento") : List.of();
+    }
+}
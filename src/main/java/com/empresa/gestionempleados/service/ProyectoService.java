@@ -1,5 +1,8 @@
 package com.empresa.gestionempleados.service;
 
+import com.empresa.gestionempleados.dto.CursorPage;
+import com.empresa.gestionempleados.dto.ProyectoDto;
+import com.empresa.gestionempleados.dto.ProyectoPatchDto;
 import com.empresa.gestionempleados.entity.Proyecto;
 
 import java.util.List;
@@ -7,8 +10,15 @@ import java.util.List;
 public interface ProyectoService {
     Proyecto save(Proyecto proyecto);
     Proyecto update(Long id, Proyecto proyecto);
+    void patch(Long id, ProyectoPatchDto cambios);
+    int deleteAll(List<Long> ids);
+    int deleteByStatus(String status);
     void delete (Long id);
-    Proyecto findById(Long id);
-    List<Proyecto> findAll();
-    List<Proyecto> findByStatus(String status);
+    ProyectoDto findById(Long id);
+    List<ProyectoDto> findAll();
+    List<ProyectoDto> findByStatus(String status);
+    List<ProyectoDto> findByDepartamento(Long departamentoId);
+    CursorPage<ProyectoDto> findAll(Long after, int limit);
+    CursorPage<ProyectoDto> findByStatus(String status, Long after, int limit);
+    String generacion();
 }
@@ -1,10 +1,16 @@
 package com.empresa.gestionempleados.service;
 
+import com.empresa.gestionempleados.coalescencia.Coalescente;
+import com.empresa.gestionempleados.dto.CursorPage;
+import com.empresa.gestionempleados.dto.ProyectoDto;
+import com.empresa.gestionempleados.dto.ProyectoPatchDto;
 import com.empresa.gestionempleados.entity.Proyecto;
 import com.empresa.gestionempleados.exceptions.ProyectoNoEncontradoException;
 import com.empresa.gestionempleados.repository.ProyectoRepository;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -12,23 +18,85 @@ import java.util.List;
 @Transactional
 public class ProyectoServiceImpl implements ProyectoService{
     private final ProyectoRepository proyectoRepository;
+    private final ContadorGeneraciones contadorGeneraciones;
+    private final EntityManager entityManager;
 
-    public ProyectoServiceImpl(ProyectoRepository proyectoRepository) {
+    public ProyectoServiceImpl(ProyectoRepository proyectoRepository, ContadorGeneraciones contadorGeneraciones,
+                               EntityManager entityManager) {
         this.proyectoRepository = proyectoRepository;
+        this.contadorGeneraciones = contadorGeneraciones;
+        this.entityManager = entityManager;
     }
 
+    /**
+     * El id lo asigna la secuencia: uno enviado por el cliente se descarta para que siempre sea un alta.
+     */
     @Override
     public Proyecto save(Proyecto proyecto){
+        proyecto.setId(null);
+        contadorGeneraciones.incrementarAlConfirmar(Proyecto.class);
         return proyectoRepository.save(proyecto);
     }
 
+    /**
+     * Copia los datos sobre la entidad cargada para que {@code @Version} se incremente.
+     */
     @Override
     public Proyecto update(Long id, Proyecto proyecto){
-        if(!proyectoRepository.existsById(id)){
+        Proyecto actual = proyectoRepository.findById(id).orElseThrow(() -> new ProyectoNoEncontradoException(id));
+        actual.setNombre(proyecto.getNombre());
+        actual.setDescripcion(proyecto.getDescripcion());
+        actual.setEstado(proyecto.getEstado());
+        actual.setFechaInicio(proyecto.getFechaInicio());
+        actual.setFechaFin(proyecto.getFechaFin());
+        contadorGeneraciones.incrementarAlConfirmar(Proyecto.class);
+        return proyectoRepository.save(actual);
+    }
+
+    /**
+     * Escribe solo los campos recibidos con un único UPDATE, sin cargar el proyecto.
+     */
+    @Override
+    public void patch(Long id, ProyectoPatchDto cambios){
+        boolean existe = new ActualizacionParcial<>(entityManager, Proyecto.class)
+                .set("nombre", cambios.nombre())
+                .set("descripcion", cambios.descripcion())
+                .set("estado", cambios.estado())
+                .set("fechaInicio", cambios.fechaInicio())
+                .set("fechaFin", cambios.fechaFin())
+                .ejecutar(id);
+        if(!existe){
             throw new ProyectoNoEncontradoException(id);
         }
-        proyecto.setId(id);
-        return proyectoRepository.save(proyecto);
+        contadorGeneraciones.incrementarAlConfirmar(Proyecto.class);
+    }
+
+    /**
+     * Elimina los proyectos y sus asignaciones de empleados con sentencias DELETE por conjunto.
+     * @return Cantidad de proyectos eliminados; los ids inexistentes se ignoran
+     */
+    @Override
+    public int deleteAll(List<Long> ids){
+        int eliminados = 0;
+        for (List<Long> tramo : EmpleadoServiceImpl.tramosIds(ids)){
+            eliminados += proyectoRepository.bulkDeleteByIdIn(tramo);
+        }
+        return generacion(eliminados);
+    }
+
+    /**
+     * @return Cantidad de proyectos eliminados con el estado indicado
+     */
+    @Override
+    public int deleteByStatus(String status){
+        return generacion(proyectoRepository.bulkDeleteByEstado(status));
+    }
+
+    private int generacion(int eliminados){
+        if(eliminados > 0){
+            contadorGeneraciones.incrementarAlConfirmar(Proyecto.class);
+        }
+        return eliminados;
     }
 
     @Override
@@ -36,21 +104,67 @@ public class ProyectoServiceImpl implements ProyectoService{
         if (!proyectoRepository.existsById(id)){
             throw  new ProyectoNoEncontradoException(id);
         }
+        contadorGeneraciones.incrementarAlConfirmar(Proyecto.class);
         proyectoRepository.deleteById(id);
     }
 
     @Override
-    public Proyecto findById(Long id){
-        return proyectoRepository.findById(id).orElseThrow(()-> new ProyectoNoEncontradoException(id));
+    public String generacion(){
+        return contadorGeneraciones.actual(Proyecto.class);
+    }
+
+    /**
+     * Se resuelve con la caché de segundo nivel de la entidad antes de ir a la base. Lo que se lee
+     * queda en esa caché, así que va al primario (transacción de escritura): una réplica atrasada la
+     * llenaría con datos viejos. Con la caché caliente casi no llega a la base.
+     */
+    @Override
+    @Transactional
+    public ProyectoDto findById(Long id){
+        return proyectoRepository.findById(id).map(ProyectoDto::from).orElseThrow(()-> new ProyectoNoEncontradoException(id));
+    }
+
+    /**
+     * Consulta cacheable y fuente del catálogo serializado, ambos asociados a la generación actual:
+     * va al primario para no guardar datos de una réplica atrasada bajo la generación nueva.
+     */
+    @Override
+    @Transactional
+    public List<ProyectoDto> findAll(){
+        return proyectoRepository.findAllDto();
+    }
+
+    /**
+     * Consulta cacheable cuya respuesta lleva el ETag de la generación actual: va al primario, como
+     * {@link #findAll()}.
+     */
+    @Override
+    @Transactional
+    @Coalescente(value = "proyectos-por-estado", generaciones = Proyecto.class)
+    public List<ProyectoDto> findByStatus(String status){
+        return proyectoRepository.findDtoByEstado(status);
+    }
+
+    /**
+     * Proyectos en los que trabaja al menos un empleado del departamento.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProyectoDto> findByDepartamento(Long departamentoId){
+        return proyectoRepository.findDtoByDepartamentoId(departamentoId);
     }
 
     @Override
-    public List<Proyecto> findAll(){
-        return proyectoRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<ProyectoDto> findAll(Long after, int limit){
+        int limite = CursorPage.limitar(limit);
+        return CursorPage.of(proyectoRepository.findPage(after, Limit.of(limite + 1)), limite, ProyectoDto::id);
     }
 
     @Override
-    public List<Proyecto> findByStatus(String status){
-        return proyectoRepository.findByEstado(status);
+    @Transactional(readOnly = true)
+    public CursorPage<ProyectoDto> findByStatus(String status, Long after, int limit){
+        int limite = CursorPage.limitar(limit);
+        return CursorPage.of(proyectoRepository.findPageByEstado(status, after, Limit.of(limite + 1)), limite, ProyectoDto::id);
     }
 }
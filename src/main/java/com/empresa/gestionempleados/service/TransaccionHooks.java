@@ -0,0 +1,72 @@
+package com.empresa.gestionempleados.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+/**
+ * Acciones que deben ejecutarse cuando termina la transacción actual, por ejemplo para mantener
+ * los índices en memoria alineados con lo que realmente quedó confirmado en la base.
+ */
+final class TransaccionHooks {
+
+    private TransaccionHooks(){
+    }
+
+    /**
+     * Registra una acción para el final de la transacción; recibe true si se confirmó.
+     * Sin transacción activa la acción se ejecuta en el acto como confirmada.
+     */
+    static void alFinalizar(Consumer<Boolean> accion){
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            accion.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status){
+                accion.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    /**
+     * Avisa justo antes del commit y, solo si se avisó, al terminar la transacción: el final recibe
+     * true si se confirmó. Una transacción revertida antes de intentar el commit no llama a ninguno.
+     */
+    static void alrededorDelCommit(Runnable antesDelCommit, Consumer<Boolean> alFinal){
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            antesDelCommit.run();
+            alFinal.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean avisado;
+
+            @Override
+            public void beforeCommit(boolean readOnly){
+                avisado = true;
+                antesDelCommit.run();
+            }
+
+            @Override
+            public void afterCompletion(int status){
+                if(avisado){
+                    alFinal.accept(status == STATUS_COMMITTED);
+                }
+            }
+        });
+    }
+
+    /**
+     * Registra una acción que solo se ejecuta si la transacción se confirma.
+     */
+    static void despuesDelCommit(Runnable accion){
+        alFinalizar(confirmada -> {
+            if(confirmada){
+                accion.run();
+            }
+        });
+    }
+}
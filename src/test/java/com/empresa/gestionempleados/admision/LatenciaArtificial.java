@@ -0,0 +1,21 @@
+package com.empresa.gestionempleados.admision;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simula una base lenta para las pruebas de admisión: cada sentencia espera {@link #milisegundos}
+ * con la conexión tomada. Hibernate crea su propia instancia, así que la latencia es estática.
+ */
+public class LatenciaArtificial implements StatementInspector {
+    static volatile long milisegundos;
+
+    @Override
+    public String inspect(String sql){
+        if(milisegundos > 0){
+            LockSupport.parkNanos(milisegundos * 1_000_000L);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,96 @@
+package com.empresa.gestionempleados.admision;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Con una base lenta ({@link LatenciaArtificial}) y presupuestos fijos, las lecturas que exceden su
+ * límite se rechazan con 503 mientras las escrituras siguen entrando por el suyo.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.empresa.gestionempleados.admision.LatenciaArtificial",
+        "gestion.admision.espera-maxima=50ms",
+        "gestion.admision.reintentar-despues=2s",
+        "gestion.admision.lectura.limite-inicial=2",
+        "gestion.admision.lectura.limite-minimo=2",
+        "gestion.admision.lectura.limite-maximo=2",
+        "gestion.admision.lectura.latencia-objetivo=10s",
+        "gestion.admision.escritura.limite-inicial=1",
+        "gestion.admision.escritura.limite-minimo=1",
+        "gestion.admision.escritura.limite-maximo=1",
+        "gestion.admision.escritura.latencia-objetivo=10s"
+})
+@ActiveProfiles("postgres")
+public class TestControlAdmision {
+    private static final int LECTURAS = 6;
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    @LocalServerPort
+    int puerto;
+
+    @Autowired
+    MeterRegistry registry;
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    @AfterEach
+    void tearDown(){
+        LatenciaArtificial.milisegundos = 0;
+    }
+
+    private HttpRequest.Builder peticion(String ruta){
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta));
+    }
+
+    private double rechazos(String tipo){
+        return registry.get(ControlAdmisionFilter.RECHAZOS).tag("tipo", tipo).counter().count();
+    }
+
+    @Test
+    void rechazaElExcesoDeLecturasSinFrenarLasEscrituras() throws Exception {
+        HttpRequest lectura = peticion("/api/departamentos?limit=5").GET().build();
+        assertEquals(200, cliente.send(lectura, HttpResponse.BodyHandlers.discarding()).statusCode());
+        double rechazosPrevios = rechazos("lectura");
+        LatenciaArtificial.milisegundos = 400;
+
+        List<CompletableFuture<HttpResponse<Void>>> lecturas = IntStream.range(0, LECTURAS)
+                .mapToObj(i -> cliente.sendAsync(lectura, HttpResponse.BodyHandlers.discarding()))
+                .toList();
+        HttpResponse<String> alta = cliente.send(peticion("/api/departamentos")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"nombre\":\"Admitido\"}")).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, alta.statusCode());
+
+        List<HttpResponse<Void>> respuestas = lecturas.stream().map(CompletableFuture::join).toList();
+        List<HttpResponse<Void>> rechazadas = respuestas.stream().filter(r -> r.statusCode() == 503).toList();
+        assertEquals(2, respuestas.stream().filter(r -> r.statusCode() == 200).count());
+        assertEquals(LECTURAS - 2, rechazadas.size());
+        rechazadas.forEach(r -> assertEquals("2", r.headers().firstValue("Retry-After").orElseThrow()));
+        assertEquals(LECTURAS - 2, rechazos("lectura") - rechazosPrevios);
+        assertEquals(2, registry.get(ControlAdmisionFilter.LIMITE).tag("tipo", "lectura").gauge().value());
+        assertNotNull(registry.get(ControlAdmisionFilter.EN_VUELO).tag("tipo", "escritura").gauge());
+
+        LatenciaArtificial.milisegundos = 0;
+        Matcher id = ID.matcher(alta.body());
+        assertTrue(id.find());
+        assertEquals(204, cliente.send(peticion("/api/departamentos/" + id.group(1)).DELETE().build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode());
+    }
+}
@@ -0,0 +1,118 @@
+package com.empresa.gestionempleados.admision;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLimiteAdaptativo {
+    private static final long OBJETIVO = 100;
+
+    private final AtomicLong reloj = new AtomicLong();
+
+    private LimiteAdaptativo limite(int inicial, int minimo, int maximo){
+        return new LimiteAdaptativo(inicial, minimo, maximo, OBJETIVO, reloj::get);
+    }
+
+    private List<LimiteAdaptativo.Permiso> adquirir(LimiteAdaptativo limite, int cantidad) throws InterruptedException {
+        List<LimiteAdaptativo.Permiso> permisos = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++){
+            permisos.add(limite.adquirir(0));
+        }
+        return permisos;
+    }
+
+    @Test
+    void rechazaSiElLimiteEstaOcupado() throws InterruptedException {
+        LimiteAdaptativo limite = limite(2, 2, 2);
+        LimiteAdaptativo.Permiso primero = limite.adquirir(0);
+        assertNotNull(limite.adquirir(0));
+
+        assertNull(limite.adquirir(0));
+        assertEquals(2, limite.getEnVuelo());
+
+        primero.close();
+        primero.close();
+        assertEquals(1, limite.getEnVuelo());
+        assertNotNull(limite.adquirir(0));
+    }
+
+    @Test
+    void esperaHastaQueSeLibereUnLugar() throws Exception {
+        LimiteAdaptativo limite = new LimiteAdaptativo(1, 1, 1, TimeUnit.SECONDS.toNanos(1));
+        LimiteAdaptativo.Permiso ocupado = limite.adquirir(0);
+
+        CompletableFuture<LimiteAdaptativo.Permiso> esperando = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limite.adquirir(TimeUnit.SECONDS.toNanos(10));
+            } catch (InterruptedException e){
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        assertFalse(esperando.isDone());
+
+        ocupado.close();
+        assertNotNull(esperando.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void unaRondaLentaReduceElLimiteUnaSolaVez() throws InterruptedException {
+        LimiteAdaptativo limite = limite(10, 1, 10);
+        List<LimiteAdaptativo.Permiso> permisos = adquirir(limite, 5);
+
+        reloj.addAndGet(OBJETIVO + 1);
+        permisos.forEach(LimiteAdaptativo.Permiso::close);
+        assertEquals(9, limite.getLimite());
+
+        LimiteAdaptativo.Permiso siguiente = limite.adquirir(0);
+        reloj.addAndGet(OBJETIVO + 1);
+        siguiente.close();
+        assertEquals(8, limite.getLimite());
+    }
+
+    @Test
+    void noBajaDelMinimo() throws InterruptedException {
+        LimiteAdaptativo limite = limite(2, 2, 10);
+        for (int i = 0; i < 5; i++){
+            LimiteAdaptativo.Permiso permiso = limite.adquirir(0);
+            reloj.addAndGet(OBJETIVO + 1);
+            permiso.close();
+        }
+        assertEquals(2, limite.getLimite());
+    }
+
+    @Test
+    void creceConRespuestasRapidasBajoCargaHastaElMaximo() throws InterruptedException {
+        LimiteAdaptativo limite = limite(4, 1, 6);
+        for (int ronda = 0; ronda < 50; ronda++){
+            adquirir(limite, limite.getLimite()).forEach(LimiteAdaptativo.Permiso::close);
+        }
+        assertEquals(6, limite.getLimite());
+    }
+
+    @Test
+    void noCreceSinCarga() throws InterruptedException {
+        LimiteAdaptativo limite = limite(4, 1, 10);
+        for (int i = 0; i < 50; i++){
+            limite.adquirir(0).close();
+        }
+        assertEquals(4, limite.getLimite());
+    }
+
+    @Test
+    void descartarNoAjustaElLimite() throws InterruptedException {
+        LimiteAdaptativo limite = limite(4, 1, 10);
+        LimiteAdaptativo.Permiso permiso = limite.adquirir(0);
+        reloj.addAndGet(OBJETIVO * 1000);
+        permiso.descartar();
+
+        assertEquals(4, limite.getLimite());
+        assertEquals(0, limite.getEnVuelo());
+    }
+}
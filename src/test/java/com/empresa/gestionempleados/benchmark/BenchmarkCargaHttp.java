@@ -0,0 +1,281 @@
+package com.empresa.gestionempleados.benchmark;
+
+import com.empresa.gestionempleados.GestionEmpleadosApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import static com.empresa.gestionempleados.benchmark.Siembra.DEPARTAMENTOS;
+import static com.empresa.gestionempleados.benchmark.Siembra.DIAS_CONTRATACION;
+import static com.empresa.gestionempleados.benchmark.Siembra.PRIMERA_CONTRATACION;
+import static com.empresa.gestionempleados.benchmark.Siembra.RANGO_SALARIO;
+import static com.empresa.gestionempleados.benchmark.Siembra.SALARIO_MINIMO;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Prueba de carga HTTP de modelo abierto contra la aplicación completa, levantada en un puerto
+ * aleatorio sobre H2 con los datos de {@link Siembra}.
+ * <p>
+ * Las peticiones salen a una tasa fija, sin esperar a que terminen las anteriores, y la latencia se
+ * mide desde el instante en que cada una debía salir: si el servidor (o el propio generador) se
+ * atrasa, la espera cuenta como latencia y no se pierde (corrección de la omisión coordinada).
+ * Cada tasa de {@code benchmark.carga.tasas} es un escalón de la curva de rendimiento; por cada
+ * escalón se guardan percentiles por operación.
+ * <p>
+ * Se corre con {@code mvn -Pbenchmark test -Dtest=BenchmarkCargaHttp} y deja
+ * {@code target/benchmark/carga-http.json} y la distribución completa de cada escalón en
+ * {@code carga-http-<tasa>rps.hgrm} (formato de HdrHistogram, en milisegundos). Parámetros
+ * (propiedades del sistema):
+ * <ul>
+ *     <li>{@code benchmark.carga.mezcla}: operaciones y pesos, por defecto
+ *     {@code findById=80,rango-salario=10,alta=10}. Operaciones: {@code findById},
+ *     {@code rango-salario}, {@code fecha-contratacion}, {@code promedio-salario}, {@code alta},
+ *     {@code departamentos}, {@code departamento}, {@code proyectos} y {@code proyecto}.</li>
+ *     <li>{@code benchmark.carga.tasas}: peticiones por segundo de cada escalón (50,100,200,400).</li>
+ *     <li>{@code benchmark.carga.segundos}: duración de cada escalón (10).</li>
+ *     <li>{@code benchmark.carga.calentamiento}: segundos a la primera tasa que no se miden (5).</li>
+ *     <li>{@code benchmark.carga.empleados}: empleados sembrados (10000).</li>
+ *     <li>{@code benchmark.carga.hilos-virtuales}: sirve las peticiones con hilos virtuales (false).</li>
+ *     <li>{@code benchmark.carga.admision}: activa el control de admisión; los rechazos (503) cuentan
+ *     como errores (false).</li>
+ * </ul>
+ */
+@Tag("benchmark")
+public class BenchmarkCargaHttp {
+    private static final int EMPLEADOS = Integer.getInteger("benchmark.carga.empleados", 10_000);
+    private static final int SEGUNDOS = Integer.getInteger("benchmark.carga.segundos", 10);
+    private static final int CALENTAMIENTO = Integer.getInteger("benchmark.carga.calentamiento", 5);
+    private static final Duration TIEMPO_MAXIMO = Duration.ofSeconds(30);
+    private static final long LATENCIA_MAXIMA_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final AtomicLong altas = new AtomicLong();
+
+    /**
+     * Una operación de la mezcla: arma la petición y sabe qué estado indica éxito.
+     */
+    record Operacion(String nombre, int estadoEsperado, Function<URI, HttpRequest> peticion) {
+    }
+
+    record Percentiles(long peticiones, long errores, double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+
+        static Percentiles de(Histogram histograma, long errores){
+            return new Percentiles(histograma.getTotalCount(), errores,
+                    ms(histograma.getValueAtPercentile(50)), ms(histograma.getValueAtPercentile(99)),
+                    ms(histograma.getValueAtPercentile(99.9)), ms(histograma.getMaxValue()));
+        }
+
+        private static double ms(long micros){
+            return micros / 1000.0;
+        }
+    }
+
+    record Escalon(int tasaObjetivo, double tasaLograda, Percentiles total, Map<String, Percentiles> operaciones) {
+    }
+
+    @Test
+    void medirCurvaDeRendimiento() throws Exception {
+        Map<Operacion, Integer> mezcla = mezcla(System.getProperty("benchmark.carga.mezcla", "findById=80,rango-salario=10,alta=10"));
+        int[] tasas = Arrays.stream(System.getProperty("benchmark.carga.tasas", "50,100,200,400").split(","))
+                .map(String::trim).mapToInt(Integer::parseInt).toArray();
+        Path directorio = Path.of("target", "benchmark");
+        Files.createDirectories(directorio);
+
+        List<Escalon> escalones = new ArrayList<>();
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(GestionEmpleadosApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + Boolean.getBoolean("benchmark.carga.hilos-virtuales"),
+                        "--gestion.admision.habilitada=" + Boolean.getBoolean("benchmark.carga.admision"),
+                        "--spring.docker.compose.enabled=false",
+                        "--spring.datasource.url=jdbc:h2:mem:carga;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--logging.level.root=WARN");
+             HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(TIEMPO_MAXIMO).executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+            Siembra.sembrar(contexto, EMPLEADOS);
+            URI base = URI.create("http://localhost:" + ((WebServerApplicationContext) contexto).getWebServer().getPort());
+
+            correrEscalon(cliente, base, mezcla, tasas[0], CALENTAMIENTO);
+            for (int tasa : tasas){
+                Map<String, Histogram> histogramas = new LinkedHashMap<>();
+                Escalon escalon = correrEscalon(cliente, base, mezcla, tasa, SEGUNDOS, histogramas);
+                escalones.add(escalon);
+                System.out.println(escalon);
+                try (PrintStream salida = new PrintStream(directorio.resolve("carga-http-" + tasa + "rps.hgrm").toFile())) {
+                    Histogram total = new Histogram(LATENCIA_MAXIMA_MICROS, 3);
+                    histogramas.values().forEach(total::add);
+                    total.outputPercentileDistribution(salida, 1000.0);
+                }
+            }
+        }
+
+        Map<String, Object> informe = new LinkedHashMap<>();
+        informe.put("mezcla", mezcla.entrySet().stream()
+                .collect(LinkedHashMap::new, (mapa, e) -> mapa.put(e.getKey().nombre(), e.getValue()), Map::putAll));
+        informe.put("empleados", EMPLEADOS);
+        informe.put("segundosPorEscalon", SEGUNDOS);
+        informe.put("hilosVirtuales", Boolean.getBoolean("benchmark.carga.hilos-virtuales"));
+        informe.put("escalones", escalones);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(directorio.resolve("carga-http.json").toFile(), informe);
+
+        assertFalse(escalones.isEmpty());
+    }
+
+    private Escalon correrEscalon(HttpClient cliente, URI base, Map<Operacion, Integer> mezcla, int tasa, int segundos){
+        return correrEscalon(cliente, base, mezcla, tasa, segundos, new LinkedHashMap<>());
+    }
+
+    /**
+     * Dispara {@code tasa * segundos} peticiones, cada una en su instante programado, y espera a que
+     * terminen todas. Las latencias se registran en microsegundos en {@code histogramas}.
+     */
+    private Escalon correrEscalon(HttpClient cliente, URI base, Map<Operacion, Integer> mezcla, int tasa, int segundos,
+                                 Map<String, Histogram> histogramas){
+        Map<String, AtomicLong> errores = new LinkedHashMap<>();
+        for (Operacion operacion : mezcla.keySet()){
+            histogramas.put(operacion.nombre(), new ConcurrentHistogram(LATENCIA_MAXIMA_MICROS, 3));
+            errores.put(operacion.nombre(), new AtomicLong());
+        }
+        int pesoTotal = mezcla.values().stream().mapToInt(Integer::intValue).sum();
+        long intervalo = TimeUnit.SECONDS.toNanos(1) / tasa;
+        int peticiones = tasa * segundos;
+        AtomicLong ultimaRespuesta = new AtomicLong();
+        long inicio = System.nanoTime();
+        try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < peticiones; i++){
+                long programada = inicio + i * intervalo;
+                for (long resta = programada - System.nanoTime(); resta > 0; resta = programada - System.nanoTime()){
+                    LockSupport.parkNanos(resta);
+                }
+                Operacion operacion = elegir(mezcla, pesoTotal);
+                HttpRequest peticion = operacion.peticion().apply(base);
+                ejecutor.execute(() -> {
+                    boolean exito;
+                    try {
+                        exito = cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode() == operacion.estadoEsperado();
+                    } catch (Exception e){
+                        exito = false;
+                    }
+                    long fin = System.nanoTime();
+                    ultimaRespuesta.accumulateAndGet(fin, Math::max);
+                    histogramas.get(operacion.nombre()).recordValue(Math.min((fin - programada) / 1000, LATENCIA_MAXIMA_MICROS));
+                    if(!exito){
+                        errores.get(operacion.nombre()).incrementAndGet();
+                    }
+                });
+            }
+        }
+        Histogram total = new Histogram(LATENCIA_MAXIMA_MICROS, 3);
+        Map<String, Percentiles> operaciones = new LinkedHashMap<>();
+        histogramas.forEach((nombre, histograma) -> {
+            total.add(histograma);
+            operaciones.put(nombre, Percentiles.de(histograma, errores.get(nombre).get()));
+        });
+        long erroresTotales = errores.values().stream().mapToLong(AtomicLong::get).sum();
+        double duracion = (ultimaRespuesta.get() - inicio) / 1e9;
+        return new Escalon(tasa, peticiones / duracion, Percentiles.de(total, erroresTotales), operaciones);
+    }
+
+    private static Operacion elegir(Map<Operacion, Integer> mezcla, int pesoTotal){
+        int sorteo = ThreadLocalRandom.current().nextInt(pesoTotal);
+        for (Map.Entry<Operacion, Integer> entrada : mezcla.entrySet()){
+            sorteo -= entrada.getValue();
+            if(sorteo < 0){
+                return entrada.getKey();
+            }
+        }
+        throw new IllegalStateException("Peso total de la mezcla inconsistente");
+    }
+
+    private Map<Operacion, Integer> mezcla(String definicion){
+        Map<String, Operacion> disponibles = new LinkedHashMap<>();
+        for (Operacion operacion : operaciones()){
+            disponibles.put(operacion.nombre(), operacion);
+        }
+        Map<Operacion, Integer> mezcla = new LinkedHashMap<>();
+        for (String parte : definicion.split(",")){
+            String[] nombreYPeso = parte.trim().split("=");
+            Operacion operacion = disponibles.get(nombreYPeso[0]);
+            if(operacion == null){
+                throw new IllegalArgumentException("Operación desconocida " + nombreYPeso[0] + ", disponibles: " + disponibles.keySet());
+            }
+            int peso = Integer.parseInt(nombreYPeso[1]);
+            if(peso > 0){
+                mezcla.put(operacion, peso);
+            }
+        }
+        if(mezcla.isEmpty()){
+            throw new IllegalArgumentException("La mezcla no tiene operaciones con peso positivo: " + definicion);
+        }
+        return mezcla;
+    }
+
+    private List<Operacion> operaciones(){
+        return List.of(
+                new Operacion("findById", 200, base -> get(base, "/api/empleados/" + empleadoAlAzar())),
+                new Operacion("rango-salario", 200, base -> {
+                    int min = SALARIO_MINIMO + ThreadLocalRandom.current().nextInt(RANGO_SALARIO - 100);
+                    return get(base, "/api/empleados/rango-salario?min=" + min + "&max=" + (min + 100));
+                }),
+                new Operacion("fecha-contratacion", 200, base -> {
+                    LocalDate inicio = PRIMERA_CONTRATACION.plusDays(ThreadLocalRandom.current().nextInt(DIAS_CONTRATACION - 7));
+                    return get(base, "/api/empleados/fecha-contratacion?inicio=" + inicio + "&fin=" + inicio.plusDays(6));
+                }),
+                new Operacion("promedio-salario", 200, base -> get(base, "/api/empleados/promedio-salario/" + departamentoAlAzar())),
+                new Operacion("alta", 201, base -> {
+                    long numero = altas.incrementAndGet();
+                    String cuerpo = """
+                            {"nombre":"Alta%1$d","apellido":"Carga%1$d","email":"alta%1$d@carga.com","fechaContratacion":"%2$s",\
+                            "salario":%3$d,"departamento":{"id":%4$d}}"""
+                            .formatted(numero, PRIMERA_CONTRATACION, SALARIO_MINIMO, departamentoAlAzar());
+                    return HttpRequest.newBuilder(base.resolve("/api/empleados")).timeout(TIEMPO_MAXIMO)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(cuerpo)).build();
+                }),
+                new Operacion("departamentos", 200, base -> get(base, "/api/departamentos")),
+                new Operacion("departamento", 200, base -> get(base, "/api/departamentos/" + departamentoAlAzar())),
+                new Operacion("proyectos", 200, base -> get(base, "/api/proyectos")),
+                new Operacion("proyecto", 200, base -> get(base, "/api/proyectos/" + ThreadLocalRandom.current().nextInt(1, Siembra.PROYECTOS + 1))));
+    }
+
+    private static HttpRequest get(URI base, String ruta){
+        return HttpRequest.newBuilder(base.resolve(ruta)).timeout(TIEMPO_MAXIMO).GET().build();
+    }
+
+    private static long empleadoAlAzar(){
+        return ThreadLocalRandom.current().nextLong(1, EMPLEADOS + 1);
+    }
+
+    private static int departamentoAlAzar(){
+        return ThreadLocalRandom.current().nextInt(1, DEPARTAMENTOS + 1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.empresa.gestionempleados.benchmark;
+
+import com.empresa.gestionempleados.dto.EmpleadoDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Compara los formatos de {@code GET /api/empleados}: guarda el tamaño del cuerpo de cada formato,
+ * sin comprimir y con gzip, en {@code target/benchmark/formatos-tamanios.json} y corre
+ * {@link FormatosJmh}, con el tiempo de serialización en {@code target/benchmark/formatos-jmh.json}.
+ * <p>
+ * Se corre con {@code mvn -Pbenchmark test -Dtest=BenchmarkFormatos}. Parámetros (propiedades del
+ * sistema): {@code benchmark.formatos.empleados} (lista separada por comas, por defecto
+ * 1000,10000), {@code benchmark.jmh.forks} (1), {@code benchmark.jmh.calentamiento} y
+ * {@code benchmark.jmh.iteraciones} (3 y 5 iteraciones de un segundo).
+ */
+@Tag("benchmark")
+public class BenchmarkFormatos {
+    private static final String[] FORMATOS = {"json", "smile", "cbor", "protobuf"};
+
+    /**
+     * @param bytes Tamaño del cuerpo sin comprimir
+     * @param bytesGzip Tamaño con gzip
+     * @param relativoJson Tamaño sin comprimir respecto de JSON
+     */
+    record Tamanio(String formato, int empleados, int bytes, int bytesGzip, double relativoJson) {
+    }
+
+    @Test
+    void correr() throws Exception {
+        Path directorio = Path.of("target", "benchmark");
+        Files.createDirectories(directorio);
+        String[] empleados = System.getProperty("benchmark.formatos.empleados", "1000,10000").split(",");
+
+        List<Tamanio> tamanios = new ArrayList<>();
+        for (String cantidad : empleados){
+            List<EmpleadoDto> lista = FormatosJmh.empleados(Integer.parseInt(cantidad));
+            int json = FormatosJmh.formato("json").serializar(lista, false).length;
+            for (String formato : FORMATOS){
+                FormatosJmh.Formato convertidor = FormatosJmh.formato(formato);
+                int bytes = convertidor.serializar(lista, false).length;
+                tamanios.add(new Tamanio(formato, lista.size(), bytes, convertidor.serializar(lista, true).length,
+                        (double) bytes / json));
+            }
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(directorio.resolve("formatos-tamanios.json").toFile(), tamanios);
+
+        ChainedOptionsBuilder opciones = new OptionsBuilder()
+                .include(FormatosJmh.class.getName())
+                .forks(Integer.getInteger("benchmark.jmh.forks", 1))
+                .warmupIterations(Integer.getInteger("benchmark.jmh.calentamiento", 3))
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(Integer.getInteger("benchmark.jmh.iteraciones", 5))
+                .measurementTime(TimeValue.seconds(1))
+                .param("empleados", empleados)
+                .resultFormat(ResultFormatType.JSON)
+                .result(directorio.resolve("formatos-jmh.json").toString());
+
+        Collection<RunResult> resultados = new Runner(opciones.build()).run();
+
+        assertFalse(resultados.isEmpty());
+    }
+}
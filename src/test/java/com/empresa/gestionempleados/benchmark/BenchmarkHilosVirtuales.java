@@ -0,0 +1,173 @@
+package com.empresa.gestionempleados.benchmark;
+
+import com.empresa.gestionempleados.GestionEmpleadosApplication;
+import com.empresa.gestionempleados.datasource.LimitadorConexionesDataSource;
+import com.empresa.gestionempleados.entity.Departamento;
+import com.empresa.gestionempleados.entity.Empleado;
+import com.empresa.gestionempleados.service.DepartamentoService;
+import com.empresa.gestionempleados.service.EmpleadoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara rendimiento y latencia p99 de {@code GET /api/empleados/{id}} sirviendo las peticiones
+ * con el pool de hilos de plataforma de Tomcat y con hilos virtuales, sobre H2 con latencia
+ * inyectada en cada sentencia ({@link LatenciaInyectada}).
+ * <p>
+ * Se corre con {@code mvn -Pbenchmark test} y deja el resultado en
+ * {@code target/benchmark/hilos-virtuales.json}. Parámetros (propiedades del sistema):
+ * {@code benchmark.latencia-ms} (20), {@code benchmark.concurrencia} (400),
+ * {@code benchmark.peticiones} (4000), {@code benchmark.hilos-tomcat} (50) y
+ * {@code benchmark.pool} (100). Con los valores por defecto el pool de hilos de plataforma es
+ * menor que el de conexiones, que es el escenario en el que los hilos virtuales ayudan.
+ */
+@Tag("benchmark")
+public class BenchmarkHilosVirtuales {
+    private static final int EMPLEADOS = 1_000;
+    private static final int CONCURRENCIA = Integer.getInteger("benchmark.concurrencia", 400);
+    private static final int PETICIONES = Integer.getInteger("benchmark.peticiones", 4_000);
+    private static final int CALENTAMIENTO = PETICIONES / 4;
+
+    record Resultado(String modo, int peticiones, int errores, double peticionesPorSegundo, double p50Ms, double p99Ms) {
+    }
+
+    @Test
+    void compararHilosDePlataformaYVirtuales() throws Exception {
+        List<Resultado> resultados = List.of(correr(false), correr(true));
+
+        Map<String, Object> informe = new LinkedHashMap<>();
+        informe.put("latenciaInyectadaMs", Long.getLong("benchmark.latencia-ms", 20));
+        informe.put("concurrencia", CONCURRENCIA);
+        informe.put("hilosTomcat", Integer.getInteger("benchmark.hilos-tomcat", 50));
+        informe.put("poolConexiones", Integer.getInteger("benchmark.pool", 100));
+        informe.put("resultados", resultados);
+        Path salida = Path.of("target", "benchmark", "hilos-virtuales.json");
+        Files.createDirectories(salida.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(salida.toFile(), informe);
+        resultados.forEach(System.out::println);
+
+        resultados.forEach(resultado -> assertEquals(0, resultado.errores(), resultado.modo()));
+    }
+
+    private Resultado correr(boolean virtuales) throws Exception {
+        String modo = virtuales ? "virtual" : "plataforma";
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(GestionEmpleadosApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtuales,
+                        // Se mide la cola de Tomcat y de Hikari, sin descartar peticiones
+                        "--gestion.admision.habilitada=false",
+                        "--server.tomcat.threads.max=" + Integer.getInteger("benchmark.hilos-tomcat", 50),
+                        "--spring.docker.compose.enabled=false",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark-" + modo,
+                        "--spring.datasource.hikari.maximum-pool-size=" + Integer.getInteger("benchmark.pool", 100),
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.session_factory.statement_inspector=" + LatenciaInyectada.class.getName(),
+                        "--logging.level.root=WARN")) {
+            assertEquals(virtuales, contexto.getBean(DataSource.class) instanceof LimitadorConexionesDataSource, modo);
+            List<Long> ids = sembrar(contexto);
+            int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            try (HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+                disparar(cliente, puerto, ids, CALENTAMIENTO);
+                return medir(modo, cliente, puerto, ids);
+            }
+        }
+    }
+
+    private List<Long> sembrar(ConfigurableApplicationContext contexto){
+        Departamento departamento = new Departamento();
+        departamento.setNombre("Benchmark");
+        departamento = contexto.getBean(DepartamentoService.class).save(departamento);
+        List<Empleado> empleados = new ArrayList<>(EMPLEADOS);
+        for (int i = 0; i < EMPLEADOS; i++){
+            Empleado empleado = new Empleado();
+            empleado.setNombre("Nombre" + i);
+            empleado.setApellido("Apellido" + i);
+            empleado.setEmail("empleado" + i + "@benchmark.com");
+            empleado.setFechaContratacion(LocalDate.of(2020, 1, 1).plusDays(i % 1000));
+            empleado.setSalario(BigDecimal.valueOf(30_000 + i));
+            Departamento referencia = new Departamento();
+            referencia.setId(departamento.getId());
+            empleado.setDepartamento(referencia);
+            empleados.add(empleado);
+        }
+        return contexto.getBean(EmpleadoService.class).saveAll(empleados);
+    }
+
+    private Resultado medir(String modo, HttpClient cliente, int puerto, List<Long> ids) throws InterruptedException {
+        long inicio = System.nanoTime();
+        Disparo disparo = disparar(cliente, puerto, ids, PETICIONES);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        long[] latencias = disparo.latencias();
+        Arrays.sort(latencias);
+        return new Resultado(modo, PETICIONES, disparo.errores(), PETICIONES / segundos,
+                percentil(latencias, 0.50), percentil(latencias, 0.99));
+    }
+
+    record Disparo(long[] latencias, int errores) {
+    }
+
+    private Disparo disparar(HttpClient cliente, int puerto, List<Long> ids, int peticiones) throws InterruptedException {
+        long[] latencias = new long[peticiones];
+        AtomicInteger errores = new AtomicInteger();
+        Semaphore enVuelo = new Semaphore(CONCURRENCIA);
+        try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < peticiones; i++){
+                enVuelo.acquire();
+                int indice = i;
+                Long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                ejecutor.execute(() -> {
+                    long inicio = System.nanoTime();
+                    try {
+                        HttpResponse<Void> respuesta = cliente.send(
+                                HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/api/empleados/" + id)).build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        if(respuesta.statusCode() != 200){
+                            errores.incrementAndGet();
+                        }
+                    } catch (Exception e){
+                        errores.incrementAndGet();
+                    } finally {
+                        latencias[indice] = System.nanoTime() - inicio;
+                        enVuelo.release();
+                    }
+                });
+            }
+        }
+        return new Disparo(latencias, errores.get());
+    }
+
+    private static double percentil(long[] ordenadas, double percentil){
+        int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,55 @@
+package com.empresa.gestionempleados.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Corre los microbenchmarks de {@link ServiciosJmh} con JMH y deja los resultados en
+ * {@code target/benchmark/servicios-jmh.json}, en el formato JSON de JMH, para comparar entre
+ * versiones.
+ * <p>
+ * Se corre con {@code mvn -Pbenchmark test -Dtest=BenchmarkServicios}. Parámetros (propiedades
+ * del sistema): {@code benchmark.jmh.filtro} (expresión regular sobre los métodos, todos por
+ * defecto), {@code benchmark.jmh.empleados} (lista separada por comas, por defecto
+ * 10000,100000,1000000), {@code benchmark.jmh.forks} (1), {@code benchmark.jmh.calentamiento} y
+ * {@code benchmark.jmh.iteraciones} (3 y 5 iteraciones de un segundo).
+ */
+@Tag("benchmark")
+public class BenchmarkServicios {
+
+    @Test
+    void correrJmh() throws Exception {
+        Path salida = Path.of("target", "benchmark", "servicios-jmh.json");
+        Files.createDirectories(salida.getParent());
+        ChainedOptionsBuilder opciones = new OptionsBuilder()
+                .include(ServiciosJmh.class.getName() + "." + System.getProperty("benchmark.jmh.filtro", ".*"))
+                .forks(Integer.getInteger("benchmark.jmh.forks", 1))
+                .warmupIterations(Integer.getInteger("benchmark.jmh.calentamiento", 3))
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(Integer.getInteger("benchmark.jmh.iteraciones", 5))
+                .measurementTime(TimeValue.seconds(1))
+                .jvmArgsAppend("-Xmx3g")
+                .resultFormat(ResultFormatType.JSON)
+                .result(salida.toString());
+        String empleados = System.getProperty("benchmark.jmh.empleados");
+        if(empleados != null){
+            opciones.param("empleados", empleados.split(","));
+        }
+
+        Collection<RunResult> resultados = new Runner(opciones.build()).run();
+
+        assertFalse(resultados.isEmpty());
+    }
+}
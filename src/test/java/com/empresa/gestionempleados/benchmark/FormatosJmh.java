@@ -0,0 +1,131 @@
+package com.empresa.gestionempleados.benchmark;
+
+import com.empresa.gestionempleados.config.FormatosConfig;
+import com.empresa.gestionempleados.dto.EmpleadoDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static com.empresa.gestionempleados.benchmark.Siembra.DEPARTAMENTOS;
+import static com.empresa.gestionempleados.benchmark.Siembra.DIAS_CONTRATACION;
+import static com.empresa.gestionempleados.benchmark.Siembra.PRIMERA_CONTRATACION;
+import static com.empresa.gestionempleados.benchmark.Siembra.RANGO_SALARIO;
+import static com.empresa.gestionempleados.benchmark.Siembra.SALARIO_MINIMO;
+
+/**
+ * Microbenchmarks JMH de la serialización de {@code GET /api/empleados} en cada formato que se
+ * negocia por Accept, con los mismos convertidores que arma {@link FormatosConfig} y sin contexto
+ * de Spring. Con {@link #gzip} la medición incluye la compresión que haría Tomcat.
+ * Se lanza desde {@link BenchmarkFormatos}, que además guarda el tamaño de cada cuerpo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FormatosJmh {
+    static final Type LISTA_EMPLEADOS = new ParameterizedTypeReference<List<EmpleadoDto>>(){}.getType();
+
+    @Param({"json", "smile", "cbor", "protobuf"})
+    public String formato;
+
+    @Param({"1000", "10000"})
+    public int empleados;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private List<EmpleadoDto> lista;
+    private Formato convertidor;
+
+    /**
+     * Convertidor de un formato con el tipo de contenido que pide el cliente.
+     */
+    record Formato(GenericHttpMessageConverter<Object> convertidor, MediaType tipo) {
+
+        byte[] serializar(List<EmpleadoDto> lista, boolean gzip) throws IOException {
+            MockHttpOutputMessage salida = new MockHttpOutputMessage();
+            convertidor.write(lista, LISTA_EMPLEADOS, tipo, salida);
+            byte[] cuerpo = salida.getBodyAsBytes();
+            if(!gzip){
+                return cuerpo;
+            }
+            ByteArrayOutputStream comprimido = new ByteArrayOutputStream(cuerpo.length / 4);
+            try (GZIPOutputStream salidaGzip = new GZIPOutputStream(comprimido)){
+                salidaGzip.write(cuerpo);
+            }
+            return comprimido.toByteArray();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void preparar(){
+        lista = empleados(empleados);
+        convertidor = formato(formato);
+    }
+
+    @Benchmark
+    public byte[] serializar() throws IOException {
+        return convertidor.serializar(lista, gzip);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Formato formato(String nombre){
+        // Igual que el ObjectMapper de Spring Boot: fechas ISO-8601 en lugar de arreglos.
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        List<HttpMessageConverter<?>> convertidores = new ArrayList<>(List.of(new MappingJackson2HttpMessageConverter(json)));
+        convertidores.addAll(FormatosConfig.convertidoresBinarios(json));
+        MediaType tipo = switch (nombre){
+            case "json" -> MediaType.APPLICATION_JSON;
+            case "smile" -> MediaType.parseMediaType("application/x-jackson-smile");
+            case "cbor" -> MediaType.parseMediaType("application/cbor");
+            case "protobuf" -> MediaType.parseMediaType("application/x-protobuf");
+            default -> throw new IllegalArgumentException("Formato desconocido: " + nombre);
+        };
+        for (HttpMessageConverter<?> convertidor : convertidores){
+            if(convertidor.getSupportedMediaTypes().contains(tipo)){
+                return new Formato((GenericHttpMessageConverter<Object>) convertidor, tipo);
+            }
+        }
+        throw new IllegalStateException("Sin convertidor para " + tipo);
+    }
+
+    /**
+     * Empleados con la misma forma que los de {@link Siembra}, armados sin base de datos.
+     */
+    static List<EmpleadoDto> empleados(int cantidad){
+        List<EmpleadoDto> empleados = new ArrayList<>(cantidad);
+        for (long i = 1; i <= cantidad; i++){
+            long departamento = i % DEPARTAMENTOS + 1;
+            empleados.add(new EmpleadoDto(i, "Nombre" + i, "Apellido" + i, Siembra.email(i),
+                    PRIMERA_CONTRATACION.plusDays(i % DIAS_CONTRATACION),
+                    BigDecimal.valueOf(SALARIO_MINIMO * 100L + i * 7919 % (RANGO_SALARIO * 100L), 2),
+                    departamento, "Departamento " + departamento));
+        }
+        return empleados;
+    }
+}
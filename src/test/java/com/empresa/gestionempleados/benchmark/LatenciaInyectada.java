@@ -0,0 +1,19 @@
+package com.empresa.gestionempleados.benchmark;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simula una base lenta: cada sentencia que prepara Hibernate espera {@code benchmark.latencia-ms}
+ * milisegundos con la conexión tomada, como lo haría una consulta contra una base remota.
+ */
+public class LatenciaInyectada implements StatementInspector {
+    private static final long LATENCIA_NANOS = Long.getLong("benchmark.latencia-ms", 20) * 1_000_000L;
+
+    @Override
+    public String inspect(String sql){
+        LockSupport.parkNanos(LATENCIA_NANOS);
+        return sql;
+    }
+}
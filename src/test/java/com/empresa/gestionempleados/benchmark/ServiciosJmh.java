@@ -0,0 +1,164 @@
+package com.empresa.gestionempleados.benchmark;
+
+import com.empresa.gestionempleados.GestionEmpleadosApplication;
+import com.empresa.gestionempleados.dto.EmpleadoDto;
+import com.empresa.gestionempleados.dto.ProyectoDto;
+import com.empresa.gestionempleados.dto.SugerenciaDto;
+import com.empresa.gestionempleados.entity.Departamento;
+import com.empresa.gestionempleados.entity.Empleado;
+import com.empresa.gestionempleados.service.EmpleadoService;
+import com.empresa.gestionempleados.service.ProyectoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.empresa.gestionempleados.benchmark.Siembra.DEPARTAMENTOS;
+import static com.empresa.gestionempleados.benchmark.Siembra.DIAS_CONTRATACION;
+import static com.empresa.gestionempleados.benchmark.Siembra.ESTADOS;
+import static com.empresa.gestionempleados.benchmark.Siembra.PRIMERA_CONTRATACION;
+import static com.empresa.gestionempleados.benchmark.Siembra.RANGO_SALARIO;
+import static com.empresa.gestionempleados.benchmark.Siembra.SALARIO_MINIMO;
+
+/**
+ * Microbenchmarks JMH de los caminos más usados de {@code EmpleadoServiceImpl} y
+ * {@code ProyectoServiceImpl}, contra el contexto de Spring completo sobre H2 en memoria.
+ * <p>
+ * Cada trial arranca la aplicación y siembra {@link #empleados} empleados con {@link Siembra}.
+ * Las consultas por rango usan ventanas fijas, así que la cantidad de filas devueltas crece con el
+ * tamaño de la tabla.
+ * Se lanza desde {@link BenchmarkServicios}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiciosJmh {
+    @Param({"10000", "100000", "1000000"})
+    public int empleados;
+
+    private ConfigurableApplicationContext contexto;
+    private EmpleadoService empleadoService;
+    private ProyectoService proyectoService;
+    private long siguienteAlta;
+
+    @Setup(Level.Trial)
+    public void arrancar(){
+        contexto = new SpringApplicationBuilder(GestionEmpleadosApplication.class)
+                .run(
+                        "--spring.main.web-application-type=none",
+                        "--spring.docker.compose.enabled=false",
+                        "--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.root=WARN");
+        Siembra.sembrar(contexto, empleados);
+        empleadoService = contexto.getBean(EmpleadoService.class);
+        proyectoService = contexto.getBean(ProyectoService.class);
+        siguienteAlta = empleados;
+    }
+
+    @TearDown(Level.Trial)
+    public void detener(){
+        contexto.close();
+    }
+
+    @Benchmark
+    public Empleado save(){
+        return empleadoService.save(nuevoEmpleado(++siguienteAlta, "alta" + siguienteAlta + "@benchmark.com", SALARIO_MINIMO));
+    }
+
+    /**
+     * Cambia solo el salario; el email se conserva para no pasar por la verificación de duplicados.
+     */
+    @Benchmark
+    public Empleado update(){
+        long id = idAlAzar();
+        Empleado cambio = nuevoEmpleado(id, Siembra.email(id), SALARIO_MINIMO + ThreadLocalRandom.current().nextInt(RANGO_SALARIO));
+        return empleadoService.update(id, cambio);
+    }
+
+    @Benchmark
+    public EmpleadoDto findById(){
+        return empleadoService.findById(idAlAzar());
+    }
+
+    /**
+     * Ventana de 100 de salario: unas 1.400 filas por millón de empleados.
+     */
+    @Benchmark
+    public List<EmpleadoDto> findBySalaryRange(){
+        int desde = SALARIO_MINIMO + ThreadLocalRandom.current().nextInt(RANGO_SALARIO - 100);
+        return empleadoService.findBySalaryRange(BigDecimal.valueOf(desde), BigDecimal.valueOf(desde + 100));
+    }
+
+    /**
+     * Ventana de una semana: unas 1.900 filas por millón de empleados.
+     */
+    @Benchmark
+    public List<EmpleadoDto> findByHiringDate(){
+        LocalDate desde = PRIMERA_CONTRATACION.plusDays(ThreadLocalRandom.current().nextInt(DIAS_CONTRATACION - 7));
+        return empleadoService.findByHiringDate(desde, desde.plusDays(6));
+    }
+
+    /**
+     * Un departamento al azar: {@code empleados / 500} filas.
+     */
+    @Benchmark
+    public List<EmpleadoDto> findByNombreDepartamento(){
+        return empleadoService.findByNombreDepartamento("Departamento " + departamentoAlAzar());
+    }
+
+    @Benchmark
+    public BigDecimal findAverageSalaryByDepartamento(){
+        return empleadoService.findAverageSalaryByDepartamento((long) departamentoAlAzar());
+    }
+
+    /**
+     * Prefijo de apellido con tres dígitos: muchas coincidencias, corta en las 10 primeras.
+     */
+    @Benchmark
+    public List<SugerenciaDto> suggest(){
+        return empleadoService.suggest("apellido" + ThreadLocalRandom.current().nextInt(100, 1000), 10);
+    }
+
+    @Benchmark
+    public List<ProyectoDto> findByStatus(){
+        return proyectoService.findByStatus(ESTADOS[ThreadLocalRandom.current().nextInt(ESTADOS.length)]);
+    }
+
+    private long idAlAzar(){
+        return ThreadLocalRandom.current().nextLong(1, empleados + 1);
+    }
+
+    private static int departamentoAlAzar(){
+        return ThreadLocalRandom.current().nextInt(1, DEPARTAMENTOS + 1);
+    }
+
+    private static Empleado nuevoEmpleado(long numero, String email, int salario){
+        Empleado empleado = new Empleado();
+        empleado.setNombre("Nombre" + numero);
+        empleado.setApellido("Apellido" + numero);
+        empleado.setEmail(email);
+        empleado.setFechaContratacion(PRIMERA_CONTRATACION.plusDays(numero % DIAS_CONTRATACION));
+        empleado.setSalario(BigDecimal.valueOf(salario));
+        Departamento departamento = new Departamento();
+        departamento.setId(numero % DEPARTAMENTOS + 1);
+        empleado.setDepartamento(departamento);
+        return empleado;
+    }
+}
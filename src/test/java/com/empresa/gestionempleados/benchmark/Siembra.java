@@ -0,0 +1,62 @@
+package com.empresa.gestionempleados.benchmark;
+
+import com.empresa.gestionempleados.index.EmailIndex;
+import com.empresa.gestionempleados.index.IndiceSugerencias;
+import com.empresa.gestionempleados.service.AgregadosSalario;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * Datos sintéticos para los benchmarks, cargados con SQL directo sobre H2 (es mucho más rápido
+ * que pasar por JPA con un millón de filas).
+ * <p>
+ * Los ids son consecutivos desde 1 en las tres tablas: el empleado {@code n} tiene el email
+ * {@link #email(long)}, el departamento {@code n % 500 + 1} y un proyecto. Las fechas de
+ * contratación y los salarios se reparten de forma uniforme, así que una ventana fija devuelve
+ * más filas cuanto más grande es la tabla.
+ */
+final class Siembra {
+    static final int DEPARTAMENTOS = 500;
+    static final int PROYECTOS = 200;
+    static final String[] ESTADOS = {"Activo", "Pausado", "Finalizado"};
+    static final LocalDate PRIMERA_CONTRATACION = LocalDate.of(2015, 1, 1);
+    static final int DIAS_CONTRATACION = 3650;
+    static final int SALARIO_MINIMO = 30_000;
+    static final int RANGO_SALARIO = 70_000;
+
+    private Siembra(){
+    }
+
+    static String email(long numero){
+        return "empleado" + numero + "@benchmark.com";
+    }
+
+    /**
+     * Inserta los datos y recarga los índices en memoria y los agregados de salario como lo haría el
+     * arranque. Las secuencias se reinician por encima del último id más un bloque de asignación,
+     * para que las altas de JPA no choquen con la siembra.
+     */
+    static void sembrar(ConfigurableApplicationContext contexto, int empleados){
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO departamentos(id, version, nombre) "
+                + "SELECT X, 0, 'Departamento ' || X FROM SYSTEM_RANGE(1, " + DEPARTAMENTOS + ")");
+        jdbc.update("INSERT INTO proyectos(id, version, nombre, estado, fecha_inicio, fecha_fin) "
+                + "SELECT X, 0, 'Proyecto ' || X, CASE MOD(X, 3) WHEN 0 THEN '" + ESTADOS[0] + "' WHEN 1 THEN '" + ESTADOS[1]
+                + "' ELSE '" + ESTADOS[2] + "' END, DATE '2020-01-01', DATE '2030-01-01' FROM SYSTEM_RANGE(1, " + PROYECTOS + ")");
+        jdbc.update("INSERT INTO empleados(id, version, nombre, apellido, email, fecha_contratacion, salario, departamento_id) "
+                + "SELECT X, 0, 'Nombre' || X, 'Apellido' || X, 'empleado' || X || '@benchmark.com', "
+                + "DATEADD(DAY, MOD(X * 31, " + DIAS_CONTRATACION + "), DATE '" + PRIMERA_CONTRATACION + "'), "
+                + SALARIO_MINIMO + " + MOD(X * 7919, " + RANGO_SALARIO + "), MOD(X, " + DEPARTAMENTOS + ") + 1 "
+                + "FROM SYSTEM_RANGE(1, " + empleados + ")");
+        jdbc.update("INSERT INTO empleado_proyecto(empleado_id, proyecto_id) "
+                + "SELECT X, MOD(X, " + PROYECTOS + ") + 1 FROM SYSTEM_RANGE(1, " + empleados + ")");
+        jdbc.execute("ALTER SEQUENCE departamentos_seq RESTART WITH " + (DEPARTAMENTOS + 100));
+        jdbc.execute("ALTER SEQUENCE proyectos_seq RESTART WITH " + (PROYECTOS + 100));
+        jdbc.execute("ALTER SEQUENCE empleados_seq RESTART WITH " + (empleados + 100));
+        contexto.getBean(EmailIndex.class).precargar();
+        contexto.getBean(IndiceSugerencias.class).precargar();
+        contexto.getBean(AgregadosSalario.class).reconciliar();
+    }
+}
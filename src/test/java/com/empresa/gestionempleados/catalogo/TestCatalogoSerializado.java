@@ -0,0 +1,149 @@
+package com.empresa.gestionempleados.catalogo;
+
+import com.empresa.gestionempleados.formato.FormatoRespuesta;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCatalogoSerializado {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicReference<String> generacion = new AtomicReference<>("a-1");
+    private final AtomicInteger cargas = new AtomicInteger();
+    private List<String> datos = List.of("IT", "Ventas");
+
+    private final CatalogoSerializado<List<String>> catalogo = new CatalogoSerializado<>("departamentos",
+            generacion::get, () -> {
+                cargas.incrementAndGet();
+                return datos;
+            }, objectMapper);
+
+    @Test
+    void actual_mismaGeneracion_cargaUnaSolaVez(){
+        CatalogoSerializado.Instantanea primera = catalogo.actual();
+
+        assertSame(primera, catalogo.actual());
+        assertEquals(1, cargas.get());
+        assertEquals("[\"IT\",\"Ventas\"]", new String(primera.json()));
+        assertEquals("\"departamentos-a-1\"", primera.etag());
+    }
+
+    @Test
+    void actual_otraGeneracion_vuelveACargar(){
+        catalogo.actual();
+        datos = List.of("IT");
+        generacion.set("a-2");
+
+        CatalogoSerializado.Instantanea segunda = catalogo.actual();
+
+        assertEquals(2, cargas.get());
+        assertEquals("[\"IT\"]", new String(segunda.json()));
+        assertEquals("\"departamentos-a-2\"", segunda.etag());
+    }
+
+    @Test
+    void actual_catalogoGrande_guardaVersionGzip() throws IOException {
+        datos = Collections.nCopies(500, "Departamento");
+
+        CatalogoSerializado.Instantanea instantanea = catalogo.actual();
+
+        assertNotNull(instantanea.gzip());
+        assertTrue(instantanea.gzip().length < instantanea.json().length);
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(instantanea.gzip()))){
+            assertArrayEquals(instantanea.json(), entrada.readAllBytes());
+        }
+    }
+
+    @Test
+    void actual_catalogoChico_noComprime(){
+        datos = List.of("IT");
+
+        assertNull(catalogo.actual().gzip());
+    }
+
+    @Test
+    void responder_conAcceptEncodingGzip_devuelveElCuerpoComprimido(){
+        datos = Collections.nCopies(500, "Departamento");
+        CatalogoSerializado.Instantanea instantanea = catalogo.actual();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+
+        MockHttpServletResponse respuesta = new MockHttpServletResponse();
+
+        catalogo.responder(instantanea, new ServletWebRequest(request), respuesta);
+
+        assertArrayEquals(instantanea.gzip(), respuesta.getContentAsByteArray());
+        assertEquals("gzip", respuesta.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"departamentos-a-1-gz\"", respuesta.getHeader(HttpHeaders.ETAG));
+        assertEquals(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING), respuesta.getHeaders(HttpHeaders.VARY));
+    }
+
+    @Test
+    void responder_sinAcceptEncodingGzip_devuelveElEtagSinSufijo(){
+        datos = Collections.nCopies(500, "Departamento");
+        CatalogoSerializado.Instantanea instantanea = catalogo.actual();
+
+        MockHttpServletResponse respuesta = new MockHttpServletResponse();
+
+        catalogo.responder(instantanea, new ServletWebRequest(new MockHttpServletRequest()), respuesta);
+
+        assertArrayEquals(instantanea.json(), respuesta.getContentAsByteArray());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, respuesta.getContentType());
+        assertNull(respuesta.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"departamentos-a-1\"", respuesta.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void noModificado_reconoceElEtagDeCadaVersion(){
+        MockHttpServletRequest gzip = new MockHttpServletRequest("GET", "/api/departamentos");
+        gzip.addHeader(HttpHeaders.IF_NONE_MATCH, "\"departamentos-a-1-gz\"");
+        MockHttpServletResponse respuestaGzip = new MockHttpServletResponse();
+        MockHttpServletRequest identidad = new MockHttpServletRequest("GET", "/api/departamentos");
+        identidad.addHeader(HttpHeaders.IF_NONE_MATCH, "\"departamentos-a-1\"");
+        MockHttpServletResponse respuestaIdentidad = new MockHttpServletResponse();
+        MockHttpServletRequest anterior = new MockHttpServletRequest("GET", "/api/departamentos");
+        anterior.addHeader(HttpHeaders.IF_NONE_MATCH, "\"departamentos-a-0-gz\"");
+
+        assertTrue(catalogo.noModificado("a-1", FormatoRespuesta.JSON, new ServletWebRequest(gzip, respuestaGzip)));
+        assertEquals("\"departamentos-a-1-gz\"", respuestaGzip.getHeader(HttpHeaders.ETAG));
+        assertTrue(catalogo.noModificado("a-1", FormatoRespuesta.JSON, new ServletWebRequest(identidad, respuestaIdentidad)));
+        assertEquals("\"departamentos-a-1\"", respuestaIdentidad.getHeader(HttpHeaders.ETAG));
+        assertFalse(catalogo.noModificado("a-1", FormatoRespuesta.JSON, new ServletWebRequest(anterior, new MockHttpServletResponse())));
+    }
+
+    @Test
+    void noModificado_otroFormato_noAceptaElEtagDeJson(){
+        MockHttpServletRequest json = new MockHttpServletRequest("GET", "/api/departamentos");
+        json.addHeader(HttpHeaders.IF_NONE_MATCH, "\"departamentos-a-1\"");
+        MockHttpServletRequest cbor = new MockHttpServletRequest("GET", "/api/departamentos");
+        cbor.addHeader(HttpHeaders.IF_NONE_MATCH, "\"departamentos-a-1-cbor\"");
+        MockHttpServletResponse respuestaCbor = new MockHttpServletResponse();
+
+        assertFalse(catalogo.noModificado("a-1", FormatoRespuesta.CBOR, new ServletWebRequest(json, new MockHttpServletResponse())));
+        assertTrue(catalogo.noModificado("a-1", FormatoRespuesta.CBOR, new ServletWebRequest(cbor, respuestaCbor)));
+        assertEquals("\"departamentos-a-1-cbor\"", respuestaCbor.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void aceptaGzip_respetaLaCalidadCero(){
+        assertTrue(CatalogoSerializado.aceptaGzip("gzip"));
+        assertTrue(CatalogoSerializado.aceptaGzip("br, GZIP;q=0.8"));
+        assertTrue(CatalogoSerializado.aceptaGzip("*"));
+        assertFalse(CatalogoSerializado.aceptaGzip("gzip;q=0"));
+        assertFalse(CatalogoSerializado.aceptaGzip("br, deflate"));
+        assertFalse(CatalogoSerializado.aceptaGzip(null));
+    }
+}
@@ -0,0 +1,191 @@
+package com.empresa.gestionempleados.coalescencia;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCoalescenciaAspect {
+    private static final int LLAMADAS = 5;
+
+    public static class Lecturas {
+        final AtomicInteger ejecuciones = new AtomicInteger();
+        final CountDownLatch liberar = new CountDownLatch(1);
+
+        @Coalescente("lectura")
+        public String leer(Long id){
+            ejecuciones.incrementAndGet();
+            esperar();
+            return "resultado-" + id;
+        }
+
+        @Coalescente(value = "generacional", generaciones = Lecturas.class)
+        public String leerGeneracion(Long id){
+            return leer(id);
+        }
+
+        @Coalescente("falla")
+        public String fallar(){
+            ejecuciones.incrementAndGet();
+            esperar();
+            throw new IllegalStateException("falla");
+        }
+
+        private void esperar(){
+            try {
+                assertTrue(liberar.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e){
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService hilos = Executors.newFixedThreadPool(LLAMADAS);
+    private final AtomicReference<String> generacion = new AtomicReference<>("1");
+    private Lecturas destino;
+
+    @BeforeEach
+    void setUp(){
+        destino = new Lecturas();
+    }
+
+    @AfterEach
+    void tearDown(){
+        hilos.shutdownNow();
+    }
+
+    private Lecturas proxy(boolean habilitado){
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(destino);
+        fabrica.setProxyTargetClass(true);
+        fabrica.addAspect(new CoalescenciaAspect(registry, metodo -> habilitado, entidad -> generacion.get()));
+        return fabrica.getProxy();
+    }
+
+    private double llamadas(String metodo, String resultado){
+        Counter contador = registry.find(CoalescenciaAspect.LLAMADAS).tags("metodo", metodo, "resultado", resultado).counter();
+        return contador == null ? 0 : contador.count();
+    }
+
+    private <T> List<CompletableFuture<T>> concurrentes(Supplier<T> llamada){
+        return IntStream.range(0, LLAMADAS).mapToObj(i -> CompletableFuture.supplyAsync(llamada, hilos)).toList();
+    }
+
+    private void esperarHasta(Supplier<Boolean> condicion) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condicion.get()){
+            assertTrue(System.nanoTime() < limite, "La condición no se cumplió a tiempo");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void llamadasConcurrentesIdenticas_compartenUnaEjecucion() throws Exception {
+        Lecturas lecturas = proxy(true);
+
+        List<CompletableFuture<String>> resultados = concurrentes(() -> lecturas.leer(1L));
+        esperarHasta(() -> llamadas("lectura", "compartida") == LLAMADAS - 1);
+        destino.liberar.countDown();
+
+        for (CompletableFuture<String> resultado : resultados){
+            assertEquals("resultado-1", resultado.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, destino.ejecuciones.get());
+        assertEquals(1, llamadas("lectura", "ejecutada"));
+    }
+
+    @Test
+    void argumentosDistintos_yLlamadasPosteriores_seEjecutanAparte() throws Exception {
+        Lecturas lecturas = proxy(true);
+        destino.liberar.countDown();
+
+        assertEquals("resultado-1", lecturas.leer(1L));
+        assertEquals("resultado-2", lecturas.leer(2L));
+        assertEquals("resultado-1", lecturas.leer(1L));
+
+        assertEquals(3, destino.ejecuciones.get());
+        assertEquals(0, llamadas("lectura", "compartida"));
+    }
+
+    @Test
+    void laExcepcionLlegaATodasLasLlamadasAgrupadas() throws Exception {
+        Lecturas lecturas = proxy(true);
+
+        List<CompletableFuture<String>> resultados = concurrentes(lecturas::fallar);
+        esperarHasta(() -> llamadas("falla", "compartida") == LLAMADAS - 1);
+        destino.liberar.countDown();
+
+        for (CompletableFuture<String> resultado : resultados){
+            ExecutionException e = assertThrows(ExecutionException.class, () -> resultado.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+        assertEquals(1, destino.ejecuciones.get());
+    }
+
+    @Test
+    void cambioDeGeneracion_noSeSumaALaEjecucionAnterior() throws Exception {
+        Lecturas lecturas = proxy(true);
+
+        CompletableFuture<String> anterior = CompletableFuture.supplyAsync(() -> lecturas.leerGeneracion(1L), hilos);
+        esperarHasta(() -> destino.ejecuciones.get() == 1);
+        List<CompletableFuture<String>> mismaGeneracion = IntStream.range(0, 2)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> lecturas.leerGeneracion(1L), hilos)).toList();
+        esperarHasta(() -> llamadas("generacional", "compartida") == 2);
+        generacion.set("2");
+        CompletableFuture<String> posterior = CompletableFuture.supplyAsync(() -> lecturas.leerGeneracion(1L), hilos);
+        esperarHasta(() -> destino.ejecuciones.get() == 2);
+        destino.liberar.countDown();
+
+        assertEquals("resultado-1", anterior.get(10, TimeUnit.SECONDS));
+        assertEquals("resultado-1", posterior.get(10, TimeUnit.SECONDS));
+        for (CompletableFuture<String> resultado : mismaGeneracion){
+            assertEquals("resultado-1", resultado.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(2, llamadas("generacional", "ejecutada"));
+        assertEquals(2, llamadas("generacional", "compartida"));
+    }
+
+    @Test
+    void deshabilitado_cadaLlamadaSeEjecuta() throws Exception {
+        Lecturas lecturas = proxy(false);
+
+        List<CompletableFuture<String>> resultados = concurrentes(() -> lecturas.leer(1L));
+        esperarHasta(() -> destino.ejecuciones.get() == LLAMADAS);
+        destino.liberar.countDown();
+
+        for (CompletableFuture<String> resultado : resultados){
+            assertEquals("resultado-1", resultado.get(10, TimeUnit.SECONDS));
+        }
+        assertNull(registry.find(CoalescenciaAspect.LLAMADAS).counter());
+    }
+
+    @Test
+    void dentroDeUnaTransaccion_noSeAgrupa(){
+        Lecturas lecturas = proxy(true);
+        destino.liberar.countDown();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertEquals("resultado-1", lecturas.leer(1L));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertNull(registry.find(CoalescenciaAspect.LLAMADAS).counter());
+    }
+}
@@ -1,7 +1,11 @@
 package com.empresa.gestionempleados.controller;
 
+import com.empresa.gestionempleados.dto.DashboardDepartamentoDto;
+import com.empresa.gestionempleados.dto.DepartamentoDto;
+import com.empresa.gestionempleados.dto.DepartamentoPatchDto;
 import com.empresa.gestionempleados.entity.Departamento;
 import com.empresa.gestionempleados.exceptions.DepartamentoNoEncontradoException;
+import com.empresa.gestionempleados.service.DashboardDepartamentoServiceImpl;
 import com.empresa.gestionempleados.service.DepartamentoServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -10,14 +14,21 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -32,13 +43,13 @@ public class TestDepartamentoController {
     @MockitoBean
     DepartamentoServiceImpl departamentoService;
 
+    @MockitoBean
+    DashboardDepartamentoServiceImpl dashboardService;
+
     @Test
     void GETDepartamento_returnsListAndStatus200() throws Exception {
-        Departamento departamento1 = new Departamento();
-        Departamento departamento2 = new Departamento();
-
-        departamento1.setNombre("Departamento A");
-        departamento2.setNombre("Departamento B");
+        DepartamentoDto departamento1 = new DepartamentoDto(1L, "Departamento A", null);
+        DepartamentoDto departamento2 = new DepartamentoDto(2L, "Departamento B", null);
 
         when(departamentoService.findAll()).thenReturn(List.of(departamento1,departamento2));
 
@@ -49,12 +60,59 @@ public class TestDepartamentoController {
                 .andExpect(jsonPath("$[1].nombre").value("Departamento B"));
     }
 
+    @Test
+    void GETDepartamento_withMatchingEtag_returns304WithoutQuerying() throws Exception {
+        when(departamentoService.generacion()).thenReturn("abc-3");
+
+        mockMvc.perform(get("/api/departamentos")
+                .header("If-None-Match", "\"departamentos-abc-3\""))
+                .andExpect(status().isNotModified());
+
+        verify(departamentoService, never()).findAll();
+    }
+
+    @Test
+    void GETDepartamento_withMatchingGzipEtag_returns304WithThatEtag() throws Exception {
+        when(departamentoService.generacion()).thenReturn("abc-3");
+
+        mockMvc.perform(get("/api/departamentos")
+                .header("Accept-Encoding", "gzip")
+                .header("If-None-Match", "\"departamentos-abc-3-gz\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"departamentos-abc-3-gz\""));
+
+        verify(departamentoService, never()).findAll();
+    }
+
+    @Test
+    void GETDepartamento_returnsEtagHeader() throws Exception {
+        when(departamentoService.generacion()).thenReturn("abc-3");
+        when(departamentoService.findAll()).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/departamentos"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"departamentos-abc-3\""));
+    }
+
+    @Test
+    void GETDepartamento_acceptProtobuf_returnsProtobuf() throws Exception {
+        when(departamentoService.generacion()).thenReturn("abc-3");
+        when(departamentoService.findAll()).thenReturn(List.of(new DepartamentoDto(1L, "Departamento A", null)));
+
+        MvcResult resultado = mockMvc.perform(get("/api/departamentos")
+                .accept(MediaType.parseMediaType("application/x-protobuf")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-protobuf"))
+                .andExpect(header().string("ETag", "\"departamentos-abc-3-protobuf\""))
+                .andReturn();
+
+        assertTrue(resultado.getResponse().getContentAsByteArray().length > 0);
+    }
+
     @Test
     void GETDepartamento_returnsDepartamentoAndStatus200() throws Exception{
-        Departamento departamento = new Departamento();
         Long id = 1L;
-        departamento.setId(id);
-        departamento.setNombre("Departamento A");
+        DepartamentoDto departamento = new DepartamentoDto(id, "Departamento A", null);
 
         when(departamentoService.findById(id)).thenReturn(departamento);
 
@@ -146,4 +204,44 @@ public class TestDepartamentoController {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void PATCHDepartamento_ReturnsStatus204() throws Exception {
+        mockMvc.perform(patch("/api/departamentos/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"descripcion\":\"Nueva\"}"))
+                .andExpect(status().isNoContent());
+
+        verify(departamentoService).patch(1L, new DepartamentoPatchDto(null, "Nueva"));
+    }
+
+    @Test
+    void PATCHNonExistentDepartamento_ReturnsStatus404() throws Exception {
+        doThrow(new DepartamentoNoEncontradoException(1L)).when(departamentoService).patch(eq(1L), any());
+
+        mockMvc.perform(patch("/api/departamentos/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombre\":\"IT\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void GETDashboard_Parcial_ReturnsStatus200() throws Exception {
+        DepartamentoDto departamento = new DepartamentoDto(1L, "IT", null);
+        when(dashboardService.findByDepartamentoId(1L)).thenReturn(new DashboardDepartamentoDto(
+                departamento, List.of(), null, List.of(), Map.of("salarioPromedio", "tiempo-agotado")));
+
+        mockMvc.perform(get("/api/departamentos/1/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.departamento.nombre").value("IT"))
+                .andExpect(jsonPath("$.salarioPromedio").doesNotExist())
+                .andExpect(jsonPath("$.incompletas.salarioPromedio").value("tiempo-agotado"));
+    }
+
+    @Test
+    void GETDashboardNonExistentDepartamento_ReturnsStatus404() throws Exception {
+        when(dashboardService.findByDepartamentoId(1L)).thenThrow(new DepartamentoNoEncontradoException(1L));
+
+        mockMvc.perform(get("/api/departamentos/1/dashboard"))
+                .andExpect(status().isNotFound());
+    }
 }
@@ -1,24 +1,43 @@
 package com.empresa.gestionempleados.controller;
 
-import com.empresa.gestionempleados.entity.Departamento;
+import com.empresa.gestionempleados.dto.Cursor;
+import com.empresa.gestionempleados.dto.CursorPage;
+import com.empresa.gestionempleados.dto.EmpleadoDto;
+import com.empresa.gestionempleados.dto.EmpleadoPatchDto;
+import com.empresa.gestionempleados.dto.FiltroEmpleados;
+import com.empresa.gestionempleados.dto.OrdenEmpleados;
+import com.empresa.gestionempleados.dto.ResumenSalarialDto;
+import com.empresa.gestionempleados.dto.SugerenciaDto;
 import com.empresa.gestionempleados.entity.Empleado;
+import com.empresa.gestionempleados.exceptions.DatosInvalidosException;
+import com.empresa.gestionempleados.exceptions.DepartamentoNoEncontradoException;
+import com.empresa.gestionempleados.exceptions.EmailDuplicadoException;
 import com.empresa.gestionempleados.exceptions.EmpleadoNoEncontradoException;
+import com.empresa.gestionempleados.index.IndiceSugerencias;
 import com.empresa.gestionempleados.service.EmpleadoServiceImpl;
+import com.empresa.gestionempleados.service.PlanCarga;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,10 +56,8 @@ public class TestEmpleadoController {
 
     @Test
     void GETEmpleado_returnsListAndStatus200() throws Exception {
-        Empleado empleado1 = new Empleado();
-        Empleado empleado2 = new Empleado();
-        empleado1.setNombre("Juan");
-        empleado2.setNombre("Jose");
+        EmpleadoDto empleado1 = new EmpleadoDto(1L, "Juan", null, null, null, null, null, null);
+        EmpleadoDto empleado2 = new EmpleadoDto(2L, "Jose", null, null, null, null, null, null);
 
         when(empleadoService.findAll()).thenReturn(List.of(empleado1,empleado2));
 
@@ -51,12 +68,55 @@ public class TestEmpleadoController {
                 .andExpect(jsonPath("$[1].nombre").value("Jose"));
     }
 
+    @Test
+    void GETEmpleado_acceptCbor_returnsCbor() throws Exception {
+        EmpleadoDto empleado = new EmpleadoDto(1L, "Juan", null, null, LocalDate.of(2020, 12, 5), new BigDecimal("1500.50"), null, null);
+        when(empleadoService.findAll()).thenReturn(List.of(empleado));
+
+        MvcResult resultado = mockMvc.perform(get("/api/empleados")
+                .accept(MediaType.parseMediaType("application/cbor")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+
+        EmpleadoDto[] leidos = objectMapper.copyWith(new CBORFactory())
+                .readValue(resultado.getResponse().getContentAsByteArray(), EmpleadoDto[].class);
+        assertEquals(List.of(empleado), List.of(leidos));
+    }
+
+    @Test
+    void GETEmpleado_acceptProtobuf_returnsProtobuf() throws Exception {
+        when(empleadoService.findAll()).thenReturn(List.of(new EmpleadoDto(1L, "Juan", null, null, null, null, null, null)));
+
+        mockMvc.perform(get("/api/empleados")
+                .accept(MediaType.parseMediaType("application/x-protobuf")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-protobuf"));
+    }
+
+    @Test
+    void GETEmpleado_withoutAccept_returnsJson() throws Exception {
+        when(empleadoService.findAll()).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/empleados"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void GETEmpleadoPage_acceptProtobuf_ReturnsStatus406() throws Exception {
+        when(empleadoService.findAll(any(), eq(1))).thenReturn(new CursorPage<>(List.of(), null));
+
+        mockMvc.perform(get("/api/empleados")
+                .param("limit", "1")
+                .accept(MediaType.parseMediaType("application/x-protobuf")))
+                .andExpect(status().isNotAcceptable());
+    }
+
     @Test
     void GETEmpleado_returnsEmpleadoAndStatus200() throws Exception{
-        Empleado empleado = new Empleado();
         Long id = 1L;
-        empleado.setNombre("Juan");
-        empleado.setId(id);
+        EmpleadoDto empleado = new EmpleadoDto(id, "Juan", null, null, null, null, null, null);
 
         when(empleadoService.findById(id)).thenReturn(empleado);
         mockMvc.perform(get("/api/empleados/"+id)
@@ -66,6 +126,31 @@ public class TestEmpleadoController {
                 .andExpect(jsonPath("$.nombre").value("Juan"));
     }
 
+    @Test
+    void GETEmpleado_withMatchingEtag_returns304WithoutLoading() throws Exception {
+        when(empleadoService.findVersionById(1L)).thenReturn("2.abc-0");
+
+        mockMvc.perform(get("/api/empleados/1")
+                .header("If-None-Match", "\"empleado-2.abc-0\""))
+                .andExpect(status().isNotModified());
+
+        verify(empleadoService, never()).findById(any());
+    }
+
+    @Test
+    void GETEmpleadoById_acceptSmile_usaElEtagDeSmile() throws Exception {
+        when(empleadoService.findVersionById(1L)).thenReturn("2.abc-0");
+        when(empleadoService.findById(1L)).thenReturn(new EmpleadoDto(1L, "Juan", null, null, null, null, null, null));
+
+        mockMvc.perform(get("/api/empleados/1")
+                .header("If-None-Match", "\"empleado-2.abc-0\"")
+                .accept(MediaType.parseMediaType("application/x-jackson-smile")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andExpect(header().string("ETag", "\"empleado-2.abc-0-smile\""))
+                .andExpect(header().string("Vary", "Accept"));
+    }
+
     @Test
     void GETNonExistentEmpleadoById_ReturnsStatus404() throws Exception {
         Empleado empleado = new Empleado();
@@ -126,6 +211,62 @@ public class TestEmpleadoController {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void POSTEmpleadosBatch_ReturnsIdsAndStatus201() throws Exception {
+        Empleado empleado1 = new Empleado();
+        Empleado empleado2 = new Empleado();
+        empleado1.setEmail("a@empresa.com");
+        empleado2.setEmail("b@empresa.com");
+
+        when(empleadoService.saveAll(any())).thenReturn(List.of(1L, 2L));
+
+        mockMvc.perform(post("/api/empleados/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(empleado1, empleado2))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0]").value(1L))
+                .andExpect(jsonPath("$[1]").value(2L));
+    }
+
+    @Test
+    void POSTEmpleadosBatch_EmailDuplicado_ReturnsStatus409() throws Exception {
+        Empleado empleado = new Empleado();
+        empleado.setEmail("a@empresa.com");
+
+        when(empleadoService.saveAll(any())).thenThrow(new EmailDuplicadoException("a@empresa.com"));
+
+        mockMvc.perform(post("/api/empleados/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(empleado))))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void PUTEmpleadosBatch_SinId_ReturnsStatus400() throws Exception {
+        Empleado empleado = new Empleado();
+        empleado.setEmail("a@empresa.com");
+
+        when(empleadoService.updateAll(any())).thenThrow(new DatosInvalidosException("sin id"));
+
+        mockMvc.perform(put("/api/empleados/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(empleado))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void PUTEmpleadosBatch_NonExistent_ReturnsStatus404() throws Exception {
+        Empleado empleado = new Empleado();
+        empleado.setId(7L);
+
+        when(empleadoService.updateAll(any())).thenThrow(new EmpleadoNoEncontradoException(7L));
+
+        mockMvc.perform(put("/api/empleados/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(empleado))))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void DELETEEmpleado_ReturnsStatus204() throws Exception{
         Empleado empleado = new Empleado();
@@ -145,23 +286,30 @@ public class TestEmpleadoController {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void DELETEEmpleadosBatch_ReturnsCount() throws Exception {
+        when(empleadoService.deleteAll(List.of(1L, 2L, 3L))).thenReturn(2);
+
+        mockMvc.perform(delete("/api/empleados/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1,2,3]"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2"));
+    }
+
     @Test
     void GETEmpleadoByDepartamentoNombre_returnsListWithDepartmentName() throws Exception {
-        Empleado empleado1 = new Empleado();
-        Empleado empleado2 = new Empleado();
-        Departamento departamento = new Departamento();
         String nombre = "RRHH";
-        departamento.setNombre("nombre");
-        empleado1.setDepartamento(departamento);
-        empleado2.setDepartamento(departamento);
+        EmpleadoDto empleado1 = new EmpleadoDto(1L, null, null, null, null, null, 1L, nombre);
+        EmpleadoDto empleado2 = new EmpleadoDto(2L, null, null, null, null, null, 1L, nombre);
 
         when(empleadoService.findByNombreDepartamento(nombre)).thenReturn(List.of(empleado1,empleado2));
 
         mockMvc.perform(get("/api/empleados/departamento/"+nombre)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].departamento.nombre").value("nombre"))
-                .andExpect(jsonPath("$[1].departamento.nombre").value("nombre"));
+                .andExpect(jsonPath("$[0].departamentoNombre").value(nombre))
+                .andExpect(jsonPath("$[1].departamentoNombre").value(nombre));
     }
 
     @Test
@@ -177,12 +325,23 @@ public class TestEmpleadoController {
                 .andExpect(content().string("1000"));
     }
 
+    @Test
+    void GETResumenSalarioDepartamento_returnsResumen() throws Exception {
+        Long id = 1L;
+        ResumenSalarialDto resumen = new ResumenSalarialDto(id, 2L, new BigDecimal("3000"), new BigDecimal("1000"), new BigDecimal("2000"));
+
+        when(empleadoService.findSalarySummaryByDepartamento(id)).thenReturn(resumen);
+
+        mockMvc.perform(get("/api/empleados/resumen-salario/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.empleados").value(2))
+                .andExpect(jsonPath("$.promedio").value(1500.00));
+    }
+
     @Test
     void GETEmpleadosBySalaryRange_returnsListOfEmpleados() throws Exception {
         BigDecimal value0 = new BigDecimal("1500");
-        Empleado empleado = new Empleado();
-
-        empleado.setSalario(value0);
+        EmpleadoDto empleado = new EmpleadoDto(1L, null, null, null, null, value0, null, null);
 
         BigDecimal min = new BigDecimal("1000");
         BigDecimal max = new BigDecimal("2000");
@@ -201,8 +360,7 @@ public class TestEmpleadoController {
         LocalDate inicio = LocalDate.of(2020, 12, 2);
         LocalDate fin = LocalDate.of(2021, 12, 2);
         LocalDate contratacion = LocalDate.of(2020, 12, 5);
-        Empleado empleado = new Empleado();
-        empleado.setFechaContratacion(contratacion);
+        EmpleadoDto empleado = new EmpleadoDto(1L, null, null, null, contratacion, null, null, null);
 
         when(empleadoService.findByHiringDate(inicio, fin)).thenReturn(List.of(empleado));
         mockMvc.perform(get("/api/empleados/fecha-contratacion")
@@ -212,5 +370,165 @@ public class TestEmpleadoController {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].fechaContratacion").value("2020-12-05"));
     }
-}
 
+    @Test
+    void GETEmpleadoPage_returnsPageWithNextCursor() throws Exception {
+        EmpleadoDto empleado = new EmpleadoDto(8L, "Juan", null, null, null, null, null, null);
+        String siguiente = Cursor.encode(8L);
+
+        when(empleadoService.findAll(7L, 1)).thenReturn(new CursorPage<>(List.of(empleado), siguiente));
+
+        mockMvc.perform(get("/api/empleados")
+                .param("after", Cursor.encode(7L))
+                .param("limit", "1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].nombre").value("Juan"))
+                .andExpect(jsonPath("$.nextCursor").value(siguiente));
+    }
+
+    @Test
+    void GETEmpleadoPage_invalidCursor_ReturnsStatus400() throws Exception {
+        mockMvc.perform(get("/api/empleados/rango-salario")
+                .param("min", "1000")
+                .param("max", "2000")
+                .param("after", "no-es-un-cursor")
+                .param("limit", "10")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void GETEmpleadoPage_cursorWithNonPositiveId_ReturnsStatus400() throws Exception {
+        for (long id : new long[]{0L, -5L}) {
+            mockMvc.perform(get("/api/empleados/rango-salario")
+                    .param("min", "1000")
+                    .param("max", "2000")
+                    .param("after", Cursor.encode(id))
+                    .param("limit", "10")
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(get("/api/empleados/search")
+                .param("orden", "salario")
+                .param("after", Cursor.encode(new BigDecimal("1000"), 0L)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void GETExport_streamsOneEmpleadoPerLine() throws Exception {
+        Empleado empleado1 = new Empleado();
+        Empleado empleado2 = new Empleado();
+        empleado1.setId(1L);
+        empleado1.setNombre("Juan");
+        empleado2.setId(2L);
+        empleado2.setNombre("Jose");
+
+        doAnswer(invocation -> {
+            Consumer<Empleado> consumer = invocation.getArgument(1);
+            consumer.accept(empleado1);
+            consumer.accept(empleado2);
+            return null;
+        }).when(empleadoService).exportAll(eq(PlanCarga.CON_DEPARTAMENTO), any());
+
+        MvcResult resultado = mockMvc.perform(get("/api/empleados/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String cuerpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lineas = cuerpo.split("\n");
+        assertEquals(2, lineas.length);
+        assertEquals("Juan", objectMapper.readTree(lineas[0]).get("nombre").asText());
+        assertEquals("Jose", objectMapper.readTree(lineas[1]).get("nombre").asText());
+    }
+
+    @Test
+    void GETSearch_combinaFiltrosYDevuelveTotalSoloSiSePide() throws Exception {
+        EmpleadoDto empleado = new EmpleadoDto(8L, "Juan", null, null, null, new BigDecimal("45000"), 1L, "IT");
+        FiltroEmpleados filtro = new FiltroEmpleados(new BigDecimal("40000"), new BigDecimal("50000"),
+                LocalDate.of(2020, 1, 1), null, 1L, null, 3L, "Ju");
+
+        when(empleadoService.search(filtro, OrdenEmpleados.SALARIO, null, 10, true))
+                .thenReturn(new CursorPage<>(List.of(empleado), null, 1L));
+        when(empleadoService.search(filtro, OrdenEmpleados.SALARIO, null, 10, false))
+                .thenReturn(new CursorPage<>(List.of(empleado), null));
+
+        mockMvc.perform(get("/api/empleados/search")
+                .param("salarioMin", "40000").param("salarioMax", "50000")
+                .param("inicio", "2020-01-01")
+                .param("departamentoId", "1").param("proyectoId", "3").param("nombre", "Ju")
+                .param("orden", "salario").param("limit", "10").param("count", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].nombre").value("Juan"))
+                .andExpect(jsonPath("$.total").value(1));
+
+        mockMvc.perform(get("/api/empleados/search")
+                .param("salarioMin", "40000").param("salarioMax", "50000")
+                .param("inicio", "2020-01-01")
+                .param("departamentoId", "1").param("proyectoId", "3").param("nombre", "Ju")
+                .param("orden", "salario").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").doesNotExist());
+    }
+
+    @Test
+    void GETSearch_ordenOCursorInvalido_ReturnsStatus400() throws Exception {
+        mockMvc.perform(get("/api/empleados/search").param("orden", "email"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/empleados/search").param("after", Cursor.encode(7L)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void GETSuggest_returnsSugerencias() throws Exception {
+        when(empleadoService.suggest("jua", 10)).thenReturn(List.of(new SugerenciaDto(1L, "Juan", "Pérez", "juan@empresa.com")));
+        when(empleadoService.suggestStats()).thenReturn(new IndiceSugerencias.Estadisticas(1, 4, 4, 600));
+
+        mockMvc.perform(get("/api/empleados/suggest").param("q", "jua"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].nombre").value("Juan"));
+        mockMvc.perform(get("/api/empleados/suggest/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.terminos").value(4))
+                .andExpect(jsonPath("$.bytesEstimados").value(600));
+    }
+
+    @Test
+    void PATCHEmpleado_ReturnsStatus204() throws Exception {
+        mockMvc.perform(patch("/api/empleados/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"salario\":50000,\"departamentoId\":2}"))
+                .andExpect(status().isNoContent());
+
+        verify(empleadoService).patch(1L, new EmpleadoPatchDto(null, null, null, null, new BigDecimal("50000"), 2L));
+    }
+
+    @Test
+    void PATCHEmpleado_NotFoundOrDuplicateEmail() throws Exception {
+        doThrow(new EmpleadoNoEncontradoException(1L)).when(empleadoService).patch(eq(1L), any());
+        doThrow(new EmailDuplicadoException("otro@empresa.com")).when(empleadoService).patch(eq(2L), any());
+
+        mockMvc.perform(patch("/api/empleados/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombre\":\"Juan\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(patch("/api/empleados/2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"otro@empresa.com\"}"))
+                .andExpect(status().isConflict());
+    }
+    @Test
+    void PATCHEmpleado_DepartamentoInexistente() throws Exception {
+        doThrow(new DepartamentoNoEncontradoException(99L)).when(empleadoService).patch(eq(1L), any());
+
+        mockMvc.perform(patch("/api/empleados/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"departamentoId\":99}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,272 @@
+package com.empresa.gestionempleados.controller;
+
+import com.empresa.gestionempleados.entity.Departamento;
+import com.empresa.gestionempleados.entity.Empleado;
+import com.empresa.gestionempleados.entity.Proyecto;
+import com.empresa.gestionempleados.metricas.ContadorSentencias;
+import com.empresa.gestionempleados.repository.DepartamentoRepository;
+import com.empresa.gestionempleados.repository.EmpleadoRepository;
+import com.empresa.gestionempleados.repository.ProyectoRepository;
+import com.empresa.gestionempleados.service.EmpleadoService;
+import com.empresa.gestionempleados.service.PlanCarga;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Presupuesto de sentencias SQL por endpoint. Los datos se siembran con varios empleados por
+ * departamento y proyecto y se limpia el contexto de persistencia, así que una carga perezosa por
+ * elemento (N+1) supera el presupuesto en lugar de pasar desapercibida.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@ActiveProfiles("postgres")
+public class TestPresupuestoSentencias {
+    private static final int EMPLEADOS = 8;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ContadorSentencias contadorSentencias;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    DepartamentoRepository departamentoRepository;
+
+    @Autowired
+    ProyectoRepository proyectoRepository;
+
+    @Autowired
+    EmpleadoRepository empleadoRepository;
+
+    @Autowired
+    EmpleadoService empleadoService;
+
+    private Departamento departamento;
+    private Proyecto proyecto;
+    private final List<Empleado> empleados = new ArrayList<>();
+
+    @BeforeEach
+    void setUp(){
+        departamento = new Departamento();
+        departamento.setNombre("Presupuesto");
+        departamento = departamentoRepository.save(departamento);
+        Departamento otro = new Departamento();
+        otro.setNombre("Otro");
+        otro = departamentoRepository.save(otro);
+
+        proyecto = proyectoRepository.save(proyecto("Activo"));
+        Proyecto otroProyecto = proyectoRepository.save(proyecto("Finalizado"));
+
+        for (int i = 0; i < EMPLEADOS; i++){
+            Empleado empleado = new Empleado();
+            empleado.setNombre("Nombre" + i);
+            empleado.setApellido("Apellido" + i);
+            empleado.setEmail("presupuesto" + i + "@empresa.com");
+            empleado.setFechaContratacion(LocalDate.of(2020, 1, 1).plusDays(i));
+            empleado.setSalario(BigDecimal.valueOf(40_000 + i));
+            empleado.setDepartamento(i % 2 == 0 ? departamento : otro);
+            empleado.setProyectos(Set.of(i % 2 == 0 ? proyecto : otroProyecto));
+            empleados.add(empleadoRepository.save(empleado));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static Proyecto proyecto(String estado){
+        Proyecto proyecto = new Proyecto();
+        proyecto.setNombre("Proyecto " + estado);
+        proyecto.setEstado(estado);
+        proyecto.setFechaInicio(LocalDate.of(2024, 1, 1));
+        proyecto.setFechaFin(LocalDate.of(2025, 1, 1));
+        return proyecto;
+    }
+
+    /**
+     * Ejecuta la petición y verifica que no emita más de {@code maximo} sentencias.
+     */
+    private void assertSentencias(int maximo, RequestBuilder peticion, ResultMatcher estado) throws Exception {
+        try (ContadorSentencias.Registro registro = contadorSentencias.iniciar("test")) {
+            mockMvc.perform(peticion).andExpect(estado);
+            entityManager.flush();
+            assertTrue(registro.total() <= maximo, "Se esperaban a lo sumo " + maximo + " sentencias: " + registro);
+        }
+    }
+
+    /**
+     * Igual que {@link #assertSentencias(int, RequestBuilder, ResultMatcher)}, para un camino del servicio.
+     */
+    private void assertSentencias(int maximo, Runnable operacion){
+        try (ContadorSentencias.Registro registro = contadorSentencias.iniciar("test")) {
+            operacion.run();
+            assertTrue(registro.total() <= maximo, "Se esperaban a lo sumo " + maximo + " sentencias: " + registro);
+        }
+    }
+
+    private static void recorrerRelaciones(Empleado empleado){
+        empleado.getDepartamento().getNombre();
+        empleado.getProyectos().forEach(Proyecto::getNombre);
+    }
+
+    private String empleadoJson(String email, Long departamentoId){
+        return """
+                {"nombre":"Nuevo","apellido":"Empleado","email":"%s","fechaContratacion":"2024-01-01","salario":45000,\
+                "departamento":{"id":%d},"proyectos":[{"id":%d}]}""".formatted(email, departamentoId, proyecto.getId());
+    }
+
+    @Test
+    void empleados_listados() throws Exception {
+        assertSentencias(1, get("/api/empleados"), status().isOk());
+        assertSentencias(1, get("/api/empleados").param("limit", "3"), status().isOk());
+        assertSentencias(1, get("/api/empleados/departamento/Presupuesto"), status().isOk());
+        assertSentencias(1, get("/api/empleados/departamento/Presupuesto").param("limit", "3"), status().isOk());
+        assertSentencias(1, get("/api/empleados/rango-salario").param("min", "40000").param("max", "50000"), status().isOk());
+        assertSentencias(1, get("/api/empleados/rango-salario").param("min", "40000").param("max", "50000").param("limit", "3"), status().isOk());
+        assertSentencias(1, get("/api/empleados/fecha-contratacion").param("inicio", "2020-01-01").param("fin", "2021-01-01"), status().isOk());
+        assertSentencias(1, get("/api/empleados/fecha-contratacion").param("inicio", "2020-01-01").param("fin", "2021-01-01").param("limit", "3"), status().isOk());
+        assertSentencias(1, get("/api/empleados/search").param("departamento", "Presupuesto").param("proyectoId", proyecto.getId().toString())
+                .param("orden", "salario").param("limit", "2"), status().isOk());
+        assertSentencias(2, get("/api/empleados/search").param("salarioMin", "40000").param("count", "true"), status().isOk());
+    }
+
+    @Test
+    void empleados_planesDeCarga(){
+        // El departamento se une en la consulta principal y los proyectos llegan en una segunda consulta.
+        assertSentencias(2, () -> empleadoService.findAll(PlanCarga.COMPLETO).forEach(TestPresupuestoSentencias::recorrerRelaciones));
+        entityManager.clear();
+        assertSentencias(2, () -> empleadoService.findByNombreDepartamento("Presupuesto", PlanCarga.COMPLETO)
+                .forEach(TestPresupuestoSentencias::recorrerRelaciones));
+        entityManager.clear();
+        assertSentencias(1, () -> empleadoService.exportAll(PlanCarga.CON_DEPARTAMENTO, empleado -> empleado.getDepartamento().getNombre()));
+        assertSentencias(2, () -> empleadoService.exportAll(PlanCarga.COMPLETO, TestPresupuestoSentencias::recorrerRelaciones));
+    }
+
+    @Test
+    void empleados_consultasIndividuales() throws Exception {
+        Long id = empleados.get(0).getId();
+        assertSentencias(2, get("/api/empleados/" + id), status().isOk());
+        assertSentencias(0, get("/api/empleados/promedio-salario/" + departamento.getId()), status().isOk());
+        assertSentencias(1, get("/api/empleados/resumen-salario/" + departamento.getId()), status().isOk());
+        assertSentencias(0, get("/api/empleados/suggest").param("q", "nombre"), status().isOk());
+    }
+
+    @Test
+    void empleados_escrituras() throws Exception {
+        Long id = empleados.get(0).getId();
+        assertSentencias(4, post("/api/empleados").contentType(MediaType.APPLICATION_JSON)
+                .content(empleadoJson("alta@empresa.com", departamento.getId())), status().isCreated());
+        assertSentencias(4, put("/api/empleados/" + id).contentType(MediaType.APPLICATION_JSON)
+                .content(empleadoJson("presupuesto0@empresa.com", departamento.getId())), status().isOk());
+        assertSentencias(3, delete("/api/empleados/" + empleados.get(1).getId()), status().isNoContent());
+    }
+
+    @Test
+    void eliminacionesPorConjunto() throws Exception {
+        // Se leen los datos para los índices en memoria y se borran asignaciones y empleados sin cargarlos.
+        assertSentencias(3, delete("/api/empleados/batch").contentType(MediaType.APPLICATION_JSON)
+                .content("[%d,%d,-1]".formatted(empleados.get(0).getId(), empleados.get(1).getId())), status().isOk());
+        assertSentencias(2, delete("/api/proyectos/estado/Finalizado"), status().isOk());
+        assertSentencias(4, delete("/api/departamentos/batch").contentType(MediaType.APPLICATION_JSON)
+                .content("[" + departamento.getId() + "]"), status().isOk());
+        assertSentencias(2, delete("/api/proyectos/batch").contentType(MediaType.APPLICATION_JSON)
+                .content("[" + proyecto.getId() + "]"), status().isOk());
+        entityManager.clear();
+
+        // Quedan los empleados impares del otro departamento, ya sin el proyecto finalizado.
+        List<Empleado> restantes = empleadoRepository.findAll();
+        assertEquals(EMPLEADOS / 2 - 1, restantes.size());
+        assertTrue(restantes.stream().allMatch(empleado -> empleado.getProyectos().isEmpty()));
+        assertTrue(departamentoRepository.findById(departamento.getId()).isEmpty());
+        assertEquals(0, proyectoRepository.count());
+    }
+
+    @Test
+    void actualizacionesParciales() throws Exception {
+        Empleado empleado = empleados.get(0);
+        assertSentencias(1, patch("/api/empleados/" + empleado.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombre\":\"Parcial\"}"), status().isNoContent());
+        // Cambiar el salario lee antes el valor anterior para los agregados en memoria.
+        assertSentencias(2, patch("/api/empleados/" + empleado.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"salario\":99000}"), status().isNoContent());
+        assertSentencias(1, patch("/api/empleados/-1").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombre\":\"Nadie\"}"), status().isNotFound());
+        assertSentencias(1, patch("/api/departamentos/" + departamento.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"descripcion\":\"Parcial\"}"), status().isNoContent());
+        assertSentencias(1, patch("/api/proyectos/" + proyecto.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"estado\":\"Pausado\"}"), status().isNoContent());
+        entityManager.clear();
+
+        Empleado modificado = empleadoRepository.findById(empleado.getId()).orElseThrow();
+        assertEquals("Parcial", modificado.getNombre());
+        assertEquals(empleado.getApellido(), modificado.getApellido());
+        assertEquals(0, new BigDecimal("99000").compareTo(modificado.getSalario()));
+        assertEquals(empleado.getVersion() + 2, modificado.getVersion());
+        assertEquals(1, modificado.getProyectos().size());
+        assertEquals("Parcial", departamentoRepository.findById(departamento.getId()).orElseThrow().getDescripcion());
+        assertEquals("Pausado", proyectoRepository.findById(proyecto.getId()).orElseThrow().getEstado());
+    }
+
+    @Test
+    void empleados_lotes() throws Exception {
+        StringBuilder altas = new StringBuilder("[");
+        for (int i = 0; i < EMPLEADOS; i++){
+            altas.append(i > 0 ? "," : "").append(empleadoJson("lote" + i + "@empresa.com", departamento.getId()));
+        }
+        assertSentencias(4, post("/api/empleados/batch").contentType(MediaType.APPLICATION_JSON).content(altas + "]"), status().isCreated());
+
+        StringBuilder cambios = new StringBuilder("[");
+        for (int i = 0; i < EMPLEADOS; i++){
+            String json = empleadoJson("presupuesto" + i + "@empresa.com", departamento.getId());
+            cambios.append(i > 0 ? "," : "").append("{\"id\":").append(empleados.get(i).getId()).append(",").append(json.substring(1));
+        }
+        assertSentencias(6, put("/api/empleados/batch").contentType(MediaType.APPLICATION_JSON).content(cambios + "]"), status().isOk());
+    }
+
+    @Test
+    void departamentos() throws Exception {
+        assertSentencias(1, get("/api/departamentos"), status().isOk());
+        assertSentencias(1, get("/api/departamentos").param("limit", "1"), status().isOk());
+        assertSentencias(1, get("/api/departamentos/" + departamento.getId()), status().isOk());
+        assertSentencias(1, post("/api/departamentos").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombre\":\"Nuevo\"}"), status().isCreated());
+        assertSentencias(1, put("/api/departamentos/" + departamento.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombre\":\"Renombrado\"}"), status().isOk());
+    }
+
+    @Test
+    void proyectos() throws Exception {
+        assertSentencias(1, get("/api/proyectos"), status().isOk());
+        assertSentencias(1, get("/api/proyectos").param("limit", "1"), status().isOk());
+        assertSentencias(1, get("/api/proyectos/" + proyecto.getId()), status().isOk());
+        assertSentencias(1, get("/api/proyectos/estado/Activo"), status().isOk());
+        assertSentencias(1, get("/api/proyectos/estado/Activo").param("limit", "1"), status().isOk());
+        assertSentencias(1, post("/api/proyectos").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombre\":\"Nuevo\",\"estado\":\"Activo\",\"fechaInicio\":\"2024-01-01\",\"fechaFin\":\"2025-01-01\"}"), status().isCreated());
+        assertSentencias(1, put("/api/proyectos/" + proyecto.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombre\":\"Renombrado\",\"estado\":\"Activo\",\"fechaInicio\":\"2024-01-01\",\"fechaFin\":\"2025-01-01\"}"), status().isOk());
+    }
+}
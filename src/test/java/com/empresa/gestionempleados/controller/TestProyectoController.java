@@ -1,5 +1,7 @@
 package com.empresa.gestionempleados.controller;
 
+import com.empresa.gestionempleados.dto.ProyectoDto;
+import com.empresa.gestionempleados.dto.ProyectoPatchDto;
 import com.empresa.gestionempleados.entity.Proyecto;
 import com.empresa.gestionempleados.exceptions.ProyectoNoEncontradoException;
 import com.empresa.gestionempleados.service.ProyectoServiceImpl;
@@ -16,8 +18,13 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -35,10 +42,8 @@ public class TestProyectoController {
 
     @Test
     void GETProyecto_returnsListAndStatus200() throws Exception{
-        Proyecto proyecto1 = new Proyecto();
-        Proyecto proyecto2 = new Proyecto();
-        proyecto1.setNombre("Proyecto A");
-        proyecto2.setNombre("Proyecto B");
+        ProyectoDto proyecto1 = new ProyectoDto(1L, "Proyecto A", null, null, null, null);
+        ProyectoDto proyecto2 = new ProyectoDto(2L, "Proyecto B", null, null, null, null);
 
         when(proyectoService.findAll()).thenReturn(List.of(proyecto1,proyecto2));
 
@@ -49,12 +54,74 @@ public class TestProyectoController {
                 .andExpect(jsonPath("$[1].nombre").value("Proyecto B"));
     }
 
+    @Test
+    void GETProyecto_withMatchingEtag_returns304WithoutQuerying() throws Exception{
+        when(proyectoService.generacion()).thenReturn("abc-7");
+
+        mockMvc.perform(get("/api/proyectos")
+                .header("If-None-Match", "\"proyectos-abc-7\""))
+                .andExpect(status().isNotModified());
+
+        verify(proyectoService, never()).findAll();
+    }
+
+    @Test
+    void GETProyecto_mismaGeneracion_sirveLosBytesGuardados() throws Exception{
+        when(proyectoService.generacion()).thenReturn("cache-1");
+        when(proyectoService.findAll()).thenReturn(List.of(new ProyectoDto(1L, "Proyecto A", null, null, null, null)));
+
+        for (int i = 0; i < 2; i++){
+            mockMvc.perform(get("/api/proyectos"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(header().string("ETag", "\"proyectos-cache-1\""))
+                    .andExpect(jsonPath("$[0].nombre").value("Proyecto A"));
+        }
+
+        verify(proyectoService, times(1)).findAll();
+    }
+
+    @Test
+    void GETProyecto_acceptCbor_pasaPorLaNegociacion() throws Exception{
+        when(proyectoService.generacion()).thenReturn("cbor-1");
+        when(proyectoService.findAll()).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/proyectos")
+                .accept(MediaType.parseMediaType("application/cbor")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().string("ETag", "\"proyectos-cbor-1-cbor\""))
+                .andExpect(header().string("Vary", "Accept"));
+    }
+
+    @Test
+    void GETProyecto_acceptProtobuf_returnsProtobuf() throws Exception{
+        when(proyectoService.generacion()).thenReturn("abc-7");
+        when(proyectoService.findAll()).thenReturn(List.of(new ProyectoDto(1L, "Proyecto A", null, null, null, null)));
+
+        mockMvc.perform(get("/api/proyectos")
+                .accept(MediaType.parseMediaType("application/x-protobuf")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-protobuf"))
+                .andExpect(header().string("ETag", "\"proyectos-abc-7-protobuf\""));
+    }
+
+    @Test
+    void GETProyecto_acceptCbor_conElEtagDeJson_noDevuelve304() throws Exception{
+        when(proyectoService.generacion()).thenReturn("abc-7");
+        when(proyectoService.findAll()).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/proyectos")
+                .header("If-None-Match", "\"proyectos-abc-7\"")
+                .accept(MediaType.parseMediaType("application/cbor")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"proyectos-abc-7-cbor\""));
+    }
+
     @Test
     void GETProyecto_returnsProyectoAndStatus200() throws Exception{
-        Proyecto proyecto = new Proyecto();
         Long id = 1L;
-        proyecto.setId(id);
-        proyecto.setNombre("Proyecto A");
+        ProyectoDto proyecto = new ProyectoDto(id, "Proyecto A", null, null, null, null);
 
         when(proyectoService.findById(id)).thenReturn(proyecto);
         mockMvc.perform(get("/api/proyectos/"+id)
@@ -79,13 +146,9 @@ public class TestProyectoController {
 
     @Test
     void GETProyectoByStatus_returnsProyecto() throws Exception{
-        Proyecto proyecto1 = new Proyecto();
-        Proyecto proyecto2 = new Proyecto();
         String estado = "ACTIVO";
-        proyecto1.setEstado(estado);
-        proyecto1.setId(1L);
-        proyecto2.setEstado(estado);
-        proyecto2.setId(2L);
+        ProyectoDto proyecto1 = new ProyectoDto(1L, null, null, estado, null, null);
+        ProyectoDto proyecto2 = new ProyectoDto(2L, null, null, estado, null, null);
 
         when(proyectoService.findByStatus(estado)).thenReturn(List.of(proyecto1,proyecto2));
         mockMvc.perform(get("/api/proyectos/estado/"+estado)
@@ -165,4 +228,43 @@ public class TestProyectoController {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void DELETEProyectosBatch_ReturnsCount() throws Exception {
+        when(proyectoService.deleteAll(List.of(1L, 2L))).thenReturn(2);
+
+        mockMvc.perform(delete("/api/proyectos/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1,2]"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2"));
+    }
+
+    @Test
+    void DELETEProyectosByStatus_ReturnsCount() throws Exception {
+        when(proyectoService.deleteByStatus("Finalizado")).thenReturn(3);
+
+        mockMvc.perform(delete("/api/proyectos/estado/Finalizado"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("3"));
+    }
+
+    @Test
+    void PATCHProyecto_ReturnsStatus204() throws Exception {
+        mockMvc.perform(patch("/api/proyectos/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"estado\":\"Finalizado\"}"))
+                .andExpect(status().isNoContent());
+
+        verify(proyectoService).patch(1L, new ProyectoPatchDto(null, null, "Finalizado", null, null));
+    }
+
+    @Test
+    void PATCHNonExistentProyecto_ReturnsStatus404() throws Exception {
+        doThrow(new ProyectoNoEncontradoException(1L)).when(proyectoService).patch(eq(1L), any());
+
+        mockMvc.perform(patch("/api/proyectos/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"estado\":\"Activo\"}"))
+                .andExpect(status().isNotFound());
+    }
 }
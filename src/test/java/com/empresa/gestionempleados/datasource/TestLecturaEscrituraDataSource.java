@@ -0,0 +1,173 @@
+package com.empresa.gestionempleados.datasource;
+
+import com.empresa.gestionempleados.dto.DepartamentoDto;
+import com.empresa.gestionempleados.entity.Departamento;
+import com.empresa.gestionempleados.entity.Empleado;
+import com.empresa.gestionempleados.service.AgregadosSalario;
+import com.empresa.gestionempleados.service.DepartamentoService;
+import com.empresa.gestionempleados.service.EmpleadoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Primario y réplica son dos bases H2 distintas: la réplica tiene su propia tabla de departamentos,
+ * así que el resultado de una lectura muestra a qué base fue.
+ */
+@SpringBootTest(properties = {
+        "gestion.replica.habilitada=true",
+        "gestion.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "gestion.replica.driver-class-name=org.h2.Driver",
+        "gestion.replica.username=sa",
+        "gestion.replica.password=",
+        "gestion.replica.consulta-retraso=SELECT segundos FROM retraso",
+        "gestion.replica.retraso-maximo=5s",
+        "gestion.replica.intervalo-comprobacion=1h"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("postgres")
+public class TestLecturaEscrituraDataSource {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext contexto;
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    @Autowired
+    private EmpleadoService empleadoService;
+
+    @Autowired
+    private AgregadosSalario agregadosSalario;
+
+    @Autowired
+    private MonitorReplica monitorReplica;
+
+    @Autowired
+    @Qualifier("replica")
+    private DataSource replica;
+
+    private JdbcTemplate jdbcReplica;
+    private Long primarioId;
+
+    @BeforeEach
+    void setUp(){
+        jdbcReplica = new JdbcTemplate(replica);
+        jdbcReplica.execute("CREATE TABLE IF NOT EXISTS departamentos (id BIGINT PRIMARY KEY, nombre VARCHAR(100), descripcion VARCHAR(500))");
+        jdbcReplica.execute("MERGE INTO departamentos KEY (id) VALUES (1, 'En la réplica', NULL)");
+        jdbcReplica.execute("CREATE TABLE IF NOT EXISTS retraso (segundos INT)");
+        retraso(0);
+
+        Departamento departamento = new Departamento();
+        departamento.setNombre("En el primario");
+        primarioId = departamentoService.save(departamento).getId();
+    }
+
+    @AfterEach
+    void tearDown(){
+        departamentoService.delete(primarioId);
+    }
+
+    private void retraso(Integer segundos){
+        jdbcReplica.update("DELETE FROM retraso");
+        jdbcReplica.update("INSERT INTO retraso VALUES (?)", segundos);
+        monitorReplica.comprobar();
+    }
+
+    private List<String> nombres(){
+        return departamentoService.findAll(0L, 100).content().stream().map(DepartamentoDto::nombre).toList();
+    }
+
+    @Test
+    void lecturasVanALaReplicaYEscriturasAlPrimario(){
+        assertTrue(monitorReplica.isDisponible());
+        assertEquals(List.of("En la réplica"), nombres());
+    }
+
+    @Test
+    void replicaAtrasadaDevuelveLasLecturasAlPrimario(){
+        retraso(30);
+
+        assertFalse(monitorReplica.isDisponible());
+        assertTrue(nombres().contains("En el primario"));
+
+        retraso(1);
+        assertEquals(List.of("En la réplica"), nombres());
+    }
+
+    @Test
+    void replicacionDetenidaDevuelveLasLecturasAlPrimario(){
+        retraso(null);
+
+        assertFalse(monitorReplica.isDisponible());
+        assertTrue(nombres().contains("En el primario"));
+    }
+
+    @Test
+    void reconciliacionDeAgregadosLeeDelPrimario(){
+        Empleado empleado = new Empleado();
+        empleado.setNombre("Reconciliado");
+        empleado.setApellido("Primario");
+        empleado.setEmail("reconciliado@empresa.com");
+        empleado.setFechaContratacion(LocalDate.of(2024, 1, 1));
+        empleado.setSalario(new BigDecimal("42000"));
+        Departamento departamento = new Departamento();
+        departamento.setId(primarioId);
+        empleado.setDepartamento(departamento);
+        empleadoService.save(empleado);
+
+        assertTrue(monitorReplica.isDisponible());
+        agregadosSalario.reconciliar();
+
+        assertEquals(0, agregadosSalario.promedio(primarioId).compareTo(new BigDecimal("42000")));
+    }
+
+    @Test
+    void lecturasQueSeGuardanVanAlPrimario(){
+        assertTrue(monitorReplica.isDisponible());
+
+        assertTrue(departamentoService.findAll().stream().map(DepartamentoDto::nombre).toList().contains("En el primario"));
+        assertEquals("En el primario", departamentoService.findById(primarioId).nombre());
+        // La réplica no tiene la tabla de empleados: el recálculo fallaría si fuera allí
+        assertEquals(0, empleadoService.findSalarySummaryByDepartamento(primarioId).empleados());
+    }
+
+    @Test
+    void sinOpenInViewCadaTransaccionDeLaPeticionEligeSuBase() throws Exception {
+        assertTrue(contexto.getBeansOfType(OpenEntityManagerInViewInterceptor.class).isEmpty());
+
+        mockMvc.perform(get("/api/departamentos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.nombre == 'En el primario')]").exists());
+        // La respuesta usa el nombre del departamento fuera de la transacción que guardó al empleado
+        mockMvc.perform(post("/api/empleados").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nombre\":\"Sin\",\"apellido\":\"Sesion\",\"email\":\"sin.sesion@empresa.com\","
+                                + "\"fechaContratacion\":\"2024-01-01\",\"salario\":1000,\"departamento\":{\"id\":" + primarioId + "}}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.departamentoNombre").value("En el primario"));
+    }
+}
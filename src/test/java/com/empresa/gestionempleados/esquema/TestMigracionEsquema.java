@@ -0,0 +1,89 @@
+package com.empresa.gestionempleados.esquema;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestMigracionEsquema {
+    private JdbcDataSource dataSource;
+    private MigracionEsquema migracion;
+
+    @BeforeEach
+    void crearBase() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:migracion-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        migracion = new MigracionEsquema(dataSource);
+        ejecutar("CREATE TABLE empleados (id BIGINT PRIMARY KEY, version BIGINT, email VARCHAR(255) NOT NULL)");
+        ejecutar("CREATE TABLE departamentos (id BIGINT PRIMARY KEY, version BIGINT)");
+        ejecutar("CREATE TABLE proyectos (id BIGINT PRIMARY KEY, version BIGINT)");
+    }
+
+    @Test
+    void migrar_restriccionConNombreGenerado_laRenombra() throws SQLException {
+        ejecutar("ALTER TABLE empleados ADD CONSTRAINT uk6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email)");
+
+        migracion.migrar();
+        migracion.migrar();
+
+        assertEquals(List.of("UK_EMPLEADOS_EMAIL"), restriccionesUnicas());
+    }
+
+    @Test
+    void migrar_restriccionDuplicada_eliminaLaAnterior() throws SQLException {
+        ejecutar("ALTER TABLE empleados ADD CONSTRAINT uk6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email)");
+        ejecutar("ALTER TABLE empleados ADD CONSTRAINT uk_empleados_email UNIQUE (email)");
+
+        migracion.migrar();
+
+        assertEquals(List.of("UK_EMPLEADOS_EMAIL"), restriccionesUnicas());
+    }
+
+    @Test
+    void migrar_filasSinVersion_lasDejaEnCero() throws SQLException {
+        ejecutar("INSERT INTO empleados (id, version, email) VALUES (1, NULL, 'a@empresa.com'), (2, 3, 'b@empresa.com')");
+        ejecutar("INSERT INTO departamentos (id, version) VALUES (1, NULL)");
+
+        migracion.migrar();
+
+        assertEquals(List.of(0L, 3L), versiones("empleados"));
+        assertEquals(List.of(0L), versiones("departamentos"));
+    }
+
+    private List<Long> versiones(String tabla) throws SQLException {
+        List<Long> versiones = new ArrayList<>();
+        try (Connection conexion = dataSource.getConnection(); Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery("SELECT version FROM " + tabla + " ORDER BY id")){
+            while (filas.next()){
+                versiones.add(filas.getLong(1));
+            }
+        }
+        return versiones;
+    }
+
+    private List<String> restriccionesUnicas() throws SQLException {
+        List<String> nombres = new ArrayList<>();
+        try (Connection conexion = dataSource.getConnection(); Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery("SELECT constraint_name FROM information_schema.table_constraints"
+                     + " WHERE table_name = 'EMPLEADOS' AND constraint_type = 'UNIQUE'")){
+            while (filas.next()){
+                nombres.add(filas.getString(1));
+            }
+        }
+        return nombres;
+    }
+
+    private void ejecutar(String sql) throws SQLException {
+        try (Connection conexion = dataSource.getConnection(); Statement sentencia = conexion.createStatement()){
+            sentencia.execute(sql);
+        }
+    }
+}
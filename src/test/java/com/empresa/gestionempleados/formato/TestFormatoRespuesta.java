@@ -0,0 +1,52 @@
+package com.empresa.gestionempleados.formato;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestFormatoRespuesta {
+
+    @Test
+    void elegir_sinAcceptOComodines_eligeJson(){
+        assertEquals(FormatoRespuesta.JSON, FormatoRespuesta.elegir(conAccept(null)));
+        assertEquals(FormatoRespuesta.JSON, FormatoRespuesta.elegir(conAccept("*/*")));
+        assertEquals(FormatoRespuesta.JSON, FormatoRespuesta.elegir(conAccept("application/*")));
+        assertEquals(FormatoRespuesta.JSON, FormatoRespuesta.elegir(conAccept("text/html, application/xml;q=0.9, */*;q=0.8")));
+        assertEquals(FormatoRespuesta.JSON, FormatoRespuesta.elegir(conAccept("application/json, application/cbor")));
+    }
+
+    @Test
+    void elegir_respetaCalidadYOrdenDelCliente(){
+        assertEquals(FormatoRespuesta.CBOR, FormatoRespuesta.elegir(conAccept("application/cbor")));
+        assertEquals(FormatoRespuesta.CBOR, FormatoRespuesta.elegir(conAccept("application/cbor, application/json")));
+        assertEquals(FormatoRespuesta.CBOR, FormatoRespuesta.elegir(conAccept("*/*, application/cbor")));
+        assertEquals(FormatoRespuesta.PROTOBUF, FormatoRespuesta.elegir(conAccept("application/x-protobuf, */*;q=0.1")));
+        assertEquals(FormatoRespuesta.SMILE, FormatoRespuesta.elegir(conAccept("application/json;q=0.5, application/x-jackson-smile")));
+        assertEquals(FormatoRespuesta.SMILE, FormatoRespuesta.elegir(conAccept("application/json;q=0, */*")));
+    }
+
+    @Test
+    void elegir_sinFormatoAceptable_devuelveNull(){
+        assertNull(FormatoRespuesta.elegir(conAccept("text/html")));
+        assertNull(FormatoRespuesta.elegir(conAccept("application/json;q=0")));
+        assertNull(FormatoRespuesta.elegir(conAccept("no es un tipo")));
+    }
+
+    @Test
+    void etag_agregaElSufijoDelFormato(){
+        assertEquals("\"empleado-3\"", FormatoRespuesta.JSON.etag("empleado-3"));
+        assertEquals("\"empleado-3-cbor\"", FormatoRespuesta.CBOR.etag("empleado-3"));
+        assertEquals("\"empleado-3-protobuf\"", FormatoRespuesta.PROTOBUF.etag("empleado-3"));
+    }
+
+    private static ServletWebRequest conAccept(String accept){
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if(accept != null){
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        return new ServletWebRequest(request);
+    }
+}
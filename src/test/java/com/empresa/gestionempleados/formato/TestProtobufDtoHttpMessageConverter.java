@@ -0,0 +1,93 @@
+package com.empresa.gestionempleados.formato;
+
+import com.empresa.gestionempleados.dto.CursorPage;
+import com.empresa.gestionempleados.dto.DepartamentoDto;
+import com.empresa.gestionempleados.dto.EmpleadoDto;
+import com.empresa.gestionempleados.dto.ProyectoDto;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.UnknownFieldSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.empresa.gestionempleados.formato.ProtobufDtoHttpMessageConverter.PROTOBUF;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Decodifica la salida con {@link UnknownFieldSet}, que lee cualquier mensaje por número de campo,
+ * y la compara con los números de {@code proto/gestion.proto}.
+ */
+public class TestProtobufDtoHttpMessageConverter {
+    private final ProtobufDtoHttpMessageConverter converter = new ProtobufDtoHttpMessageConverter();
+
+    @Test
+    void canWrite_soloDtosYListasDeDtos(){
+        assertTrue(converter.canWrite(EmpleadoDto.class, EmpleadoDto.class, PROTOBUF));
+        assertTrue(converter.canWrite(new ParameterizedTypeReference<List<ProyectoDto>>(){}.getType(), List.class, PROTOBUF));
+        assertFalse(converter.canWrite(new ParameterizedTypeReference<CursorPage<EmpleadoDto>>(){}.getType(), CursorPage.class, PROTOBUF));
+        assertFalse(converter.canWrite(new ParameterizedTypeReference<List<String>>(){}.getType(), List.class, PROTOBUF));
+        assertFalse(converter.canWrite(EmpleadoDto.class, EmpleadoDto.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(EmpleadoDto.class, null, PROTOBUF));
+    }
+
+    @Test
+    void lista_escribeCadaEmpleadoEnElCampo1(){
+        List<EmpleadoDto> empleados = List.of(
+                new EmpleadoDto(1L, "Ana", "Gómez", "ana@empresa.com", LocalDate.of(2020, 1, 15), new BigDecimal("1500.25"), 3L, "IT"),
+                new EmpleadoDto(2L, "Luis", null, null, null, null, null, null));
+
+        UnknownFieldSet lista = escribir(empleados, new ParameterizedTypeReference<List<EmpleadoDto>>(){}.getType());
+
+        List<com.google.protobuf.ByteString> elementos = lista.getField(1).getLengthDelimitedList();
+        assertEquals(2, elementos.size());
+
+        UnknownFieldSet ana = parsear(elementos.get(0).toByteArray());
+        assertEquals(List.of(1L), ana.getField(1).getVarintList());
+        assertEquals("Gómez", ana.getField(3).getLengthDelimitedList().get(0).toStringUtf8());
+        assertEquals(LocalDate.of(2020, 1, 15).toEpochDay(),
+                CodedInputStream.decodeZigZag64(ana.getField(5).getVarintList().get(0)));
+        UnknownFieldSet salario = parsear(ana.getField(6).getLengthDelimitedList().get(0).toByteArray());
+        assertEquals(150025L, CodedInputStream.decodeZigZag64(salario.getField(1).getVarintList().get(0)));
+        assertEquals(List.of(2L), salario.getField(2).getVarintList());
+        assertEquals(List.of(3L), ana.getField(7).getVarintList());
+
+        UnknownFieldSet luis = parsear(elementos.get(1).toByteArray());
+        assertTrue(luis.hasField(2));
+        assertFalse(luis.hasField(3));
+        assertFalse(luis.hasField(6));
+        assertFalse(luis.hasField(7));
+    }
+
+    @Test
+    void dtoSuelto_escribeElMensajeSinContenedor(){
+        UnknownFieldSet departamento = escribir(new DepartamentoDto(7L, "Ventas", null), DepartamentoDto.class);
+
+        assertEquals(List.of(7L), departamento.getField(1).getVarintList());
+        assertEquals("Ventas", departamento.getField(2).getLengthDelimitedList().get(0).toStringUtf8());
+        assertFalse(departamento.hasField(3));
+    }
+
+    private UnknownFieldSet escribir(Object valor, java.lang.reflect.Type tipo){
+        MockHttpOutputMessage salida = new MockHttpOutputMessage();
+        try {
+            converter.write(valor, tipo, PROTOBUF, salida);
+        } catch (java.io.IOException e){
+            throw new AssertionError(e);
+        }
+        assertEquals(PROTOBUF, salida.getHeaders().getContentType());
+        return parsear(salida.getBodyAsBytes());
+    }
+
+    private static UnknownFieldSet parsear(byte[] mensaje){
+        try {
+            return UnknownFieldSet.parseFrom(mensaje);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e){
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.empresa.gestionempleados.index;
+
+import com.empresa.gestionempleados.repository.EmpleadoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TestEmailIndex {
+
+    @Mock
+    private EmpleadoRepository empleadoRepository;
+
+    private EmailIndex emailIndex;
+
+    @BeforeEach
+    void setUp(){
+        emailIndex = new EmailIndex(empleadoRepository, 1 << 16, 4);
+    }
+
+    @Test
+    void antesDePrecargar_todoPuedeExistir(){
+        assertFalse(emailIndex.isListo());
+        assertTrue(emailIndex.puedeExistir("nadie@empresa.com"));
+    }
+
+    @Test
+    void precargar_incluyeLosEmailsExistentes(){
+        when(empleadoRepository.streamEmails()).thenReturn(Stream.of("a@empresa.com", "b@empresa.com"));
+
+        emailIndex.precargar();
+
+        assertTrue(emailIndex.isListo());
+        assertTrue(emailIndex.puedeExistir("a@empresa.com"));
+        assertTrue(emailIndex.puedeExistir("b@empresa.com"));
+        assertFalse(emailIndex.puedeExistir("c@empresa.com"));
+    }
+
+    @Test
+    void quitar_descartaElEmailSinAfectarALosDemas(){
+        when(empleadoRepository.streamEmails()).thenReturn(IntStream.range(0, 1000).mapToObj(i -> "empleado" + i + "@empresa.com"));
+        emailIndex.precargar();
+
+        emailIndex.quitar("empleado7@empresa.com");
+
+        assertFalse(emailIndex.puedeExistir("empleado7@empresa.com"));
+        IntStream.range(0, 1000).filter(i -> i != 7)
+                .forEach(i -> assertTrue(emailIndex.puedeExistir("empleado" + i + "@empresa.com")));
+    }
+
+    @Test
+    void reservar_soloUnaEscrituraPorEmail(){
+        assertTrue(emailIndex.reservar("a@empresa.com"));
+        assertFalse(emailIndex.reservar("a@empresa.com"));
+
+        emailIndex.liberar("a@empresa.com");
+
+        assertTrue(emailIndex.reservar("a@empresa.com"));
+    }
+
+    @Test
+    void contadoresQueNoSonPotenciaDeDos_lanzaExcepcion(){
+        assertThrows(IllegalArgumentException.class, () -> new EmailIndex(empleadoRepository, 1000, 4));
+    }
+}
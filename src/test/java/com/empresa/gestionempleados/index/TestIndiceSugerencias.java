@@ -0,0 +1,150 @@
+package com.empresa.gestionempleados.index;
+
+import com.empresa.gestionempleados.dto.SugerenciaDto;
+import com.empresa.gestionempleados.repository.EmpleadoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TestIndiceSugerencias {
+
+    @Mock
+    private EmpleadoRepository empleadoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IndiceSugerencias indiceSugerencias;
+
+    @BeforeEach
+    void setUp(){
+        indiceSugerencias = new IndiceSugerencias(empleadoRepository, transactionManager);
+    }
+
+    private static List<Long> ids(List<SugerenciaDto> sugerencias){
+        return sugerencias.stream().map(SugerenciaDto::id).toList();
+    }
+
+    @Test
+    void precargar_indexaNombreApellidoYPartesDelEmail(){
+        when(empleadoRepository.streamSugerencias()).thenReturn(Stream.of(
+                new SugerenciaDto(1L, "Juan", "Pérez", "jperez@empresa.com"),
+                new SugerenciaDto(2L, "Pancho", "Gómez", "pancho.gomez@empresa.com")));
+
+        indiceSugerencias.precargar();
+
+        assertTrue(indiceSugerencias.isListo());
+        assertEquals(List.of(1L), ids(indiceSugerencias.sugerir("per", 10)));
+        assertEquals(List.of(1L), ids(indiceSugerencias.sugerir("JPE", 10)));
+        assertEquals(List.of(2L), ids(indiceSugerencias.sugerir("gom", 10)));
+        assertEquals(List.of(1L, 2L), ids(indiceSugerencias.sugerir("empresa", 10)).stream().sorted().toList());
+        assertTrue(indiceSugerencias.sugerir("", 10).isEmpty());
+    }
+
+    @Test
+    void sugerir_variasPalabras_exigeQueTodasCoincidan(){
+        indiceSugerencias.agregar(new SugerenciaDto(1L, "Juan", "Pérez", "juan.perez@empresa.com"));
+        indiceSugerencias.agregar(new SugerenciaDto(2L, "Juan", "Gómez", "juan.gomez@empresa.com"));
+
+        assertEquals(List.of(2L), ids(indiceSugerencias.sugerir("ju go", 10)));
+        assertEquals(List.of(1L), ids(indiceSugerencias.sugerir("juan.perez@emp", 10)));
+        assertTrue(indiceSugerencias.sugerir("juan lopez", 10).isEmpty());
+    }
+
+    @Test
+    void sugerir_respetaElLimite(){
+        IntStream.range(0, 100).forEach(i ->
+                indiceSugerencias.agregar(new SugerenciaDto((long) i, "Ana" + i, "Ruiz", "ana" + i + "@empresa.com")));
+
+        assertEquals(5, indiceSugerencias.sugerir("ana", 5).size());
+        assertEquals(IndiceSugerencias.LIMITE_MAXIMO, indiceSugerencias.sugerir("ruiz", 1000).size());
+    }
+
+    @Test
+    void agregarYQuitar_reemplazanLosTerminosDelEmpleado(){
+        indiceSugerencias.agregar(new SugerenciaDto(1L, "Juan", "Pérez", "juan@empresa.com"));
+        indiceSugerencias.agregar(new SugerenciaDto(1L, "Juan", "López", "juan@empresa.com"));
+
+        assertTrue(indiceSugerencias.sugerir("perez", 10).isEmpty());
+        assertEquals(List.of(1L), ids(indiceSugerencias.sugerir("lop", 10)));
+
+        indiceSugerencias.quitar(1L);
+
+        assertTrue(indiceSugerencias.sugerir("juan", 10).isEmpty());
+        IndiceSugerencias.Estadisticas estadisticas = indiceSugerencias.estadisticas();
+        assertEquals(0, estadisticas.empleados());
+        assertEquals(0, estadisticas.terminos());
+        assertEquals(0, estadisticas.bytesEstimados());
+    }
+
+    @Test
+    void actualizar_conservaLosCamposNoEnviados(){
+        indiceSugerencias.agregar(new SugerenciaDto(1L, "Juan", "Pérez", "juan@empresa.com"));
+
+        indiceSugerencias.actualizar(new SugerenciaDto(1L, null, "López", null));
+        indiceSugerencias.actualizar(new SugerenciaDto(2L, "Nadie", null, null));
+
+        assertEquals(List.of(1L), ids(indiceSugerencias.sugerir("juan lop", 10)));
+        assertTrue(indiceSugerencias.sugerir("perez", 10).isEmpty());
+        assertTrue(indiceSugerencias.sugerir("nadie", 10).isEmpty());
+    }
+
+    @Test
+    void precargar_noPisaLosCambiosHechosDuranteLaCarga(){
+        indiceSugerencias.quitar(1L);
+        indiceSugerencias.agregar(new SugerenciaDto(2L, "Nuevo", "Nombre", "nuevo@empresa.com"));
+        when(empleadoRepository.streamSugerencias()).thenReturn(Stream.of(
+                new SugerenciaDto(1L, "Borrado", "Antes", "borrado@empresa.com"),
+                new SugerenciaDto(2L, "Viejo", "Nombre", "viejo@empresa.com")));
+
+        indiceSugerencias.precargar();
+
+        assertTrue(indiceSugerencias.sugerir("borrado", 10).isEmpty());
+        assertTrue(indiceSugerencias.sugerir("viejo", 10).isEmpty());
+        assertEquals(List.of(2L), ids(indiceSugerencias.sugerir("nuevo", 10)));
+    }
+
+    @Test
+    void precargar_cambioParcialAntesDeIndexar_releeElEmpleadoAlFinal(){
+        when(empleadoRepository.streamSugerencias()).thenReturn(Stream.of(
+                new SugerenciaDto(1L, "Juan", "Pérez", "juan@empresa.com"),
+                new SugerenciaDto(2L, "Viejo", "Nombre", "viejo@empresa.com")).peek(leido -> {
+                    if(leido.id() == 1L){
+                        // El cambio del empleado 2 se confirma después de leer su fila vieja
+                        indiceSugerencias.actualizar(new SugerenciaDto(2L, "Nuevo", null, null));
+                    }
+                }));
+        when(empleadoRepository.findSugerenciasByIdIn(List.of(2L)))
+                .thenReturn(List.of(new SugerenciaDto(2L, "Nuevo", "Nombre", "viejo@empresa.com")));
+
+        indiceSugerencias.precargar();
+
+        assertTrue(indiceSugerencias.isListo());
+        assertEquals(List.of(new SugerenciaDto(2L, "Nuevo", "Nombre", "viejo@empresa.com")), indiceSugerencias.sugerir("nombre", 10));
+    }
+
+    @Test
+    void estadisticas_cuentanTerminosYReferencias(){
+        indiceSugerencias.agregar(new SugerenciaDto(1L, "Juan", "Pérez", "juan@empresa.com"));
+        indiceSugerencias.agregar(new SugerenciaDto(2L, "Ana", "Pérez", "ana@empresa.com"));
+
+        IndiceSugerencias.Estadisticas estadisticas = indiceSugerencias.estadisticas();
+
+        assertEquals(2, estadisticas.empleados());
+        // juan, ana, perez, empresa, com
+        assertEquals(5, estadisticas.terminos());
+        assertEquals(8, estadisticas.referencias());
+        assertTrue(estadisticas.bytesEstimados() > 0);
+    }
+}
@@ -0,0 +1,52 @@
+package com.empresa.gestionempleados.metricas;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestContadorSentencias {
+
+    private ContadorSentencias contadorSentencias;
+
+    @BeforeEach
+    void setUp(){
+        contadorSentencias = new ContadorSentencias(3);
+    }
+
+    @Test
+    void sinRegistroAbierto_noCuenta(){
+        assertEquals("select 1", contadorSentencias.inspect("select 1"));
+
+        try (ContadorSentencias.Registro registro = contadorSentencias.iniciar("test")) {
+            assertEquals(0, registro.total());
+        }
+    }
+
+    @Test
+    void agrupaPorForma_colapsandoListasIn(){
+        try (ContadorSentencias.Registro registro = contadorSentencias.iniciar("test")) {
+            contadorSentencias.inspect("select * from empleados where id in (?, ?)");
+            contadorSentencias.inspect("select *  from empleados\n where id in (?,?,?)");
+            contadorSentencias.inspect("select * from departamentos where id=?");
+
+            assertEquals(3, registro.total());
+            assertEquals(2, registro.maximoRepeticiones());
+            assertEquals(2, registro.porForma().get("select * from empleados where id in (?)"));
+        }
+    }
+
+    @Test
+    void registrosAnidados_cuentanEnTodosLosAbiertos(){
+        try (ContadorSentencias.Registro externo = contadorSentencias.iniciar("externo")) {
+            contadorSentencias.inspect("select 1");
+            try (ContadorSentencias.Registro interno = contadorSentencias.iniciar("interno")) {
+                contadorSentencias.inspect("select 2");
+                assertEquals(1, interno.total());
+            }
+            contadorSentencias.inspect("select 3");
+
+            assertEquals(3, externo.total());
+        }
+    }
+}
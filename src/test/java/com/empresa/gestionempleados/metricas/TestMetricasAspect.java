@@ -0,0 +1,121 @@
+package com.empresa.gestionempleados.metricas;
+
+import com.empresa.gestionempleados.controller.DepartamentoController;
+import com.empresa.gestionempleados.exceptions.DepartamentoNoEncontradoException;
+import com.empresa.gestionempleados.exceptions.ProyectoNoEncontradoException;
+import com.empresa.gestionempleados.repository.EmpleadoRepository;
+import com.empresa.gestionempleados.repository.ProyectoRepository;
+import com.empresa.gestionempleados.service.ContadorGeneraciones;
+import com.empresa.gestionempleados.service.DepartamentoService;
+import com.empresa.gestionempleados.service.ProyectoService;
+import com.empresa.gestionempleados.service.ProyectoServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TestMetricasAspect {
+
+    @Mock
+    private EmpleadoRepository empleadoRepository;
+
+    @Mock
+    private ProyectoRepository proyectoRepository;
+
+    @Mock
+    private DepartamentoService departamentoService;
+
+    @Mock
+    private ContadorGeneraciones contadorGeneraciones;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp(){
+        registry = new SimpleMeterRegistry();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T conMetricas(T destino){
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(destino);
+        fabrica.addAspect(new MetricasAspect(registry));
+        return (T) fabrica.getProxy();
+    }
+
+    @Test
+    void repositorio_optionalVacio_esNotFound(){
+        when(empleadoRepository.findById(1L)).thenReturn(Optional.empty());
+
+        conMetricas(empleadoRepository).findById(1L);
+
+        assertEquals(1, registry.get(MetricasAspect.REPOSITORIO)
+                .tags("repositorio", "EmpleadoRepository", "metodo", "findById", "resultado", "not-found")
+                .timer().count());
+    }
+
+    @Test
+    void repositorio_excepcion_seRegistraYSePropaga(){
+        when(empleadoRepository.findByEmail("a@empresa.com")).thenThrow(new IllegalStateException());
+
+        EmpleadoRepository repositorio = conMetricas(empleadoRepository);
+
+        assertThrows(IllegalStateException.class, () -> repositorio.findByEmail("a@empresa.com"));
+        assertEquals(1, registry.get(MetricasAspect.REPOSITORIO)
+                .tags("metodo", "findByEmail", "resultado", "exception")
+                .timer().count());
+    }
+
+    @Test
+    void repositorio_stream_seMideHastaQueSeCierra(){
+        when(empleadoRepository.streamEmails()).thenReturn(Stream.of("a@empresa.com", "b@empresa.com"));
+
+        try (Stream<String> emails = conMetricas(empleadoRepository).streamEmails()){
+            assertTrue(registry.find(MetricasAspect.REPOSITORIO).timers().isEmpty());
+            assertEquals(List.of("a@empresa.com", "b@empresa.com"), emails.toList());
+        }
+
+        assertEquals(1, registry.get(MetricasAspect.REPOSITORIO)
+                .tags("metodo", "streamEmails", "resultado", "found")
+                .timer().count());
+    }
+
+    @Test
+    void controlador_registraElEstadoDevuelto(){
+        when(departamentoService.findById(1L)).thenThrow(new DepartamentoNoEncontradoException(1L));
+
+        assertEquals(HttpStatus.NOT_FOUND, conMetricas(new DepartamentoController(departamentoService, null, new ObjectMapper())).findById(1L).getStatusCode());
+
+        assertEquals(1, registry.get(MetricasAspect.CONTROLADOR)
+                .tags("controlador", "DepartamentoController", "metodo", "findById", "estado", "404")
+                .timer().count());
+    }
+
+    @Test
+    void servicio_cuentaLasExcepcionesDeNegocio(){
+        when(proyectoRepository.findById(1L)).thenReturn(Optional.empty());
+        ProyectoService servicio = conMetricas(new ProyectoServiceImpl(proyectoRepository, contadorGeneraciones, entityManager));
+
+        assertThrows(ProyectoNoEncontradoException.class, () -> servicio.findById(1L));
+
+        assertEquals(1, registry.get(MetricasAspect.EXCEPCIONES)
+                .tags("excepcion", "ProyectoNoEncontradoException", "servicio", "ProyectoServiceImpl", "metodo", "findById")
+                .counter().count());
+    }
+}
@@ -0,0 +1,86 @@
+package com.empresa.gestionempleados.reactivo;
+
+import com.empresa.gestionempleados.dto.EmpleadoDto;
+import com.empresa.gestionempleados.dto.ProyectoDto;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Base H2 propia por R2DBC, con las tablas que genera JPA reducidas a las columnas que se leen.
+ */
+public class TestLecturaReactiva {
+    private static LecturaReactiva lecturaReactiva;
+
+    @BeforeAll
+    static void setUp(){
+        ConnectionFactory conexiones = ConnectionFactories.get("r2dbc:h2:mem:///lectura-reactiva?options=DB_CLOSE_DELAY=-1");
+        DatabaseClient databaseClient = DatabaseClient.create(conexiones);
+        for (String sentencia : new String[]{
+                "CREATE TABLE departamentos (id BIGINT PRIMARY KEY, nombre VARCHAR(100))",
+                "CREATE TABLE empleados (id BIGINT PRIMARY KEY, nombre VARCHAR(100), apellido VARCHAR(100), email VARCHAR(255), "
+                        + "fecha_contratacion DATE, salario DECIMAL(10, 2), departamento_id BIGINT)",
+                "CREATE TABLE proyectos (id BIGINT PRIMARY KEY, nombre VARCHAR(100), descripcion VARCHAR(500), estado VARCHAR(100), "
+                        + "fecha_inicio DATE, fecha_fin DATE)",
+                "INSERT INTO departamentos VALUES (1, 'IT')",
+                "INSERT INTO empleados VALUES (1, 'Ana', 'Gómez', 'ana@empresa.com', DATE '2020-01-15', 1500.00, 1)",
+                "INSERT INTO empleados VALUES (2, 'Luis', 'Pérez', 'luis@empresa.com', DATE '2022-06-01', 3000.00, NULL)",
+                "INSERT INTO empleados VALUES (3, 'Eva', 'Ruiz', 'eva@empresa.com', DATE '2023-03-10', 2200.00, 1)",
+                "INSERT INTO proyectos VALUES (1, 'Web', NULL, 'ACTIVO', DATE '2024-01-01', DATE '2024-12-31')",
+                "INSERT INTO proyectos VALUES (2, 'App', 'Móvil', 'CERRADO', DATE '2023-01-01', DATE '2023-06-30')",
+                "INSERT INTO proyectos VALUES (3, 'API', NULL, 'ACTIVO', DATE '2024-02-01', DATE '2024-11-30')"}){
+            databaseClient.sql(sentencia).then().block();
+        }
+        lecturaReactiva = new LecturaReactiva(conexiones, 2);
+    }
+
+    @Test
+    void findAll_mapeaLasFilasEnOrdenDeId(){
+        StepVerifier.create(lecturaReactiva.findAll())
+                .expectNext(new EmpleadoDto(1L, "Ana", "Gómez", "ana@empresa.com", LocalDate.of(2020, 1, 15),
+                        new BigDecimal("1500.00"), 1L, "IT"))
+                .expectNext(new EmpleadoDto(2L, "Luis", "Pérez", "luis@empresa.com", LocalDate.of(2022, 6, 1),
+                        new BigDecimal("3000.00"), null, null))
+                .expectNextMatches(empleado -> empleado.id() == 3L)
+                .verifyComplete();
+    }
+
+    @Test
+    void findAll_respetaLaDemandaDelSuscriptor(){
+        StepVerifier.create(lecturaReactiva.findAll(), 1)
+                .expectNextMatches(empleado -> empleado.id() == 1L)
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(2)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void findBySalaryRange_incluyeLosExtremos(){
+        StepVerifier.create(lecturaReactiva.findBySalaryRange(new BigDecimal("1500"), new BigDecimal("2200")).map(EmpleadoDto::id))
+                .expectNext(1L, 3L)
+                .verifyComplete();
+    }
+
+    @Test
+    void findByHiringDate_filtraPorFecha(){
+        StepVerifier.create(lecturaReactiva.findByHiringDate(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 12, 31)).map(EmpleadoDto::id))
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    @Test
+    void findByEstado_filtraPorEstado(){
+        StepVerifier.create(lecturaReactiva.findByEstado("ACTIVO"))
+                .expectNext(new ProyectoDto(1L, "Web", null, "ACTIVO", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)))
+                .expectNextMatches(proyecto -> proyecto.id() == 3L)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,85 @@
+package com.empresa.gestionempleados.reactivo;
+
+import com.empresa.gestionempleados.dto.EmpleadoDto;
+import com.empresa.gestionempleados.dto.ProyectoDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TestRutasReactivas {
+
+    @Mock
+    private LecturaReactiva lecturaReactiva;
+
+    private WebTestClient cliente;
+
+    @BeforeEach
+    void setUp(){
+        cliente = WebTestClient.bindToRouterFunction(new RutasReactivas(lecturaReactiva).rutas()).build();
+    }
+
+    @Test
+    void GETEmpleados_devuelveNdjson(){
+        when(lecturaReactiva.findAll()).thenReturn(Flux.just(
+                new EmpleadoDto(1L, "Ana", "Gómez", "ana@empresa.com", LocalDate.of(2020, 1, 15), new BigDecimal("1500.00"), 1L, "IT"),
+                new EmpleadoDto(2L, "Luis", "Pérez", "luis@empresa.com", LocalDate.of(2022, 6, 1), new BigDecimal("3000.00"), null, null)));
+
+        cliente.get().uri("/api/empleados").accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(EmpleadoDto.class).hasSize(2);
+    }
+
+    @Test
+    void GETRangoSalario_pasaLosLimites(){
+        when(lecturaReactiva.findBySalaryRange(new BigDecimal("1000"), new BigDecimal("2000"))).thenReturn(Flux.empty());
+
+        cliente.get().uri("/api/empleados/rango-salario?min=1000&max=2000")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void GETRangoSalario_sinMaximo_ReturnsStatus400(){
+        cliente.get().uri("/api/empleados/rango-salario?min=1000")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(lecturaReactiva, never()).findBySalaryRange(any(), any());
+    }
+
+    @Test
+    void GETFechaContratacion_fechaInvalida_ReturnsStatus400(){
+        cliente.get().uri("/api/empleados/fecha-contratacion?inicio=2020-01-01&fin=ayer")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(lecturaReactiva, never()).findByHiringDate(any(), any());
+    }
+
+    @Test
+    void GETProyectosPorEstado_devuelveNdjson(){
+        when(lecturaReactiva.findByEstado("ACTIVO")).thenReturn(Flux.just(
+                new ProyectoDto(1L, "Web", null, "ACTIVO", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31))));
+
+        cliente.get().uri("/api/proyectos/estado/ACTIVO")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProyectoDto.class).hasSize(1);
+    }
+}
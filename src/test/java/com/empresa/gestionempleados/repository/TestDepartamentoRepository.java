@@ -1,7 +1,9 @@
 package com.empresa.gestionempleados.repository;
 
 import com.empresa.gestionempleados.entity.Departamento;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +23,9 @@ public class TestDepartamentoRepository {
     @Autowired
     private DepartamentoRepository departamentoRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private Departamento departamento1;
     private Departamento departamento2;
 
@@ -83,4 +88,14 @@ public class TestDepartamentoRepository {
 
         assertFalse(departamentoRepository.findById(id).isPresent());
     }
+
+    @Test
+    void cuandoIniciar_entoncesDepartamentoUsaCacheDeSegundoNivel() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+
+        assertTrue(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled());
+        assertTrue(sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled());
+        assertNotNull(sessionFactory.getStatistics().getDomainDataRegionStatistics("departamentos"));
+        assertTrue(sessionFactory.getStatistics().isStatisticsEnabled());
+    }
 }
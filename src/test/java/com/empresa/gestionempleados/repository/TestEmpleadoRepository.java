@@ -1,18 +1,27 @@
 package com.empresa.gestionempleados.repository;
 
+import com.empresa.gestionempleados.dto.EmpleadoDto;
+import com.empresa.gestionempleados.dto.FiltroEmpleados;
+import com.empresa.gestionempleados.dto.OrdenEmpleados;
+import com.empresa.gestionempleados.dto.ResumenSalarialDto;
 import com.empresa.gestionempleados.entity.Departamento;
 import com.empresa.gestionempleados.entity.Empleado;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +36,9 @@ public class TestEmpleadoRepository {
     @Autowired
     private DepartamentoRepository departamentoRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private Departamento departamento;
     private Empleado empleado1;
     private Empleado empleado2;
@@ -134,4 +146,130 @@ public class TestEmpleadoRepository {
         assertTrue(promedio.isPresent());
         assertEquals(0, promedio.get().compareTo(new BigDecimal("45000.00")));
     }
+
+    @Test
+    void cuandoCalcularResumenSalarialPorDepartamento_entoncesAgrupaPorDepartamento() {
+        empleadoRepository.save(empleado1);
+        empleadoRepository.save(empleado2);
+
+        Optional<ResumenSalarialDto> resumen = empleadoRepository.findResumenSalarialByDepartamento(departamento.getId());
+
+        assertTrue(resumen.isPresent());
+        assertEquals(2, resumen.get().empleados());
+        assertEquals(0, resumen.get().promedio().compareTo(new BigDecimal("45000.00")));
+        assertTrue(resumen.get().minimo().compareTo(resumen.get().maximo()) <= 0);
+        assertFalse(empleadoRepository.findResumenSalarial().isEmpty());
+    }
+
+    @Test
+    void cuandoBuscarPorRangoSalarioDespuesDeId_entoncesRetornaSiguientePagina() {
+        Empleado guardado1 = empleadoRepository.save(empleado1);
+        Empleado guardado2 = empleadoRepository.save(empleado2);
+
+        List<EmpleadoDto> pagina = empleadoRepository.findPageBySalarioBetween(
+                new BigDecimal("25000"), new BigDecimal("50000"), guardado1.getId(), Limit.of(10));
+
+        assertEquals(1, pagina.size());
+        assertEquals(guardado2.getId(), pagina.get(0).id());
+    }
+
+    @Test
+    void cuandoBuscarPorNombreDepartamentoConLimite_entoncesRespetaLimite() {
+        empleadoRepository.save(empleado1);
+        empleadoRepository.save(empleado2);
+
+        List<EmpleadoDto> pagina = empleadoRepository.findPageByNombreDepartamento("IT", 0L, Limit.of(1));
+
+        assertEquals(1, pagina.size());
+    }
+
+    @Test
+    void cuandoRecorrerTodosConStream_entoncesRetornaOrdenadosPorId() {
+        Empleado guardado1 = empleadoRepository.save(empleado1);
+        Empleado guardado2 = empleadoRepository.save(empleado2);
+
+        try (Stream<Empleado> empleados = empleadoRepository.streamAll()) {
+            List<Long> ids = empleados.map(Empleado::getId).toList();
+            assertEquals(List.of(guardado1.getId(), guardado2.getId()), ids);
+        }
+    }
+
+    @Test
+    void cuandoBuscarDtoPorId_entoncesIncluyeNombreDepartamento() {
+        Empleado guardado = empleadoRepository.save(empleado1);
+
+        Optional<EmpleadoDto> resultado = empleadoRepository.findDtoById(guardado.getId());
+
+        assertTrue(resultado.isPresent());
+        assertEquals("juan.perez@empresa.com", resultado.get().email());
+        assertEquals("IT", resultado.get().departamentoNombre());
+    }
+
+    @Test
+    void cuandoBuscarEmailsExistentes_entoncesRetornaSoloLosGuardados() {
+        empleadoRepository.save(empleado1);
+
+        List<String> emails = empleadoRepository.findEmailsIn(List.of("juan.perez@empresa.com", "nadie@empresa.com"));
+
+        assertEquals(List.of("juan.perez@empresa.com"), emails);
+    }
+
+    @Test
+    void cuandoBuscarVersion_entoncesRetornaVersionInicial() {
+        Empleado guardado = empleadoRepository.saveAndFlush(empleado1);
+
+        assertEquals(Optional.of(0L), empleadoRepository.findVersionById(guardado.getId()));
+        assertTrue(empleadoRepository.findVersionById(-1L).isEmpty());
+    }
+
+    @Test
+    void cuandoBuscarConGrafo_entoncesDepartamentoVieneInicializado() {
+        empleadoRepository.save(empleado1);
+        empleadoRepository.saveAndFlush(empleado2);
+        entityManager.clear();
+
+        List<Empleado> resultado = empleadoRepository.findWithDepartamentoByNombreDepartamento("IT");
+
+        assertEquals(2, resultado.size());
+        assertTrue(resultado.stream().allMatch(e -> Hibernate.isInitialized(e.getDepartamento())));
+    }
+
+    @Test
+    void cuandoCargarProyectos_entoncesInicializaLasColeccionesDelContexto() {
+        Empleado guardado = empleadoRepository.saveAndFlush(empleado1);
+        entityManager.clear();
+
+        Empleado cargado = empleadoRepository.findAllWithDepartamento().get(0);
+        assertFalse(Hibernate.isInitialized(cargado.getProyectos()));
+
+        empleadoRepository.fetchProyectos(List.of(guardado.getId()));
+
+        assertTrue(Hibernate.isInitialized(cargado.getProyectos()));
+    }
+
+    @Test
+    void cuandoBuscarConFiltroCombinado_entoncesAplicaTodosLosCriterios() {
+        empleadoRepository.save(empleado1);
+        empleadoRepository.save(empleado2);
+        FiltroEmpleados filtro = new FiltroEmpleados(new BigDecimal("45000"), null, null, LocalDate.of(2021, 1, 1),
+                departamento.getId(), "IT", null, "J");
+
+        List<Empleado> resultado = empleadoRepository.findAll(EmpleadoEspecificaciones.filtro(filtro));
+
+        assertEquals(List.of("juan.perez@empresa.com"), resultado.stream().map(Empleado::getEmail).toList());
+        assertTrue(empleadoRepository.findAll(EmpleadoEspecificaciones.filtro(
+                new FiltroEmpleados(null, null, null, null, null, null, null, "J%"))).isEmpty());
+    }
+
+    @Test
+    void cuandoBuscarDespuesDeClave_entoncesDesempataPorId() {
+        empleado2.setSalario(empleado1.getSalario());
+        Empleado primero = empleadoRepository.save(empleado1);
+        Empleado segundo = empleadoRepository.save(empleado2);
+        Specification<Empleado> despues = EmpleadoEspecificaciones.despuesDe(OrdenEmpleados.SALARIO, primero.getSalario(), primero.getId());
+
+        List<Empleado> resultado = empleadoRepository.findAll(despues, OrdenEmpleados.SALARIO.sort());
+
+        assertEquals(List.of(segundo.getId()), resultado.stream().map(Empleado::getId).toList());
+    }
 }
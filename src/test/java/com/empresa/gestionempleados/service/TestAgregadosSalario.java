@@ -0,0 +1,150 @@
+package com.empresa.gestionempleados.service;
+
+import com.empresa.gestionempleados.dto.ResumenSalarialDto;
+import com.empresa.gestionempleados.repository.EmpleadoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TestAgregadosSalario {
+
+    @Mock
+    private EmpleadoRepository empleadoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AgregadosSalario agregadosSalario;
+
+    private void reconciliarCon(ResumenSalarialDto... resumenes){
+        when(empleadoRepository.findResumenSalarial()).thenReturn(List.of(resumenes));
+        agregadosSalario.reconciliar();
+    }
+
+    @Test
+    void antesDeReconciliar_consultaElPromedioEnLaBase(){
+        when(empleadoRepository.findAverageSalaryByDepartamento(1L)).thenReturn(Optional.of(new BigDecimal("1000")));
+
+        assertEquals(new BigDecimal("1000"), agregadosSalario.promedio(1L));
+    }
+
+    @Test
+    void agregarYQuitar_ajustanElPromedioSinConsultarLaBase(){
+        reconciliarCon(new ResumenSalarialDto(1L, 2L, new BigDecimal("3000"), new BigDecimal("1000"), new BigDecimal("2000")));
+
+        agregadosSalario.agregar(1L, new BigDecimal("4000"));
+        assertEquals(0, agregadosSalario.promedio(1L).compareTo(new BigDecimal("2333.33")));
+
+        agregadosSalario.quitar(1L, new BigDecimal("1000"));
+        assertEquals(0, agregadosSalario.promedio(1L).compareTo(new BigDecimal("3000")));
+        verify(empleadoRepository, never()).findAverageSalaryByDepartamento(any());
+    }
+
+    @Test
+    void mover_pasaElSalarioAlNuevoDepartamento(){
+        reconciliarCon(new ResumenSalarialDto(1L, 1L, new BigDecimal("1000"), new BigDecimal("1000"), new BigDecimal("1000")));
+
+        agregadosSalario.mover(1L, new BigDecimal("1000"), 2L, new BigDecimal("1200"));
+
+        assertEquals(BigDecimal.ZERO, agregadosSalario.promedio(1L));
+        assertEquals(0, agregadosSalario.promedio(2L).compareTo(new BigDecimal("1200")));
+    }
+
+    @Test
+    void resumen_mantieneMinimoYMaximoAlAgregar(){
+        reconciliarCon(new ResumenSalarialDto(1L, 1L, new BigDecimal("1000"), new BigDecimal("1000"), new BigDecimal("1000")));
+
+        agregadosSalario.agregar(1L, new BigDecimal("500"));
+        ResumenSalarialDto resumen = agregadosSalario.resumen(1L);
+
+        assertEquals(new BigDecimal("500"), resumen.minimo());
+        assertEquals(new BigDecimal("1000"), resumen.maximo());
+        verify(empleadoRepository, never()).findResumenSalarialByDepartamento(any());
+    }
+
+    @Test
+    void resumen_quitarElMinimo_loRecalculaDesdeLaBase(){
+        reconciliarCon(new ResumenSalarialDto(1L, 2L, new BigDecimal("3000"), new BigDecimal("1000"), new BigDecimal("2000")));
+        agregadosSalario.agregar(1L, new BigDecimal("1500"));
+        agregadosSalario.quitar(1L, new BigDecimal("1000"));
+        when(empleadoRepository.findResumenSalarialByDepartamento(1L))
+                .thenReturn(Optional.of(new ResumenSalarialDto(1L, 2L, new BigDecimal("3500"), new BigDecimal("1500"), new BigDecimal("2000"))));
+
+        ResumenSalarialDto resumen = agregadosSalario.resumen(1L);
+
+        assertEquals(new BigDecimal("1500"), resumen.minimo());
+        verify(empleadoRepository).findResumenSalarialByDepartamento(1L);
+    }
+
+    @Test
+    void resumen_escrituraDuranteElRecalculo_noSeBloqueaNiSePierde() throws Exception {
+        reconciliarCon(new ResumenSalarialDto(1L, 2L, new BigDecimal("3000"), new BigDecimal("1000"), new BigDecimal("2000")));
+        agregadosSalario.quitar(1L, new BigDecimal("1000"));
+        when(empleadoRepository.findResumenSalarialByDepartamento(1L)).thenAnswer(invocacion -> {
+            // Otra escritura confirmada mientras corre la consulta: no debe esperar al recálculo
+            CompletableFuture.runAsync(() -> agregadosSalario.agregar(1L, new BigDecimal("4000"))).get(5, TimeUnit.SECONDS);
+            return Optional.of(new ResumenSalarialDto(1L, 1L, new BigDecimal("2000"), new BigDecimal("2000"), new BigDecimal("2000")));
+        });
+
+        agregadosSalario.resumen(1L);
+
+        assertEquals(0, agregadosSalario.promedio(1L).compareTo(new BigDecimal("3000")));
+    }
+
+    @Test
+    void reconciliar_ajusteDuranteLaConsulta_descartaLaFotoYRepite(){
+        ResumenSalarialDto sinElAjuste = new ResumenSalarialDto(1L, 1L, new BigDecimal("1000"), new BigDecimal("1000"), new BigDecimal("1000"));
+        ResumenSalarialDto conElAjuste = new ResumenSalarialDto(1L, 2L, new BigDecimal("3000"), new BigDecimal("1000"), new BigDecimal("2000"));
+        reconciliarCon(sinElAjuste);
+        when(empleadoRepository.findResumenSalarial()).thenAnswer(invocacion -> {
+            // Escritura confirmada después de la foto, aplicada antes de reemplazar el mapa
+            agregadosSalario.agregar(1L, new BigDecimal("2000"));
+            return List.of(sinElAjuste);
+        }).thenReturn(List.of(conElAjuste));
+
+        agregadosSalario.reconciliar();
+
+        verify(empleadoRepository, times(3)).findResumenSalarial();
+        assertEquals(0, agregadosSalario.promedio(1L).compareTo(new BigDecimal("1500")));
+    }
+
+    @Test
+    void reconciliar_conUnCommitEnCurso_conservaLosAgregados(){
+        reconciliarCon(new ResumenSalarialDto(1L, 1L, new BigDecimal("1000"), new BigDecimal("1000"), new BigDecimal("1000")));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            agregadosSalario.despuesDelCommit(() -> agregadosSalario.agregar(1L, new BigDecimal("2000")));
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            // La foto ya incluye la escritura, pero su ajuste todavía no se aplicó
+            when(empleadoRepository.findResumenSalarial())
+                    .thenReturn(List.of(new ResumenSalarialDto(1L, 2L, new BigDecimal("3000"), new BigDecimal("1000"), new BigDecimal("2000"))));
+
+            agregadosSalario.reconciliar();
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(empleadoRepository, times(1 + AgregadosSalario.INTENTOS_RECONCILIACION)).findResumenSalarial();
+        assertEquals(0, agregadosSalario.promedio(1L).compareTo(new BigDecimal("1500")));
+    }
+}
@@ -0,0 +1,119 @@
+package com.empresa.gestionempleados.service;
+
+import com.empresa.gestionempleados.config.DashboardConfig.DashboardProperties;
+import com.empresa.gestionempleados.dto.DashboardDepartamentoDto;
+import com.empresa.gestionempleados.dto.DepartamentoDto;
+import com.empresa.gestionempleados.dto.ProyectoDto;
+import com.empresa.gestionempleados.exceptions.DepartamentoNoEncontradoException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TestDashboardDepartamentoService {
+
+    @Mock
+    private DepartamentoService departamentoService;
+
+    @Mock
+    private EmpleadoService empleadoService;
+
+    @Mock
+    private ProyectoService proyectoService;
+
+    private DashboardDepartamentoServiceImpl dashboardService;
+
+    @BeforeEach
+    void setUp(){
+        dashboardService = new DashboardDepartamentoServiceImpl(departamentoService, empleadoService, proyectoService,
+                new DashboardProperties(4, 4, Duration.ofSeconds(5), Map.of("salarioPromedio", Duration.ofMillis(200))));
+    }
+
+    @AfterEach
+    void tearDown(){
+        dashboardService.cerrar();
+    }
+
+    @Test
+    void dashboard_consultaLasPartesEnParalelo(){
+        // Cada parte espera a que las otras tres hayan empezado: solo termina si corren a la vez.
+        CountDownLatch iniciadas = new CountDownLatch(4);
+        when(departamentoService.findById(1L)).thenAnswer(esperarA(iniciadas, new DepartamentoDto(1L, "IT", null)));
+        when(empleadoService.findByDepartamentoId(1L)).thenAnswer(esperarA(iniciadas, List.of()));
+        when(empleadoService.findAverageSalaryByDepartamento(1L)).thenAnswer(esperarA(iniciadas, new BigDecimal("1000")));
+        when(proyectoService.findByDepartamento(1L)).thenAnswer(esperarA(iniciadas, List.<ProyectoDto>of()));
+
+        DashboardDepartamentoDto dashboard = dashboardService.findByDepartamentoId(1L);
+
+        assertEquals("IT", dashboard.departamento().nombre());
+        assertEquals(new BigDecimal("1000"), dashboard.salarioPromedio());
+        assertEquals(List.of(), dashboard.empleados());
+        assertEquals(List.of(), dashboard.proyectos());
+        assertTrue(dashboard.incompletas().isEmpty());
+    }
+
+    @Test
+    void dashboard_parteLenta_devuelveElRestoSinEsperarla(){
+        when(departamentoService.findById(1L)).thenReturn(new DepartamentoDto(1L, "IT", null));
+        when(empleadoService.findByDepartamentoId(1L)).thenReturn(List.of());
+        when(empleadoService.findAverageSalaryByDepartamento(1L)).thenAnswer(invocacion -> {
+            Thread.sleep(10_000);
+            return BigDecimal.ONE;
+        });
+        when(proyectoService.findByDepartamento(1L)).thenReturn(List.of());
+
+        long inicio = System.nanoTime();
+        DashboardDepartamentoDto dashboard = dashboardService.findByDepartamentoId(1L);
+
+        assertTrue(System.nanoTime() - inicio < TimeUnit.SECONDS.toNanos(5));
+        assertNull(dashboard.salarioPromedio());
+        assertEquals(Map.of("salarioPromedio", "tiempo-agotado"), dashboard.incompletas());
+        assertEquals("IT", dashboard.departamento().nombre());
+        assertNotNull(dashboard.proyectos());
+    }
+
+    @Test
+    void dashboard_parteConError_seMarcaIncompleta(){
+        when(departamentoService.findById(1L)).thenReturn(new DepartamentoDto(1L, "IT", null));
+        when(empleadoService.findByDepartamentoId(1L)).thenReturn(List.of());
+        when(empleadoService.findAverageSalaryByDepartamento(1L)).thenReturn(BigDecimal.ONE);
+        when(proyectoService.findByDepartamento(1L)).thenThrow(new IllegalStateException());
+
+        DashboardDepartamentoDto dashboard = dashboardService.findByDepartamentoId(1L);
+
+        assertNull(dashboard.proyectos());
+        assertEquals(Map.of("proyectos", "error"), dashboard.incompletas());
+    }
+
+    @Test
+    void dashboard_departamentoInexistente_lanzaExcepcion(){
+        when(departamentoService.findById(1L)).thenThrow(new DepartamentoNoEncontradoException(1L));
+        lenient().when(empleadoService.findByDepartamentoId(1L)).thenReturn(List.of());
+        lenient().when(empleadoService.findAverageSalaryByDepartamento(1L)).thenReturn(null);
+        lenient().when(proyectoService.findByDepartamento(1L)).thenReturn(List.of());
+
+        assertThrows(DepartamentoNoEncontradoException.class, () -> dashboardService.findByDepartamentoId(1L));
+    }
+
+    private static <T> Answer<T> esperarA(CountDownLatch iniciadas, T resultado){
+        return invocacion -> {
+            iniciadas.countDown();
+            assertTrue(iniciadas.await(2, TimeUnit.SECONDS));
+            return resultado;
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.empresa.gestionempleados.service;
 
+import com.empresa.gestionempleados.dto.DepartamentoDto;
 import com.empresa.gestionempleados.entity.Departamento;
 import com.empresa.gestionempleados.exceptions.DepartamentoNoEncontradoException;
 import com.empresa.gestionempleados.repository.DepartamentoRepository;
@@ -21,6 +22,12 @@ public class TestDepartamentoService {
     @Mock
     private DepartamentoRepository departamentoRepository;
 
+    @Mock
+    private ContadorGeneraciones contadorGeneraciones;
+
+    @Mock
+    private EmpleadoService empleadoService;
+
     @InjectMocks
     private DepartamentoServiceImpl departamentoService;
 
@@ -37,33 +44,66 @@ public class TestDepartamentoService {
     }
 
     @Test
-    void updateExistentDepartamento(){
+    void saveDepartamento_conIdDelCliente_loDescarta(){
         Departamento departamento = new Departamento();
+        departamento.setId(7L);
         departamento.setNombre("Departamento Test");
 
-        when(departamentoRepository.existsById(1L)).thenReturn(true);
         when(departamentoRepository.save(departamento)).thenReturn(departamento);
 
+        departamentoService.save(departamento);
+
+        assertNull(departamento.getId());
+    }
+
+    @Test
+    void updateExistentDepartamento(){
+        Departamento actual = new Departamento();
+        actual.setId(1L);
+        actual.setVersion(3L);
+        Departamento departamento = new Departamento();
+        departamento.setNombre("Departamento Test");
+
+        when(departamentoRepository.findById(1L)).thenReturn(Optional.of(actual));
+        when(departamentoRepository.save(actual)).thenReturn(actual);
+
         Departamento resultado = departamentoService.update(1L, departamento);
 
         assertNotNull(resultado);
         assertEquals("Departamento Test", resultado.getNombre());
-        verify(departamentoRepository).save(departamento);
+        assertEquals(3L, resultado.getVersion());
+        verify(departamentoRepository).save(actual);
+        verify(contadorGeneraciones).incrementarAlConfirmar(Departamento.class);
     }
 
     @Test
     void updateNonExistentDepartamento(){
         Departamento departamento = new Departamento();
-        when(departamentoRepository.existsById(1L)).thenReturn(false);
+        when(departamentoRepository.findById(1L)).thenReturn(Optional.empty());
         assertThrows(DepartamentoNoEncontradoException.class,()->departamentoService.update(1L,departamento));
         verify(departamentoRepository, never()).save(any());
     }
 
+    @Test
+    void deleteAllEliminaPrimeroLosEmpleados(){
+        when(departamentoRepository.bulkDeleteByIdIn(List.of(1L, 2L))).thenReturn(2);
+
+        assertEquals(2, departamentoService.deleteAll(List.of(1L, 2L, 1L)));
+
+        var orden = inOrder(empleadoService, departamentoRepository);
+        orden.verify(empleadoService).deleteByDepartamentos(List.of(1L, 2L, 1L));
+        orden.verify(departamentoRepository).bulkDeleteByIdIn(List.of(1L, 2L));
+        verify(contadorGeneraciones).incrementarAlConfirmar(Departamento.class);
+    }
+
     @Test
     void deleteExistentDepartamento(){
         when(departamentoRepository.existsById(1L)).thenReturn(true);
         departamentoService.delete(1L);
-        verify(departamentoRepository).deleteById(1L);
+
+        var orden = inOrder(empleadoService, departamentoRepository);
+        orden.verify(empleadoService).deleteByDepartamentos(List.of(1L));
+        orden.verify(departamentoRepository).deleteById(1L);
     }
 
     @Test
@@ -76,11 +116,13 @@ public class TestDepartamentoService {
     @Test
     void findDepartamentoById(){
        Departamento departamento = new Departamento();
+       departamento.setId(1L);
+       departamento.setNombre("RRHH");
 
        when(departamentoRepository.findById(1L)).thenReturn(Optional.of(departamento));
-       Departamento resultado = departamentoService.findById(1L);
+       DepartamentoDto resultado = departamentoService.findById(1L);
 
-       assertEquals(departamento,resultado);
+       assertEquals(new DepartamentoDto(1L, "RRHH", null),resultado);
        verify(departamentoRepository).findById(1L);
     }
 
@@ -93,12 +135,12 @@ public class TestDepartamentoService {
 
     @Test
     void findAll(){
-        Departamento departamento = new Departamento();
+        DepartamentoDto departamento = new DepartamentoDto(1L, "RRHH", null);
 
-        when(departamentoRepository.findAll()).thenReturn(List.of(departamento));
-        List<Departamento> resultado = departamentoService.findAll();
+        when(departamentoRepository.findAllDto()).thenReturn(List.of(departamento));
+        List<DepartamentoDto> resultado = departamentoService.findAll();
 
         assertEquals(1, resultado.size());
-        verify(departamentoRepository).findAll();
+        verify(departamentoRepository).findAllDto();
     }
 }
@@ -0,0 +1,67 @@
+package com.empresa.gestionempleados.service;
+
+import com.empresa.gestionempleados.entity.Departamento;
+import com.empresa.gestionempleados.entity.Empleado;
+import com.empresa.gestionempleados.index.EmailIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Eliminar un departamento confirma la transacción de verdad (sin el rollback de un test
+ * transaccional), así que los índices y agregados en memoria reciben los hooks posteriores al commit.
+ */
+@SpringBootTest
+@ActiveProfiles("postgres")
+public class TestEliminarDepartamento {
+
+    @Autowired
+    DepartamentoService departamentoService;
+
+    @Autowired
+    EmpleadoService empleadoService;
+
+    @Autowired
+    EmailIndex emailIndex;
+
+    @Autowired
+    AgregadosSalario agregadosSalario;
+
+    @Test
+    void delete_quitaSusEmpleadosDeLosIndicesYAgregados(){
+        Departamento departamento = new Departamento();
+        departamento.setNombre("Eliminable");
+        Long departamentoId = departamentoService.save(departamento).getId();
+        for (int i = 0; i < 2; i++){
+            empleadoService.save(empleado("eliminable" + i + "@empresa.com", departamentoId));
+        }
+        assertEquals(2, empleadoService.suggest("eliminable", 10).size());
+        assertEquals(0, agregadosSalario.promedio(departamentoId).compareTo(new BigDecimal("50000")));
+
+        departamentoService.delete(departamentoId);
+
+        assertTrue(empleadoService.suggest("eliminable", 10).isEmpty());
+        assertEquals(0, agregadosSalario.promedio(departamentoId).compareTo(BigDecimal.ZERO));
+        assertFalse(emailIndex.puedeExistir("eliminable0@empresa.com"));
+        assertFalse(emailIndex.puedeExistir("eliminable1@empresa.com"));
+    }
+
+    private static Empleado empleado(String email, Long departamentoId){
+        Departamento departamento = new Departamento();
+        departamento.setId(departamentoId);
+        Empleado empleado = new Empleado();
+        empleado.setNombre("Eliminable");
+        empleado.setApellido("Prueba");
+        empleado.setEmail(email);
+        empleado.setFechaContratacion(LocalDate.of(2024, 1, 1));
+        empleado.setSalario(new BigDecimal("50000"));
+        empleado.setDepartamento(departamento);
+        return empleado;
+    }
+}
@@ -1,19 +1,37 @@
 package com.empresa.gestionempleados.service;
 
+import com.empresa.gestionempleados.dto.Cursor;
+import com.empresa.gestionempleados.dto.CursorPage;
+import com.empresa.gestionempleados.dto.EmpleadoDto;
+import com.empresa.gestionempleados.dto.SugerenciaDto;
 import com.empresa.gestionempleados.entity.Departamento;
 import com.empresa.gestionempleados.entity.Empleado;
+import com.empresa.gestionempleados.entity.Proyecto;
+import com.empresa.gestionempleados.exceptions.DatosInvalidosException;
+import com.empresa.gestionempleados.exceptions.EmailDuplicadoException;
 import com.empresa.gestionempleados.exceptions.EmpleadoNoEncontradoException;
+import com.empresa.gestionempleados.index.EmailIndex;
+import com.empresa.gestionempleados.index.IndiceSugerencias;
 import com.empresa.gestionempleados.repository.EmpleadoRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,6 +42,21 @@ public class TestEmpleadoService {
     @Mock
     private EmpleadoRepository empleadoRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private EmailIndex emailIndex;
+
+    @Mock
+    private AgregadosSalario agregadosSalario;
+
+    @Mock
+    private ContadorGeneraciones contadorGeneraciones;
+
+    @Mock
+    private IndiceSugerencias indiceSugerencias;
+
     @InjectMocks
     private  EmpleadoServiceImpl empleadoService;
 
@@ -33,8 +66,10 @@ public class TestEmpleadoService {
         Empleado empleado = new Empleado();
         empleado.setEmail("email@.com");
 
+        when(emailIndex.reservar("email@.com")).thenReturn(true);
+        when(emailIndex.puedeExistir("email@.com")).thenReturn(true);
         when(empleadoRepository.findByEmail(empleado.getEmail())).thenReturn(Optional.empty());
-        when(empleadoRepository.save(empleado)).thenReturn(empleado);
+        when(empleadoRepository.saveAndFlush(empleado)).thenReturn(empleado);
 
         Empleado resultado = empleadoService.save(empleado);
 
@@ -42,86 +77,209 @@ public class TestEmpleadoService {
         assertEquals("email@.com", resultado.getEmail());
 
         verify(empleadoRepository).findByEmail("email@.com");
-        verify(empleadoRepository).save(empleado);
+        verify(empleadoRepository).saveAndFlush(empleado);
+        verify(emailIndex).agregar("email@.com");
+        verify(emailIndex).liberar("email@.com");
+    }
+
+    @Test
+    void saveEmpleado_emailDescartadoPorIndice_noConsultaLaBase(){
+        Empleado empleado = new Empleado();
+        empleado.setEmail("nuevo@empresa.com");
+
+        when(emailIndex.reservar("nuevo@empresa.com")).thenReturn(true);
+        when(emailIndex.puedeExistir("nuevo@empresa.com")).thenReturn(false);
+        when(empleadoRepository.saveAndFlush(empleado)).thenReturn(empleado);
+
+        empleadoService.save(empleado);
+
+        verify(empleadoRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    void saveEmpleado_emailReservadoPorOtraEscritura_lanzaExcepcion(){
+        Empleado empleado = new Empleado();
+        empleado.setEmail("nuevo@empresa.com");
+
+        when(emailIndex.reservar("nuevo@empresa.com")).thenReturn(false);
+
+        assertThrows(EmailDuplicadoException.class, () -> empleadoService.save(empleado));
+        verify(empleadoRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void saveEmpleado_violacionDeRestriccionUnica_lanzaEmailDuplicado(){
+        Empleado empleado = new Empleado();
+        empleado.setEmail("nuevo@empresa.com");
+        ConstraintViolationException violacion = new ConstraintViolationException("duplicado", new SQLException(), "UK_EMPLEADOS_EMAIL_INDEX_1");
+
+        when(emailIndex.reservar("nuevo@empresa.com")).thenReturn(true);
+        when(empleadoRepository.saveAndFlush(empleado)).thenThrow(new DataIntegrityViolationException("duplicado", violacion));
+
+        assertThrows(EmailDuplicadoException.class, () -> empleadoService.save(empleado));
+    }
+
+    @Test
+    void saveEmpleado_restriccionConOtroNombre_reconoceElEmailPorSqlState(){
+        Empleado empleado = new Empleado();
+        empleado.setEmail("nuevo@empresa.com");
+        SQLException error = new SQLException("duplicate key value violates unique constraint \"uk6dotkott2kjsp8vw4d0m25fb7\"\n"
+                + "  Detail: Key (email)=(nuevo@empresa.com) already exists.", "23505");
+        ConstraintViolationException violacion = new ConstraintViolationException("duplicado", error, "uk6dotkott2kjsp8vw4d0m25fb7");
+
+        when(emailIndex.reservar("nuevo@empresa.com")).thenReturn(true);
+        when(empleadoRepository.saveAndFlush(empleado)).thenThrow(new DataIntegrityViolationException("duplicado", violacion));
+
+        assertThrows(EmailDuplicadoException.class, () -> empleadoService.save(empleado));
     }
 
     @Test
     void UpdateExistentEmpleado(){
+        Empleado actual = new Empleado();
+        actual.setId(1L);
+        actual.setEmail("email@.com");
         Empleado empleado = new Empleado();
+        empleado.setEmail("email@.com");
 
-        when(empleadoRepository.existsById(1L)).thenReturn(true);
-        when(empleadoRepository.findByEmail(empleado.getEmail())).thenReturn(Optional.empty());
-        when(empleadoRepository.save(empleado)).thenReturn(empleado);
+        empleado.setNombre("Juan");
+
+        when(empleadoRepository.findById(1L)).thenReturn(Optional.of(actual));
+        when(empleadoRepository.saveAndFlush(actual)).thenReturn(actual);
 
         Empleado resultado = empleadoService.update(1L,empleado);
 
         assertEquals(1L, resultado.getId());
-        verify(empleadoRepository).save(empleado);
+        assertEquals("Juan", resultado.getNombre());
+        verify(empleadoRepository).saveAndFlush(actual);
+        verify(empleadoRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    void UpdateEmpleado_cambiaEmail_actualizaIndice(){
+        Empleado actual = new Empleado();
+        actual.setId(1L);
+        actual.setEmail("viejo@empresa.com");
+        Empleado empleado = new Empleado();
+        empleado.setEmail("nuevo@empresa.com");
+
+        when(empleadoRepository.findById(1L)).thenReturn(Optional.of(actual));
+        when(emailIndex.reservar("nuevo@empresa.com")).thenReturn(true);
+        when(empleadoRepository.saveAndFlush(actual)).thenReturn(actual);
+
+        empleadoService.update(1L,empleado);
+
+        verify(emailIndex).agregar("nuevo@empresa.com");
+        verify(emailIndex).quitar("viejo@empresa.com");
+    }
+
+    @Test
+    void UpdateEmpleado_cambiaDepartamentoYSalario_actualizaAgregados(){
+        Departamento anterior = new Departamento();
+        anterior.setId(1L);
+        Departamento nuevo = new Departamento();
+        nuevo.setId(2L);
+        Empleado actual = new Empleado();
+        actual.setId(1L);
+        actual.setEmail("email@.com");
+        actual.setDepartamento(anterior);
+        actual.setSalario(new BigDecimal("1000"));
+        Empleado empleado = new Empleado();
+        empleado.setEmail("email@.com");
+        empleado.setDepartamento(nuevo);
+        empleado.setSalario(new BigDecimal("1500"));
+
+        when(empleadoRepository.findById(1L)).thenReturn(Optional.of(actual));
+        when(entityManager.getReference(Departamento.class, 2L)).thenReturn(nuevo);
+        when(empleadoRepository.saveAndFlush(actual)).thenReturn(actual);
+        aplicarAjustesDeAgregados();
+
+        empleadoService.update(1L, empleado);
+
+        verify(agregadosSalario).mover(1L, new BigDecimal("1000"), 2L, new BigDecimal("1500"));
+        verify(indiceSugerencias).agregar(SugerenciaDto.from(actual));
     }
 
     @Test
     void UpdateNonExistentEmpleado(){
         Empleado empleado = new Empleado();
-        when(empleadoRepository.existsById(1L)).thenReturn(false);
+        when(empleadoRepository.findById(1L)).thenReturn(Optional.empty());
         assertThrows(EmpleadoNoEncontradoException.class,()->empleadoService.update(1L,empleado));
-        verify(empleadoRepository, never()).save(any());
+        verify(empleadoRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void DeleteExitentEmpleado(){
-        when(empleadoRepository.existsById(1L)).thenReturn(true);
+        Empleado empleado = new Empleado();
+        empleado.setId(1L);
+        empleado.setEmail("email@.com");
+        when(empleadoRepository.findById(1L)).thenReturn(Optional.of(empleado));
+        aplicarAjustesDeAgregados();
         empleadoService.delete(1L);
-        verify(empleadoRepository).deleteById(1L);
+        verify(empleadoRepository).delete(empleado);
+        verify(emailIndex).quitar("email@.com");
+        verify(agregadosSalario).quitar(null, null);
+        verify(indiceSugerencias).quitar(1L);
     }
 
     @Test
     void DeleteNonExitentEmpleado(){
-        when(empleadoRepository.existsById(1L)).thenReturn(false);
+        when(empleadoRepository.findById(1L)).thenReturn(Optional.empty());
         assertThrows(EmpleadoNoEncontradoException.class,()->empleadoService.delete(1L));
-        verify(empleadoRepository, never()).deleteById(any());
+        verify(empleadoRepository, never()).delete(any(Empleado.class));
     }
 
     @Test
     void findEmpleadoById(){
-        Empleado empleado = new Empleado();
+        EmpleadoDto empleado = new EmpleadoDto(1L, "Juan", null, null, null, null, null, null);
 
-        when(empleadoRepository.findById(1L)).thenReturn(Optional.of(empleado));
+        when(empleadoRepository.findDtoById(1L)).thenReturn(Optional.of(empleado));
 
-        Empleado resultado = empleadoService.findById(1L);
+        EmpleadoDto resultado = empleadoService.findById(1L);
         assertEquals(empleado, resultado);
-        verify(empleadoRepository).findById(1L);
+        verify(empleadoRepository).findDtoById(1L);
+    }
+
+    @Test
+    void findVersionById_combinaVersionYGeneracionDeDepartamentos(){
+        when(empleadoRepository.findVersionById(1L)).thenReturn(Optional.of(4L));
+        when(contadorGeneraciones.actual(Departamento.class)).thenReturn("abc-2");
+
+        assertEquals("4.abc-2", empleadoService.findVersionById(1L));
     }
 
     @Test
     void findNonExistentEmpleadoById(){
-        when(empleadoRepository.findById(1L)).thenReturn(Optional.empty());
+        when(empleadoRepository.findDtoById(1L)).thenReturn(Optional.empty());
         assertThrows(EmpleadoNoEncontradoException.class,()->empleadoService.findById(1L));
-        verify(empleadoRepository).findById(1L);
+        verify(empleadoRepository).findDtoById(1L);
     }
 
     @Test
     void findAllEmpleados(){
         Empleado empleado = new Empleado();
+        empleado.setNombre("Juan");
 
-        when(empleadoRepository.findAll()).thenReturn(List.of(empleado));
+        when(empleadoRepository.findAllWithDepartamento()).thenReturn(List.of(empleado));
 
-        List<Empleado> resultado = empleadoService.findAll();
-        assertEquals(1, resultado.size());
-        verify(empleadoRepository).findAll();
+        List<EmpleadoDto> resultado = empleadoService.findAll();
+        assertEquals("Juan", resultado.get(0).nombre());
+        verify(empleadoRepository).findAllWithDepartamento();
+        verify(empleadoRepository, never()).fetchProyectos(any());
     }
 
     @Test
     void findEmpleadoByNombreDepartamento(){
-        Empleado empleado = new Empleado();
         Departamento departamento = new Departamento();
+        departamento.setId(1L);
         departamento.setNombre("RRHH");
+        Empleado empleado = new Empleado();
         empleado.setDepartamento(departamento);
 
-        when(empleadoRepository.findByNombreDepartamento("RRHH")).thenReturn(List.of(empleado));
+        when(empleadoRepository.findWithDepartamentoByNombreDepartamento("RRHH")).thenReturn(List.of(empleado));
 
-        List<Empleado> resultado = empleadoService.findByNombreDepartamento("RRHH");
-        assertEquals(1, resultado.size());
-        verify(empleadoRepository).findByNombreDepartamento("RRHH");
+        List<EmpleadoDto> resultado = empleadoService.findByNombreDepartamento("RRHH");
+        assertEquals("RRHH", resultado.get(0).departamentoNombre());
+        verify(empleadoRepository).findWithDepartamentoByNombreDepartamento("RRHH");
     }
 
     @Test
@@ -137,27 +295,28 @@ public class TestEmpleadoService {
         empleado1.setDepartamento(departamento);
         empleado2.setDepartamento(departamento);
 
-        when(empleadoRepository.findAverageSalaryByDepartamento(departamentoId)).thenReturn(Optional.of(value));
+        when(agregadosSalario.promedio(departamentoId)).thenReturn(value);
 
         BigDecimal resulado = empleadoService.findAverageSalaryByDepartamento(departamento.getId());
         assertEquals(value, resulado);
-        verify(empleadoRepository).findAverageSalaryByDepartamento(departamentoId);
+        verify(agregadosSalario).promedio(departamentoId);
+        verify(empleadoRepository, never()).findAverageSalaryByDepartamento(any());
     }
 
     @Test
     void findBySalaryRange(){
         BigDecimal value0 = new BigDecimal("1500");
         Empleado empleado = new Empleado();
-
         empleado.setSalario(value0);
+
         BigDecimal min = new BigDecimal("1000");
         BigDecimal max = new BigDecimal("2000");
 
-        when(empleadoRepository.findBySalarioBetween(min,max)).thenReturn(List.of(empleado));
+        when(empleadoRepository.findWithDepartamentoBySalarioBetweenOrderById(min,max)).thenReturn(List.of(empleado));
 
-        List<Empleado> resultado = empleadoService.findBySalaryRange(min,max);
-        assertEquals(1, resultado.size());
-        verify(empleadoRepository).findBySalarioBetween(min,max);
+        List<EmpleadoDto> resultado = empleadoService.findBySalaryRange(min,max);
+        assertEquals(value0, resultado.get(0).salario());
+        verify(empleadoRepository).findWithDepartamentoBySalarioBetweenOrderById(min,max);
     }
 
     @Test
@@ -165,14 +324,245 @@ public class TestEmpleadoService {
         LocalDate inicio = LocalDate.of(2020, 12, 2);
         LocalDate fin = LocalDate.of(2021, 12, 2);
         Empleado empleado = new Empleado();
+        empleado.setFechaContratacion(inicio);
+
+        when(empleadoRepository.findWithDepartamentoByFechaContratacionBetweenOrderById(inicio,fin)).thenReturn(List.of(empleado));
+
+        List<EmpleadoDto> resultado = empleadoService.findByHiringDate(inicio,fin);
+        assertEquals(inicio, resultado.get(0).fechaContratacion());
+        verify(empleadoRepository).findWithDepartamentoByFechaContratacionBetweenOrderById(inicio,fin);
+    }
+
+    @Test
+    void findAllPage_conMasFilas_devuelveCursorDelUltimo(){
+        EmpleadoDto empleado1 = new EmpleadoDto(11L, null, null, null, null, null, null, null);
+        EmpleadoDto empleado2 = new EmpleadoDto(12L, null, null, null, null, null, null, null);
+        EmpleadoDto empleado3 = new EmpleadoDto(13L, null, null, null, null, null, null, null);
+
+        when(empleadoRepository.findPage(10L, Limit.of(3))).thenReturn(List.of(empleado1, empleado2, empleado3));
+
+        CursorPage<EmpleadoDto> resultado = empleadoService.findAll(10L, 2);
+        assertEquals(2, resultado.content().size());
+        assertEquals(12L, Cursor.decode(resultado.nextCursor()));
+    }
+
+    @Test
+    void findBySalaryRangePage_ultimaPagina_noDevuelveCursor(){
+        BigDecimal min = new BigDecimal("1000");
+        BigDecimal max = new BigDecimal("2000");
+        EmpleadoDto empleado = new EmpleadoDto(5L, null, null, null, null, null, null, null);
+
+        when(empleadoRepository.findPageBySalarioBetween(min, max, 0L, Limit.of(11))).thenReturn(List.of(empleado));
+
+        CursorPage<EmpleadoDto> resultado = empleadoService.findBySalaryRange(min, max, 0L, 10);
+        assertEquals(1, resultado.content().size());
+        assertNull(resultado.nextCursor());
+    }
+
+    @Test
+    void exportAll_entregaCadaEmpleadoYLoDesacopla(){
+        Empleado empleado1 = new Empleado();
+        Empleado empleado2 = new Empleado();
+        empleado1.setId(1L);
+        empleado2.setId(2L);
+        List<Empleado> exportados = new ArrayList<>();
+
+        when(empleadoRepository.streamAllWithDepartamento()).thenReturn(Stream.of(empleado1, empleado2));
+
+        empleadoService.exportAll(PlanCarga.CON_DEPARTAMENTO, exportados::add);
+        assertEquals(List.of(empleado1, empleado2), exportados);
+        verify(entityManager).detach(empleado1);
+        verify(entityManager).detach(empleado2);
+        verify(empleadoRepository, never()).fetchProyectos(any());
+    }
+
+    @Test
+    void exportAll_conProyectos_losCargaPorTramo(){
+        List<Empleado> empleados = new ArrayList<>();
+        for (long id = 1; id <= EmpleadoServiceImpl.TAMANIO_IN + 1; id++){
+            Empleado empleado = new Empleado();
+            empleado.setId(id);
+            empleados.add(empleado);
+        }
+        List<Empleado> exportados = new ArrayList<>();
+
+        when(empleadoRepository.streamAll()).thenReturn(empleados.stream());
+
+        empleadoService.exportAll(PlanCarga.CON_PROYECTOS, exportados::add);
+
+        assertEquals(empleados, exportados);
+        verify(empleadoRepository, times(2)).fetchProyectos(any());
+        verify(empleadoRepository, never()).streamAllWithDepartamento();
+    }
+
+    @Test
+    void saveAll_persisteEnLoteYDevuelveIds(){
+        Empleado empleado1 = new Empleado();
+        Empleado empleado2 = new Empleado();
+        empleado1.setEmail("a@empresa.com");
+        empleado2.setEmail("b@empresa.com");
+
+        when(emailIndex.puedeExistir(any())).thenReturn(true);
+        when(empleadoRepository.findEmailsIn(any())).thenReturn(List.of());
+        doAnswer(invocation -> {
+            Empleado persistido = invocation.getArgument(0);
+            persistido.setId(persistido == empleado1 ? 1L : 2L);
+            return null;
+        }).when(entityManager).persist(any(Empleado.class));
+
+        List<Long> ids = empleadoService.saveAll(List.of(empleado1, empleado2));
+
+        assertEquals(List.of(1L, 2L), ids);
+        verify(empleadoRepository).findEmailsIn(any());
+        verify(entityManager).flush();
+        verify(entityManager).clear();
+    }
+
+    @Test
+    void saveAll_emailRepetidoEnLaPeticion_lanzaExcepcion(){
+        Empleado empleado1 = new Empleado();
+        Empleado empleado2 = new Empleado();
+        empleado1.setEmail("a@empresa.com");
+        empleado2.setEmail("a@empresa.com");
+
+        assertThrows(EmailDuplicadoException.class, () -> empleadoService.saveAll(List.of(empleado1, empleado2)));
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    void saveAll_emailExistente_lanzaExcepcion(){
+        Empleado empleado = new Empleado();
+        empleado.setEmail("a@empresa.com");
 
-        when(empleadoRepository.findByFechaContratacionBetween(inicio,fin)).thenReturn(List.of(empleado));
+        when(emailIndex.puedeExistir("a@empresa.com")).thenReturn(true);
+        when(empleadoRepository.findEmailsIn(any())).thenReturn(List.of("a@empresa.com"));
 
-        List<Empleado> resultado = empleadoService.findByHiringDate(inicio,fin);
-        assertEquals(1, resultado.size());
-        verify(empleadoRepository).findByFechaContratacionBetween(inicio,fin);
+        assertThrows(EmailDuplicadoException.class, () -> empleadoService.saveAll(List.of(empleado)));
+        verify(entityManager, never()).persist(any());
     }
 
+    @Test
+    void updateAll_copiaDatosSobreLosEmpleadosCargados(){
+        Empleado actual = new Empleado();
+        actual.setId(1L);
+        actual.setEmail("a@empresa.com");
+        Empleado cambio = new Empleado();
+        cambio.setId(1L);
+        cambio.setEmail("a@empresa.com");
+        cambio.setNombre("Juan");
+
+        when(empleadoRepository.findAllById(List.of(1L))).thenReturn(List.of(actual));
+        when(empleadoRepository.findDueniosEmailIn(any())).thenReturn(List.of(duenio(1L, "a@empresa.com")));
+
+        List<Long> ids = empleadoService.updateAll(List.of(cambio));
+
+        assertEquals(List.of(1L), ids);
+        assertEquals("Juan", actual.getNombre());
+        verify(entityManager).flush();
+    }
 
-}
+    @Test
+    void updateAll_empleadoInexistente_lanzaExcepcion(){
+        Empleado cambio = new Empleado();
+        cambio.setId(1L);
+
+        when(empleadoRepository.findAllById(List.of(1L))).thenReturn(List.of());
+
+        assertThrows(EmpleadoNoEncontradoException.class, () -> empleadoService.updateAll(List.of(cambio)));
+        verify(entityManager, never()).flush();
+    }
 
+    @Test
+    void updateAll_sinId_lanzaExcepcionSinConsultar(){
+        Empleado conId = new Empleado();
+        conId.setId(1L);
+        conId.setEmail("a@empresa.com");
+        Empleado sinId = new Empleado();
+        sinId.setEmail("b@empresa.com");
+
+        assertThrows(DatosInvalidosException.class, () -> empleadoService.updateAll(List.of(conId, sinId)));
+        verify(empleadoRepository, never()).findAllById(any());
+        verify(entityManager, never()).flush();
+    }
+
+    @Test
+    void updateAll_emailDeOtroEmpleadoEnUnTramoPosterior_lanzaExcepcionAntesDelPrimerFlush(){
+        List<Empleado> cambios = new ArrayList<>();
+        for (long id = 1; id <= EmpleadoServiceImpl.TAMANIO_LOTE + 1; id++){
+            Empleado cambio = new Empleado();
+            cambio.setId(id);
+            cambio.setEmail("e" + id + "@empresa.com");
+            cambios.add(cambio);
+        }
+        // El último cambio, en el segundo tramo, toma el email del empleado 9999
+        when(empleadoRepository.findDueniosEmailIn(any())).thenReturn(List.of(duenio(9999L, "e501@empresa.com")));
+
+        assertThrows(EmailDuplicadoException.class, () -> empleadoService.updateAll(cambios));
+        verify(empleadoRepository, never()).findAllById(any());
+        verify(entityManager, never()).flush();
+    }
+
+    @Test
+    void saveAll_proyectoSinId_lanzaExcepcion(){
+        Empleado empleado = new Empleado();
+        empleado.setEmail("a@empresa.com");
+        empleado.setProyectos(Set.of(new Proyecto()));
+
+        assertThrows(DatosInvalidosException.class, () -> empleadoService.saveAll(List.of(empleado)));
+        verify(entityManager, never()).persist(any());
+        verify(entityManager, never()).getReference(eq(Proyecto.class), any());
+    }
+
+    /**
+     * Sin transacción el ajuste se aplica en el acto, como lo hace {@link AgregadosSalario#despuesDelCommit(Runnable)}.
+     */
+    private void aplicarAjustesDeAgregados(){
+        doAnswer(invocacion -> {
+            invocacion.<Runnable>getArgument(0).run();
+            return null;
+        }).when(agregadosSalario).despuesDelCommit(any());
+    }
+
+    private static EmpleadoRepository.DuenioEmail duenio(Long id, String email){
+        return new EmpleadoRepository.DuenioEmail() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+
+    @Test
+    void findAll_conPlanCompleto_usaGrafoYCargaProyectosPorTramos(){
+        List<Empleado> empleados = new ArrayList<>();
+        for (long id = 1; id <= EmpleadoServiceImpl.TAMANIO_IN + 1; id++){
+            Empleado empleado = new Empleado();
+            empleado.setId(id);
+            empleados.add(empleado);
+        }
+        when(empleadoRepository.findAllWithDepartamento()).thenReturn(empleados);
+
+        List<Empleado> resultado = empleadoService.findAll(PlanCarga.COMPLETO);
+
+        assertSame(empleados, resultado);
+        verify(empleadoRepository, times(2)).fetchProyectos(any());
+        verify(empleadoRepository, never()).findAll(any(Sort.class));
+    }
+
+    @Test
+    void findBySalaryRange_conPlanBasico_noCargaRelaciones(){
+        BigDecimal min = new BigDecimal("1000");
+        BigDecimal max = new BigDecimal("2000");
+        when(empleadoRepository.findBySalarioBetween(min, max)).thenReturn(List.of(new Empleado()));
+
+        assertEquals(1, empleadoService.findBySalaryRange(min, max, PlanCarga.BASICO).size());
+
+        verify(empleadoRepository, never()).findWithDepartamentoBySalarioBetweenOrderById(any(), any());
+        verify(empleadoRepository, never()).fetchProyectos(any());
+    }
+}
@@ -0,0 +1,77 @@
+package com.empresa.gestionempleados.service;
+
+import com.empresa.gestionempleados.dto.EmpleadoPatchDto;
+import com.empresa.gestionempleados.entity.Departamento;
+import com.empresa.gestionempleados.entity.Empleado;
+import com.empresa.gestionempleados.exceptions.DepartamentoNoEncontradoException;
+import com.empresa.gestionempleados.index.EmailIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * El cambio parcial confirma la transacción de verdad para que el índice de emails reciba los hooks
+ * posteriores al commit, y contra la base de datos para que la clave foránea del departamento actúe.
+ */
+@SpringBootTest
+@ActiveProfiles("postgres")
+public class TestPatchEmpleado {
+
+    @Autowired
+    DepartamentoService departamentoService;
+
+    @Autowired
+    EmpleadoService empleadoService;
+
+    @Autowired
+    EmailIndex emailIndex;
+
+    @Test
+    void patch_cambiaElEmail_quitaElAnteriorDelIndice(){
+        Long id = empleadoService.save(empleado("parcial.antes@empresa.com", departamento("Parcial"))).getId();
+        assertTrue(emailIndex.puedeExistir("parcial.antes@empresa.com"));
+
+        empleadoService.patch(id, new EmpleadoPatchDto(null, null, "parcial.despues@empresa.com", null, null, null));
+
+        assertEquals("parcial.despues@empresa.com", empleadoService.findById(id).email());
+        assertTrue(emailIndex.puedeExistir("parcial.despues@empresa.com"));
+        assertFalse(emailIndex.puedeExistir("parcial.antes@empresa.com"));
+    }
+
+    @Test
+    void patch_departamentoInexistente_lanzaDepartamentoNoEncontrado(){
+        Long departamentoId = departamento("Origen");
+        Long id = empleadoService.save(empleado("parcial.departamento@empresa.com", departamentoId)).getId();
+
+        DepartamentoNoEncontradoException e = assertThrows(DepartamentoNoEncontradoException.class,
+                () -> empleadoService.patch(id, new EmpleadoPatchDto(null, null, null, null, null, 999_999L)));
+
+        assertTrue(e.getMessage().contains("999999"));
+        assertEquals(departamentoId, empleadoService.findById(id).departamentoId());
+    }
+
+    private Long departamento(String nombre){
+        Departamento departamento = new Departamento();
+        departamento.setNombre(nombre);
+        return departamentoService.save(departamento).getId();
+    }
+
+    private static Empleado empleado(String email, Long departamentoId){
+        Departamento departamento = new Departamento();
+        departamento.setId(departamentoId);
+        Empleado empleado = new Empleado();
+        empleado.setNombre("Parcial");
+        empleado.setApellido("Prueba");
+        empleado.setEmail(email);
+        empleado.setFechaContratacion(LocalDate.of(2024, 1, 1));
+        empleado.setSalario(new BigDecimal("50000"));
+        empleado.setDepartamento(departamento);
+        return empleado;
+    }
+}
@@ -1,5 +1,7 @@
 package com.empresa.gestionempleados.service;
 
+import com.empresa.gestionempleados.dto.CursorPage;
+import com.empresa.gestionempleados.dto.ProyectoDto;
 import com.empresa.gestionempleados.entity.Proyecto;
 import com.empresa.gestionempleados.exceptions.ProyectoNoEncontradoException;
 import com.empresa.gestionempleados.repository.ProyectoRepository;
@@ -8,6 +10,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +24,9 @@ public class TestProyectoService {
     @Mock
     private ProyectoRepository proyectoRepository;
 
+    @Mock
+    private ContadorGeneraciones contadorGeneraciones;
+
     @InjectMocks
     private  ProyectoServiceImpl proyectoService;
 
@@ -39,24 +45,27 @@ public class TestProyectoService {
 
     @Test
     void updateExistentProyecto(){
+        Proyecto actual = new Proyecto();
+        actual.setId(1L);
         Proyecto proyecto = new Proyecto();
         proyecto.setNombre("Proyecto A");
 
-        when(proyectoRepository.existsById(1L)).thenReturn(true);
-        when(proyectoRepository.save(proyecto)).thenReturn(proyecto);
+        when(proyectoRepository.findById(1L)).thenReturn(Optional.of(actual));
+        when(proyectoRepository.save(actual)).thenReturn(actual);
 
         Proyecto resultado = proyectoService.update(1L, proyecto);
 
         assertEquals(1L, resultado.getId());
         assertEquals("Proyecto A", resultado.getNombre());
-        verify(proyectoRepository).save(proyecto);
+        verify(proyectoRepository).save(actual);
+        verify(contadorGeneraciones).incrementarAlConfirmar(Proyecto.class);
     }
 
     @Test
     void updateNoneExistentProyecto(){
         Proyecto proyecto = new Proyecto();
 
-        when(proyectoRepository.existsById(1L)).thenReturn(false);
+        when(proyectoRepository.findById(1L)).thenReturn(Optional.empty());
         assertThrows(ProyectoNoEncontradoException.class,()-> proyectoService.update(1L,proyecto));
         verify(proyectoRepository, never()).save(any());
     }
@@ -79,11 +88,12 @@ public class TestProyectoService {
     void findProyectoById(){
         Proyecto proyecto = new Proyecto();
         proyecto.setId(1L);
+        proyecto.setNombre("Proyecto A");
 
         when(proyectoRepository.findById(1L)).thenReturn(Optional.of(proyecto));
 
-        Proyecto resultado = proyectoService.findById(1L);
-        assertEquals(proyecto, resultado);
+        ProyectoDto resultado = proyectoService.findById(1L);
+        assertEquals(new ProyectoDto(1L, "Proyecto A", null, null, null, null), resultado);
         verify(proyectoRepository).findById(1L);
     }
 
@@ -96,23 +106,33 @@ public class TestProyectoService {
 
     @Test
     void findAll(){
-        Proyecto proyecto = new Proyecto();
+        ProyectoDto proyecto = new ProyectoDto(1L, "Proyecto A", null, null, null, null);
 
-        when(proyectoRepository.findAll()).thenReturn(List.of(proyecto));
+        when(proyectoRepository.findAllDto()).thenReturn(List.of(proyecto));
 
-        List<Proyecto> resultado = proyectoService.findAll();
+        List<ProyectoDto> resultado = proyectoService.findAll();
         assertEquals(1, resultado.size());
-        verify(proyectoRepository).findAll();
+        verify(proyectoRepository).findAllDto();
     }
 
     @Test
     void findByStatus(){
-        Proyecto proyecto = new Proyecto();
-        proyecto.setEstado("ACTIVO");
+        ProyectoDto proyecto = new ProyectoDto(1L, null, null, "ACTIVO", null, null);
 
-        when(proyectoRepository.findByEstado("ACTIVO")).thenReturn(List.of(proyecto));
-        List<Proyecto> resultado = proyectoRepository.findByEstado("ACTIVO");
+        when(proyectoRepository.findDtoByEstado("ACTIVO")).thenReturn(List.of(proyecto));
+        List<ProyectoDto> resultado = proyectoService.findByStatus("ACTIVO");
         assertEquals(1, resultado.size());
-        verify(proyectoRepository).findByEstado("ACTIVO");
+        verify(proyectoRepository).findDtoByEstado("ACTIVO");
+    }
+
+    @Test
+    void findAllPage_limiteMayorAlMaximo_seAjusta(){
+        ProyectoDto proyecto = new ProyectoDto(1L, null, null, null, null, null);
+
+        when(proyectoRepository.findPage(0L, Limit.of(CursorPage.LIMITE_MAXIMO + 1))).thenReturn(List.of(proyecto));
+
+        CursorPage<ProyectoDto> resultado = proyectoService.findAll(0L, 100000);
+        assertEquals(1, resultado.content().size());
+        assertNull(resultado.nextCursor());
     }
 }